@@ -13,10 +13,13 @@ import dansplugins.factionsystem.factories.WarFactory;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.placeholders.PlaceholderAPI;
 import dansplugins.factionsystem.services.*;
+import dansplugins.factionsystem.utils.ClaimMapRenderer;
 import dansplugins.factionsystem.utils.Logger;
 import dansplugins.factionsystem.utils.PlayerTeleporter;
 import dansplugins.factionsystem.utils.RelationChecker;
 import dansplugins.factionsystem.utils.TerritoryOwnerNotifier;
+import dansplugins.factionsystem.utils.TimeSlicedExecutor;
+import dansplugins.factionsystem.utils.TimingWheel;
 import dansplugins.factionsystem.utils.extended.Messenger;
 import dansplugins.factionsystem.utils.extended.Scheduler;
 import org.bstats.bukkit.Metrics;
@@ -47,14 +50,17 @@ public class MedievalFactions extends PonderBukkitPlugin {
     private final TerritoryOwnerNotifier territoryOwnerNotifier = new TerritoryOwnerNotifier(configService.getLocaleService(), configService, actionBarService);
     private final MessageService messageService = new MessageService(this);
     private final PlayerService playerService = new PlayerService(configService, messageService);
-    private final Messenger messenger = new Messenger(configService.getLocaleService(), playerService, messageService, this, configService);
+    private final Messenger messenger = new Messenger(configService.getLocaleService(), playerService, messageService, this, configService, ephemeralData);
     private final PersistentData persistentData = new PersistentData(configService.getLocaleService(), configService, this, messenger, ephemeralData, logger, playerService, messageService);
     private final WarFactory warFactory = new WarFactory(persistentData);
     private final RelationChecker relationChecker = new RelationChecker(persistentData);
     private final GateService gateService = new GateService(persistentData, configService.getLocaleService(), ephemeralData, playerService, messageService);
     private final LockService lockService = new LockService(persistentData, configService.getLocaleService(), persistentData.getBlockChecker(), playerService, messageService, ephemeralData);
-    private final Scheduler scheduler = new Scheduler(logger, configService.getLocaleService(), this, persistentData, configService, playerTeleporter, playerService, messageService);
-    private final CommandService commandService = new CommandService(configService.getLocaleService(), this, configService, persistentData, ephemeralData, persistentData.getChunkDataAccessor(), persistentData.getDynmapIntegrator(), warFactory, logger, scheduler, messenger, relationChecker, playerService, messageService);
+    private final TimeSlicedExecutor timeSlicedExecutor = new TimeSlicedExecutor(this, configService, logger);
+    private final TimingWheel timingWheel = new TimingWheel(this, logger);
+    private final Scheduler scheduler = new Scheduler(logger, configService.getLocaleService(), this, persistentData, configService, playerTeleporter, playerService, messageService, timeSlicedExecutor, timingWheel);
+    private final ClaimMapRenderer claimMapRenderer = new ClaimMapRenderer(persistentData);
+    private final CommandService commandService = new CommandService(configService.getLocaleService(), this, configService, persistentData, ephemeralData, persistentData.getChunkDataAccessor(), persistentData.getDynmapIntegrator(), warFactory, logger, scheduler, messenger, relationChecker, playerService, messageService, timingWheel, claimMapRenderer);
 
     public ConfigService getConfigService() {
         return configService;
@@ -85,7 +91,10 @@ public class MedievalFactions extends PonderBukkitPlugin {
     @Override
     public void onDisable() {
         persistentData.getLocalStorageService().save();
+        persistentData.getLocalStorageService().shutdown();
+        persistentData.getDynmapIntegrator().shutdown();
         messageService.saveLanguage();
+        logger.shutdown();
     }
 
     /**
@@ -181,10 +190,13 @@ public class MedievalFactions extends PonderBukkitPlugin {
      * Calls the Scheduler to schedule tasks that have to repeatedly be executed.
      */
     private void scheduleRecurringTasks() {
+        scheduler.scheduleSnapshotPublishing();
         scheduler.schedulePowerIncrease();
         scheduler.schedulePowerDecrease();
         scheduler.scheduleAutosave();
         actionBarService.schedule(this);
+        timeSlicedExecutor.schedule();
+        timingWheel.schedule();
     }
 
     /**
@@ -201,10 +213,10 @@ public class MedievalFactions extends PonderBukkitPlugin {
                 new ChatHandler(persistentData, configService, ephemeralData, messenger),
                 new DamageHandler(logger, persistentData, ephemeralData, configService.getLocaleService(), configService, relationChecker),
                 new DeathHandler(configService, persistentData, configService.getLocaleService()),
-                new EffectHandler(ephemeralData, this, relationChecker),
-                new InteractionHandler(persistentData, persistentData.getInteractionAccessChecker(), configService.getLocaleService(), persistentData.getBlockChecker(), this, lockService, ephemeralData, gateService, playerService, messageService),
-                new JoinHandler(persistentData, configService.getLocaleService(), configService, logger, messenger, territoryOwnerNotifier),
-                new MoveHandler(persistentData, territoryOwnerNotifier, configService.getLocaleService(), this, persistentData.getDynmapIntegrator(), playerService),
+                new EffectHandler(ephemeralData, this, relationChecker, timingWheel),
+                new InteractionHandler(persistentData, persistentData.getInteractionAccessChecker(), configService.getLocaleService(), persistentData.getBlockChecker(), this, lockService, ephemeralData, gateService, playerService, messageService, timingWheel),
+                new JoinHandler(persistentData, ephemeralData, configService.getLocaleService(), configService, logger, messenger, territoryOwnerNotifier),
+                new MoveHandler(persistentData, territoryOwnerNotifier, timingWheel, ephemeralData, claimMapRenderer),
                 new QuitHandler(ephemeralData, persistentData, actionBarService),
                 new SpawnHandler(configService, persistentData)
         ));
@@ -227,9 +239,8 @@ public class MedievalFactions extends PonderBukkitPlugin {
     private void handleDynmapIntegration() {
         logger.debug("Handling dynmap integration...");
         if (DynmapIntegrator.hasDynmap()) {
-            logger.debug("Found dynmap! Scheduling claims update and updating claims.");
+            logger.debug("Found dynmap! Scheduling claims update.");
             persistentData.getDynmapIntegrator().scheduleClaimsUpdate(600); // Check once every 30 seconds for updates.
-            persistentData.getDynmapIntegrator().updateClaims();
         }
         else {
             logger.debug("Dynmap not found! Claims update will not be scheduled.");
@@ -69,12 +69,12 @@ public class AllyCommand extends SubCommand {
         }
 
         // no need to allow them to ally if they're already allies
-        if (faction.isAlly(otherFaction.getName())) {
+        if (faction.isAlly(otherFaction.getId())) {
             playerService.sendMessage(player, "&c" + getText("FactionAlreadyAlly"), "FactionAlreadyAlly", false);
             return;
         }
 
-        if (faction.isEnemy(otherFaction.getName())) {
+        if (faction.isEnemy(otherFaction.getId())) {
             playerService.sendMessage(player, "&cThat faction is currently at war with your faction.", "FactionIsEnemy", false);
             return;
         }
@@ -106,8 +106,8 @@ public class AllyCommand extends SubCommand {
         // check if both factions are have requested an alliance
         if (faction.isRequestedAlly(otherFaction.getName()) && otherFaction.isRequestedAlly(faction.getName())) {
             // ally them
-            faction.addAlly(otherFaction.getName());
-            otherFaction.addAlly(faction.getName());
+            faction.addAlly(otherFaction.getId());
+            otherFaction.addAlly(faction.getId());
             // message player's faction
             messageFaction(faction, translate("&a" + getText("AlertNowAlliedWith", otherFaction.getName())), Objects.requireNonNull(messageService.getLanguage().getString("AlertNowAlliedWith")).replace("#faction#", otherFaction.getName()));
 
@@ -64,15 +64,15 @@ public class BreakAllianceCommand extends SubCommand {
             return;
         }
 
-        if (!faction.isAlly(otherFaction.getName())) {
+        if (!faction.isAlly(otherFaction.getId())) {
             playerService.sendMessage(player, "&c" + getText("AlertNotAllied", otherFaction.getName()),
                     Objects.requireNonNull(messageService.getLanguage().getString("AlertNotAllied"))
                             .replace("#faction#", otherFaction.getName()), true);
             return;
         }
 
-        faction.removeAlly(otherFaction.getName());
-        otherFaction.removeAlly(faction.getName());
+        faction.removeAlly(otherFaction.getId());
+        otherFaction.removeAlly(faction.getId());
         messageFaction(faction, translate("&c" + getText("AllianceBrokenWith", otherFaction.getName()))
                 , Objects.requireNonNull(messageService.getLanguage().getString("AllianceBrokenWith"))
                         .replace("#faction#", otherFaction.getName()));
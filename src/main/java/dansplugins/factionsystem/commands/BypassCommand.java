@@ -7,6 +7,7 @@ package dansplugins.factionsystem.commands;
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
@@ -42,15 +43,12 @@ public class BypassCommand extends SubCommand {
             return;
         }
 
-        final boolean contains = ephemeralData.getAdminsBypassingProtections().contains(player.getUniqueId());
+        final PlayerSession session = ephemeralData.getSession(player.getUniqueId());
+        final boolean contains = session.isBypassingProtections();
 
         final String path = (contains ? "NoLonger" : "Now") + "BypassingProtections";
 
-        if (contains) {
-            ephemeralData.getAdminsBypassingProtections().remove(player.getUniqueId());
-        } else {
-            ephemeralData.getAdminsBypassingProtections().add(player.getUniqueId());
-        }
+        session.setBypassingProtections(!contains);
         playerService.sendMessage(player, "&a" + getText(path), path, false);
     }
 
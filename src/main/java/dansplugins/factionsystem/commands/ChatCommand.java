@@ -7,6 +7,7 @@ package dansplugins.factionsystem.commands;
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
@@ -40,15 +41,12 @@ public class ChatCommand extends SubCommand {
             return;
         }
 
-        final boolean contains = ephemeralData.getPlayersInFactionChat().contains(player.getUniqueId());
+        final PlayerSession session = ephemeralData.getSession(player.getUniqueId());
+        final boolean contains = session.isInFactionChat();
 
         final String path = (contains ? "NoLonger" : "NowSpeaking") + "InFactionChat";
 
-        if (contains) {
-            ephemeralData.getPlayersInFactionChat().remove(player.getUniqueId());
-        } else {
-            ephemeralData.getPlayersInFactionChat().add(player.getUniqueId());
-        }
+        session.setInFactionChat(!contains);
         playerService.sendMessage(player, "&c" + getText(path), path, false);
     }
 
@@ -7,6 +7,7 @@ package dansplugins.factionsystem.commands;
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
@@ -40,20 +41,21 @@ public class CheckAccessCommand extends SubCommand {
             return;
         }
 
-        boolean cancel = false, contains = ephemeralData.getPlayersCheckingAccess().contains(player.getUniqueId());
+        final PlayerSession session = ephemeralData.getSession(player.getUniqueId());
+        boolean cancel = false, contains = session.isCheckingAccess();
 
         if (args.length >= 1) {
             cancel = args[0].equalsIgnoreCase("cancel");
         }
 
         if (cancel && contains) {
-            ephemeralData.getPlayersCheckingAccess().remove(player.getUniqueId());
+            session.setCheckingAccess(false);
             playerService.sendMessage(player, "&c" + getText("Cancelled"), "Cancelled", false);
         } else {
             if (contains) {
                 playerService.sendMessage(player, "&c" + getText("AlreadyEnteredCheckAccess"), "AlreadyEnteredCheckAccess", false);
             } else {
-                ephemeralData.getPlayersCheckingAccess().add(player.getUniqueId());
+                session.setCheckingAccess(true);
                 playerService.sendMessage(player, "&a" + getText("RightClickCheckAccess"), "RightClickCheckAccess", false);
             }
         }
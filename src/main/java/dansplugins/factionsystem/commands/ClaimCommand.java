@@ -54,7 +54,6 @@ public class ClaimCommand extends SubCommand {
         } else {
             chunkDataAccessor.claimChunkAtLocation(player, player.getLocation(), faction);
         }
-        dynmapIntegrator.updateClaims();
     }
 
     /**
@@ -91,10 +91,10 @@ public class ConfigCommand extends SubCommand {
             if (args.length < 3) {
                 sender.sendMessage(translate("&c" + getText("UsageConfigSet")));
             } else {
-                configService.setConfigOption(args[1], args[2], sender);
+                persistentData.reconfigurePowerAccrual(() -> configService.setConfigOption(args[1], args[2], sender));
             }
         } else if (reload) {
-            medievalFactions.reloadConfig();
+            persistentData.reconfigurePowerAccrual(medievalFactions::reloadConfig);
             messageService.reloadLanguage();
             sender.sendMessage(ChatColor.GREEN + "Config reloaded.");
         } else {
@@ -83,7 +83,7 @@ public class CreateCommand extends SubCommand {
             return;
         }
 
-        this.faction = new Faction(factionName, player.getUniqueId(), configService, localeService, dynmapIntegrator, logger, persistentData, medievalFactions, playerService);
+        this.faction = new Faction(factionName, player.getUniqueId(), configService, localeService, logger, persistentData, medievalFactions, playerService);
 
         this.faction.addMember(player.getUniqueId());
 
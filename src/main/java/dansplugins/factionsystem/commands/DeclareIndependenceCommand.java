@@ -6,6 +6,7 @@ package dansplugins.factionsystem.commands;
 
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
+import dansplugins.factionsystem.data.FactionRegistry;
 import dansplugins.factionsystem.data.PersistentData;
 import dansplugins.factionsystem.events.FactionWarStartEvent;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
@@ -55,8 +56,8 @@ public class DeclareIndependenceCommand extends SubCommand {
         }
 
         // break vassal agreement.
-        liege.removeVassal(this.faction.getName());
-        this.faction.setLiege("none");
+        liege.removeVassal(this.faction.getId());
+        this.faction.setLiegeId(FactionRegistry.NO_FACTION);
 
         if (!configService.getBoolean("allowNeutrality") || (!((boolean) faction.getFlags().getFlag("neutral")) && !((boolean) liege.getFlags().getFlag("neutral")))) {
             // make enemies if (1) neutrality is disabled or (2) declaring faction is not neutral and liege is not neutral
@@ -64,13 +65,13 @@ public class DeclareIndependenceCommand extends SubCommand {
             Bukkit.getPluginManager().callEvent(warStartEvent);
 
             if (!warStartEvent.isCancelled()) {
-                this.faction.addEnemy(liege.getName());
-                liege.addEnemy(this.faction.getName());
+                this.faction.addEnemy(liege.getId());
+                liege.addEnemy(this.faction.getId());
 
                 // break alliance if allied
-                if (this.faction.isAlly(liege.getName())) {
-                    this.faction.removeAlly(liege.getName());
-                    liege.removeAlly(faction.getName());
+                if (this.faction.isAlly(liege.getId())) {
+                    this.faction.removeAlly(liege.getId());
+                    liege.removeAlly(faction.getId());
                 }
             }
         }
@@ -80,7 +80,7 @@ public class DeclareWarCommand extends SubCommand {
             return;
         }
 
-        if (faction.isEnemy(opponent.getName())) {
+        if (faction.isEnemy(opponent.getId())) {
             playerService.sendMessage(player, "&c" + getText("CannotDeclareWarOnYourself")
                     , Objects.requireNonNull(messageService.getLanguage().getString("AlertAlreadyAtWarWith")).replace("#faction#", opponent.getName()), true);
 
@@ -88,13 +88,13 @@ public class DeclareWarCommand extends SubCommand {
         }
 
         if (faction.hasLiege() && opponent.hasLiege()) {
-            if (faction.isVassal(opponent.getName())) {
+            if (faction.isVassal(opponent.getId())) {
                 playerService.sendMessage(player, "&c" + getText("CannotDeclareWarOnVassal")
                         , "CannotDeclareWarOnVassal", false);
                 return;
             }
 
-            if (!faction.getLiege().equalsIgnoreCase(opponent.getLiege())) {
+            if (faction.getLiegeId() != opponent.getLiegeId()) {
                 final Faction enemyLiege = getFaction(opponent.getLiege());
                 if (enemyLiege.calculateCumulativePowerLevelWithoutVassalContribution() <
                         enemyLiege.getMaximumCumulativePowerLevel() / 2) {
@@ -104,13 +104,13 @@ public class DeclareWarCommand extends SubCommand {
             }
         }
 
-        if (faction.isLiege(opponent.getName())) {
+        if (faction.isLiege(opponent.getId())) {
             playerService.sendMessage(player, "&c" + getText("CannotDeclareWarOnLiege")
                     , "CannotDeclareWarOnLiege", false);
             return;
         }
 
-        if (faction.isAlly(opponent.getName())) {
+        if (faction.isAlly(opponent.getId())) {
             playerService.sendMessage(player, "&c" + getText("CannotDeclareWarOnAlly")
                     , "CannotDeclareWarOnAlly", false);
             return;
@@ -133,8 +133,8 @@ public class DeclareWarCommand extends SubCommand {
         Bukkit.getPluginManager().callEvent(warStartEvent);
         if (!warStartEvent.isCancelled()) {
             // Make enemies.
-            faction.addEnemy(opponent.getName());
-            opponent.addEnemy(faction.getName());
+            faction.addEnemy(opponent.getId());
+            opponent.addEnemy(faction.getId());
             warFactory.createWar(faction, opponent);
             messageServer("&c" + getText("HasDeclaredWarAgainst", faction.getName(), opponent.getName()), Objects.requireNonNull(messageService.getLanguage().getString("HasDeclaredWarAgainst"))
                     .replace("#f_a#", faction.getName())
@@ -89,22 +89,18 @@ public class DisbandCommand extends SubCommand {
                             .replace("#faction#", String.join(" ", args)), true);
             return;
         }
-        final int factionIndex = persistentData.getFactionIndexOf(disband);
         if (self) {
             playerService.sendMessage(sender, "&c" + getText("FactionSuccessfullyDisbanded")
                     , "FactionSuccessfullyDisbanded", false);
-            ephemeralData.getPlayersInFactionChat().remove(((Player) sender).getUniqueId());
+            ephemeralData.removeFromFactionChat(((Player) sender).getUniqueId());
         } else {
             playerService.sendMessage(sender, "&c" + getText("SuccessfulDisbandment", disband.getName())
                     , Objects.requireNonNull(messageService.getLanguage().getString("SuccessfulDisbandment")).replace("#faction#", disband.getName()), true);
         }
-        removeFaction(factionIndex, self ? ((OfflinePlayer) sender) : null);
+        removeFaction(disband, self ? ((OfflinePlayer) sender) : null);
     }
 
-    private void removeFaction(int i, OfflinePlayer disbandingPlayer) {
-
-        Faction disbandingThisFaction = persistentData.getFactionByIndex(i);
-        String nameOfFactionToRemove = disbandingThisFaction.getName();
+    private void removeFaction(Faction disbandingThisFaction, OfflinePlayer disbandingPlayer) {
         FactionDisbandEvent event = new FactionDisbandEvent(
                 disbandingThisFaction,
                 disbandingPlayer
@@ -115,15 +111,6 @@ public class DisbandCommand extends SubCommand {
             return;
         }
 
-        // remove claimed land objects associated with this faction
-        persistentData.getChunkDataAccessor().removeAllClaimedChunks(nameOfFactionToRemove);
-        dynmapIntegrator.updateClaims();
-
-        // remove locks associated with this faction
-        persistentData.removeAllLocks(persistentData.getFactionByIndex(i).getName());
-
-        persistentData.removePoliticalTiesToFaction(nameOfFactionToRemove);
-
-        persistentData.removeFactionByIndex(i);
+        persistentData.removeFaction(disbandingThisFaction);
     }
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
 import dansplugins.factionsystem.services.MessageService;
 import dansplugins.factionsystem.services.PlayerService;
+import dansplugins.factionsystem.utils.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -26,10 +27,12 @@ import java.util.Objects;
  */
 public class DuelCommand extends SubCommand {
     private final MedievalFactions medievalFactions;
+    private final TimingWheel timingWheel;
 
-    public DuelCommand(LocaleService localeService, PersistentData persistentData, EphemeralData ephemeralData, PersistentData.ChunkDataAccessor chunkDataAccessor, DynmapIntegrator dynmapIntegrator, ConfigService configService, MedievalFactions medievalFactions, PlayerService playerService, MessageService messageService) {
+    public DuelCommand(LocaleService localeService, PersistentData persistentData, EphemeralData ephemeralData, PersistentData.ChunkDataAccessor chunkDataAccessor, DynmapIntegrator dynmapIntegrator, ConfigService configService, MedievalFactions medievalFactions, TimingWheel timingWheel, PlayerService playerService, MessageService messageService) {
         super(new String[]{"dl", "duel", LOCALE_PREFIX + "CmdDuel"}, true, persistentData, localeService, ephemeralData, configService, playerService, messageService, chunkDataAccessor, dynmapIntegrator);
         this.medievalFactions = medievalFactions;
+        this.timingWheel = timingWheel;
     }
 
     /**
@@ -169,6 +172,6 @@ public class DuelCommand extends SubCommand {
         playerService.sendMessage(target, "&a" + getText("AlertChallengedToDuelPlusHowTo", player.getName()),
                 Objects.requireNonNull(messageService.getLanguage().getString("AlertChallengedToDuelPlusHowTo"))
                         .replace("#name#", player.getName()), true);
-        ephemeralData.getDuelingPlayers().add(new Duel(medievalFactions, ephemeralData, player, target, limit));
+        ephemeralData.getDuelingPlayers().add(new Duel(medievalFactions, ephemeralData, timingWheel, player, target, limit));
     }
 }
\ No newline at end of file
@@ -7,7 +7,9 @@ package dansplugins.factionsystem.commands;
 import dansplugins.factionsystem.MedievalFactions;
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
+import dansplugins.factionsystem.data.FactionRegistry;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.events.*;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.objects.domain.Faction;
@@ -142,8 +144,8 @@ public class ForceCommand extends SubCommand {
         FactionWarEndEvent warEndEvent = new FactionWarEndEvent(former, latter);
         Bukkit.getPluginManager().callEvent(warEndEvent);
         if (!warEndEvent.isCancelled()) {
-            if (former.isEnemy(latter.getName())) former.removeEnemy(latter.getName());
-            if (latter.isEnemy(former.getName())) latter.removeEnemy(former.getName());
+            if (former.isEnemy(latter.getId())) former.removeEnemy(latter.getId());
+            if (latter.isEnemy(former.getId())) latter.removeEnemy(former.getId());
 
             // announce peace to all players on server.
             messageServer("&a" + getText("AlertNowAtPeaceWith", former.getName(), latter.getName()),
@@ -267,7 +269,7 @@ public class ForceCommand extends SubCommand {
         if (faction.isOfficer(targetUUID)) {
             faction.removeOfficer(targetUUID); // Remove Officer (if one)
         }
-        ephemeralData.getPlayersInFactionChat().remove(targetUUID);
+        ephemeralData.removeFromFactionChat(targetUUID);
         faction.removeMember(targetUUID);
         messageFaction(faction, translate("&c" + getText("HasBeenKickedFrom", target.getName(), faction.getName())), "");
         if (target.isOnline() && target.getPlayer() != null) {
@@ -322,8 +324,8 @@ public class ForceCommand extends SubCommand {
 
         long changes = persistentData.removeLiegeAndVassalReferencesToFaction(factionName);
 
-        if (!faction.getLiege().equalsIgnoreCase("none")) {
-            faction.setLiege("none");
+        if (faction.hasLiege()) {
+            faction.setLiegeId(FactionRegistry.NO_FACTION);
             changes++;
         }
         if (faction.getNumVassals() != 0) {
@@ -396,9 +398,9 @@ public class ForceCommand extends SubCommand {
         final Faction vassal = getFaction(doubleQuoteArgs.get(1));
         if (liege != null && vassal != null) {
             // remove vassal from liege
-            if (liege.isVassal(vassal.getName())) liege.removeVassal(vassal.getName());
+            if (liege.isVassal(vassal.getId())) liege.removeVassal(vassal.getId());
             // set liege to "none" for vassal (if faction exists)
-            if (vassal.isLiege(liege.getName())) vassal.setLiege("none");
+            if (vassal.isLiege(liege.getId())) vassal.setLiegeId(FactionRegistry.NO_FACTION);
         }
         sender.sendMessage(translate("&a" + getText("Done")));
     }
@@ -441,8 +443,6 @@ public class ForceCommand extends SubCommand {
         faction.setName(newName);
         sender.sendMessage(translate("&a" + getText("FactionNameChanged")));
 
-        persistentData.updateFactionReferencesDueToNameChange(oldName, newName);
-
         // Prefix (if it was unset)
         if (faction.getPrefix().equalsIgnoreCase(oldName)) faction.setPrefix(newName);
 
@@ -499,23 +499,16 @@ public class ForceCommand extends SubCommand {
             return;
         }
 
+        final PlayerSession session = ephemeralData.getSession(player.getUniqueId());
         if (args.length > 1 && args[1].equalsIgnoreCase("cancel")) {
-            ephemeralData.getUnlockingPlayers().remove(player.getUniqueId());
-            ephemeralData.getForcefullyUnlockingPlayers().remove(player.getUniqueId());
+            session.setUnlocking(false);
+            session.setForcefullyUnlocking(false);
             player.sendMessage(translate("&c" + getText("AlertUnlockingCancelled")));
             return;
         }
-        if (!ephemeralData.getUnlockingPlayers().contains(player.getUniqueId())) {
-            // add player to playersAboutToLockSomething list
-            ephemeralData.getUnlockingPlayers().add(player.getUniqueId());
-        }
-
-        if (!ephemeralData.getForcefullyUnlockingPlayers().contains(player.getUniqueId())) {
-            // add player to playersAboutToLockSomething list
-            ephemeralData.getForcefullyUnlockingPlayers().add(player.getUniqueId());
-        }
-
-        ephemeralData.getLockingPlayers().remove(player.getUniqueId()); // Remove from locking
+        session.setUnlocking(true);
+        session.setForcefullyUnlocking(true);
+        session.setLocking(false); // Remove from locking
 
         // inform them they need to right-click the block that they want to lock or type /mf lock cancel to cancel it
         player.sendMessage(translate("&a" + getText("RightClickForceUnlock")));
@@ -551,7 +544,7 @@ public class ForceCommand extends SubCommand {
             return;
         }
 
-        this.faction = new Faction(configService, localeService, dynmapIntegrator, logger, persistentData, medievalFactions, playerService, newFactionName);
+        this.faction = new Faction(configService, localeService, logger, persistentData, medievalFactions, playerService, newFactionName);
         FactionCreateEvent createEvent = new FactionCreateEvent(this.faction, player);
         Bukkit.getPluginManager().callEvent(createEvent);
         if (!createEvent.isCancelled()) {
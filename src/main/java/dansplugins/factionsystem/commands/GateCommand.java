@@ -8,6 +8,7 @@ import dansplugins.factionsystem.MedievalFactions;
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.objects.domain.Faction;
 import dansplugins.factionsystem.objects.domain.Gate;
@@ -60,14 +61,16 @@ public class GateCommand extends SubCommand {
         }
         if (safeEquals(args[0], "cancel", playerService.decideWhichMessageToUse(getText("CmdGateCancel"), messageService.getLanguage().getString("Alias.CmdGateCancel")))) {
             // Cancel Logic
-            if (ephemeralData.getCreatingGatePlayers().remove(player.getUniqueId()) != null) {
+            PlayerSession session = ephemeralData.getSession(player.getUniqueId());
+            if (session.isCreatingGate()) {
+                session.setGateBeingCreated(null);
                 playerService.sendMessage(player, "&c" + getText("CreatingGateCancelled"), "CreatingGateCancelled", false);
                 return;
             }
         }
         if (safeEquals(args[0], "create", playerService.decideWhichMessageToUse(getText("CmdGateCreate"), messageService.getLanguage().getString("Alias.CmdGateCreate")))) {
             // Create Logic
-            if (ephemeralData.getCreatingGatePlayers().containsKey(player.getUniqueId())) {
+            if (ephemeralData.getSession(player.getUniqueId()).isCreatingGate()) {
                 playerService.sendMessage(player, "&c" + getText("AlertAlreadyCreatingGate"), "AlertAlreadyCreatingGate", false);
                 return;
             }
@@ -166,6 +169,9 @@ public class GateCommand extends SubCommand {
     }
 
     private void startCreatingGate(Player player, String name) {
-        ephemeralData.getCreatingGatePlayers().putIfAbsent(player.getUniqueId(), new Gate(name, medievalFactions, configService));
+        PlayerSession session = ephemeralData.getSession(player.getUniqueId());
+        if (!session.isCreatingGate()) {
+            session.setGateBeingCreated(new Gate(name, medievalFactions, configService));
+        }
     }
 }
\ No newline at end of file
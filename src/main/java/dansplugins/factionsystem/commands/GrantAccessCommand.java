@@ -48,7 +48,7 @@ public class GrantAccessCommand extends SubCommand {
             playerService.sendMessage(player, "&c" + getText("CommandCancelled"), "CommandCancelled", false);
             return;
         }
-        if (ephemeralData.getPlayersGrantingAccess().containsKey(player.getUniqueId())) {
+        if (ephemeralData.getSession(player.getUniqueId()).isGrantingAccess()) {
             playerService.sendMessage(player, "&c" + getText("AlertAlreadyGrantingAccess")
                     , "AlertAlreadyGrantingAccess", false);
             return;
@@ -65,7 +65,7 @@ public class GrantAccessCommand extends SubCommand {
                     , "CannotGrantAccessToSelf", false);
             return;
         }
-        ephemeralData.getPlayersGrantingAccess().put(player.getUniqueId(), targetUUID);
+        ephemeralData.getSession(player.getUniqueId()).setGrantingAccessTo(targetUUID);
         playerService.sendMessage(player, "&a" + getText("RightClickGrantAccess", args[0])
                 , Objects.requireNonNull(messageService.getLanguage().getString("RightClickGrantAccess")).replace("#name#", args[0]), true);
     }
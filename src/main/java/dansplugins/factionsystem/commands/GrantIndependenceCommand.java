@@ -6,6 +6,7 @@ package dansplugins.factionsystem.commands;
 
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
+import dansplugins.factionsystem.data.FactionRegistry;
 import dansplugins.factionsystem.data.PersistentData;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.objects.domain.Faction;
@@ -50,12 +51,12 @@ public class GrantIndependenceCommand extends SubCommand {
                     , true);
             return;
         }
-        if (!target.isLiege(this.faction.getName())) {
+        if (!target.isLiege(this.faction.getId())) {
             player.sendMessage(translate("&c" + getText("FactionIsNotVassal")));
             return;
         }
-        target.setLiege("none");
-        this.faction.removeVassal(target.getName());
+        target.setLiegeId(FactionRegistry.NO_FACTION);
+        this.faction.removeVassal(target.getId());
         // inform all players in that faction that they are now independent
         messageFaction(target, translate("&a" + getText("AlertGrantedIndependence", faction.getName())),
                 Objects.requireNonNull(messageService.getLanguage().getString("AlertGrantedIndependence"))
@@ -53,12 +53,12 @@ public class HomeCommand extends SubCommand {
             return;
         }
         ClaimedChunk chunk = chunkDataAccessor.getClaimedChunk(home_chunk);
-        if (chunk == null || chunk.getHolder() == null) {
+        if (chunk == null || persistentData.getFaction(chunk.getHolderId()) == null) {
             playerService.sendMessage(player, "&c" + getText("HomeIsInUnclaimedChunk")
                     , "HomeIsInUnclaimedChunk", false);
             return;
         }
-        if (!chunk.getHolder().equalsIgnoreCase(faction.getName())) {
+        if (chunk.getHolderId() != faction.getId()) {
             playerService.sendMessage(player, "&c" + getText("HomeClaimedByAnotherFaction")
                     , "HomeClaimedByAnotherFaction", false);
             return;
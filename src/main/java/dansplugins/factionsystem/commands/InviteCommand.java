@@ -4,7 +4,6 @@
  */
 package dansplugins.factionsystem.commands;
 
-import dansplugins.factionsystem.MedievalFactions;
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
@@ -13,6 +12,7 @@ import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
 import dansplugins.factionsystem.services.MessageService;
 import dansplugins.factionsystem.services.PlayerService;
+import dansplugins.factionsystem.utils.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
@@ -23,19 +23,17 @@ import preponderous.ponder.minecraft.bukkit.tools.UUIDChecker;
 import java.util.Objects;
 import java.util.UUID;
 
-import static org.bukkit.Bukkit.getServer;
-
 /**
  * @author Callum Johnson
  */
 public class InviteCommand extends SubCommand {
-    private final MedievalFactions medievalFactions;
+    private final TimingWheel timingWheel;
 
-    public InviteCommand(LocaleService localeService, PersistentData persistentData, EphemeralData ephemeralData, PersistentData.ChunkDataAccessor chunkDataAccessor, DynmapIntegrator dynmapIntegrator, ConfigService configService, MedievalFactions medievalFactions, PlayerService playerService, MessageService messageService) {
+    public InviteCommand(LocaleService localeService, PersistentData persistentData, EphemeralData ephemeralData, PersistentData.ChunkDataAccessor chunkDataAccessor, DynmapIntegrator dynmapIntegrator, ConfigService configService, TimingWheel timingWheel, PlayerService playerService, MessageService messageService) {
         super(new String[]{
                 "invite", LOCALE_PREFIX + "CmdInvite"
         }, true, true, persistentData, localeService, ephemeralData, configService, playerService, messageService, chunkDataAccessor, dynmapIntegrator);
-        this.medievalFactions = medievalFactions;
+        this.timingWheel = timingWheel;
     }
 
     /**
@@ -99,7 +97,7 @@ public class InviteCommand extends SubCommand {
         final long seconds = 1728000L;
         // make invitation expire in 24 hours, if server restarts it also expires since invites aren't saved
         final OfflinePlayer tmp = target;
-        getServer().getScheduler().runTaskLater(medievalFactions, () -> {
+        timingWheel.runLater(seconds, () -> {
             faction.uninvite(playerUUID);
             if (tmp.isOnline() && tmp.getPlayer() != null) {
                 playerService.sendMessage(player,
@@ -109,7 +107,7 @@ public class InviteCommand extends SubCommand {
                         true
                 );
             }
-        }, seconds);
+        });
     }
 
     /**
@@ -61,11 +61,11 @@ public class InvokeCommand extends SubCommand {
 
             return;
         }
-        if (!this.faction.isAlly(invokee.getName()) && !this.faction.isVassal(invokee.getName())) {
+        if (!this.faction.isAlly(invokee.getId()) && !this.faction.isVassal(invokee.getId())) {
             playerService.sendMessage(player, "&c" + getText("NotAnAllyOrVassal", invokee.getName()), Objects.requireNonNull(messageService.getLanguage().getString("NotAnAllyOrVassal")).replace("#name#", invokee.getName()), true);
             return;
         }
-        if (!this.faction.isEnemy(warringFaction.getName())) {
+        if (!this.faction.isEnemy(warringFaction.getId())) {
             playerService.sendMessage(player, "&c" + getText("NotAtWarWith", warringFaction.getName())
                     , messageService.getLanguage().getString("NotAtWarWith").replace("#name#", warringFaction.getName())
                     , true);
@@ -79,8 +79,8 @@ public class InvokeCommand extends SubCommand {
         FactionWarStartEvent warStartEvent = new FactionWarStartEvent(invokee, warringFaction, player);
         Bukkit.getPluginManager().callEvent(warStartEvent);
         if (!warStartEvent.isCancelled()) {
-            invokee.addEnemy(warringFaction.getName());
-            warringFaction.addEnemy(invokee.getName());
+            invokee.addEnemy(warringFaction.getId());
+            warringFaction.addEnemy(invokee.getId());
 
             messageFaction(invokee, // Message ally faction
                     "&c" + getText("AlertCalledToWar1", faction.getName(), warringFaction.getName()), Objects.requireNonNull(messageService.getLanguage().getString("AlertCalledToWar1")).replace("#f1#", faction.getName()).replace("#f2#", warringFaction.getName()));
@@ -85,7 +85,7 @@ public class KickCommand extends SubCommand {
         if (faction.isOfficer(targetUUID)) {
             faction.removeOfficer(targetUUID); // Remove Officer (if one)
         }
-        ephemeralData.getPlayersInFactionChat().remove(targetUUID);
+        ephemeralData.removeFromFactionChat(targetUUID);
         faction.removeMember(targetUUID);
         messageFaction(faction, "&c" + getText("HasBeenKickedFrom", target.getName(), faction.getName()),
                 Objects.requireNonNull(messageService.getLanguage().getString("HasBeenKickedFrom"))
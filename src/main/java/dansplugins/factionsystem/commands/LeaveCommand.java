@@ -57,7 +57,7 @@ public class LeaveCommand extends SubCommand {
         }
 
         if (faction.isOfficer(player.getUniqueId())) faction.removeOfficer(player.getUniqueId()); // Remove Officer.
-        ephemeralData.getPlayersInFactionChat().remove(player.getUniqueId()); // Remove from Faction Chat.
+        ephemeralData.removeFromFactionChat(player.getUniqueId()); // Remove from Faction Chat.
         faction.removeMember(player.getUniqueId());
         playerService.sendMessage(player, "&b" + getText("AlertLeftFaction")
                 , "AlertLeftFaction", false);
@@ -7,6 +7,7 @@ package dansplugins.factionsystem.commands;
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
@@ -45,15 +46,16 @@ public class LockCommand extends SubCommand {
         if (!checkPermissions(player, permission)) {
             return;
         }
+        final PlayerSession session = ephemeralData.getSession(player.getUniqueId());
         if (args.length >= 1 && safeEquals(args[0], "cancel")) {
-            if (ephemeralData.getLockingPlayers().remove(player.getUniqueId())) { // Remove them
+            if (session.setLocking(false)) { // Remove them
                 playerService.sendMessage(player, "&c" + getText("LockingCancelled"),
                         "LockingCancelled", false);
                 return;
             }
         }
-        ephemeralData.getLockingPlayers().add(player.getUniqueId());
-        ephemeralData.getUnlockingPlayers().remove(player.getUniqueId());
+        session.setLocking(true);
+        session.setUnlocking(false);
         playerService.sendMessage(player, "&a" + getText("RightClickLock")
                 , "RightClickLock", false);
     }
@@ -65,7 +65,7 @@ public class MakePeaceCommand extends SubCommand {
                     , "AlertAlreadyRequestedPeace", false);
             return;
         }
-        if (!faction.isEnemy(target.getName())) {
+        if (!faction.isEnemy(target.getId())) {
             playerService.sendMessage(player, "&c" + getText("FactionNotEnemy")
                     , "FactionNotEnemy", false);
             return;
@@ -89,8 +89,8 @@ public class MakePeaceCommand extends SubCommand {
                 target.removeRequestedTruce(faction.getName());
 
                 // make peace between factions
-                faction.removeEnemy(target.getName());
-                target.removeEnemy(faction.getName());
+                faction.removeEnemy(target.getId());
+                target.removeEnemy(faction.getId());
 
                 // TODO: set active flag in war to false
 
@@ -108,7 +108,7 @@ public class MakePeaceCommand extends SubCommand {
                 faction.removeEnemy(vassalName);
 
                 Faction vassal = getFaction(vassalName);
-                vassal.removeEnemy(faction.getName());
+                vassal.removeEnemy(faction.getId());
             }
         }
     }
@@ -80,8 +80,6 @@ public class RenameCommand extends SubCommand {
         playerService.sendMessage(player, "&a" + getText("FactionNameChanged")
                 , "FactionNameChanged", false);
 
-        persistentData.updateFactionReferencesDueToNameChange(oldName, newName);
-
         // Prefix (if it was unset)
         if (faction.getPrefix().equalsIgnoreCase(oldName)) faction.setPrefix(newName);
 
@@ -47,11 +47,11 @@ public class RevokeAccessCommand extends SubCommand {
             return;
         }
         if (args[0].equalsIgnoreCase("cancel")) {
-            ephemeralData.getPlayersRevokingAccess().remove(player.getUniqueId());
+            ephemeralData.getSession(player.getUniqueId()).setRevokingAccessFrom(null);
             playerService.sendMessage(player, "&c" + getText("Cancelled"), "Cancelled", false);
             return;
         }
-        if (ephemeralData.getPlayersRevokingAccess().containsKey(player.getUniqueId())) {
+        if (ephemeralData.getSession(player.getUniqueId()).isRevokingAccess()) {
             playerService.sendMessage(player, "&c" + getText("AlreadyEnteredRevokeAccess")
                     , "AlreadyEnteredRevokeAccess", false);
             return;
@@ -67,9 +67,7 @@ public class RevokeAccessCommand extends SubCommand {
                     , "CannotRevokeAccessFromSelf", false);
             return;
         }
-        ephemeralData.getPlayersRevokingAccess().put(
-                player.getUniqueId(), targetUUID
-        );
+        ephemeralData.getSession(player.getUniqueId()).setRevokingAccessFrom(targetUUID);
         playerService.sendMessage(player, "&a" + getText("RightClickRevokeAccess")
                 , "RightClickRevokeAccess", false);
     }
@@ -44,7 +44,7 @@ public class SetHomeCommand extends SubCommand {
             return;
         }
         ClaimedChunk chunk = chunkDataAccessor.getClaimedChunk(player.getLocation().getChunk());
-        if (chunk == null || !chunk.getHolder().equalsIgnoreCase(faction.getName())) {
+        if (chunk == null || chunk.getHolderId() != faction.getId()) {
             playerService.sendMessage(player, "&c" + getText("CannotSetFactionHomeInWilderness"),
                     "CannotSetFactionHomeInWilderness", false);
             return;
@@ -57,11 +57,11 @@ public class SwearFealtyCommand extends SubCommand {
             return;
         }
         // set vassal
-        target.addVassal(faction.getName());
+        target.addVassal(faction.getId());
         target.removeAttemptedVassalization(faction.getName());
 
         // set liege
-        faction.setLiege(target.getName());
+        faction.setLiegeId(target.getId());
 
         // inform target faction that they have a new vassal
         messageFaction(target, translate("&a" + getText("AlertFactionHasNewVassal", faction.getName()))
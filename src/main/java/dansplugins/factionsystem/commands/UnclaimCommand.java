@@ -15,8 +15,6 @@ import dansplugins.factionsystem.services.PlayerService;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.util.Objects;
-
 /**
  * @author Callum Johnson
  */
@@ -39,7 +37,7 @@ public class UnclaimCommand extends SubCommand {
     public void execute(Player player, String[] args, String key) {
         final String permission = "mf.unclaim";
         if (!(checkPermissions(player, permission))) return;
-        final boolean isPlayerBypassing = ephemeralData.getAdminsBypassingProtections().contains(player.getUniqueId());
+        final boolean isPlayerBypassing = ephemeralData.getSession(player.getUniqueId()).isBypassingProtections();
         if ((boolean) faction.getFlags().getFlag("mustBeOfficerToManageLand")) {
             // officer or owner rank required
             if (!faction.isOfficer(player.getUniqueId()) && !faction.isOwner(player.getUniqueId()) && !isPlayerBypassing) {
@@ -50,7 +48,6 @@ public class UnclaimCommand extends SubCommand {
         }
         if (args.length == 0) {
             chunkDataAccessor.removeChunkAtPlayerLocation(player, faction);
-            dynmapIntegrator.updateClaims();
             playerService.sendMessage(player, "&aUnclaimed your current claim."
                     , "UnClaimed", false);
             return;
@@ -60,9 +57,6 @@ public class UnclaimCommand extends SubCommand {
             radius = 1;
         }
         chunkDataAccessor.radiusUnclaimAtLocation(radius, player, faction);
-        playerService.sendMessage(player, "Unclaimed radius of " + radius + " claims around you!"
-                , Objects.requireNonNull(messageService.getLanguage().getString("UnClaimedRadius"))
-                        .replace("#number#", String.valueOf(radius)), true);
     }
 
     /**
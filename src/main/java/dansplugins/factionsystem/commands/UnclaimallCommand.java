@@ -87,7 +87,6 @@ public class UnclaimallCommand extends SubCommand {
 
         // remove claimed chunks
         chunkDataAccessor.removeAllClaimedChunks(faction.getName());
-        dynmapIntegrator.updateClaims();
         playerService.sendMessage(sender, "&a" + getText("AllLandUnclaimedFrom", faction.getName())
                 , Objects.requireNonNull(messageService.getLanguage().getString("AllLandUnclaimedFrom"))
                         .replace("#name#", faction.getName()), false);
@@ -7,6 +7,7 @@ package dansplugins.factionsystem.commands;
 import dansplugins.factionsystem.commands.abs.SubCommand;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
@@ -43,17 +44,16 @@ public class UnlockCommand extends SubCommand {
         if (!checkPermissions(player, permission)) {
             return;
         }
+        final PlayerSession session = ephemeralData.getSession(player.getUniqueId());
         if (args.length != 0 && args[0].equalsIgnoreCase("cancel")) {
-            ephemeralData.getUnlockingPlayers().remove(player.getUniqueId());
-            ephemeralData.getForcefullyUnlockingPlayers().remove(player.getUniqueId()); // just in case the player tries to cancel a forceful unlock without using the force command
+            session.setUnlocking(false);
+            session.setForcefullyUnlocking(false); // just in case the player tries to cancel a forceful unlock without using the force command
             playerService.sendMessage(player, "&c" + getText("AlertUnlockingCancelled")
                     , "AlertUnlockingCancelled", false);
             return;
         }
-        if (!ephemeralData.getUnlockingPlayers().contains(player.getUniqueId())) {
-            ephemeralData.getUnlockingPlayers().add(player.getUniqueId());
-        }
-        ephemeralData.getLockingPlayers().remove(player.getUniqueId());
+        session.setUnlocking(true);
+        session.setLocking(false);
 
         // inform them they need to right click the block that they want to lock or type /mf lock cancel to cancel it
         playerService.sendMessage(player, "&a" + getText("RightClickUnlock")
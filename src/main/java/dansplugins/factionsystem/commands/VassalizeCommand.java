@@ -61,7 +61,7 @@ public class VassalizeCommand extends SubCommand {
             return;
         }
         // make sure player isn't trying to vassalize their liege
-        if (target.getName().equalsIgnoreCase(faction.getLiege())) {
+        if (target.getId() == faction.getLiegeId()) {
             playerService.sendMessage(player, "&c" + getText("CannotVassalizeLiege")
                     , "CannotVassalizeLiege", false);
             return;
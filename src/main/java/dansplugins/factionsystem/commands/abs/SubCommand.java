@@ -283,7 +283,8 @@ public abstract class SubCommand implements ColorTranslator {
      * @param newmessage new message to send to the Faction.
      */
     protected void messageFaction(Faction faction, String oldmessage, String newmessage) {
-        faction.getMemberList().stream().map(Bukkit::getOfflinePlayer).filter(OfflinePlayer::isOnline).map(OfflinePlayer::getPlayer).filter(Objects::nonNull).forEach(player -> playerService.sendMessage(player, oldmessage, newmessage, true));
+        final String message = playerService.colorize(playerService.decideWhichMessageToUse(oldmessage, newmessage));
+        ephemeralData.getOnlineMemberIndex().getOnlineMembers(faction).forEach(player -> player.sendMessage(message));
     }
 
     /**
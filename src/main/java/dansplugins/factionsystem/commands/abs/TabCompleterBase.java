@@ -296,7 +296,7 @@ public class TabCompleterBase implements TabCompleter {
 						for (UUID uuid : faction.getMemberList()) {
 							Player member = Bukkit.getPlayer(uuid);
 							if (member != null) {
-								if (!faction.getOfficerList().contains(uuid)) {
+								if (!faction.isOfficer(uuid)) {
 									membersInFaction.add(member.getName());
 								}
 							}
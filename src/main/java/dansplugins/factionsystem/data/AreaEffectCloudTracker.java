@@ -0,0 +1,42 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Remembers who threw each lingering potion cloud that is still active, keyed by the cloud entity's UUID.
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class AreaEffectCloudTracker {
+    private final Map<UUID, UUID> throwersByCloud = new HashMap<>();
+
+    /**
+     * @param cloudUUID   The UUID of the cloud entity.
+     * @param throwerUUID The UUID of the player who threw the potion.
+     */
+    public void track(UUID cloudUUID, UUID throwerUUID) {
+        throwersByCloud.put(cloudUUID, throwerUUID);
+    }
+
+    public void untrack(UUID cloudUUID) {
+        throwersByCloud.remove(cloudUUID);
+    }
+
+    /**
+     * @param cloudUUID The UUID of the cloud entity.
+     * @return The UUID of the player who threw the cloud, or {@code null} if it is not tracked.
+     */
+    public UUID getThrower(UUID cloudUUID) {
+        return throwersByCloud.get(cloudUUID);
+    }
+
+    public int size() {
+        return throwersByCloud.size();
+    }
+}
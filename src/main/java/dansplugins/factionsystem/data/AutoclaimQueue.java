@@ -0,0 +1,120 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Chunks that faction owners with autoclaim enabled have walked into, waiting to be claimed.
+ * <p>
+ * Chunks are collected per faction and claimed together once per tick, so an owner who crosses several chunks, or
+ * the same chunk several times, between two drains costs one batch rather than one claim attempt per crossing.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class AutoclaimQueue {
+    private final Map<Integer, Batch> batchesByFaction = new LinkedHashMap<>();
+
+    /**
+     * Queue a chunk to be claimed for a faction. A chunk that is already queued for the faction is ignored.
+     *
+     * @param factionId The faction to claim the chunk for.
+     * @param claimant  The player who walked into the chunk.
+     * @param worldName The world the chunk is in.
+     * @param x         The x coordinate of the chunk.
+     * @param z         The z coordinate of the chunk.
+     * @return Whether the queue was empty beforehand, in which case the caller should arrange for it to be drained.
+     */
+    public boolean add(int factionId, UUID claimant, String worldName, int x, int z) {
+        boolean wasEmpty = batchesByFaction.isEmpty();
+        Batch batch = batchesByFaction.computeIfAbsent(factionId, id -> new Batch());
+        batch.claimant = claimant;
+        batch.chunks.add(new PendingChunk(worldName, x, z));
+        return wasEmpty;
+    }
+
+    /**
+     * Remove and return everything that has been queued, in the order factions were first queued.
+     */
+    public Map<Integer, Batch> drain() {
+        Map<Integer, Batch> drained = new LinkedHashMap<>(batchesByFaction);
+        batchesByFaction.clear();
+        return drained;
+    }
+
+    public boolean isEmpty() {
+        return batchesByFaction.isEmpty();
+    }
+
+    public void clear() {
+        batchesByFaction.clear();
+    }
+
+    /**
+     * The chunks queued for one faction, in the order they were entered.
+     */
+    public static class Batch {
+        private final Set<PendingChunk> chunks = new LinkedHashSet<>();
+        private UUID claimant;
+
+        /**
+         * @return The player who most recently walked into one of the chunks.
+         */
+        public UUID getClaimant() {
+            return claimant;
+        }
+
+        public Set<PendingChunk> getChunks() {
+            return chunks;
+        }
+    }
+
+    public static class PendingChunk {
+        private final String worldName;
+        private final int x;
+        private final int z;
+
+        private PendingChunk(String worldName, int x, int z) {
+            this.worldName = worldName;
+            this.x = x;
+            this.z = z;
+        }
+
+        public String getWorldName() {
+            return worldName;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            PendingChunk that = (PendingChunk) other;
+            return x == that.x && z == that.z && worldName.equals(that.worldName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(worldName, x, z);
+        }
+    }
+}
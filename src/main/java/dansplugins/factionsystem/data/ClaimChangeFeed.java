@@ -0,0 +1,254 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.ClaimedChunk;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Ordered record of the changes to factions' land and to what is drawn for it: claims, unclaims, conquests, renames,
+ * territory colour changes, changes of relations and changes to the rest of a faction's details, such as its owner or
+ * members.
+ * <p>
+ * Every change is given the next sequence number. A subscriber holds a {@link Cursor} and polls it for the changes
+ * made since its last poll, so it can update what it keeps rather than recompute everything. Only a bounded number of
+ * changes is retained; a cursor that falls further behind than that, or that has not polled since the data was
+ * reloaded, is told to rebuild from scratch instead.
+ * </p>
+ * <p>
+ * The feed is only written and read on the main thread.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class ClaimChangeFeed {
+    private static final int CAPACITY = 8192;
+
+    private final Deque<Change> changes = new ArrayDeque<>();
+    private final List<Cursor> cursors = new ArrayList<>();
+    private long lastSequence = 0;
+    private long firstRetainedSequence = 1;
+
+    /**
+     * Start following the feed. The first poll of a new cursor asks for a rebuild, as it has seen nothing yet.
+     *
+     * @return A cursor positioned before every change.
+     */
+    public Cursor subscribe() {
+        Cursor cursor = new Cursor(this);
+        cursors.add(cursor);
+        return cursor;
+    }
+
+    /**
+     * Stop following the feed, so that the changes a cursor has not seen are no longer retained for it.
+     */
+    public void unsubscribe(Cursor cursor) {
+        cursors.remove(cursor);
+    }
+
+    public void recordClaim(ClaimedChunk claim) {
+        record(Type.CLAIM, claim.getHolderId(), FactionRegistry.NO_FACTION, claim);
+    }
+
+    public void recordUnclaim(ClaimedChunk claim) {
+        record(Type.UNCLAIM, claim.getHolderId(), FactionRegistry.NO_FACTION, claim);
+    }
+
+    /**
+     * @param claim            The claim as it now stands.
+     * @param previousHolderId The faction the chunk was conquered from.
+     */
+    public void recordConquest(ClaimedChunk claim, int previousHolderId) {
+        record(Type.CONQUEST, claim.getHolderId(), previousHolderId, claim);
+    }
+
+    public void recordRename(int factionId) {
+        record(Type.RENAME, factionId, FactionRegistry.NO_FACTION, null);
+    }
+
+    public void recordFlagChange(int factionId) {
+        record(Type.FLAG, factionId, FactionRegistry.NO_FACTION, null);
+    }
+
+    /**
+     * Record that a faction's alliances, wars, liege or vassals changed with respect to another faction.
+     */
+    public void recordRelationChange(int factionId, int otherFactionId) {
+        record(Type.RELATION, factionId, otherFactionId, null);
+    }
+
+    /**
+     * Record that something else about a faction changed, e.g. its owner, description or members. This is recorded
+     * whenever the faction's version changes, alongside any more specific change.
+     */
+    public void recordDetailsChange(int factionId) {
+        record(Type.DETAILS, factionId, FactionRegistry.NO_FACTION, null);
+    }
+
+    /**
+     * Drop every retained change and make every cursor rebuild, for when the data has been replaced wholesale.
+     */
+    public void reset() {
+        changes.clear();
+        lastSequence++;
+        firstRetainedSequence = lastSequence + 1;
+    }
+
+    /**
+     * @return The sequence number of the most recent change.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    private void record(Type type, int factionId, int otherFactionId, ClaimedChunk claim) {
+        if (factionId == FactionRegistry.NO_FACTION) {
+            return;
+        }
+        Change change = claim == null
+                ? new Change(++lastSequence, type, factionId, otherFactionId, null, 0, 0)
+                : new Change(++lastSequence, type, factionId, otherFactionId, claim.getWorldName(), claim.getChunk().getX(), claim.getChunk().getZ());
+        changes.addLast(change);
+        if (changes.size() > CAPACITY) {
+            changes.removeFirst();
+            firstRetainedSequence++;
+        }
+    }
+
+    private List<Change> since(long position) {
+        if (position < firstRetainedSequence - 1) {
+            return null;
+        }
+        if (position == lastSequence) {
+            return Collections.emptyList();
+        }
+        List<Change> unseen = new ArrayList<>((int) (lastSequence - position));
+        Iterator<Change> iterator = changes.descendingIterator();
+        while (iterator.hasNext()) {
+            Change change = iterator.next();
+            if (change.sequence <= position) {
+                break;
+            }
+            unseen.add(change);
+        }
+        Collections.reverse(unseen);
+        return unseen;
+    }
+
+    private void trim() {
+        long oldestPosition = lastSequence;
+        for (Cursor cursor : cursors) {
+            oldestPosition = Math.min(oldestPosition, cursor.position);
+        }
+        while (!changes.isEmpty() && changes.peekFirst().sequence <= oldestPosition) {
+            changes.removeFirst();
+            firstRetainedSequence++;
+        }
+    }
+
+    public enum Type {
+        CLAIM, UNCLAIM, CONQUEST, RENAME, FLAG, RELATION, DETAILS
+    }
+
+    /**
+     * One subscriber's position in the feed.
+     */
+    public static class Cursor {
+        private final ClaimChangeFeed feed;
+        private long position = -1;
+
+        private Cursor(ClaimChangeFeed feed) {
+            this.feed = feed;
+        }
+
+        /**
+         * Take the changes made since the last poll.
+         *
+         * @return The changes in the order they were made, or {@code null} if they are no longer all retained and the
+         * subscriber should rebuild from the current data instead.
+         */
+        public List<Change> poll() {
+            List<Change> unseen = feed.since(position);
+            position = feed.lastSequence;
+            if (unseen != null && !unseen.isEmpty()) {
+                feed.trim();
+            }
+            return unseen;
+        }
+
+        /**
+         * @return Whether a poll would return anything other than an empty list.
+         */
+        public boolean hasChanges() {
+            return position != feed.lastSequence;
+        }
+    }
+
+    public static class Change {
+        private final long sequence;
+        private final Type type;
+        private final int factionId;
+        private final int otherFactionId;
+        private final String worldName;
+        private final int x;
+        private final int z;
+
+        private Change(long sequence, Type type, int factionId, int otherFactionId, String worldName, int x, int z) {
+            this.sequence = sequence;
+            this.type = type;
+            this.factionId = factionId;
+            this.otherFactionId = otherFactionId;
+            this.worldName = worldName;
+            this.x = x;
+            this.z = z;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return The faction the change is about. For a claim or conquest this is the new holder, for an unclaim the
+         * former holder.
+         */
+        public int getFactionId() {
+            return factionId;
+        }
+
+        /**
+         * @return The faction a conquest took the chunk from, or the other side of a relation change. Otherwise
+         * {@link FactionRegistry#NO_FACTION}.
+         */
+        public int getOtherFactionId() {
+            return otherFactionId;
+        }
+
+        /**
+         * @return The world of the chunk, or {@code null} if the change is not about a chunk.
+         */
+        public String getWorldName() {
+            return worldName;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getZ() {
+            return z;
+        }
+    }
+}
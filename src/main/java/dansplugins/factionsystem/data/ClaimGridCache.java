@@ -0,0 +1,83 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.ClaimedChunk;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of which faction holds each chunk, in 16x16 chunk regions, for drawing maps of the land around players.
+ * <p>
+ * A region's grid is built from the {@link ClaimIndex} the first time it is drawn and kept until the
+ * {@link ClaimChangeFeed} reports a change inside it, so players exploring the same area share the work and a redraw
+ * reads a flat array per region.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class ClaimGridCache {
+    private static final int REGION_SHIFT = 4;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    private final ClaimIndex claimIndex;
+    private final ClaimChangeFeed.Cursor claimChanges;
+    private final Map<String, Map<Long, int[]>> gridsByWorld = new HashMap<>();
+
+    public ClaimGridCache(ClaimIndex claimIndex, ClaimChangeFeed claimChangeFeed) {
+        this.claimIndex = claimIndex;
+        this.claimChanges = claimChangeFeed.subscribe();
+    }
+
+    /**
+     * @return The id of the faction holding the chunk, or {@link FactionRegistry#NO_FACTION} if it is not claimed.
+     */
+    public int getHolderId(String worldName, int x, int z) {
+        catchUp();
+        int regionX = x >> REGION_SHIFT;
+        int regionZ = z >> REGION_SHIFT;
+        int[] grid = gridsByWorld.computeIfAbsent(worldName.toLowerCase(), world -> new HashMap<>())
+                .computeIfAbsent(ClaimIndex.key(regionX, regionZ), region -> build(worldName, regionX, regionZ));
+        return grid[((z & REGION_MASK) << REGION_SHIFT) | (x & REGION_MASK)];
+    }
+
+    /**
+     * Forget the grids of the regions containing chunks whose claims have changed since the last lookup.
+     */
+    private void catchUp() {
+        if (!claimChanges.hasChanges()) {
+            return;
+        }
+        List<ClaimChangeFeed.Change> changes = claimChanges.poll();
+        if (changes == null) {
+            gridsByWorld.clear();
+            return;
+        }
+        for (ClaimChangeFeed.Change change : changes) {
+            if (change.getWorldName() == null) {
+                continue;
+            }
+            Map<Long, int[]> grids = gridsByWorld.get(change.getWorldName().toLowerCase());
+            if (grids != null) {
+                grids.remove(ClaimIndex.key(change.getX() >> REGION_SHIFT, change.getZ() >> REGION_SHIFT));
+            }
+        }
+    }
+
+    private int[] build(String worldName, int regionX, int regionZ) {
+        int[] grid = new int[1 << (REGION_SHIFT * 2)];
+        int baseX = regionX << REGION_SHIFT;
+        int baseZ = regionZ << REGION_SHIFT;
+        for (int dz = 0; dz <= REGION_MASK; dz++) {
+            for (int dx = 0; dx <= REGION_MASK; dx++) {
+                ClaimedChunk claim = claimIndex.get(worldName, baseX + dx, baseZ + dz);
+                grid[(dz << REGION_SHIFT) | dx] = claim == null ? FactionRegistry.NO_FACTION : claim.getHolderId();
+            }
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.ClaimedChunk;
+import dansplugins.factionsystem.objects.helper.TerritoryBitmap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index from a chunk's world and coordinates to the claim on it, so that a claim can be looked up without scanning
+ * every claimed chunk or asking the world for the chunk itself.
+ * <p>
+ * Each faction's land is also kept as one {@link TerritoryBitmap} per world, for questions about the shape of a
+ * territory rather than about a single chunk.
+ * </p>
+ * <p>
+ * World names are compared case-insensitively, as they always have been for claims. Like
+ * {@link FactionReferenceIndex}, the index is kept in step with the claimed chunk collection by {@link PersistentData}.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class ClaimIndex {
+    private final Map<String, Map<Long, ClaimedChunk>> claimsByWorld = new HashMap<>();
+    private final Map<Integer, Map<String, TerritoryBitmap>> territoriesByFaction = new HashMap<>();
+    private final Map<String, String> worldNames = new HashMap<>();
+
+    /**
+     * Pack a pair of chunk coordinates into a single key.
+     */
+    public static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    public static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int keyZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * @return The claim on the chunk, or {@code null} if it is not claimed.
+     */
+    public ClaimedChunk get(String worldName, int x, int z) {
+        Map<Long, ClaimedChunk> claims = claimsByWorld.get(normalize(worldName));
+        return claims == null ? null : claims.get(key(x, z));
+    }
+
+    /**
+     * Checks whether the chunks to the north, east, south and west of a claim are all held by the same faction as it,
+     * using coordinates alone so that no chunk is loaded.
+     *
+     * @param claim The claim to check the neighbours of.
+     * @return Whether the claim is surrounded by its own faction's land.
+     */
+    public boolean isSurroundedBySameHolder(ClaimedChunk claim) {
+        TerritoryBitmap territory = getTerritory(claim.getHolderId(), claim.getWorldName());
+        return territory != null && territory.isInterior(claim.getChunk().getX(), claim.getChunk().getZ());
+    }
+
+    /**
+     * @return The land a faction holds in a world, or {@code null} if it holds none there. The bitmap is live and must
+     * not be modified.
+     */
+    public TerritoryBitmap getTerritory(int factionId, String worldName) {
+        Map<String, TerritoryBitmap> territories = territoriesByFaction.get(factionId);
+        return territories == null ? null : territories.get(normalize(worldName));
+    }
+
+    /**
+     * @return The land a faction holds, by world name. The bitmaps are live and must not be modified.
+     */
+    public Map<String, TerritoryBitmap> getTerritories(int factionId) {
+        Map<String, TerritoryBitmap> territories = territoriesByFaction.get(factionId);
+        if (territories == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, TerritoryBitmap> byWorldName = new HashMap<>();
+        territories.forEach((world, territory) -> byWorldName.put(worldNames.get(world), territory));
+        return byWorldName;
+    }
+
+    public void add(ClaimedChunk claim) {
+        String world = normalize(claim.getWorldName());
+        int x = claim.getChunk().getX();
+        int z = claim.getChunk().getZ();
+        worldNames.putIfAbsent(world, claim.getWorldName());
+        claimsByWorld.computeIfAbsent(world, w -> new HashMap<>()).put(key(x, z), claim);
+        territoriesByFaction.computeIfAbsent(claim.getHolderId(), id -> new HashMap<>())
+                .computeIfAbsent(world, w -> new TerritoryBitmap())
+                .setFlag(x, z, true);
+    }
+
+    public void remove(ClaimedChunk claim) {
+        String world = normalize(claim.getWorldName());
+        Map<Long, ClaimedChunk> claims = claimsByWorld.get(world);
+        if (claims == null) {
+            return;
+        }
+        int x = claim.getChunk().getX();
+        int z = claim.getChunk().getZ();
+        if (!claims.remove(key(x, z), claim)) {
+            return;
+        }
+        if (claims.isEmpty()) {
+            claimsByWorld.remove(world);
+        }
+        Map<String, TerritoryBitmap> territories = territoriesByFaction.get(claim.getHolderId());
+        TerritoryBitmap territory = territories == null ? null : territories.get(world);
+        if (territory == null) {
+            return;
+        }
+        territory.setFlag(x, z, false);
+        if (territory.isEmpty()) {
+            territories.remove(world);
+            if (territories.isEmpty()) {
+                territoriesByFaction.remove(claim.getHolderId());
+            }
+        }
+    }
+
+    public void clear() {
+        claimsByWorld.clear();
+        territoriesByFaction.clear();
+    }
+
+    private static String normalize(String worldName) {
+        return worldName == null ? "" : worldName.toLowerCase();
+    }
+}
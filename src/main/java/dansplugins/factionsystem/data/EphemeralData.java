@@ -5,84 +5,70 @@
 package dansplugins.factionsystem.data;
 
 import dansplugins.factionsystem.objects.domain.Duel;
-import dansplugins.factionsystem.objects.domain.Gate;
-import org.bukkit.entity.AreaEffectCloud;
 import org.bukkit.entity.Player;
-import preponderous.ponder.misc.Pair;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Daniel McCoy Stephenson
  */
 public class EphemeralData {
-    private final HashMap<UUID, Gate> creatingGatePlayers = new HashMap<>();
+    // transient state of each online player, opened on join and closed on quit; read by the async chat handler
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
 
-    private final ArrayList<UUID> lockingPlayers = new ArrayList<>();
-    private final ArrayList<UUID> unlockingPlayers = new ArrayList<>();
-    private final ArrayList<UUID> forcefullyUnlockingPlayers = new ArrayList<>();
-
-    // Left user granting access, right user receiving access;
-    private final HashMap<UUID, UUID> playersGrantingAccess = new HashMap<>();
-    private final ArrayList<UUID> playersCheckingAccess = new ArrayList<>();
-
-    // Left user granting access, right user receiving access;
-    private final HashMap<UUID, UUID> playersRevokingAccess = new HashMap<>();
-    private final ArrayList<UUID> playersInFactionChat = new ArrayList<>();
-    private final ArrayList<UUID> adminsBypassingProtections = new ArrayList<>();
-
-    // List of players who made the cloud and the cloud itself in a pair
-    private final ArrayList<Pair<Player, AreaEffectCloud>> activeAOEClouds = new ArrayList<>();
+    // who threw each active lingering potion cloud
+    private final AreaEffectCloudTracker areaEffectCloudTracker = new AreaEffectCloudTracker();
 
     // duels
     private final ArrayList<Duel> duelingPlayers = new ArrayList<>();
 
-    // arraylist getters ---
-
-    public HashMap<UUID, Gate> getCreatingGatePlayers() {
-        return creatingGatePlayers;
-    }
-
-    public ArrayList<UUID> getLockingPlayers() {
-        return lockingPlayers;
-    }
+    // online members of each faction
+    private final OnlineMemberIndex onlineMemberIndex = new OnlineMemberIndex();
 
-    public ArrayList<UUID> getUnlockingPlayers() {
-        return unlockingPlayers;
-    }
+    // arraylist getters ---
 
-    public HashMap<UUID, UUID> getPlayersGrantingAccess() {
-        return playersGrantingAccess;
+    public AreaEffectCloudTracker getAreaEffectCloudTracker() {
+        return areaEffectCloudTracker;
     }
 
-    public ArrayList<UUID> getPlayersCheckingAccess() {
-        return playersCheckingAccess;
+    public ArrayList<Duel> getDuelingPlayers() {
+        return duelingPlayers;
     }
 
-    public HashMap<UUID, UUID> getPlayersRevokingAccess() {
-        return playersRevokingAccess;
+    public OnlineMemberIndex getOnlineMemberIndex() {
+        return onlineMemberIndex;
     }
 
-    public ArrayList<UUID> getPlayersInFactionChat() {
-        return playersInFactionChat;
-    }
+    // sessions ---
 
-    public ArrayList<UUID> getAdminsBypassingProtections() {
-        return adminsBypassingProtections;
+    /**
+     * @param playerUUID An online player.
+     * @return The player's session, which is opened if the player does not have one yet.
+     */
+    public PlayerSession getSession(UUID playerUUID) {
+        return sessions.computeIfAbsent(playerUUID, uuid -> new PlayerSession());
     }
 
-    public ArrayList<Pair<Player, AreaEffectCloud>> getActiveAOEClouds() {
-        return activeAOEClouds;
+    public void openSession(UUID playerUUID) {
+        sessions.put(playerUUID, new PlayerSession());
     }
 
-    public ArrayList<Duel> getDuelingPlayers() {
-        return duelingPlayers;
+    public void closeSession(UUID playerUUID) {
+        sessions.remove(playerUUID);
     }
 
-    public ArrayList<UUID> getForcefullyUnlockingPlayers() {
-        return forcefullyUnlockingPlayers;
+    /**
+     * Take a player out of faction chat. Unlike {@link #getSession(UUID)}, this does not open a session for a player
+     * who does not have one, e.g. one who is offline.
+     */
+    public void removeFromFactionChat(UUID playerUUID) {
+        PlayerSession session = sessions.get(playerUUID);
+        if (session != null) {
+            session.setInFactionChat(false);
+        }
     }
 
     // specific getters ---
@@ -97,6 +83,7 @@ public class EphemeralData {
     }
 
     public boolean isPlayerInFactionChat(Player player) {
-        return getPlayersInFactionChat().contains(player.getUniqueId());
+        PlayerSession session = sessions.get(player.getUniqueId());
+        return session != null && session.isInFactionChat();
     }
 }
\ No newline at end of file
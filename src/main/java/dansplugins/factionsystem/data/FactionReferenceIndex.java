@@ -0,0 +1,69 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reverse index from a faction's id to the records that reference it, such as claimed chunks or locked blocks.
+ * <p>
+ * The index has to be kept in step with the collection it mirrors, which is why {@link PersistentData} only mutates
+ * those collections through methods that update both.
+ * </p>
+ *
+ * @param <T> The type of record being indexed.
+ * @author Daniel McCoy Stephenson
+ */
+public class FactionReferenceIndex<T> {
+    private final Map<Integer, Set<T>> referencesByFaction = new HashMap<>();
+
+    public void add(int factionId, T reference) {
+        referencesByFaction.computeIfAbsent(factionId, id -> new HashSet<>()).add(reference);
+    }
+
+    public void remove(int factionId, T reference) {
+        Set<T> references = referencesByFaction.get(factionId);
+        if (references == null) {
+            return;
+        }
+        references.remove(reference);
+        if (references.isEmpty()) {
+            referencesByFaction.remove(factionId);
+        }
+    }
+
+    /**
+     * @param factionId The faction to look up.
+     * @return A read-only view of the records that reference the faction. Never {@code null}.
+     */
+    public Set<T> get(int factionId) {
+        Set<T> references = referencesByFaction.get(factionId);
+        return references == null ? Collections.emptySet() : Collections.unmodifiableSet(references);
+    }
+
+    public int count(int factionId) {
+        Set<T> references = referencesByFaction.get(factionId);
+        return references == null ? 0 : references.size();
+    }
+
+    /**
+     * Forget every record that references a faction.
+     *
+     * @param factionId The faction to forget.
+     * @return The records that referenced the faction, so that the caller can remove them from the main collection.
+     */
+    public Set<T> removeFaction(int factionId) {
+        Set<T> references = referencesByFaction.remove(factionId);
+        return references == null ? Collections.emptySet() : references;
+    }
+
+    public void clear() {
+        referencesByFaction.clear();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.Faction;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out the numeric ids that claims, locks and faction relations use to refer to a faction, and resolves them back.
+ * <p>
+ * An id is assigned once, when the faction is created, and never changes. Renaming a faction therefore only has to
+ * update the name lookup kept here; nothing that refers to the faction needs to be rewritten.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class FactionRegistry {
+    /**
+     * The id used wherever a reference points at no faction at all, e.g. a faction without a liege.
+     */
+    public static final int NO_FACTION = 0;
+
+    private final Map<Integer, Faction> factionsById = new HashMap<>();
+    private final Map<String, Faction> factionsByName = new HashMap<>();
+    private int nextId = NO_FACTION + 1;
+
+    /**
+     * @return A fresh id that has not been handed out before.
+     */
+    public int nextId() {
+        return nextId++;
+    }
+
+    public void register(Faction faction) {
+        factionsById.put(faction.getId(), faction);
+        factionsByName.put(key(faction.getName()), faction);
+        nextId = Math.max(nextId, faction.getId() + 1);
+    }
+
+    public void unregister(Faction faction) {
+        factionsById.remove(faction.getId(), faction);
+        factionsByName.remove(key(faction.getName()), faction);
+    }
+
+    /**
+     * Update the name lookup after a registered faction has been renamed.
+     *
+     * @param faction The faction, already carrying its new name.
+     * @param oldName The name it had before.
+     */
+    public void rename(Faction faction, String oldName) {
+        if (factionsById.get(faction.getId()) != faction) {
+            return;
+        }
+        factionsByName.remove(key(oldName), faction);
+        factionsByName.put(key(faction.getName()), faction);
+    }
+
+    public Faction getFaction(int id) {
+        return factionsById.get(id);
+    }
+
+    public Faction getFaction(String name) {
+        return factionsByName.get(key(name));
+    }
+
+    /**
+     * @param name The name of a faction, in any case.
+     * @return The faction's id, or {@link #NO_FACTION} if there is no faction with that name.
+     */
+    public int getId(String name) {
+        Faction faction = getFaction(name);
+        return faction == null ? NO_FACTION : faction.getId();
+    }
+
+    /**
+     * @param id The id of a faction.
+     * @return The faction's current name, or {@code null} if there is no faction with that id.
+     */
+    public String getName(int id) {
+        Faction faction = getFaction(id);
+        return faction == null ? null : faction.getName();
+    }
+
+    public void clear() {
+        factionsById.clear();
+        factionsByName.clear();
+        nextId = NO_FACTION + 1;
+    }
+
+    private String key(String name) {
+        return name == null ? "" : name.toLowerCase();
+    }
+}
@@ -0,0 +1,299 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.Faction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An immutable, versioned copy of faction membership, prefixes, colors and vassalage trees.
+ * <p>
+ * Snapshots are built on the main thread by {@link PersistentData#publishSnapshot()} and handed out through a volatile
+ * reference, so asynchronous readers such as the chat handler, placeholders and the external API can use them
+ * without locking and without ever seeing a half-applied change.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public final class FactionSnapshot {
+    static final FactionSnapshot EMPTY = new FactionSnapshot(0, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList());
+
+    private final long version;
+    private final Map<String, FactionView> factionsByName;
+    private final Map<UUID, FactionView> factionsByMember;
+    private final List<FactionView> factions;
+
+    private FactionSnapshot(long version, Map<String, FactionView> factionsByName, Map<UUID, FactionView> factionsByMember, List<FactionView> factions) {
+        this.version = version;
+        this.factionsByName = factionsByName;
+        this.factionsByMember = factionsByMember;
+        this.factions = factions;
+    }
+
+    /**
+     * Build a snapshot of the given factions. Must be called from the thread that owns the live data.
+     *
+     * @param version  Version number to stamp the snapshot with.
+     * @param factions Live factions to copy.
+     * @return The new snapshot.
+     */
+    static FactionSnapshot of(long version, Collection<Faction> factions) {
+        Map<String, List<String>> trees = computeVassalageTrees(factions);
+        Map<String, FactionView> byName = new HashMap<>();
+        Map<UUID, FactionView> byMember = new HashMap<>();
+        List<FactionView> views = new ArrayList<>(factions.size());
+        for (Faction faction : factions) {
+            FactionView view = new FactionView(faction, trees.get(key(faction.getName())));
+            views.add(view);
+            byName.put(key(view.getName()), view);
+            for (UUID member : view.getMembers()) {
+                byMember.putIfAbsent(member, view);
+            }
+        }
+        return new FactionSnapshot(version, Collections.unmodifiableMap(byName), Collections.unmodifiableMap(byMember), Collections.unmodifiableList(views));
+    }
+
+    /**
+     * Groups factions into vassalage trees, i.e. the sets of factions connected through liege and vassal ties.
+     */
+    private static Map<String, List<String>> computeVassalageTrees(Collection<Faction> factions) {
+        Map<String, String> parent = new HashMap<>();
+        for (Faction faction : factions) {
+            parent.put(key(faction.getName()), key(faction.getName()));
+        }
+        for (Faction faction : factions) {
+            String liege = key(faction.getLiege());
+            if (parent.containsKey(liege)) {
+                union(parent, key(faction.getName()), liege);
+            }
+            for (String vassal : faction.getVassals()) {
+                if (parent.containsKey(key(vassal))) {
+                    union(parent, key(faction.getName()), key(vassal));
+                }
+            }
+        }
+
+        Map<String, List<String>> members = new HashMap<>();
+        for (Faction faction : factions) {
+            members.computeIfAbsent(find(parent, key(faction.getName())), root -> new ArrayList<>()).add(faction.getName());
+        }
+        Map<String, List<String>> trees = new HashMap<>();
+        for (Faction faction : factions) {
+            trees.put(key(faction.getName()), Collections.unmodifiableList(members.get(find(parent, key(faction.getName())))));
+        }
+        return trees;
+    }
+
+    private static String find(Map<String, String> parent, String name) {
+        String root = name;
+        while (!parent.get(root).equals(root)) {
+            root = parent.get(root);
+        }
+        while (!name.equals(root)) {
+            String next = parent.get(name);
+            parent.put(name, root);
+            name = next;
+        }
+        return root;
+    }
+
+    private static void union(Map<String, String> parent, String first, String second) {
+        String firstRoot = find(parent, first);
+        String secondRoot = find(parent, second);
+        if (!firstRoot.equals(secondRoot)) {
+            parent.put(firstRoot, secondRoot);
+        }
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.toLowerCase();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<FactionView> getFactions() {
+        return factions;
+    }
+
+    public FactionView getFaction(String name) {
+        return factionsByName.get(key(name));
+    }
+
+    public FactionView getPlayersFaction(UUID playerUUID) {
+        return factionsByMember.get(playerUUID);
+    }
+
+    public boolean isInFaction(UUID playerUUID) {
+        return factionsByMember.containsKey(playerUUID);
+    }
+
+    /**
+     * @param faction Faction to start from.
+     * @return Every faction in the same vassalage tree as the given faction, including itself.
+     */
+    public List<FactionView> getFactionsInVassalageTree(FactionView faction) {
+        List<FactionView> tree = new ArrayList<>(faction.getVassalageTree().size());
+        for (String name : faction.getVassalageTree()) {
+            FactionView view = getFaction(name);
+            if (view != null) {
+                tree.add(view);
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Immutable copy of the parts of a {@link Faction} that are read off the main thread.
+     */
+    public static final class FactionView {
+        /**
+         * Copy a single faction outside of a snapshot, for when it has not been published yet. Its vassalage tree is
+         * just itself. Must be called from the main thread.
+         *
+         * @param faction The live faction to copy.
+         * @return The copy.
+         */
+        public static FactionView copyOf(Faction faction) {
+            return new FactionView(faction, null);
+        }
+
+        private final Faction faction;
+        private final String name;
+        private final String prefix;
+        private final String prefixColor;
+        private final UUID owner;
+        private final Set<UUID> members;
+        private final Set<UUID> officers;
+        private final String liege;
+        private final List<String> vassals;
+        private final List<String> allies;
+        private final List<String> enemies;
+        private final List<String> vassalageTree;
+        private final int totalGates;
+        private final Map<String, Object> flags;
+
+        private FactionView(Faction faction, List<String> vassalageTree) {
+            this.faction = faction;
+            this.name = faction.getName();
+            this.prefix = faction.getPrefix();
+            this.prefixColor = (String) faction.getFlags().getFlag("prefixColor");
+            this.owner = faction.getOwner();
+            this.members = Collections.unmodifiableSet(new HashSet<>(faction.getMemberList()));
+            this.officers = Collections.unmodifiableSet(new HashSet<>(faction.getOfficerList()));
+            this.liege = faction.getLiege();
+            this.vassals = Collections.unmodifiableList(new ArrayList<>(faction.getVassals()));
+            this.allies = Collections.unmodifiableList(new ArrayList<>(faction.getAllies()));
+            this.enemies = Collections.unmodifiableList(new ArrayList<>(faction.getEnemyFactions()));
+            this.vassalageTree = vassalageTree != null ? vassalageTree : Collections.singletonList(name);
+            this.totalGates = faction.getTotalGates();
+            Map<String, Object> flagValues = new HashMap<>();
+            flagValues.putAll(faction.getFlags().getIntegerValues());
+            flagValues.putAll(faction.getFlags().getBooleanValues());
+            flagValues.putAll(faction.getFlags().getDoubleValues());
+            flagValues.putAll(faction.getFlags().getStringValues());
+            this.flags = Collections.unmodifiableMap(flagValues);
+        }
+
+        /**
+         * The live faction this view was copied from. Only safe to use from the main thread.
+         *
+         * @return The underlying faction.
+         */
+        public Faction getFaction() {
+            return faction;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public String getPrefixColor() {
+            return prefixColor;
+        }
+
+        public UUID getOwner() {
+            return owner;
+        }
+
+        public Set<UUID> getMembers() {
+            return members;
+        }
+
+        public Set<UUID> getOfficers() {
+            return officers;
+        }
+
+        public boolean isMember(UUID playerUUID) {
+            return members.contains(playerUUID);
+        }
+
+        public boolean isOwner(UUID playerUUID) {
+            return owner != null && owner.equals(playerUUID);
+        }
+
+        public boolean isOfficer(UUID playerUUID) {
+            return officers.contains(playerUUID);
+        }
+
+        public String getLiege() {
+            return liege;
+        }
+
+        public boolean hasLiege() {
+            return liege != null && !liege.equalsIgnoreCase("none");
+        }
+
+        public List<String> getVassals() {
+            return vassals;
+        }
+
+        public List<String> getAllies() {
+            return allies;
+        }
+
+        public boolean isAlly(String factionName) {
+            return allies.stream().anyMatch(ally -> ally.equalsIgnoreCase(factionName));
+        }
+
+        public List<String> getEnemies() {
+            return enemies;
+        }
+
+        public boolean isEnemy(String factionName) {
+            return enemies.stream().anyMatch(enemy -> enemy.equalsIgnoreCase(factionName));
+        }
+
+        public List<String> getVassalageTree() {
+            return vassalageTree;
+        }
+
+        public int getTotalGates() {
+            return totalGates;
+        }
+
+        /**
+         * @param flag The name of a faction flag.
+         * @return The flag's value, or {@code null} if there is no such flag.
+         */
+        public Object getFlag(String flag) {
+            return flags.get(flag);
+        }
+    }
+}
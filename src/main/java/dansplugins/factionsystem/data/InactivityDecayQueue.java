@@ -0,0 +1,104 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.ActivityRecord;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Min-heap of offline players ordered by when their power is next due to decay.
+ * <p>
+ * A player is queued when they log out and dropped when they log in again. Dropping is done lazily: the player's
+ * current entry is remembered by player id, and any entry that is no longer the current one for its player is
+ * discarded when it reaches the top of the heap.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class InactivityDecayQueue {
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>((first, second) -> Long.compare(first.dueAt, second.dueAt));
+    private final Map<Integer, Entry> currentEntries = new HashMap<>();
+
+    /**
+     * Schedule the first decay for a player who has just logged out (or who was offline when data was loaded).
+     * Any earlier entry for the same player is dropped.
+     *
+     * @param record                   The player's activity record.
+     * @param minutesBeforePowerDecrease How long a player has to be offline before their power starts to decay.
+     */
+    public void schedule(ActivityRecord record, int minutesBeforePowerDecrease) {
+        long logout = record.getLastLogoutMillis();
+        if (logout == 0) {
+            return;
+        }
+        add(new Entry(record, logout + minutesBeforePowerDecrease * 60_000L));
+    }
+
+    /**
+     * Stop decaying a player's power, because they have logged in.
+     *
+     * @param record The player's activity record.
+     */
+    public void cancel(ActivityRecord record) {
+        currentEntries.remove(record.getPlayerId());
+    }
+
+    /**
+     * Remove and return every record whose decay is due, rescheduling each of them for the following interval.
+     * Each record is returned at most once per call, no matter how many intervals it is behind.
+     *
+     * @param now                          The current time in epoch millis.
+     * @param minutesBetweenPowerDecreases Time between consecutive decays.
+     * @return The records that are due.
+     */
+    public List<ActivityRecord> pollDue(long now, int minutesBetweenPowerDecreases) {
+        List<ActivityRecord> due = new ArrayList<>();
+        List<Entry> rescheduled = new ArrayList<>();
+        long interval = Math.max(1, minutesBetweenPowerDecreases) * 60_000L;
+        while (!queue.isEmpty() && queue.peek().dueAt <= now) {
+            Entry entry = queue.poll();
+            if (currentEntries.get(entry.record.getPlayerId()) != entry) {
+                continue; // the player has logged in, or been rescheduled, since this entry was queued
+            }
+            due.add(entry.record);
+            long next = entry.dueAt + interval;
+            rescheduled.add(new Entry(entry.record, next > now ? next : now + interval));
+        }
+        rescheduled.forEach(this::add);
+        return due;
+    }
+
+    public void clear() {
+        queue.clear();
+        currentEntries.clear();
+    }
+
+    /**
+     * @return The number of players queued.
+     */
+    public int size() {
+        return currentEntries.size();
+    }
+
+    private void add(Entry entry) {
+        currentEntries.put(entry.record.getPlayerId(), entry);
+        queue.add(entry);
+    }
+
+    private static class Entry {
+        private final ActivityRecord record;
+        private final long dueAt;
+
+        private Entry(ActivityRecord record, long dueAt) {
+            this.record = record;
+            this.dueAt = dueAt;
+        }
+    }
+}
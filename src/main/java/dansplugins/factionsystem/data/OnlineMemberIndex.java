@@ -0,0 +1,134 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.data.FactionSnapshot.FactionView;
+import dansplugins.factionsystem.objects.domain.Faction;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of which members of each faction are currently online, so that faction-wide messages only have to
+ * visit online players instead of every member on record.
+ * <p>
+ * Writes happen on the main thread: on join, on quit, as soon as a faction gains or loses a member or is disbanded,
+ * and in full when the data is loaded.
+ * The sets handed out are immutable, so they can be iterated from asynchronous handlers as well.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class OnlineMemberIndex {
+    private volatile Map<Faction, Set<Player>> onlineMembersByFaction = new ConcurrentHashMap<>();
+    private volatile Map<UUID, Faction> factionsByOnlinePlayer = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuild the index from scratch against a snapshot of freshly loaded data.
+     *
+     * @param snapshot      The snapshot describing current membership.
+     * @param onlinePlayers Every player currently online.
+     */
+    public void rebuild(FactionSnapshot snapshot, Collection<? extends Player> onlinePlayers) {
+        Map<Faction, Set<Player>> members = new HashMap<>();
+        Map<UUID, Faction> factions = new ConcurrentHashMap<>();
+        for (Player player : onlinePlayers) {
+            FactionView view = snapshot.getPlayersFaction(player.getUniqueId());
+            if (view != null) {
+                members.computeIfAbsent(view.getFaction(), faction -> new HashSet<>()).add(player);
+                factions.put(player.getUniqueId(), view.getFaction());
+            }
+        }
+        Map<Faction, Set<Player>> rebuilt = new ConcurrentHashMap<>();
+        members.forEach((faction, players) -> rebuilt.put(faction, Collections.unmodifiableSet(players)));
+        onlineMembersByFaction = rebuilt;
+        factionsByOnlinePlayer = factions;
+    }
+
+    public void playerJoined(Player player, FactionSnapshot snapshot) {
+        FactionView view = snapshot.getPlayersFaction(player.getUniqueId());
+        if (view != null) {
+            add(view.getFaction(), player);
+        }
+    }
+
+    public void playerQuit(Player player) {
+        remove(player.getUniqueId());
+    }
+
+    /**
+     * Record that a player has joined a faction, so that messages sent to the faction from now on reach them.
+     *
+     * @param faction The faction joined.
+     * @param player  The player, or {@code null} if they are offline, in which case there is nothing to record.
+     */
+    public void memberAdded(Faction faction, Player player) {
+        if (player == null) {
+            return;
+        }
+        remove(player.getUniqueId());
+        add(faction, player);
+    }
+
+    /**
+     * Record that a player has left or been removed from a faction.
+     */
+    public void memberRemoved(Faction faction, UUID playerUUID) {
+        if (faction.equals(factionsByOnlinePlayer.get(playerUUID))) {
+            remove(playerUUID);
+        }
+    }
+
+    /**
+     * Forget a faction that has been disbanded, along with its online members' ties to it.
+     */
+    public void factionRemoved(Faction faction) {
+        Set<Player> players = onlineMembersByFaction.remove(faction);
+        if (players != null) {
+            for (Player player : players) {
+                factionsByOnlinePlayer.remove(player.getUniqueId(), faction);
+            }
+        }
+    }
+
+    /**
+     * @param faction The faction to look up.
+     * @return The faction's members that are currently online. Never {@code null}.
+     */
+    public Set<Player> getOnlineMembers(Faction faction) {
+        if (faction == null) {
+            return Collections.emptySet();
+        }
+        return onlineMembersByFaction.getOrDefault(faction, Collections.emptySet());
+    }
+
+    private void add(Faction faction, Player player) {
+        factionsByOnlinePlayer.put(player.getUniqueId(), faction);
+        onlineMembersByFaction.compute(faction, (key, players) -> {
+            Set<Player> updated = players == null ? new HashSet<>() : new HashSet<>(players);
+            updated.add(player);
+            return Collections.unmodifiableSet(updated);
+        });
+    }
+
+    private void remove(UUID playerUUID) {
+        Faction faction = factionsByOnlinePlayer.remove(playerUUID);
+        if (faction == null) {
+            return;
+        }
+        onlineMembersByFaction.computeIfPresent(faction, (key, players) -> {
+            Set<Player> updated = new HashSet<>(players);
+            updated.removeIf(online -> online.getUniqueId().equals(playerUUID));
+            return updated.isEmpty() ? null : Collections.unmodifiableSet(updated);
+        });
+    }
+}
@@ -9,10 +9,13 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import dansplugins.factionsystem.MedievalFactions;
+import dansplugins.factionsystem.events.FactionClaimBatchEvent;
 import dansplugins.factionsystem.events.FactionClaimEvent;
+import dansplugins.factionsystem.events.FactionUnclaimBatchEvent;
 import dansplugins.factionsystem.events.FactionUnclaimEvent;
 import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.objects.domain.*;
+import dansplugins.factionsystem.objects.helper.TerritoryBitmap;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
 import dansplugins.factionsystem.services.MessageService;
@@ -25,13 +28,19 @@ import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerInteractEvent;
+import preponderous.ponder.minecraft.bukkit.tools.UUIDChecker;
 
 import java.io.*;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static org.bukkit.Bukkit.getServer;
@@ -52,16 +61,27 @@ public class PersistentData {
     private final Logger logger;
     private final InteractionAccessChecker interactionAccessChecker;
     private final ArrayList<Faction> factions = new ArrayList<>();
-    private final ArrayList<ClaimedChunk> claimedChunks = new ArrayList<>();
-    private final ArrayList<PowerRecord> powerRecords = new ArrayList<>();
-    private final ArrayList<ActivityRecord> activityRecords = new ArrayList<>();
-    private final ArrayList<LockedBlock> lockedBlocks = new ArrayList<>();
+    private final FactionRegistry factionRegistry = new FactionRegistry();
+    private final PlayerRegistry playerRegistry = new PlayerRegistry();
+    private final Set<ClaimedChunk> claimedChunks = new LinkedHashSet<>();
+    private final FactionReferenceIndex<ClaimedChunk> claimedChunksByFaction = new FactionReferenceIndex<>();
+    private final ClaimIndex claimIndex = new ClaimIndex();
+    private final ClaimChangeFeed claimChangeFeed = new ClaimChangeFeed();
+    private final ClaimGridCache claimGridCache = new ClaimGridCache(claimIndex, claimChangeFeed);
+    private final AutoclaimQueue autoclaimQueue = new AutoclaimQueue();
+    private final PlayerRecordStore playerRecordStore;
+    private final Set<LockedBlock> lockedBlocks = new LinkedHashSet<>();
+    private final FactionReferenceIndex<LockedBlock> lockedBlocksByFaction = new FactionReferenceIndex<>();
+    private final InactivityDecayQueue inactivityDecayQueue = new InactivityDecayQueue();
     private final ChunkDataAccessor chunkDataAccessor = new ChunkDataAccessor();
     private final LocalStorageService localStorageService = new LocalStorageService(this);
 
     private final DynmapIntegrator dynmapIntegrator;
     private final BlockChecker blockChecker;
 
+    private volatile FactionSnapshot snapshot = FactionSnapshot.EMPTY;
+    private boolean factionsChanged = false;
+
     public PersistentData(LocaleService localeService, ConfigService configService, MedievalFactions medievalFactions, Messenger messenger, EphemeralData ephemeralData, Logger logger, PlayerService playerService, MessageService messageService) {
         this.localeService = localeService;
         this.configService = configService;
@@ -71,8 +91,9 @@ public class PersistentData {
         this.logger = logger;
         this.playerService = playerService;
         this.messageService = messageService;
+        playerRecordStore = new PlayerRecordStore(playerRegistry, configService, this);
         interactionAccessChecker = new InteractionAccessChecker(this, configService, ephemeralData, logger);
-        dynmapIntegrator = new DynmapIntegrator(logger, configService.getLocaleService(), medievalFactions, this); // TODO: resolve circular dependency
+        dynmapIntegrator = new DynmapIntegrator(logger, configService.getLocaleService(), medievalFactions, this, configService); // TODO: resolve circular dependency
         blockChecker = new BlockChecker(this); // TODO: resolve circular dependency
     }
 
@@ -92,6 +113,66 @@ public class PersistentData {
         return localStorageService;
     }
 
+    public ClaimChangeFeed getClaimChangeFeed() {
+        return claimChangeFeed;
+    }
+
+    /**
+     * Get the most recently published read-only copy of the faction data.
+     * This is safe to call from any thread.
+     *
+     * @return The current {@link FactionSnapshot}.
+     */
+    public FactionSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Note that the factions have changed since the snapshot was last published. This is called by {@link Faction}
+     * whenever one of its published fields changes, and by the methods that add and remove factions.
+     */
+    public void markFactionsChanged() {
+        factionsChanged = true;
+    }
+
+    /**
+     * Publish a new snapshot if the factions have changed since the last one. This is cheap when nothing has changed,
+     * so it is called after every command and once per tick.
+     */
+    public void publishSnapshotIfChanged() {
+        if (factionsChanged) {
+            publishSnapshot();
+        }
+    }
+
+    /**
+     * Rebuild the faction snapshot from the live data and publish it to readers.
+     * This should be called from the main thread once a batch of changes to factions has been applied.
+     */
+    public void publishSnapshot() {
+        factionsChanged = false;
+        snapshot = FactionSnapshot.of(snapshot.getVersion() + 1, factions);
+    }
+
+    /**
+     * Keep the index of online members in step with a faction gaining or losing a member, so that messages sent to the
+     * faction before the next snapshot is published reach the right players.
+     *
+     * @param faction    The faction whose membership changed.
+     * @param playerUUID The player who joined or left.
+     * @param joined     Whether the player joined rather than left.
+     */
+    public void membershipChanged(Faction faction, UUID playerUUID, boolean joined) {
+        if (getFaction(faction.getId()) != faction) {
+            return; // not added yet, see addFaction
+        }
+        if (joined) {
+            ephemeralData.getOnlineMemberIndex().memberAdded(faction, getServer().getPlayer(playerUUID));
+        } else {
+            ephemeralData.getOnlineMemberIndex().memberRemoved(faction, playerUUID);
+        }
+    }
+
     /**
      * Method to get a Faction by its name.
      * <p>
@@ -103,7 +184,33 @@ public class PersistentData {
      * @see #getFaction(String, boolean, boolean)
      */
     public Faction getFaction(String name) {
-        return getFaction(name, false, false);
+        return factionRegistry.getFaction(name);
+    }
+
+    /**
+     * Method to get a Faction by its id.
+     *
+     * @param id of the Faction desired.
+     * @return {@link Faction} or {@code null}.
+     */
+    public Faction getFaction(int id) {
+        return factionRegistry.getFaction(id);
+    }
+
+    /**
+     * @param id of a Faction.
+     * @return The current name of the Faction, or {@code null} if there is no Faction with that id.
+     */
+    public String getFactionName(int id) {
+        return factionRegistry.getName(id);
+    }
+
+    public FactionRegistry getFactionRegistry() {
+        return factionRegistry;
+    }
+
+    public PlayerRegistry getPlayerRegistry() {
+        return playerRegistry;
     }
 
     /**
@@ -147,8 +254,15 @@ public class PersistentData {
     }
 
     public Faction getPlayersFaction(UUID playerUUID) {
+        return getPlayersFaction(playerRegistry.find(playerUUID));
+    }
+
+    public Faction getPlayersFaction(int playerId) {
+        if (playerId == PlayerRegistry.UNKNOWN_PLAYER) {
+            return null;
+        }
         for (Faction faction : factions) {
-            if (faction.isMember(playerUUID)) {
+            if (faction.isMember(playerId)) {
                 return faction;
             }
         }
@@ -156,21 +270,33 @@ public class PersistentData {
     }
 
     public PowerRecord getPlayersPowerRecord(UUID playerUUID) {
-        for (PowerRecord record : powerRecords) {
-            if (record.getPlayerUUID().equals(playerUUID)) {
-                return record;
-            }
-        }
-        return null;
+        return playerRecordStore.getPowerRecord(playerUUID);
+    }
+
+    public PowerRecord getPlayersPowerRecord(int playerId) {
+        return playerRecordStore.getPowerRecord(playerId);
     }
 
     public ActivityRecord getPlayerActivityRecord(UUID uuid) {
-        for (ActivityRecord record : activityRecords) {
-            if (record.getPlayerUUID().equals(uuid)) {
-                return record;
+        return playerRecordStore.getActivityRecord(uuid);
+    }
+
+    /**
+     * Look up a player's name without asking the server for the player's profile where it can be avoided. The name
+     * recorded when the player last joined is used if there is one, and a name found on the server is kept for next
+     * time.
+     *
+     * @return The player's name, or {@code null} if it cannot be found.
+     */
+    public String getPlayerName(UUID playerUUID) {
+        String name = playerRecordStore.getLastKnownName(playerRegistry.find(playerUUID));
+        if (name == null) {
+            name = new UUIDChecker().findPlayerNameBasedOnUUID(playerUUID);
+            if (name != null) {
+                playerRecordStore.setLastKnownName(playerUUID, name);
             }
         }
-        return null;
+        return name;
     }
 
     public LockedBlock getLockedBlock(Block block) {
@@ -246,12 +372,7 @@ public class PersistentData {
     }
 
     public boolean isInFaction(UUID playerUUID) {
-        for (Faction faction : factions) {
-            if (faction.isMember(playerUUID)) {
-                return true;
-            }
-        }
-        return false;
+        return getPlayersFaction(playerUUID) != null;
     }
 
     public boolean isBlockLocked(Block block) {
@@ -289,16 +410,16 @@ public class PersistentData {
     }
 
     public void removeAllLocks(String factionName) {
-        Iterator<LockedBlock> itr = lockedBlocks.iterator();
+        lockedBlocks.removeAll(lockedBlocksByFaction.removeFaction(factionRegistry.getId(factionName)));
+    }
 
+    private void removeLockedBlocksIf(Predicate<LockedBlock> condition) {
+        Iterator<LockedBlock> itr = lockedBlocks.iterator();
         while (itr.hasNext()) {
-            LockedBlock currentBlock = itr.next();
-            if (currentBlock.getFactionName().equalsIgnoreCase(factionName)) {
-                try {
-                    itr.remove();
-                } catch (Exception e) {
-                    System.out.println("An error has occurred during lock removal.");
-                }
+            LockedBlock block = itr.next();
+            if (condition.test(block)) {
+                itr.remove();
+                lockedBlocksByFaction.remove(block.getFactionId(), block);
             }
         }
     }
@@ -307,9 +428,8 @@ public class PersistentData {
         for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
             ActivityRecord record = getPlayerActivityRecord(player.getUniqueId());
             if (record == null) {
-                ActivityRecord newRecord = new ActivityRecord(player.getUniqueId(), configService, 1);
-                newRecord.setLastLogout(ZonedDateTime.now());
-                activityRecords.add(newRecord);
+                ActivityRecord newRecord = playerRecordStore.createActivityRecord(player.getUniqueId(), 1);
+                scheduleInactivityDecay(newRecord);
             }
         }
     }
@@ -326,76 +446,116 @@ public class PersistentData {
 
     public void addFaction(Faction faction) {
         factions.add(faction);
-    }
-
-    public int getFactionIndexOf(Faction faction) {
-        return factions.indexOf(faction);
+        factionRegistry.register(faction);
+        for (UUID member : faction.getMemberList()) {
+            ephemeralData.getOnlineMemberIndex().memberAdded(faction, getServer().getPlayer(member));
+        }
+        markFactionsChanged();
     }
 
     public Faction getFactionByIndex(int i) {
         return factions.get(i);
     }
 
-    public void removeFactionByIndex(int i) {
-        factions.remove(i);
-    }
-
+    /**
+     * Remove the alliances, wars and liege/vassal ties that other factions have with a faction.
+     * <p>
+     * Every command that creates a tie records it on both sides, so the faction's own relations already list every
+     * faction that refers back to it; only those are visited.
+     * </p>
+     *
+     * @param factionName The name of the faction being removed.
+     */
     public void removePoliticalTiesToFaction(String factionName) {
-        for (Faction faction : factions) {
+        Faction factionToRemove = getFaction(factionName);
+        if (factionToRemove == null) {
+            return;
+        }
+        int factionId = factionToRemove.getId();
+        Set<Integer> relatedFactionIds = new HashSet<>();
+        relatedFactionIds.addAll(factionToRemove.getAllyIds());
+        relatedFactionIds.addAll(factionToRemove.getEnemyIds());
+        relatedFactionIds.addAll(factionToRemove.getVassalIds());
+        if (factionToRemove.hasLiege()) {
+            relatedFactionIds.add(factionToRemove.getLiegeId());
+        }
 
-            // remove records of alliances/wars associated with this faction
-            if (faction.isAlly(factionName)) {
-                faction.removeAlly(factionName);
-            }
-            if (faction.isEnemy(factionName)) {
-                faction.removeEnemy(factionName);
+        for (int relatedFactionId : relatedFactionIds) {
+            Faction faction = getFaction(relatedFactionId);
+            if (faction == null || faction == factionToRemove) {
+                continue;
             }
 
-            // remove liege and vassal references associated with this faction
-            if (faction.isLiege(factionName)) {
-                faction.setLiege("none");
-            }
+            // remove records of alliances/wars associated with this faction
+            faction.removeAlly(factionId);
+            faction.removeEnemy(factionId);
 
-            if (faction.isVassal(factionName)) {
-                faction.removeVassal(factionName);
+            // remove liege and vassal references associated with this faction
+            if (faction.isLiege(factionId)) {
+                faction.setLiegeId(FactionRegistry.NO_FACTION);
             }
+            faction.removeVassal(factionId);
         }
     }
 
     public List<ClaimedChunk> getChunksClaimedByFaction(String factionName) {
-        List<ClaimedChunk> output = new ArrayList<>();
-        for (ClaimedChunk chunk : claimedChunks) {
-            if (chunk.getHolder().equalsIgnoreCase(factionName)) {
-                output.add(chunk);
-            }
-        }
-        return output;
+        return getChunksClaimedByFaction(factionRegistry.getId(factionName));
+    }
+
+    public List<ClaimedChunk> getChunksClaimedByFaction(int factionId) {
+        return new ArrayList<>(claimedChunksByFaction.get(factionId));
+    }
+
+    /**
+     * @param factionId The faction to look up.
+     * @return The land the faction holds, as one bitmap per world name. The bitmaps are live and must not be modified.
+     */
+    public Map<String, TerritoryBitmap> getTerritories(int factionId) {
+        return claimIndex.getTerritories(factionId);
+    }
+
+    private void addClaim(ClaimedChunk claim) {
+        indexClaim(claim);
+        claimChangeFeed.recordClaim(claim);
+    }
+
+    private void removeClaim(ClaimedChunk claim) {
+        unindexClaim(claim);
+        claimChangeFeed.recordUnclaim(claim);
     }
 
-    public void addActivityRecord(ActivityRecord newRecord) {
-        activityRecords.add(newRecord);
+    private void conquerClaim(ClaimedChunk lost, ClaimedChunk conquered) {
+        unindexClaim(lost);
+        indexClaim(conquered);
+        claimChangeFeed.recordConquest(conquered, lost.getHolderId());
     }
 
-    public void addPowerRecord(PowerRecord newRecord) {
-        powerRecords.add(newRecord);
+    private void indexClaim(ClaimedChunk claim) {
+        claimedChunks.add(claim);
+        claimedChunksByFaction.add(claim.getHolderId(), claim);
+        claimIndex.add(claim);
+    }
+
+    private void unindexClaim(ClaimedChunk claim) {
+        claimedChunks.remove(claim);
+        claimedChunksByFaction.remove(claim.getHolderId(), claim);
+        claimIndex.remove(claim);
+    }
+
+    public ActivityRecord createActivityRecord(UUID playerUUID, int logins) {
+        return playerRecordStore.createActivityRecord(playerUUID, logins);
+    }
+
+    public PowerRecord createPowerRecord(UUID playerUUID, double initialPower) {
+        return playerRecordStore.createPowerRecord(playerUUID, initialPower);
     }
 
     public boolean hasPowerRecord(UUID playerUUID) {
-        for (PowerRecord record : powerRecords) {
-            if (record.getPlayerUUID().equals(playerUUID)) {
-                return true;
-            }
-        }
-        return false;
+        return playerRecordStore.hasPowerRecord(playerRegistry.find(playerUUID));
     }
 
     public boolean hasActivityRecord(UUID playerUUID) {
-        for (ActivityRecord record : activityRecords) {
-            if (record.getPlayerUUID().equals(playerUUID)) {
-                return true;
-            }
-        }
-        return false;
+        return playerRecordStore.hasActivityRecord(playerRegistry.find(playerUUID));
     }
 
     public int getNumFactions() {
@@ -403,20 +563,7 @@ public class PersistentData {
     }
 
     public int getNumPlayers() {
-        return powerRecords.size();
-    }
-
-    public void updateFactionReferencesDueToNameChange(String oldName, String newName) {
-        // Change Ally/Enemy/Vassal/Liege references
-        factions.forEach(fac -> fac.updateData(oldName, newName));
-
-        // Change Claims
-        claimedChunks.stream().filter(cc -> cc.getHolder().equalsIgnoreCase(oldName))
-                .forEach(cc -> cc.setHolder(newName));
-
-        // Locked Blocks
-        lockedBlocks.stream().filter(lb -> lb.getFactionName().equalsIgnoreCase(oldName))
-                .forEach(lb -> lb.setFaction(newName));
+        return playerRecordStore.getNumPowerRecords();
     }
 
     public long removeLiegeAndVassalReferencesToFaction(String factionName) {
@@ -424,7 +571,7 @@ public class PersistentData {
                 .filter(f -> f.isLiege(factionName) || f.isVassal(factionName))
                 .count(); // Count changes
 
-        factions.stream().filter(f -> f.isLiege(factionName)).forEach(f -> f.setLiege("none"));
+        factions.stream().filter(f -> f.isLiege(factionName)).forEach(f -> f.setLiegeId(FactionRegistry.NO_FACTION));
         factions.stream().filter(f -> f.isVassal(factionName)).forEach(Faction::clearVassals);
 
         return changes;
@@ -445,84 +592,196 @@ public class PersistentData {
 
     public void addLockedBlock(LockedBlock newLockedBlock) {
         lockedBlocks.add(newLockedBlock);
+        lockedBlocksByFaction.add(newLockedBlock.getFactionId(), newLockedBlock);
     }
 
     public void resetPowerLevels() {
-        final int initialPowerLevel = configService.getInt("initialPowerLevel");
-        powerRecords.forEach(record -> record.setPower(initialPowerLevel));
+        playerRecordStore.resetPower(configService.getInt("initialPowerLevel"));
     }
 
     public void initiatePowerIncreaseForAllPlayers() {
-        for (PowerRecord powerRecord : powerRecords) {
-            try {
-                initiatePowerIncrease(powerRecord);
-            } catch (Exception ignored) {
+        for (Player player : getServer().getOnlinePlayers()) {
+            initiatePowerIncreaseForPlayer(player);
+        }
+    }
+
+    /**
+     * Only online players gain power, so the power increase sweep walks the online players rather than every record.
+     *
+     * @param player The online player.
+     */
+    public void initiatePowerIncreaseForPlayer(Player player) {
+        PowerRecord powerRecord = getPlayersPowerRecord(player.getUniqueId());
+        if (powerRecord != null && powerRecord.getPower() < powerRecord.maxPower()) {
+            powerRecord.increasePower();
+            sendPowerIncreaseAlert(player, configService.getInt("powerIncreaseAmount"));
+        }
+    }
+
+    /**
+     * Apply a change to the configuration that may switch lazy power accrual on or off. Online players' power is
+     * settled under the old mode and their accrual clocks are restarted under the new one, so that no interval is
+     * credited both by the sweep and on settlement.
+     *
+     * @param change The change to apply.
+     */
+    public void reconfigurePowerAccrual(Runnable change) {
+        boolean wasLazy = configService.getBoolean("lazyPowerAccrual");
+        if (wasLazy) {
+            for (Player player : getServer().getOnlinePlayers()) {
+                PowerRecord powerRecord = getPlayersPowerRecord(player.getUniqueId());
+                if (powerRecord != null) {
+                    powerRecord.settle();
+                }
+            }
+        }
+        change.run();
+        if (wasLazy != configService.getBoolean("lazyPowerAccrual")) {
+            startPowerAccrualForOnlinePlayers();
+        }
+    }
 
+    private void startPowerAccrualForOnlinePlayers() {
+        for (Player player : getServer().getOnlinePlayers()) {
+            PowerRecord powerRecord = getPlayersPowerRecord(player.getUniqueId());
+            if (powerRecord != null) {
+                powerRecord.startAccruing();
             }
         }
     }
 
-    private void initiatePowerIncrease(PowerRecord powerRecord) {
-        if (powerRecord.getPower() < powerRecord.maxPower() && Objects.requireNonNull(getServer().getPlayer(powerRecord.getPlayerUUID())).isOnline()) {
-            powerRecord.increasePower();
-            playerService.sendMessage(getServer().getPlayer(powerRecord.getPlayerUUID()), ChatColor.GREEN + String.format(localeService.get("AlertPowerLevelIncreasedBy"), configService.getInt("powerIncreaseAmount"))
-                    , Objects.requireNonNull(messageService.getLanguage().getString("AlertPowerLevelIncreasedBy"))
-                            .replace("#amount#", String.valueOf(configService.getInt("powerIncreaseAmount"))), true);
+    /**
+     * Used with lazy power accrual: settle an online player's power and let them know if it went up.
+     *
+     * @param player The online player.
+     */
+    public void announceAccruedPower(Player player) {
+        PowerRecord powerRecord = getPlayersPowerRecord(player.getUniqueId());
+        if (powerRecord == null) {
+            return;
         }
+        long gained = Math.round(powerRecord.takeUnannouncedGain());
+        if (gained > 0) {
+            sendPowerIncreaseAlert(player, gained);
+        }
+    }
+
+    private void sendPowerIncreaseAlert(Player player, long amount) {
+        playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertPowerLevelIncreasedBy"), amount)
+                , Objects.requireNonNull(messageService.getLanguage().getString("AlertPowerLevelIncreasedBy"))
+                        .replace("#amount#", String.valueOf(amount)), true);
     }
 
     public void disbandAllZeroPowerFactions() {
-        ArrayList<String> factionsToDisband = new ArrayList<>();
+        ArrayList<Faction> factionsToDisband = new ArrayList<>();
         for (Faction faction : factions) {
             if (faction.getCumulativePowerLevel() == 0) {
-                factionsToDisband.add(faction.getName());
+                factionsToDisband.add(faction);
             }
         }
 
-        for (String factionName : factionsToDisband) {
-            messenger.sendAllPlayersInFactionMessage(getFaction(factionName), playerService.decideWhichMessageToUse(ChatColor.RED + localeService.get("AlertDisbandmentDueToZeroPower"), messageService.getLanguage().getString("AlertDisbandmentDueToZeroPower")));
-            removeFaction(factionName);
-            System.out.printf((localeService.get("DisbandmentDueToZeroPower")) + "%n", factionName);
+        for (Faction faction : factionsToDisband) {
+            disbandFactionDueToZeroPower(faction);
         }
+
+        publishSnapshotIfChanged();
     }
 
-    private void removeFaction(String name) {
+    /**
+     * Disband a faction if its cumulative power has dropped to zero. The caller is responsible for calling {@link #publishSnapshotIfChanged()} afterwards.
+     *
+     * @param faction The faction to check.
+     * @return Whether the faction was disbanded.
+     */
+    public boolean disbandFactionIfZeroPower(Faction faction) {
+        if (!factions.contains(faction) || faction.getCumulativePowerLevel() != 0) {
+            return false;
+        }
+        disbandFactionDueToZeroPower(faction);
+        return true;
+    }
 
-        Faction factionToRemove = getFaction(name);
+    private void disbandFactionDueToZeroPower(Faction faction) {
+        messenger.sendAllPlayersInFactionMessage(faction, playerService.decideWhichMessageToUse(ChatColor.RED + localeService.get("AlertDisbandmentDueToZeroPower"), messageService.getLanguage().getString("AlertDisbandmentDueToZeroPower")));
+        removeFaction(faction);
+        System.out.printf((localeService.get("DisbandmentDueToZeroPower")) + "%n", faction.getName());
+    }
 
-        if (factionToRemove != null) {
-            // remove claimed land objects associated with this faction
-            getChunkDataAccessor().removeAllClaimedChunks(factionToRemove.getName());
-            dynmapIntegrator.updateClaims();
+    /**
+     * Remove a faction along with its claims, its locks and the ties other factions have with it. Claims and locks
+     * are found through the faction's id rather than by scanning every claim and lock.
+     *
+     * @param factionToRemove The faction to remove.
+     */
+    public void removeFaction(Faction factionToRemove) {
+        // remove claimed land objects associated with this faction
+        getChunkDataAccessor().removeAllClaimedChunks(factionToRemove.getName());
 
-            // remove locks associated with this faction
-            removeAllLocks(factionToRemove.getName());
+        // remove locks associated with this faction
+        removeAllLocks(factionToRemove.getName());
 
-            removePoliticalTiesToFaction(factionToRemove.getName());
+        removePoliticalTiesToFaction(factionToRemove.getName());
 
-            int index = -1;
-            for (int i = 0; i < getNumFactions(); i++) {
-                if (getFactionByIndex(i).getName().equalsIgnoreCase(name)) {
-                    index = i;
-                }
-            }
-            if (index != -1) {
-                removeFactionByIndex(index);
+        factions.remove(factionToRemove);
+        factionRegistry.unregister(factionToRemove);
+        ephemeralData.getOnlineMemberIndex().factionRemoved(factionToRemove);
+        markFactionsChanged();
+    }
+
+    public void decreasePowerForInactivePlayers() {
+        for (ActivityRecord record : pollDueInactivityDecays()) {
+            decreasePowerOfInactivePlayer(record);
+        }
+    }
+
+    /**
+     * Queue a player's first inactivity decay, counted from the logout currently stored in their activity record.
+     * Any earlier entry for the same record is dropped.
+     *
+     * @param record The activity record of a player who has just logged out.
+     */
+    public void scheduleInactivityDecay(ActivityRecord record) {
+        inactivityDecayQueue.schedule(record, configService.getInt("minutesBeforePowerDecrease"));
+    }
+
+    /**
+     * Stop a player's inactivity decay, because they have logged in. It is scheduled again when they log out.
+     *
+     * @param record The activity record of a player who has just logged in.
+     */
+    public void cancelInactivityDecay(ActivityRecord record) {
+        inactivityDecayQueue.cancel(record);
+    }
+
+    /**
+     * @return The activity records whose power decay is due now. Only these need to be visited by the decay sweep.
+     */
+    public List<ActivityRecord> pollDueInactivityDecays() {
+        return inactivityDecayQueue.pollDue(System.currentTimeMillis(), configService.getInt("minutesBetweenPowerDecreases"));
+    }
+
+    public void decreasePowerOfInactivePlayer(ActivityRecord record) {
+        Player player = getServer().getPlayer(record.getPlayerUUID());
+        boolean isOnline = false;
+        if (player != null) {
+            isOnline = player.isOnline();
+        }
+        if (!isOnline && configService.getBoolean("powerDecreases")) {
+            PowerRecord power = getPlayersPowerRecord(record.getPlayerUUID());
+            if (power == null) {
+                return;
             }
+            record.incrementPowerLost();
+            power.decreasePower();
         }
     }
 
-    public void decreasePowerForInactivePlayers() {
-        for (ActivityRecord record : activityRecords) {
+    private void scheduleInactivityDecayForOfflinePlayers() {
+        inactivityDecayQueue.clear();
+        for (ActivityRecord record : playerRecordStore.getActivityRecords()) {
             Player player = getServer().getPlayer(record.getPlayerUUID());
-            boolean isOnline = false;
-            if (player != null) {
-                isOnline = player.isOnline();
-            }
-            if (!isOnline && configService.getBoolean("powerDecreases") && record.getMinutesSinceLastLogout() > configService.getInt("minutesBeforePowerDecrease")) {
-                record.incrementPowerLost();
-                PowerRecord power = getPlayersPowerRecord(record.getPlayerUUID());
-                power.decreasePower();
+            if (player == null || !player.isOnline()) {
+                scheduleInactivityDecay(record);
             }
         }
     }
@@ -548,6 +807,7 @@ public class PersistentData {
         for (LockedBlock b : lockedBlocks) {
             if (b.getX() == block.getX() && b.getY() == block.getY() && b.getZ() == block.getZ() && block.getWorld().getName().equalsIgnoreCase(b.getWorld())) {
                 lockedBlocks.remove(b);
+                lockedBlocksByFaction.remove(b.getFactionId(), b);
                 return;
             }
         }
@@ -561,8 +821,12 @@ public class PersistentData {
         return factions;
     }
 
-    public ArrayList<PowerRecord> getPlayerPowerRecords() {
-        return powerRecords;
+    public List<ActivityRecord> getPlayerActivityRecords() {
+        return playerRecordStore.getActivityRecords();
+    }
+
+    public List<PowerRecord> getPlayerPowerRecords() {
+        return playerRecordStore.getPowerRecords();
     }
 
     public InteractionAccessChecker getInteractionAccessChecker() {
@@ -647,12 +911,60 @@ public class PersistentData {
                 return;
             }
 
-            // claim chunks
-            final Chunk initial = location.getChunk();
-            final Set<Chunk> chunkSet = obtainChunks(initial, depth);
-            chunkSet.forEach(chunk -> claimChunkAtLocation(
-                    claimant, getChunkCoords(chunk), chunk.getWorld(), claimantsFaction
-            ));
+            final World world = Objects.requireNonNull(location.getWorld());
+            final int centreX = location.getBlockX() >> 4;
+            final int centreZ = location.getBlockZ() >> 4;
+
+            // work out which chunks can be taken from their coordinates alone, with the demesne limit checked once
+            // for the whole radius; only chunks that end up being claimed are ever loaded
+            int budget = configService.getBoolean("limitLand")
+                    ? claimantsFaction.getCumulativePowerLevel() - claimedChunksByFaction.count(claimantsFaction.getId())
+                    : Integer.MAX_VALUE;
+            Map<Integer, Integer> conquerableByFaction = new HashMap<>();
+            RadiusClaimPlan plan = RadiusClaimPlan.plan(centreX, centreZ, depth, budget, (x, z) -> {
+                ClaimedChunk existing = getClaimedChunk(x, z, world.getName());
+                return existing == null || isConquerableInBatch(existing, claimantsFaction, conquerableByFaction);
+            });
+
+            FactionClaimBatchEvent claimEvent = plan.toEvent(claimantsFaction, claimant, world);
+            Bukkit.getPluginManager().callEvent(claimEvent);
+
+            // apply every change that was not vetoed
+            Set<Long> conqueredKeys = new HashSet<>();
+            Set<Integer> conqueredFrom = new HashSet<>();
+            int claimed = plan.forEachAccepted(claimEvent, (x, z) -> {
+                ClaimedChunk existing = getClaimedChunk(x, z, world.getName());
+                if (existing != null) {
+                    conquerClaimedChunk(existing, existing.getChunk(), claimantsFaction, world);
+                    conqueredKeys.add(ClaimIndex.key(x, z));
+                    conqueredFrom.add(existing.getHolderId());
+                } else {
+                    addClaimedChunk(world.getChunkAt(x, z), claimantsFaction, world);
+                }
+            });
+            if (plan.getChunkCount() > 0 && claimed == 0) {
+                // the batch was cancelled or every chunk vetoed; like a cancelled single claim, this is left to the listener to explain
+                return;
+            }
+            if (!conqueredKeys.isEmpty()) {
+                removeLockedBlocksIf(block -> block.getWorld().equalsIgnoreCase(world.getName())
+                        && conqueredKeys.contains(ClaimIndex.key(block.getX() >> 4, block.getZ() >> 4)));
+                for (int factionId : conqueredFrom) {
+                    messenger.sendAllPlayersInFactionMessage(getFaction(factionId), playerService
+                            .decideWhichMessageToUse(ChatColor.RED + String.format(localeService.get("AlertLandConqueredFromYourFaction"), claimantsFaction.getName())
+                                    , Objects.requireNonNull(messageService.getLanguage().getString("AlertLandConqueredFromYourFaction")).replace("#number#", claimantsFaction.getName())));
+                }
+            }
+
+            int demesneSize = claimedChunksByFaction.count(claimantsFaction.getId());
+            int demesneLimit = claimantsFaction.getCumulativePowerLevel();
+            playerService.sendMessage(claimant, ChatColor.GREEN + String.format(localeService.get("AlertLandClaimedRadius"), claimed, demesneSize, demesneLimit)
+                    , Objects.requireNonNull(messageService.getLanguage().getString("AlertLandClaimedRadius")).replace("#amount#", String.valueOf(claimed))
+                            .replace("#number#", String.valueOf(demesneSize)).replace("#max#", String.valueOf(demesneLimit)), true);
+            if (plan.hasReachedDemesne()) {
+                playerService.sendMessage(claimant, ChatColor.RED + localeService.get("AlertReachedDemesne")
+                        , "AlertReachedDemesne", false);
+            }
         }
 
         /**
@@ -671,12 +983,77 @@ public class PersistentData {
                 return;
             }
 
-            // unclaim chunks
-            final Set<Chunk> chunkSet = obtainChunks(player.getLocation().getChunk(), radius);
-            chunkSet.stream()
-                    .map(c -> isChunkClaimed(c.getX(), c.getZ(), c.getWorld().getName()))
-                    .filter(Objects::nonNull)
-                    .forEach(chunk -> removeChunk(chunk, player, faction));
+            final Chunk initial = player.getLocation().getChunk();
+            final String worldName = initial.getWorld().getName();
+
+            // collect the faction's claims in the radius, walking whichever is smaller: the square or the faction's land
+            List<ClaimedChunk> candidates = new ArrayList<>();
+            long area = (2L * radius + 1) * (2L * radius + 1);
+            if (area <= claimedChunksByFaction.count(faction.getId())) {
+                for (int x = initial.getX() - radius; x <= initial.getX() + radius; x++) {
+                    for (int z = initial.getZ() - radius; z <= initial.getZ() + radius; z++) {
+                        ClaimedChunk claim = getClaimedChunk(x, z, worldName);
+                        if (claim != null && claim.getHolderId() == faction.getId()) {
+                            candidates.add(claim);
+                        }
+                    }
+                }
+            } else {
+                for (ClaimedChunk claim : claimedChunksByFaction.get(faction.getId())) {
+                    if (claim.getWorldName().equalsIgnoreCase(worldName)
+                            && Math.abs(claim.getChunk().getX() - initial.getX()) <= radius
+                            && Math.abs(claim.getChunk().getZ() - initial.getZ()) <= radius) {
+                        candidates.add(claim);
+                    }
+                }
+            }
+
+            int[] candidateXs = new int[candidates.size()];
+            int[] candidateZs = new int[candidates.size()];
+            for (int i = 0; i < candidates.size(); i++) {
+                candidateXs[i] = candidates.get(i).getChunk().getX();
+                candidateZs[i] = candidates.get(i).getChunk().getZ();
+            }
+            FactionUnclaimBatchEvent unclaimEvent = new FactionUnclaimBatchEvent(faction, player, initial.getWorld(), candidateXs, candidateZs);
+            Bukkit.getPluginManager().callEvent(unclaimEvent);
+
+            List<ClaimedChunk> removed = new ArrayList<>();
+            Set<Long> removedKeys = new HashSet<>();
+            for (ClaimedChunk claim : candidates) {
+                if (unclaimEvent.isVetoed(claim.getChunk().getX(), claim.getChunk().getZ())) {
+                    continue;
+                }
+                removeClaim(claim);
+                removed.add(claim);
+                removedKeys.add(ClaimIndex.key(claim.getChunk().getX(), claim.getChunk().getZ()));
+            }
+            if (!candidates.isEmpty() && removed.isEmpty()) {
+                // the batch was cancelled or every chunk vetoed; like a cancelled single unclaim, this is left to the listener to explain
+                return;
+            }
+
+            // clear out everything that depended on the land, in one pass each
+            Location factionHome = faction.getFactionHome();
+            if (factionHome != null && Objects.requireNonNull(factionHome.getWorld()).getName().equalsIgnoreCase(worldName)
+                    && removedKeys.contains(ClaimIndex.key(factionHome.getBlockX() >> 4, factionHome.getBlockZ() >> 4))) {
+                faction.setFactionHome(null);
+                messenger.sendAllPlayersInFactionMessage(faction, playerService.decideWhichMessageToUse(ChatColor.RED + localeService.get("AlertFactionHomeRemoved"), messageService.getLanguage().getString("AlertFactionHomeRemoved")));
+            }
+            removeLockedBlocksIf(block -> block.getWorld().equalsIgnoreCase(worldName)
+                    && removedKeys.contains(ClaimIndex.key(block.getX() >> 4, block.getZ() >> 4)));
+            List<Gate> gatesToRemove = new ArrayList<>();
+            for (Gate gate : faction.getGates()) {
+                if (removed.stream().anyMatch(claim -> isGateInChunk(gate, claim))) {
+                    gatesToRemove.add(gate);
+                }
+            }
+            gatesToRemove.forEach(faction::removeGate);
+
+            int demesneSize = claimedChunksByFaction.count(faction.getId());
+            int demesneLimit = faction.getCumulativePowerLevel();
+            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertLandUnclaimedRadius"), removed.size(), demesneSize, demesneLimit)
+                    , Objects.requireNonNull(messageService.getLanguage().getString("AlertLandUnclaimedRadius")).replace("#amount#", String.valueOf(removed.size()))
+                            .replace("#number#", String.valueOf(demesneSize)).replace("#max#", String.valueOf(demesneLimit)), true);
         }
 
         /**
@@ -691,6 +1068,60 @@ public class PersistentData {
             claimChunkAtLocation(claimant, chunkCoords, location.getWorld(), claimantsFaction);
         }
 
+        /**
+         * Queue a chunk that a faction owner with autoclaim enabled has just walked into.
+         * Chunks the faction already holds are not queued.
+         *
+         * @param claimant         The faction owner.
+         * @param chunk            The chunk they walked into.
+         * @param claimantsFaction The owner's faction.
+         * @return Whether the queue was empty beforehand, in which case the caller should schedule {@link #drainAutoclaimQueue()}.
+         */
+        public boolean queueAutoclaim(Player claimant, Chunk chunk, Faction claimantsFaction) {
+            String worldName = chunk.getWorld().getName();
+            ClaimedChunk existing = getClaimedChunk(chunk.getX(), chunk.getZ(), worldName);
+            if (existing != null && existing.getHolderId() == claimantsFaction.getId()) {
+                return false;
+            }
+            return autoclaimQueue.add(claimantsFaction.getId(), claimant.getUniqueId(), worldName, chunk.getX(), chunk.getZ());
+        }
+
+        /**
+         * Claim everything that has been queued by {@link #queueAutoclaim(Player, Chunk, Faction)}.
+         * <p>
+         * Each faction's demesne limit is evaluated once for its whole batch, and chunks the faction has come to hold
+         * since they were queued are skipped.
+         * </p>
+         */
+        public void drainAutoclaimQueue() {
+            for (Map.Entry<Integer, AutoclaimQueue.Batch> entry : autoclaimQueue.drain().entrySet()) {
+                Faction faction = getFaction(entry.getKey());
+                Player claimant = getServer().getPlayer(entry.getValue().getClaimant());
+                if (faction == null || claimant == null || !faction.getAutoClaimStatus() || !faction.isOwner(claimant.getUniqueId())) {
+                    continue;
+                }
+                int budget = faction.getCumulativePowerLevel() - claimedChunksByFaction.count(faction.getId());
+                for (AutoclaimQueue.PendingChunk pending : entry.getValue().getChunks()) {
+                    ClaimedChunk existing = getClaimedChunk(pending.getX(), pending.getZ(), pending.getWorldName());
+                    if (existing != null && existing.getHolderId() == faction.getId()) {
+                        continue;
+                    }
+                    if (budget <= 0) {
+                        playerService.sendMessage(claimant, ChatColor.RED + localeService.get("AlertReachedDemesne"), "AlertReachedDemesne", false);
+                        break;
+                    }
+                    World world = getServer().getWorld(pending.getWorldName());
+                    if (world == null) {
+                        continue;
+                    }
+                    double[] chunkCoords = {pending.getX(), pending.getZ()};
+                    if (claimChunkWithinDemesne(claimant, chunkCoords, world, faction)) {
+                        budget--;
+                    }
+                }
+            }
+        }
+
         /**
          * Unclaims a chunk at a location.
          *
@@ -704,10 +1135,10 @@ public class PersistentData {
             playerCoords[1] = player.getLocation().getChunk().getZ();
 
             // handle admin bypass
-            if (ephemeralData.getAdminsBypassingProtections().contains(player.getUniqueId())) {
+            if (ephemeralData.getSession(player.getUniqueId()).isBypassingProtections()) {
                 ClaimedChunk chunk = isChunkClaimed(playerCoords[0], playerCoords[1], Objects.requireNonNull(player.getLocation().getWorld()).getName());
                 if (chunk != null) {
-                    removeChunk(chunk, player, getFaction(chunk.getHolder()));
+                    removeChunk(chunk, player, getFaction(chunk.getHolderId()));
                     playerService.sendMessage(player, ChatColor.GREEN + localeService.get("LandClaimedUsingAdminBypass")
                             , "LandClaimedUsingAdminBypass", false);
                     return;
@@ -725,9 +1156,10 @@ public class PersistentData {
             }
 
             // ensure that the chunk is claimed by the player's faction.
-            if (!chunk.getHolder().equalsIgnoreCase(playersFaction.getName())) {
-                playerService.sendMessage(player, ChatColor.RED + String.format(localeService.get("LandClaimedBy"), chunk.getHolder())
-                        , Objects.requireNonNull(messageService.getLanguage().getString("LandClaimedBy")).replace("#player#", chunk.getHolder()), true);
+            if (chunk.getHolderId() != playersFaction.getId()) {
+                String holderName = getFactionName(chunk.getHolderId());
+                playerService.sendMessage(player, ChatColor.RED + String.format(localeService.get("LandClaimedBy"), holderName)
+                        , Objects.requireNonNull(messageService.getLanguage().getString("LandClaimedBy")).replace("#player#", holderName), true);
                 return;
             }
 
@@ -749,7 +1181,7 @@ public class PersistentData {
             playerCoords[1] = player.getLocation().getChunk().getZ();
             ClaimedChunk chunk = isChunkClaimed(playerCoords[0], playerCoords[1], Objects.requireNonNull(player.getLocation().getWorld()).getName());
             if (chunk != null) {
-                return chunk.getHolder();
+                return getFactionName(chunk.getHolderId());
             }
             return "unclaimed";
         }
@@ -773,13 +1205,7 @@ public class PersistentData {
          * @return An integer indicating how many chunks have been claimed by this faction.
          */
         public int getChunksClaimedByFaction(String factionName) {
-            int counter = 0;
-            for (ClaimedChunk chunk : claimedChunks) {
-                if (chunk.getHolder().equalsIgnoreCase(factionName)) {
-                    counter++;
-                }
-            }
-            return counter;
+            return claimedChunksByFaction.count(factionRegistry.getId(factionName));
         }
 
         /**
@@ -789,12 +1215,7 @@ public class PersistentData {
          * @return A boolean indicating if the chunk is claimed.
          */
         public boolean isClaimed(Chunk chunk) {
-            for (ClaimedChunk claimedChunk : claimedChunks) {
-                if (claimedChunk.getCoordinates()[0] == chunk.getX() && claimedChunk.getCoordinates()[1] == chunk.getZ() && claimedChunk.getWorldName().equalsIgnoreCase(chunk.getWorld().getName())) {
-                    return true;
-                }
-            }
-            return false;
+            return claimIndex.get(chunk.getWorld().getName(), chunk.getX(), chunk.getZ()) != null;
         }
 
         /**
@@ -803,17 +1224,11 @@ public class PersistentData {
          * @param factionName The name of the faction we are removing all claimed chunks from.
          */
         public void removeAllClaimedChunks(String factionName) {
-            Iterator<ClaimedChunk> itr = claimedChunks.iterator();
-
-            while (itr.hasNext()) {
-                ClaimedChunk currentChunk = itr.next();
-                if (currentChunk.getHolder().equalsIgnoreCase(factionName)) {
-                    try {
-                        itr.remove();
-                    } catch (Exception e) {
-                        System.out.println(localeService.get("ErrorClaimedChunkRemoval"));
-                    }
-                }
+            Set<ClaimedChunk> removed = claimedChunksByFaction.removeFaction(factionRegistry.getId(factionName));
+            claimedChunks.removeAll(removed);
+            for (ClaimedChunk claim : removed) {
+                claimIndex.remove(claim);
+                claimChangeFeed.recordUnclaim(claim);
             }
         }
 
@@ -850,7 +1265,7 @@ public class PersistentData {
          */
         public void handleClaimedChunkInteraction(PlayerInteractEvent event, ClaimedChunk claimedChunk) {
             // player not in a faction and isn't overriding
-            if (!isInFaction(event.getPlayer().getUniqueId()) && !ephemeralData.getAdminsBypassingProtections().contains(event.getPlayer().getUniqueId())) {
+            if (!isInFaction(event.getPlayer().getUniqueId()) && !ephemeralData.getSession(event.getPlayer().getUniqueId()).isBypassingProtections()) {
 
                 Block block = event.getClickedBlock();
                 if (configService.getBoolean("nonMembersCanInteractWithDoors") && block != null && blockChecker.isDoor(block)) {
@@ -869,7 +1284,7 @@ public class PersistentData {
             }
 
             // if player's faction is not the same as the holder of the chunk and player isn't overriding
-            if (!(playersFaction.getName().equalsIgnoreCase(claimedChunk.getHolder())) && !ephemeralData.getAdminsBypassingProtections().contains(event.getPlayer().getUniqueId())) {
+            if (playersFaction.getId() != claimedChunk.getHolderId() && !ephemeralData.getSession(event.getPlayer().getUniqueId()).isBypassingProtections()) {
 
                 Block block = event.getClickedBlock();
                 if (configService.getBoolean("nonMembersCanInteractWithDoors") && block != null && blockChecker.isDoor(block)) {
@@ -878,7 +1293,7 @@ public class PersistentData {
                 }
 
                 // if enemy territory
-                if (playersFaction.isEnemy(claimedChunk.getHolder())) {
+                if (playersFaction.isEnemy(claimedChunk.getHolderId())) {
                     // if not interacting with chest
                     if (canBlockBeInteractedWith(event)) {
                         // allow placing ladders
@@ -923,30 +1338,28 @@ public class PersistentData {
         }
 
         /**
-         * This is a private method intended to be used by this class to retrieve a claimed chunk.
+         * This can be used to find which faction holds a chunk when drawing a map. It is answered from a cache of the
+         * claims around the chunk, without loading the chunk.
+         *
+         * @param x     The x coordinate of the chunk.
+         * @param z     The z coordinate of the chunk.
+         * @param world The world that the chunk is in.
+         * @return The id of the holding faction, or {@link FactionRegistry#NO_FACTION} if the chunk is not claimed.
+         */
+        public int getHolderIdForMap(int x, int z, String world) {
+            return claimGridCache.getHolderId(world, x, z);
+        }
+
+        /**
+         * This can be used to retrieve a claimed chunk by its coordinates, without loading the chunk.
          *
          * @param x     The x coordinate of the chunk to retrieve.
          * @param z     The z coordinate of the chunk to retrieve.
          * @param world The world that the chunk to retrieve is in.
          * @return The claimed chunk at the given location. A value of null indicates that the chunk is not claimed.
          */
-        private ClaimedChunk getClaimedChunk(int x, int z, String world) {
-            for (ClaimedChunk claimedChunk : claimedChunks) {
-                if (claimedChunk.getCoordinates()[0] == x && claimedChunk.getCoordinates()[1] == z && claimedChunk.getWorldName().equalsIgnoreCase(world)) {
-                    return claimedChunk;
-                }
-            }
-            return null;
-        }
-
-        private Set<Chunk> obtainChunks(Chunk initial, int radius) {
-            final Set<Chunk> chunkSet = new HashSet<>(); // Avoid duplicates without checking for it yourself.
-            for (int x = initial.getX() - radius; x <= initial.getX() + radius; x++) {
-                for (int z = initial.getZ() - radius; z <= initial.getZ() + radius; z++) {
-                    chunkSet.add(initial.getWorld().getChunkAt(x, z));
-                }
-            }
-            return chunkSet;
+        public ClaimedChunk getClaimedChunk(int x, int z, String world) {
+            return claimIndex.get(world, x, z);
         }
 
         private void claimChunkAtLocation(Player claimant, double[] chunkCoords, World world, Faction claimantsFaction) {
@@ -961,24 +1374,33 @@ public class PersistentData {
                 }
             }
 
+            claimChunkWithinDemesne(claimant, chunkCoords, world, claimantsFaction);
+        }
+
+        /**
+         * Claims or conquers a chunk for a faction that is known to be under its demesne limit.
+         *
+         * @return Whether the chunk was claimed.
+         */
+        private boolean claimChunkWithinDemesne(Player claimant, double[] chunkCoords, World world, Faction claimantsFaction) {
             // check if land is already claimed
             ClaimedChunk chunk = isChunkClaimed(chunkCoords[0], chunkCoords[1], world.getName());
             if (chunk != null) {
                 // chunk already claimed
-                Faction targetFaction = getFaction(chunk.getHolder());
+                Faction targetFaction = getFaction(chunk.getHolderId());
 
                 // if holder is player's faction
-                if (targetFaction.getName().equalsIgnoreCase(claimantsFaction.getName()) && !claimantsFaction.getAutoClaimStatus()) {
+                if (targetFaction == claimantsFaction && !claimantsFaction.getAutoClaimStatus()) {
                     playerService.sendMessage(claimant, ChatColor.RED + localeService.get("LandAlreadyClaimedByYourFaction")
                             , "LandAlreadyClaimedByYourFaction", false);
-                    return;
+                    return false;
                 }
 
                 // if not at war with target faction
-                if (!claimantsFaction.isEnemy(targetFaction.getName())) {
+                if (!claimantsFaction.isEnemy(targetFaction.getId())) {
                     playerService.sendMessage(claimant, ChatColor.RED + "You must be at war with a faction to conquer land from them."
                             , "IsNotEnemy", false);
-                    return;
+                    return false;
                 }
 
                 // surrounded chunk protection check
@@ -986,7 +1408,7 @@ public class PersistentData {
                     if (isClaimedChunkSurroundedByChunksClaimedBySameFaction(chunk)) {
                         playerService.sendMessage(claimant, ChatColor.RED + localeService.get("SurroundedChunkProtected"),
                                 "SurroundedChunkProtected", false);
-                        return;
+                        return false;
                     }
                 }
 
@@ -997,28 +1419,27 @@ public class PersistentData {
                 if (!(targetFactionsCumulativePowerLevel < chunksClaimedByTargetFaction)) {
                     playerService.sendMessage(claimant, ChatColor.RED + localeService.get("TargetFactionNotOverClaiming")
                             , "TargetFactionNotOverClaiming", false);
-                    return;
+                    return false;
                 }
 
                 // CONQUERABLE
 
                 // remove locks on this chunk
-                lockedBlocks.removeIf(block -> chunk.getChunk().getWorld().getBlockAt(block.getX(), block.getY(), block.getZ()).getChunk().getX() == chunk.getChunk().getX() &&
+                removeLockedBlocksIf(block -> chunk.getChunk().getWorld().getBlockAt(block.getX(), block.getY(), block.getZ()).getChunk().getX() == chunk.getChunk().getX() &&
                         chunk.getChunk().getWorld().getBlockAt(block.getX(), block.getY(), block.getZ()).getChunk().getZ() == chunk.getChunk().getZ());
 
                 FactionClaimEvent claimEvent = new FactionClaimEvent(claimantsFaction, claimant, chunk.getChunk());
                 Bukkit.getPluginManager().callEvent(claimEvent);
                 if (!claimEvent.isCancelled()) {
-                    claimedChunks.remove(chunk);
-
                     Chunk toClaim = world.getChunkAt((int) chunkCoords[0], (int) chunkCoords[1]);
-                    addClaimedChunk(toClaim, claimantsFaction, claimant.getWorld());
+                    conquerClaimedChunk(chunk, toClaim, claimantsFaction, claimant.getWorld());
                     playerService.sendMessage(claimant, ChatColor.GREEN + String.format(localeService.get("AlertLandConqueredFromAnotherFaction"), targetFaction.getName(), getChunksClaimedByFaction(claimantsFaction.getName()), claimantsFaction.getCumulativePowerLevel())
                             , Objects.requireNonNull(messageService.getLanguage().getString("AlertLandConqueredFromAnotherFaction")).replace("#name", targetFaction.getName()).replace("#number#", String.valueOf(getChunksClaimedByFaction(claimantsFaction.getName()))).replace("#max#", String.valueOf(claimantsFaction.getCumulativePowerLevel())), true);
 
                     messenger.sendAllPlayersInFactionMessage(targetFaction, playerService
                             .decideWhichMessageToUse(ChatColor.RED + String.format(localeService.get("AlertLandConqueredFromYourFaction"), claimantsFaction.getName())
                                     , Objects.requireNonNull(messageService.getLanguage().getString("AlertLandConqueredFromYourFaction")).replace("#number#", claimantsFaction.getName())));
+                    return true;
                 }
             } else {
                 Chunk toClaim = world.getChunkAt((int) chunkCoords[0], (int) chunkCoords[1]);
@@ -1029,8 +1450,10 @@ public class PersistentData {
                     addClaimedChunk(toClaim, claimantsFaction, claimant.getWorld());
                     playerService.sendMessage(claimant, ChatColor.GREEN + String.format(localeService.get("AlertLandClaimed"), getChunksClaimedByFaction(claimantsFaction.getName()), claimantsFaction.getCumulativePowerLevel())
                             , Objects.requireNonNull(messageService.getLanguage().getString("AlertLandClaimed")).replace("#number#", String.valueOf(getChunksClaimedByFaction(claimantsFaction.getName()))).replace("#max#", String.valueOf(claimantsFaction.getCumulativePowerLevel())), true);
+                    return true;
                 }
             }
+            return false;
         }
 
         /**
@@ -1041,10 +1464,26 @@ public class PersistentData {
          * @param world   The world that the claimed chunk is located in.
          */
         private void addClaimedChunk(Chunk chunk, Faction faction, World world) {
+            addClaim(createClaimedChunk(chunk, faction, world));
+        }
+
+        /**
+         * Hands a claimed chunk over to the faction that conquered it.
+         *
+         * @param existing The claim being conquered.
+         * @param chunk    The chunk being conquered.
+         * @param faction  The faction conquering the chunk.
+         * @param world    The world that the chunk is located in.
+         */
+        private void conquerClaimedChunk(ClaimedChunk existing, Chunk chunk, Faction faction, World world) {
+            conquerClaim(existing, createClaimedChunk(chunk, faction, world));
+        }
+
+        private ClaimedChunk createClaimedChunk(Chunk chunk, Faction faction, World world) {
             ClaimedChunk newChunk = new ClaimedChunk(chunk);
-            newChunk.setHolder(faction.getName());
+            newChunk.setHolderId(faction.getId());
             newChunk.setWorld(world.getName());
-            claimedChunks.add(newChunk);
+            return newChunk;
         }
 
         /**
@@ -1079,13 +1518,7 @@ public class PersistentData {
          * @return The claimed chunk if the chunk is claimed, and null if it is not.
          */
         private ClaimedChunk isChunkClaimed(double x, double y, String world) {
-            for (ClaimedChunk chunk : claimedChunks) {
-                if (x == chunk.getCoordinates()[0] && y == chunk.getCoordinates()[1] && world.equalsIgnoreCase(chunk.getWorldName())) {
-                    return chunk;
-                }
-            }
-
-            return null;
+            return claimIndex.get(world, (int) x, (int) y);
         }
 
         /**
@@ -1110,7 +1543,7 @@ public class PersistentData {
             Faction playersFaction = getPlayersFaction(unclaimingPlayer.getUniqueId());
 
             // ensure that the claimed chunk is owned by the player's faction
-            if (!chunkToRemove.getHolder().equals(playersFaction.getName())) {
+            if (chunkToRemove.getHolderId() != playersFaction.getId()) {
                 // TODO: add locale message
                 return;
             }
@@ -1128,7 +1561,7 @@ public class PersistentData {
             }
 
             // remove locks on this chunk
-            lockedBlocks.removeIf(block -> chunkToRemove.getChunk().getWorld().getBlockAt(block.getX(), block.getY(), block.getZ()).getChunk().getX() == chunkToRemove.getChunk().getX() &&
+            removeLockedBlocksIf(block -> chunkToRemove.getChunk().getWorld().getBlockAt(block.getX(), block.getY(), block.getZ()).getChunk().getX() == chunkToRemove.getChunk().getX() &&
                     chunkToRemove.getChunk().getWorld().getBlockAt(block.getX(), block.getY(), block.getZ()).getChunk().getZ() == chunkToRemove.getChunk().getZ() &&
                     block.getWorld().equalsIgnoreCase(chunkToRemove.getWorldName()));
 
@@ -1142,38 +1575,36 @@ public class PersistentData {
                 }
             }
 
-            claimedChunks.remove(chunkToRemove);
+            removeClaim(chunkToRemove);
         }
 
         /**
-         * This can be utilized to get a chunk locationally relative to another chunk.
+         * Checks whether a claimed chunk can be conquered as part of a radius claim, applying the same rules as a single
+         * conquest. Each target faction's surplus over its demesne limit is computed once and then counted down, so that
+         * a batch never takes a faction below its limit.
          *
-         * @param origin    The chunk we are checking.
-         * @param direction The direction the chunk we want to grab is.
+         * @param existing             The claim on the chunk.
+         * @param claimantsFaction     The faction claiming the radius.
+         * @param conquerableByFaction How many more chunks can be taken from each target faction in this batch.
+         * @return Whether the chunk can be taken.
          */
-        private Chunk getChunkByDirection(Chunk origin, String direction) {
-
-            int x = -1;
-            int z = -1;
-
-            if (direction.equalsIgnoreCase("north")) {
-                x = origin.getX();
-                z = origin.getZ() + 1;
-            }
-            if (direction.equalsIgnoreCase("east")) {
-                x = origin.getX() + 1;
-                z = origin.getZ();
+        private boolean isConquerableInBatch(ClaimedChunk existing, Faction claimantsFaction, Map<Integer, Integer> conquerableByFaction) {
+            int targetId = existing.getHolderId();
+            if (targetId == claimantsFaction.getId() || !claimantsFaction.isEnemy(targetId)) {
+                return false;
             }
-            if (direction.equalsIgnoreCase("south")) {
-                x = origin.getX();
-                z = origin.getZ() - 1;
+            if (configService.getBoolean("surroundedChunksProtected") && isClaimedChunkSurroundedByChunksClaimedBySameFaction(existing)) {
+                return false;
             }
-            if (direction.equalsIgnoreCase("west")) {
-                x = origin.getX() - 1;
-                z = origin.getZ();
+            int conquerable = conquerableByFaction.computeIfAbsent(targetId, id -> {
+                Faction target = getFaction(id);
+                return target == null ? 0 : claimedChunksByFaction.count(id) - target.getCumulativePowerLevel();
+            });
+            if (conquerable <= 0) {
+                return false;
             }
-
-            return origin.getWorld().getChunkAt(x, z);
+            conquerableByFaction.put(targetId, conquerable - 1);
+            return true;
         }
 
         /**
@@ -1183,29 +1614,7 @@ public class PersistentData {
          * @return Boolean indicating whether or not the claimed chunk is surrounded.
          */
         private boolean isClaimedChunkSurroundedByChunksClaimedBySameFaction(ClaimedChunk target) {
-            ClaimedChunk northernClaimedChunk = getClaimedChunk(getChunkByDirection(target.getChunk(), "north"));
-            ClaimedChunk easternClaimedChunk = getClaimedChunk(getChunkByDirection(target.getChunk(), "east"));
-            ClaimedChunk southernClaimedChunk = getClaimedChunk(getChunkByDirection(target.getChunk(), "south"));
-            ClaimedChunk westernClaimedChunk = getClaimedChunk(getChunkByDirection(target.getChunk(), "west"));
-
-            if (northernClaimedChunk == null ||
-                    easternClaimedChunk == null ||
-                    southernClaimedChunk == null ||
-                    westernClaimedChunk == null) {
-
-                return false;
-
-            }
-
-            boolean northernChunkClaimedBySameFaction = target.getHolder().equalsIgnoreCase(northernClaimedChunk.getHolder());
-            boolean easternChunkClaimedBySameFaction = target.getHolder().equalsIgnoreCase(easternClaimedChunk.getHolder());
-            boolean southernChunkClaimedBySameFaction = target.getHolder().equalsIgnoreCase(southernClaimedChunk.getHolder());
-            boolean westernChunkClaimedBySameFaction = target.getHolder().equalsIgnoreCase(westernClaimedChunk.getHolder());
-
-            return (northernChunkClaimedBySameFaction &&
-                    easternChunkClaimedBySameFaction &&
-                    southernChunkClaimedBySameFaction &&
-                    westernChunkClaimedBySameFaction);
+            return claimIndex.isSurroundedBySameHolder(target);
         }
 
         /**
@@ -1325,20 +1734,66 @@ public class PersistentData {
 
         private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
+        // Saves are encoded and written one at a time, in the order they were taken
+        private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MedievalFactions-Save");
+            thread.setDaemon(true);
+            return thread;
+        });
+
         public LocalStorageService(PersistentData persistentData) {
             this.persistentData = persistentData;
         }
 
+        /**
+         * Save everything and wait for the files to be written.
+         */
         public void save() {
-            saveFactions();
-            saveClaimedChunks();
-            savePlayerPowerRecords();
-            savePlayerActivityRecords();
-            saveLockedBlocks();
+            Future<?> written = saveInBackground();
+            try {
+                written.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.error("Failed to write save files", e.getCause());
+            }
+        }
+
+        /**
+         * Stop the save thread, waiting for any write that is still in flight. Saves requested afterwards are rejected.
+         */
+        public void shutdown() {
+            writer.shutdown();
+            try {
+                if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.error("Timed out waiting for save files to be written");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Copy every store into save data within this tick, so that the files agree with one another, then encode the
+         * copies as JSON and write them out on a background thread.
+         * <p>
+         * Must be called from the main thread.
+         * </p>
+         *
+         * @return The pending write of the files.
+         */
+        public Future<?> saveInBackground() {
+            Map<File, List<Map<String, String>>> files = new LinkedHashMap<>();
+            files.put(new File(FILE_PATH + FACTIONS_FILE_NAME), saveFactions());
+            files.put(new File(FILE_PATH + CHUNKS_FILE_NAME), saveClaimedChunks());
+            files.put(new File(FILE_PATH + PLAYERPOWER_FILE_NAME), playerRecordStore.savePowerRecords());
+            files.put(new File(FILE_PATH + PLAYERACTIVITY_FILE_NAME), playerRecordStore.saveActivityRecords());
+            files.put(new File(FILE_PATH + LOCKED_BLOCKS_FILE_NAME), saveLockedBlocks());
             saveWars();
             if (configService.hasBeenAltered()) {
                 medievalFactions.saveConfig();
             }
+            return writer.submit(() -> files.forEach(this::writeOutFiles));
         }
 
         public void load() {
@@ -1348,56 +1803,50 @@ public class PersistentData {
             loadPlayerActivityRecords();
             loadLockedBlocks();
             loadWars();
+            claimChangeFeed.reset();
+            publishSnapshot();
+            ephemeralData.getOnlineMemberIndex().rebuild(snapshot, getServer().getOnlinePlayers());
+            startPowerAccrualForOnlinePlayers();
+            scheduleInactivityDecayForOfflinePlayers();
         }
 
-        private void saveFactions() {
+        private List<Map<String, String>> saveFactions() {
             List<Map<String, String>> factionsToSave = new ArrayList<>();
             for (Faction faction : factions) {
                 factionsToSave.add(faction.save());
             }
-
-            File file = new File(FILE_PATH + FACTIONS_FILE_NAME);
-            writeOutFiles(file, factionsToSave);
+            return factionsToSave;
         }
 
-        private void saveClaimedChunks() {
+        private List<Map<String, String>> saveClaimedChunks() {
             List<Map<String, String>> claimedChunksToSave = new ArrayList<>();
             for (ClaimedChunk chunk : claimedChunks) {
-                claimedChunksToSave.add(chunk.save());
+                Map<String, String> saveMap = chunk.save();
+                putFactionName(saveMap, "holder", chunk.getHolderId());
+                claimedChunksToSave.add(saveMap);
             }
-
-            File file = new File(FILE_PATH + CHUNKS_FILE_NAME);
-            writeOutFiles(file, claimedChunksToSave);
+            return claimedChunksToSave;
         }
 
-        private void savePlayerPowerRecords() {
-            List<Map<String, String>> powerRecordsToSave = new ArrayList<>();
-            for (PowerRecord record : powerRecords) {
-                powerRecordsToSave.add(record.save());
-            }
-
-            File file = new File(FILE_PATH + PLAYERPOWER_FILE_NAME);
-            writeOutFiles(file, powerRecordsToSave);
-        }
-
-        private void savePlayerActivityRecords() {
-            List<Map<String, String>> activityRecordsToSave = new ArrayList<>();
-            for (ActivityRecord record : activityRecords) {
-                activityRecordsToSave.add(record.save());
-
-                File file = new File(FILE_PATH + PLAYERACTIVITY_FILE_NAME);
-                writeOutFiles(file, activityRecordsToSave);
-            }
-        }
-
-        private void saveLockedBlocks() {
+        private List<Map<String, String>> saveLockedBlocks() {
             List<Map<String, String>> lockedBlocksToSave = new ArrayList<>();
             for (LockedBlock block : lockedBlocks) {
-                lockedBlocksToSave.add(block.save());
+                Map<String, String> saveMap = block.save();
+                putFactionName(saveMap, "factionName", block.getFactionId());
+                lockedBlocksToSave.add(saveMap);
             }
+            return lockedBlocksToSave;
+        }
 
-            File file = new File(FILE_PATH + LOCKED_BLOCKS_FILE_NAME);
-            writeOutFiles(file, lockedBlocksToSave);
+        /*
+         * Save the name of a referenced faction next to its id, in the field versions from before faction ids read,
+         * so that rolling back to such a version does not lose the reference. The id is used whenever it is present.
+         */
+        private void putFactionName(Map<String, String> saveMap, String key, int factionId) {
+            String factionName = factionRegistry.getName(factionId);
+            if (factionName != null) {
+                saveMap.put(key, gson.toJson(factionName));
+            }
         }
 
         private void saveWars() {
@@ -1423,56 +1872,95 @@ public class PersistentData {
 
         private void loadFactions() {
             factions.clear();
+            factionRegistry.clear();
 
             ArrayList<HashMap<String, String>> data = loadDataFromFilename(FILE_PATH + FACTIONS_FILE_NAME);
 
             for (Map<String, String> factionData : data) {
-                Faction newFaction = new Faction(factionData, configService, localeService, dynmapIntegrator, logger, persistentData, medievalFactions, playerService);
+                Faction newFaction = new Faction(factionData, configService, localeService, logger, persistentData, medievalFactions, playerService);
                 factions.add(newFaction);
+                if (newFaction.getId() != FactionRegistry.NO_FACTION) {
+                    factionRegistry.register(newFaction);
+                }
+            }
+
+            // factions saved before ids were introduced get one now, after every stored id has been reserved
+            for (Faction faction : factions) {
+                if (faction.getId() == FactionRegistry.NO_FACTION) {
+                    faction.assignId(factionRegistry.nextId());
+                    factionRegistry.register(faction);
+                }
+            }
+
+            for (int i = 0; i < factions.size(); i++) {
+                factions.get(i).migrateNameReferences(data.get(i));
             }
         }
 
+        /**
+         * Resolve the name a record used to refer to its faction by, before records referred to factions by id.
+         *
+         * @return The id of the named faction, or {@link FactionRegistry#NO_FACTION} if it does not exist.
+         */
+        private int resolveLegacyFactionReference(Map<String, String> data, String key) {
+            if (!data.containsKey(key)) {
+                return FactionRegistry.NO_FACTION;
+            }
+            return factionRegistry.getId(gson.fromJson(data.get(key), String.class));
+        }
+
         private void loadClaimedChunks() {
             claimedChunks.clear();
+            claimedChunksByFaction.clear();
+            claimIndex.clear();
 
             ArrayList<HashMap<String, String>> data = loadDataFromFilename(FILE_PATH + CHUNKS_FILE_NAME);
 
             for (Map<String, String> chunkData : data) {
                 ClaimedChunk chunk = new ClaimedChunk(chunkData);
-                claimedChunks.add(chunk);
+                if (chunk.getHolderId() == FactionRegistry.NO_FACTION) {
+                    chunk.setHolderId(resolveLegacyFactionReference(chunkData, "holder"));
+                }
+                if (getFaction(chunk.getHolderId()) == null) {
+                    logger.debug(() -> "Dropping a claimed chunk held by a faction that no longer exists: " + chunkData);
+                    continue;
+                }
+                indexClaim(chunk);
             }
         }
 
         private void loadPlayerPowerRecords() {
-            powerRecords.clear();
+            playerRecordStore.clearPowerRecords();
 
             ArrayList<HashMap<String, String>> data = loadDataFromFilename(FILE_PATH + PLAYERPOWER_FILE_NAME);
 
             for (Map<String, String> powerRecord : data) {
-                PowerRecord player = new PowerRecord(powerRecord, configService, persistentData);
-                powerRecords.add(player);
+                playerRecordStore.loadPowerRecord(powerRecord);
             }
         }
 
         private void loadPlayerActivityRecords() {
-            activityRecords.clear();
+            playerRecordStore.clearActivityRecords();
 
             ArrayList<HashMap<String, String>> data = loadDataFromFilename(FILE_PATH + PLAYERACTIVITY_FILE_NAME);
 
-            for (Map<String, String> powerRecord : data) {
-                ActivityRecord player = new ActivityRecord(powerRecord, configService);
-                activityRecords.add(player);
+            for (Map<String, String> activityRecord : data) {
+                playerRecordStore.loadActivityRecord(activityRecord);
             }
         }
 
         private void loadLockedBlocks() {
             lockedBlocks.clear();
+            lockedBlocksByFaction.clear();
 
             ArrayList<HashMap<String, String>> data = loadDataFromFilename(FILE_PATH + LOCKED_BLOCKS_FILE_NAME);
 
             for (Map<String, String> lockedBlockData : data) {
-                LockedBlock lockedBlock = new LockedBlock(lockedBlockData);
-                lockedBlocks.add(lockedBlock);
+                LockedBlock lockedBlock = new LockedBlock(playerRegistry, lockedBlockData);
+                if (lockedBlock.getFactionId() == FactionRegistry.NO_FACTION) {
+                    lockedBlock.setFactionId(resolveLegacyFactionReference(lockedBlockData, "factionName"));
+                }
+                addLockedBlock(lockedBlock);
             }
         }
 
@@ -0,0 +1,333 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dansplugins.factionsystem.objects.domain.ActivityRecord;
+import dansplugins.factionsystem.objects.domain.PowerRecord;
+import dansplugins.factionsystem.services.ConfigService;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds every player's power and activity data in parallel primitive arrays, indexed by {@link PlayerRegistry} id.
+ * <p>
+ * {@link PowerRecord} and {@link ActivityRecord} are thin views over a row of this table. They are created on demand
+ * and hold nothing but the player's id, so callers may keep or discard them freely. Sweeps over every player, such
+ * as saving or resetting power levels, walk the arrays directly instead of chasing one object per player.
+ * </p>
+ * <p>
+ * The two kinds of record are still saved to their own files, in the same format as before, so that existing data
+ * stays readable by older versions of the plugin.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class PlayerRecordStore {
+    private static final byte HAS_POWER_RECORD = 1;
+    private static final byte HAS_ACTIVITY_RECORD = 2;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final PlayerRegistry playerRegistry;
+    private final ConfigService configService;
+    private final PersistentData persistentData;
+
+    private byte[] present = new byte[INITIAL_CAPACITY];
+    private double[] power = new double[INITIAL_CAPACITY];
+    private long[] lastSettledAt = new long[INITIAL_CAPACITY];
+    private double[] unannouncedGain = new double[INITIAL_CAPACITY];
+    private long[] lastLogout = new long[INITIAL_CAPACITY];
+    private int[] logins = new int[INITIAL_CAPACITY];
+    private int[] powerLost = new int[INITIAL_CAPACITY];
+    private String[] lastKnownName = new String[INITIAL_CAPACITY];
+    private int rows = 0;
+    private int powerRecordCount = 0;
+    private int activityRecordCount = 0;
+
+    public PlayerRecordStore(PlayerRegistry playerRegistry, ConfigService configService, PersistentData persistentData) {
+        this.playerRegistry = playerRegistry;
+        this.configService = configService;
+        this.persistentData = persistentData;
+    }
+
+    public PlayerRegistry getPlayerRegistry() {
+        return playerRegistry;
+    }
+
+    /**
+     * Create a power record for the player. If they already have one it is returned as is, so that their power is not
+     * reset.
+     */
+    public PowerRecord createPowerRecord(UUID playerUUID, double initialPower) {
+        int playerId = ensureRow(playerUUID);
+        if ((present[playerId] & HAS_POWER_RECORD) == 0) {
+            present[playerId] |= HAS_POWER_RECORD;
+            powerRecordCount++;
+            power[playerId] = initialPower;
+            lastSettledAt[playerId] = 0;
+            unannouncedGain[playerId] = 0;
+        }
+        return new PowerRecord(this, playerId, configService, persistentData);
+    }
+
+    /**
+     * Create an activity record for the player. If they already have one it is returned as is.
+     */
+    public ActivityRecord createActivityRecord(UUID playerUUID, int initialLogins) {
+        int playerId = ensureRow(playerUUID);
+        if ((present[playerId] & HAS_ACTIVITY_RECORD) == 0) {
+            present[playerId] |= HAS_ACTIVITY_RECORD;
+            activityRecordCount++;
+            logins[playerId] = initialLogins;
+            powerLost[playerId] = 0;
+            lastLogout[playerId] = System.currentTimeMillis();
+        }
+        return new ActivityRecord(this, playerId, configService);
+    }
+
+    public PowerRecord getPowerRecord(UUID playerUUID) {
+        return getPowerRecord(playerRegistry.find(playerUUID));
+    }
+
+    public PowerRecord getPowerRecord(int playerId) {
+        return hasPowerRecord(playerId) ? new PowerRecord(this, playerId, configService, persistentData) : null;
+    }
+
+    public ActivityRecord getActivityRecord(UUID playerUUID) {
+        return getActivityRecord(playerRegistry.find(playerUUID));
+    }
+
+    public ActivityRecord getActivityRecord(int playerId) {
+        return hasActivityRecord(playerId) ? new ActivityRecord(this, playerId, configService) : null;
+    }
+
+    public boolean hasPowerRecord(int playerId) {
+        return playerId >= 0 && playerId < rows && (present[playerId] & HAS_POWER_RECORD) != 0;
+    }
+
+    public boolean hasActivityRecord(int playerId) {
+        return playerId >= 0 && playerId < rows && (present[playerId] & HAS_ACTIVITY_RECORD) != 0;
+    }
+
+    /**
+     * @return A view of every power record, in player id order.
+     */
+    public List<PowerRecord> getPowerRecords() {
+        List<PowerRecord> records = new ArrayList<>(powerRecordCount);
+        for (int playerId = 0; playerId < rows; playerId++) {
+            if ((present[playerId] & HAS_POWER_RECORD) != 0) {
+                records.add(new PowerRecord(this, playerId, configService, persistentData));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @return A view of every activity record, in player id order.
+     */
+    public List<ActivityRecord> getActivityRecords() {
+        List<ActivityRecord> records = new ArrayList<>(activityRecordCount);
+        for (int playerId = 0; playerId < rows; playerId++) {
+            if ((present[playerId] & HAS_ACTIVITY_RECORD) != 0) {
+                records.add(new ActivityRecord(this, playerId, configService));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Set every player's power level. Players who are accruing power lazily start a fresh accrual interval, and any
+     * gain they have not been told about yet is dropped.
+     *
+     * @param newPower The power level to give every player.
+     */
+    public void resetPower(double newPower) {
+        long now = System.currentTimeMillis();
+        for (int playerId = 0; playerId < rows; playerId++) {
+            if ((present[playerId] & HAS_POWER_RECORD) == 0) {
+                continue;
+            }
+            power[playerId] = newPower;
+            unannouncedGain[playerId] = 0;
+            if (lastSettledAt[playerId] != 0) {
+                lastSettledAt[playerId] = now;
+            }
+        }
+    }
+
+    public int getNumPowerRecords() {
+        return powerRecordCount;
+    }
+
+    public int getNumActivityRecords() {
+        return activityRecordCount;
+    }
+
+    public double getPower(int playerId) {
+        return power[playerId];
+    }
+
+    public void setPower(int playerId, double value) {
+        power[playerId] = value;
+    }
+
+    public long getLastSettledAt(int playerId) {
+        return lastSettledAt[playerId];
+    }
+
+    public void setLastSettledAt(int playerId, long epochMillis) {
+        lastSettledAt[playerId] = epochMillis;
+    }
+
+    public double getUnannouncedGain(int playerId) {
+        return unannouncedGain[playerId];
+    }
+
+    public void setUnannouncedGain(int playerId, double value) {
+        unannouncedGain[playerId] = value;
+    }
+
+    public long getLastLogout(int playerId) {
+        return lastLogout[playerId];
+    }
+
+    public void setLastLogout(int playerId, long epochMillis) {
+        lastLogout[playerId] = epochMillis;
+    }
+
+    public int getLogins(int playerId) {
+        return logins[playerId];
+    }
+
+    public void setLogins(int playerId, int value) {
+        logins[playerId] = value;
+    }
+
+    public int getPowerLost(int playerId) {
+        return powerLost[playerId];
+    }
+
+    public void setPowerLost(int playerId, int value) {
+        powerLost[playerId] = value;
+    }
+
+    /**
+     * @return The name the player had when last seen on this server, or {@code null} if it is not known.
+     */
+    public String getLastKnownName(int playerId) {
+        return playerId >= 0 && playerId < rows ? lastKnownName[playerId] : null;
+    }
+
+    public void setLastKnownName(int playerId, String name) {
+        lastKnownName[playerId] = name;
+    }
+
+    public void setLastKnownName(UUID playerUUID, String name) {
+        lastKnownName[ensureRow(playerUUID)] = name;
+    }
+
+    public List<Map<String, String>> savePowerRecords() {
+        List<Map<String, String>> saved = new ArrayList<>(powerRecordCount);
+        for (int playerId = 0; playerId < rows; playerId++) {
+            if ((present[playerId] & HAS_POWER_RECORD) == 0) {
+                continue;
+            }
+            if (lastSettledAt[playerId] != 0) {
+                new PowerRecord(this, playerId, configService, persistentData).settle();
+            }
+            Map<String, String> saveMap = new HashMap<>();
+            saveMap.put("playerUUID", gson.toJson(playerRegistry.getUUID(playerId).toString()));
+            saveMap.put("powerLevel", gson.toJson(power[playerId]));
+            saved.add(saveMap);
+        }
+        return saved;
+    }
+
+    public List<Map<String, String>> saveActivityRecords() {
+        List<Map<String, String>> saved = new ArrayList<>(activityRecordCount);
+        for (int playerId = 0; playerId < rows; playerId++) {
+            if ((present[playerId] & HAS_ACTIVITY_RECORD) == 0) {
+                continue;
+            }
+            Map<String, String> saveMap = new HashMap<>();
+            saveMap.put("playerUUID", gson.toJson(playerRegistry.getUUID(playerId).toString()));
+            saveMap.put("logins", gson.toJson(logins[playerId]));
+            saveMap.put("lastLogoutMillis", gson.toJson(lastLogout[playerId]));
+            saveMap.put("lastLogout", gson.toJson(String.valueOf(new ActivityRecord(this, playerId, configService).getLastLogout()))); // kept for older versions of the plugin
+            saveMap.put("powerLost", gson.toJson(powerLost[playerId]));
+            if (lastKnownName[playerId] != null) {
+                saveMap.put("lastKnownName", gson.toJson(lastKnownName[playerId]));
+            }
+            saved.add(saveMap);
+        }
+        return saved;
+    }
+
+    public void loadPowerRecord(Map<String, String> data) {
+        UUID playerUUID = UUID.fromString(gson.fromJson(data.get("playerUUID"), String.class));
+        double powerLevel = gson.fromJson(data.get("powerLevel"), Double.TYPE);
+        createPowerRecord(playerUUID, powerLevel);
+        power[playerRegistry.find(playerUUID)] = powerLevel;
+    }
+
+    public void loadActivityRecord(Map<String, String> data) {
+        UUID playerUUID = UUID.fromString(gson.fromJson(data.get("playerUUID"), String.class));
+        int loginCount = gson.fromJson(data.get("logins"), Integer.TYPE);
+        ActivityRecord record = createActivityRecord(playerUUID, loginCount);
+        logins[playerRegistry.find(playerUUID)] = loginCount;
+        if (data.containsKey("lastLogoutMillis")) {
+            record.setLastLogoutMillis(gson.fromJson(data.get("lastLogoutMillis"), Long.TYPE));
+        } else {
+            record.setLastLogout(ZonedDateTime.parse(gson.fromJson(data.get("lastLogout"), String.class), DateTimeFormatter.ISO_ZONED_DATE_TIME));
+        }
+        record.setPowerLost(gson.fromJson(data.get("powerLost"), Integer.TYPE));
+        if (data.containsKey("lastKnownName")) {
+            record.setLastKnownName(gson.fromJson(data.get("lastKnownName"), String.class));
+        }
+    }
+
+    /**
+     * Forget every power record. Player ids stay valid, since they belong to the {@link PlayerRegistry}.
+     */
+    public void clearPowerRecords() {
+        for (int playerId = 0; playerId < rows; playerId++) {
+            present[playerId] &= ~HAS_POWER_RECORD;
+        }
+        powerRecordCount = 0;
+    }
+
+    public void clearActivityRecords() {
+        for (int playerId = 0; playerId < rows; playerId++) {
+            present[playerId] &= ~HAS_ACTIVITY_RECORD;
+        }
+        activityRecordCount = 0;
+    }
+
+    private int ensureRow(UUID playerUUID) {
+        int playerId = playerRegistry.intern(playerUUID);
+        if (playerId >= present.length) {
+            int capacity = Math.max(playerId + 1, present.length * 2);
+            present = Arrays.copyOf(present, capacity);
+            power = Arrays.copyOf(power, capacity);
+            lastSettledAt = Arrays.copyOf(lastSettledAt, capacity);
+            unannouncedGain = Arrays.copyOf(unannouncedGain, capacity);
+            lastLogout = Arrays.copyOf(lastLogout, capacity);
+            logins = Arrays.copyOf(logins, capacity);
+            powerLost = Arrays.copyOf(powerLost, capacity);
+            lastKnownName = Arrays.copyOf(lastKnownName, capacity);
+        }
+        rows = Math.max(rows, playerId + 1);
+        return playerId;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Interns player UUIDs as dense ints, so that memberships and access lists can be stored as primitive int sets
+ * instead of lists of {@link UUID} objects.
+ * <p>
+ * Each known player costs two longs and one hash slot; no {@link UUID} objects are retained. Ids are only valid for
+ * the lifetime of the server process and are never written to disk, where players are still stored by UUID.
+ * The registry is only ever used from the main thread.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class PlayerRegistry {
+    /**
+     * Returned by {@link #find(UUID)} for a player that has never been interned.
+     */
+    public static final int UNKNOWN_PLAYER = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] mostSignificantBits = new long[INITIAL_CAPACITY];
+    private long[] leastSignificantBits = new long[INITIAL_CAPACITY];
+    private int count = 0;
+
+    // open-addressing table of id + 1, so that 0 marks an empty slot
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * @param uuid The player's UUID.
+     * @return The player's id, which is assigned on first use.
+     */
+    public int intern(UUID uuid) {
+        int id = find(uuid);
+        if (id != UNKNOWN_PLAYER) {
+            return id;
+        }
+        if (count == mostSignificantBits.length) {
+            mostSignificantBits = Arrays.copyOf(mostSignificantBits, count * 2);
+            leastSignificantBits = Arrays.copyOf(leastSignificantBits, count * 2);
+            rehash(slots.length * 2);
+        }
+        id = count++;
+        mostSignificantBits[id] = uuid.getMostSignificantBits();
+        leastSignificantBits[id] = uuid.getLeastSignificantBits();
+        insert(id);
+        return id;
+    }
+
+    /**
+     * @param uuid The player's UUID.
+     * @return The player's id, or {@link #UNKNOWN_PLAYER} if the player has never been interned.
+     */
+    public int find(UUID uuid) {
+        if (uuid == null) {
+            return UNKNOWN_PLAYER;
+        }
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        int mask = slots.length - 1;
+        for (int slot = hash(most, least) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (mostSignificantBits[id] == most && leastSignificantBits[id] == least) {
+                return id;
+            }
+        }
+        return UNKNOWN_PLAYER;
+    }
+
+    /**
+     * @param id An id handed out by {@link #intern(UUID)}.
+     * @return The UUID of the player with that id.
+     */
+    public UUID getUUID(int id) {
+        if (id < 0 || id >= count) {
+            throw new IllegalArgumentException("Unknown player id " + id);
+        }
+        return new UUID(mostSignificantBits[id], leastSignificantBits[id]);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private void insert(int id) {
+        int mask = slots.length - 1;
+        int slot = hash(mostSignificantBits[id], leastSignificantBits[id]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int id = 0; id < count; id++) {
+            insert(id);
+        }
+    }
+
+    private static int hash(long most, long least) {
+        long bits = most ^ least;
+        int hash = (int) (bits ^ (bits >>> 32));
+        return hash ^ (hash >>> 16);
+    }
+}
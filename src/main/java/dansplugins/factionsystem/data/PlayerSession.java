@@ -0,0 +1,157 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.Gate;
+import org.bukkit.Location;
+
+import java.util.UUID;
+
+/**
+ * The transient state of one online player, such as whether they are locking blocks or talking in faction chat.
+ * <p>
+ * A session is opened when the player joins and discarded when they quit, so nothing here outlives the connection.
+ * Modes are kept as bits of a single int rather than as membership of separate lists.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class PlayerSession {
+    private static final int LOCKING = 1;
+    private static final int UNLOCKING = 1 << 1;
+    private static final int FORCEFULLY_UNLOCKING = 1 << 2;
+    private static final int CHECKING_ACCESS = 1 << 3;
+    private static final int IN_FACTION_CHAT = 1 << 4;
+    private static final int BYPASSING_PROTECTIONS = 1 << 5;
+    private static final int AUTO_MAPPING = 1 << 6;
+
+    private int modes = 0;
+    private Gate gateBeingCreated = null;
+    private UUID grantingAccessTo = null;
+    private UUID revokingAccessFrom = null;
+    private Location pendingAutoMapCentre = null;
+
+    public boolean isLocking() {
+        return has(LOCKING);
+    }
+
+    /**
+     * @return Whether the mode changed.
+     */
+    public boolean setLocking(boolean value) {
+        return set(LOCKING, value);
+    }
+
+    public boolean isUnlocking() {
+        return has(UNLOCKING);
+    }
+
+    public boolean setUnlocking(boolean value) {
+        return set(UNLOCKING, value);
+    }
+
+    public boolean isForcefullyUnlocking() {
+        return has(FORCEFULLY_UNLOCKING);
+    }
+
+    public boolean setForcefullyUnlocking(boolean value) {
+        return set(FORCEFULLY_UNLOCKING, value);
+    }
+
+    public boolean isCheckingAccess() {
+        return has(CHECKING_ACCESS);
+    }
+
+    public boolean setCheckingAccess(boolean value) {
+        return set(CHECKING_ACCESS, value);
+    }
+
+    public boolean isInFactionChat() {
+        return has(IN_FACTION_CHAT);
+    }
+
+    public boolean setInFactionChat(boolean value) {
+        return set(IN_FACTION_CHAT, value);
+    }
+
+    public boolean isBypassingProtections() {
+        return has(BYPASSING_PROTECTIONS);
+    }
+
+    public boolean setBypassingProtections(boolean value) {
+        return set(BYPASSING_PROTECTIONS, value);
+    }
+
+    public boolean isAutoMapping() {
+        return has(AUTO_MAPPING);
+    }
+
+    public boolean setAutoMapping(boolean value) {
+        return set(AUTO_MAPPING, value);
+    }
+
+    public boolean isCreatingGate() {
+        return gateBeingCreated != null;
+    }
+
+    public Gate getGateBeingCreated() {
+        return gateBeingCreated;
+    }
+
+    public void setGateBeingCreated(Gate gate) {
+        gateBeingCreated = gate;
+    }
+
+    public boolean isGrantingAccess() {
+        return grantingAccessTo != null;
+    }
+
+    /**
+     * @return The player who is to be granted access to the next block this player clicks, or {@code null}.
+     */
+    public UUID getGrantingAccessTo() {
+        return grantingAccessTo;
+    }
+
+    public void setGrantingAccessTo(UUID playerUUID) {
+        grantingAccessTo = playerUUID;
+    }
+
+    public boolean isRevokingAccess() {
+        return revokingAccessFrom != null;
+    }
+
+    /**
+     * @return The player whose access to the next block this player clicks is to be revoked, or {@code null}.
+     */
+    public UUID getRevokingAccessFrom() {
+        return revokingAccessFrom;
+    }
+
+    public void setRevokingAccessFrom(UUID playerUUID) {
+        revokingAccessFrom = playerUUID;
+    }
+
+    /**
+     * @return Where the next auto-map frame is to be centred, or {@code null} if no frame is waiting to be drawn.
+     */
+    public Location getPendingAutoMapCentre() {
+        return pendingAutoMapCentre;
+    }
+
+    public void setPendingAutoMapCentre(Location centre) {
+        pendingAutoMapCentre = centre;
+    }
+
+    private boolean has(int mode) {
+        return (modes & mode) != 0;
+    }
+
+    private boolean set(int mode, boolean value) {
+        int previous = modes;
+        modes = value ? modes | mode : modes & ~mode;
+        return modes != previous;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.events.FactionClaimBatchEvent;
+import dansplugins.factionsystem.objects.domain.Faction;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+
+/**
+ * The chunks a radius claim will try to take, chosen from their coordinates alone so that none of them is loaded.
+ * <p>
+ * The square around the centre is walked one column at a time, and chunks are taken until the demesne budget runs
+ * out. Chunks the claimant cannot take do not count against the budget.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+class RadiusClaimPlan {
+    private final int[] chunkXs;
+    private final int[] chunkZs;
+    private final boolean reachedDemesne;
+
+    private RadiusClaimPlan(int[] chunkXs, int[] chunkZs, boolean reachedDemesne) {
+        this.chunkXs = chunkXs;
+        this.chunkZs = chunkZs;
+        this.reachedDemesne = reachedDemesne;
+    }
+
+    /**
+     * @param centreX The x coordinate of the chunk at the centre.
+     * @param centreZ The z coordinate of the chunk at the centre.
+     * @param depth   The radius, in chunks.
+     * @param budget  How many more chunks the claimant may hold.
+     * @param filter  Whether the claimant can take a chunk, e.g. because it is unclaimed or can be conquered.
+     */
+    static RadiusClaimPlan plan(int centreX, int centreZ, int depth, int budget, ChunkFilter filter) {
+        int side = 2 * depth + 1;
+        int[] chunkXs = new int[side * side];
+        int[] chunkZs = new int[side * side];
+        int count = 0;
+        boolean reachedDemesne = false;
+        search:
+        for (int x = centreX - depth; x <= centreX + depth; x++) {
+            for (int z = centreZ - depth; z <= centreZ + depth; z++) {
+                if (!filter.canTake(x, z)) {
+                    continue;
+                }
+                if (budget <= 0) {
+                    reachedDemesne = true;
+                    break search;
+                }
+                budget--;
+                chunkXs[count] = x;
+                chunkZs[count] = z;
+                count++;
+            }
+        }
+        return new RadiusClaimPlan(Arrays.copyOf(chunkXs, count), Arrays.copyOf(chunkZs, count), reachedDemesne);
+    }
+
+    int getChunkCount() {
+        return chunkXs.length;
+    }
+
+    /**
+     * @return Whether the budget ran out before every chunk that could be taken was.
+     */
+    boolean hasReachedDemesne() {
+        return reachedDemesne;
+    }
+
+    FactionClaimBatchEvent toEvent(Faction faction, Player player, World world) {
+        return new FactionClaimBatchEvent(faction, player, world, chunkXs.clone(), chunkZs.clone());
+    }
+
+    /**
+     * Carry out the plan, leaving out every chunk the listeners of the batch event vetoed.
+     *
+     * @param event  The batch event, after it has been called.
+     * @param action What to do with each chunk that was not vetoed, in the order the chunks were planned.
+     * @return The number of chunks that were not vetoed.
+     */
+    int forEachAccepted(FactionClaimBatchEvent event, ChunkAction action) {
+        int accepted = 0;
+        for (int i = 0; i < chunkXs.length; i++) {
+            if (event.isVetoed(chunkXs[i], chunkZs[i])) {
+                continue;
+            }
+            action.accept(chunkXs[i], chunkZs[i]);
+            accepted++;
+        }
+        return accepted;
+    }
+
+    interface ChunkFilter {
+        boolean canTake(int x, int z);
+    }
+
+    interface ChunkAction {
+        void accept(int x, int z);
+    }
+}
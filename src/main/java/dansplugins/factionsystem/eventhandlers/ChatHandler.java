@@ -5,8 +5,9 @@
 package dansplugins.factionsystem.eventhandlers;
 
 import dansplugins.factionsystem.data.EphemeralData;
+import dansplugins.factionsystem.data.FactionSnapshot;
+import dansplugins.factionsystem.data.FactionSnapshot.FactionView;
 import dansplugins.factionsystem.data.PersistentData;
-import dansplugins.factionsystem.objects.domain.Faction;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.utils.extended.Messenger;
 import org.bukkit.ChatColor;
@@ -15,8 +16,6 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import preponderous.ponder.minecraft.bukkit.tools.ColorChecker;
 
-import java.util.ArrayList;
-
 /**
  * @author Daniel McCoy Stephenson
  */
@@ -26,11 +25,6 @@ public class ChatHandler implements Listener {
     private final EphemeralData ephemeralData;
     private final Messenger messenger;
 
-    private String factionChatColor;
-    private String prefixColor;
-    private String prefix;
-    private String message;
-
     public ChatHandler(PersistentData persistentData, ConfigService configService, EphemeralData ephemeralData, Messenger messenger) {
         this.persistentData = persistentData;
         this.configService = configService;
@@ -38,32 +32,32 @@ public class ChatHandler implements Listener {
         this.messenger = messenger;
     }
 
+    /**
+     * This event is fired off the main thread, so faction data is read from the published snapshot rather than the live lists.
+     */
     @EventHandler()
     public void handle(AsyncPlayerChatEvent event) {
-        Faction playersFaction = persistentData.getPlayersFaction(event.getPlayer().getUniqueId());
+        FactionSnapshot snapshot = persistentData.getSnapshot();
+        FactionView playersFaction = snapshot.getPlayersFaction(event.getPlayer().getUniqueId());
         if (playersFaction == null) {
             return;
         }
-        initializeValues(playersFaction, event);
+        String factionChatColor = configService.getString("factionChatColor");
+        String prefixColor = playersFaction.getPrefixColor();
+        String prefix = playersFaction.getPrefix();
+        String message = event.getMessage();
         if (configService.getBoolean("playersChatWithPrefixes")) {
             addPrefix(event, prefixColor, prefix);
         }
         if (ephemeralData.isPlayerInFactionChat(event.getPlayer())) {
-            sendMessage(playersFaction, prefixColor, prefix, event, factionChatColor, message);
+            sendMessage(snapshot, playersFaction, prefixColor, prefix, event, factionChatColor, message);
             event.setCancelled(true);
         }
     }
 
-    private void initializeValues(Faction playersFaction, AsyncPlayerChatEvent event) {
-        factionChatColor = configService.getString("factionChatColor");
-        prefixColor = (String) playersFaction.getFlags().getFlag("prefixColor");
-        prefix = playersFaction.getPrefix();
-        message = event.getMessage();
-    }
-
-    private void sendMessage(Faction playersFaction, String prefixColor, String prefix, AsyncPlayerChatEvent event, String factionChatColor, String message) {
+    private void sendMessage(FactionSnapshot snapshot, FactionView playersFaction, String prefixColor, String prefix, AsyncPlayerChatEvent event, String factionChatColor, String message) {
         if (configService.getBoolean("chatSharedInVassalageTrees")) {
-            sendMessageToVassalageTree(playersFaction, prefixColor, prefix, event, factionChatColor, message);
+            sendMessageToVassalageTree(snapshot, playersFaction, prefixColor, prefix, event, factionChatColor, message);
         } else {
             sendMessageToFaction(playersFaction, prefix, prefixColor, event, factionChatColor, message);
         }
@@ -74,24 +68,20 @@ public class ChatHandler implements Listener {
         event.setFormat(colorChecker.getColorByName(prefixColor) + "" + "[" + prefix + "] " + ChatColor.WHITE + " %s: %s");
     }
 
-    private void sendMessageToVassalageTree(Faction playersFaction, String prefixColor, String prefix, AsyncPlayerChatEvent event, String factionChatColor, String message) {
-        ArrayList<Faction> factionsInVassalageTree = persistentData.getFactionsInVassalageTree(playersFaction);
-        ColorChecker colorChecker = new ColorChecker();
-        for (Faction faction : factionsInVassalageTree) {
-            if (configService.getBoolean("showPrefixesInFactionChat")) {
-                messenger.sendAllPlayersInFactionMessage(faction, colorChecker.getColorByName(prefixColor) + "" + "[" + prefix + "] " + "" + ChatColor.WHITE + "" + event.getPlayer().getName() + ": " + colorChecker.getColorByName(factionChatColor) + message);
-            } else {
-                messenger.sendAllPlayersInFactionMessage(faction, ChatColor.WHITE + "" + event.getPlayer().getName() + ": " + colorChecker.getColorByName(factionChatColor) + message);
-            }
-        }
+    private void sendMessageToVassalageTree(FactionSnapshot snapshot, FactionView playersFaction, String prefixColor, String prefix, AsyncPlayerChatEvent event, String factionChatColor, String message) {
+        messenger.sendAllPlayersInVassalageTreeMessage(snapshot, playersFaction, formatMessage(prefixColor, prefix, event, factionChatColor, message));
+    }
+
+    private void sendMessageToFaction(FactionView playersFaction, String prefix, String prefixColor, AsyncPlayerChatEvent event, String factionChatColor, String message) {
+        messenger.sendAllPlayersInFactionMessage(playersFaction, formatMessage(prefixColor, prefix, event, factionChatColor, message));
     }
 
-    private void sendMessageToFaction(Faction playersFaction, String prefix, String prefixColor, AsyncPlayerChatEvent event, String factionChatColor, String message) {
+    private String formatMessage(String prefixColor, String prefix, AsyncPlayerChatEvent event, String factionChatColor, String message) {
         ColorChecker colorChecker = new ColorChecker();
         if (configService.getBoolean("showPrefixesInFactionChat")) {
-            messenger.sendAllPlayersInFactionMessage(playersFaction, colorChecker.getColorByName(prefixColor) + "" + "[" + prefix + "] " + "" + ChatColor.WHITE + "" + event.getPlayer().getName() + ": " + colorChecker.getColorByName(factionChatColor) + message);
+            return colorChecker.getColorByName(prefixColor) + "" + "[" + prefix + "] " + "" + ChatColor.WHITE + "" + event.getPlayer().getName() + ": " + colorChecker.getColorByName(factionChatColor) + message;
         } else {
-            messenger.sendAllPlayersInFactionMessage(playersFaction, ChatColor.WHITE + "" + event.getPlayer().getName() + ": " + colorChecker.getColorByName(factionChatColor) + message);
+            return ChatColor.WHITE + "" + event.getPlayer().getName() + ": " + colorChecker.getColorByName(factionChatColor) + message;
         }
     }
-}
\ No newline at end of file
+}
@@ -119,7 +119,7 @@ public class DamageHandler implements Listener {
             return false;
         }
 
-        final Faction chunkHolder = persistentData.getFaction(persistentData.getChunkDataAccessor().getClaimedChunk(entity.getLocation().getChunk()).getHolder());
+        final Faction chunkHolder = persistentData.getFaction(persistentData.getChunkDataAccessor().getClaimedChunk(entity.getLocation().getChunk()).getHolderId());
         final Faction attackerFaction = persistentData.getFaction(attacker.getName());
 
         if (!(boolean) chunkHolder.getFlags().getFlag("enableMobProtection")) {
@@ -146,7 +146,7 @@ public class DamageHandler implements Listener {
         }
 
         // If attacker is at war with the faction, return false
-        if (attackerFaction.isEnemy(chunkHolder.getName())) return false;
+        if (attackerFaction.isEnemy(chunkHolder.getId())) return false;
 
         return true;
     }
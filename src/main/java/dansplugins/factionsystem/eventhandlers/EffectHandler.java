@@ -3,6 +3,7 @@ package dansplugins.factionsystem.eventhandlers;
 import dansplugins.factionsystem.MedievalFactions;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.utils.RelationChecker;
+import dansplugins.factionsystem.utils.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.*;
 import org.bukkit.event.EventHandler;
@@ -13,18 +14,25 @@ import org.bukkit.event.entity.PotionSplashEvent;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.potion.PotionType;
-import preponderous.ponder.misc.Pair;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 public class EffectHandler implements Listener {
+    private static final int CLOUD_RECHECK_TICKS = 20;
+
     private final EphemeralData ephemeralData;
     private final MedievalFactions medievalFactions;
     private final RelationChecker relationChecker;
+    private final TimingWheel timingWheel;
 
-    private final List<PotionEffectType> BAD_POTION_EFFECTS = Arrays.asList(
+    // PotionEffectType is not an enum, so a hash set stands in for an EnumSet here
+    private final Set<PotionEffectType> BAD_POTION_EFFECTS = new HashSet<>(Arrays.asList(
             PotionEffectType.BLINDNESS,
             PotionEffectType.CONFUSION,
             PotionEffectType.HARM,
@@ -35,13 +43,14 @@ public class EffectHandler implements Listener {
             PotionEffectType.UNLUCK,
             PotionEffectType.WEAKNESS,
             PotionEffectType.WITHER
-    );
-    private final List<PotionType> BAD_POTION_TYPES = new ArrayList<>();
+    ));
+    private final Set<PotionType> BAD_POTION_TYPES = EnumSet.noneOf(PotionType.class);
 
-    public EffectHandler(EphemeralData ephemeralData, MedievalFactions medievalFactions, RelationChecker relationChecker) {
+    public EffectHandler(EphemeralData ephemeralData, MedievalFactions medievalFactions, RelationChecker relationChecker, TimingWheel timingWheel) {
         this.ephemeralData = ephemeralData;
         this.medievalFactions = medievalFactions;
         this.relationChecker = relationChecker;
+        this.timingWheel = timingWheel;
         initializeBadPotionTypes();
     }
 
@@ -51,18 +60,41 @@ public class EffectHandler implements Listener {
         if (!potionTypeBad(cloud.getBasePotionData().getType())) {
             return;
         }
-        Player attacker = getPlayerInStoredCloudPair(cloud);
+        Player attacker = getThrowerOfTrackedCloud(cloud);
+        if (attacker == null) {
+            return;
+        }
         List<Player> alliedVictims = getAlliedVictims(event, attacker);
         event.getAffectedEntities().removeAll(alliedVictims);
     }
 
     @EventHandler()
     public void handle(LingeringPotionSplashEvent event) {
+        if (!(event.getEntity().getShooter() instanceof Player)) {
+            return;
+        }
         Player thrower = (Player) event.getEntity().getShooter();
         AreaEffectCloud cloud = event.getAreaEffectCloud();
-        Pair<Player, AreaEffectCloud> storedCloud = new Pair<>(thrower, cloud);
-        ephemeralData.getActiveAOEClouds().add(storedCloud);
-        addScheduledTaskToRemoveCloudFromEphemeralData(cloud, storedCloud);
+        UUID cloudUUID = cloud.getUniqueId();
+        ephemeralData.getAreaEffectCloudTracker().track(cloudUUID, thrower.getUniqueId());
+        untrackCloudWhenGone(cloudUUID, cloud.getWaitTime() + cloud.getDuration());
+    }
+
+    /**
+     * Stop tracking a cloud once it is gone. The delay is counted in server ticks, like the cloud's own lifetime, so
+     * a slow server cannot expire the entry while the cloud is still applying effects. A cloud that is still alive
+     * when the delay is up, e.g. because its duration was extended, is checked again when it is next due to end.
+     */
+    private void untrackCloudWhenGone(UUID cloudUUID, int delayInTicks) {
+        timingWheel.runLater(delayInTicks, () -> {
+            Entity entity = Bukkit.getEntity(cloudUUID);
+            if (entity instanceof AreaEffectCloud && !entity.isDead()) {
+                AreaEffectCloud cloud = (AreaEffectCloud) entity;
+                untrackCloudWhenGone(cloudUUID, Math.max(cloud.getWaitTime() + cloud.getDuration() - cloud.getTicksLived(), CLOUD_RECHECK_TICKS));
+            } else {
+                ephemeralData.getAreaEffectCloudTracker().untrack(cloudUUID);
+            }
+        });
     }
 
     @EventHandler()
@@ -101,11 +133,6 @@ public class EffectHandler implements Listener {
         return BAD_POTION_EFFECTS.contains(effect);
     }
 
-    private void addScheduledTaskToRemoveCloudFromEphemeralData(AreaEffectCloud cloud, Pair<Player, AreaEffectCloud> storedCloudPair) {
-        long delay = cloud.getDuration();
-        medievalFactions.getServer().getScheduler().scheduleSyncDelayedTask(medievalFactions, () -> ephemeralData.getActiveAOEClouds().remove(storedCloudPair), delay);
-    }
-
     private void removePotionIntensityIfAnyVictimIsAnAlliedPlayer(PotionSplashEvent event, Player attacker) {
         for (LivingEntity victimEntity : event.getAffectedEntities()) {
             if (!(victimEntity instanceof Player)) {
@@ -129,12 +156,12 @@ public class EffectHandler implements Listener {
         return potion.getShooter() instanceof Player;
     }
 
-    private Player getPlayerInStoredCloudPair(AreaEffectCloud cloud) {
-        Pair<Player, AreaEffectCloud> storedCloudPair = getCloudPairStoredInEphemeralData(cloud);
-        if (storedCloudPair == null) {
+    private Player getThrowerOfTrackedCloud(AreaEffectCloud cloud) {
+        UUID throwerUUID = ephemeralData.getAreaEffectCloudTracker().getThrower(cloud.getUniqueId());
+        if (throwerUUID == null) {
             return null;
         }
-        return storedCloudPair.getLeft();
+        return medievalFactions.getServer().getPlayer(throwerUUID);
     }
 
     private List<Player> getAlliedVictims(AreaEffectCloudApplyEvent event, Player attacker) {
@@ -161,13 +188,4 @@ public class EffectHandler implements Listener {
         return relationChecker.arePlayersInAFaction(attacker, potentialVictim)
                 && (relationChecker.arePlayersFactionsNotEnemies(attacker, potentialVictim) || relationChecker.arePlayersInSameFaction(attacker, potentialVictim));
     }
-
-    private Pair<Player, AreaEffectCloud> getCloudPairStoredInEphemeralData(AreaEffectCloud cloud) {
-        for (Pair<Player, AreaEffectCloud> storedCloudPair : ephemeralData.getActiveAOEClouds()) {
-            if (storedCloudPair.getRight() == cloud) {
-                return storedCloudPair;
-            }
-        }
-        return null;
-    }
 }
\ No newline at end of file
@@ -7,10 +7,12 @@ package dansplugins.factionsystem.eventhandlers;
 import dansplugins.factionsystem.MedievalFactions;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.objects.domain.ClaimedChunk;
 import dansplugins.factionsystem.objects.domain.LockedBlock;
 import dansplugins.factionsystem.services.*;
 import dansplugins.factionsystem.utils.InteractionAccessChecker;
+import dansplugins.factionsystem.utils.TimingWheel;
 import dansplugins.factionsystem.utils.extended.BlockChecker;
 import org.bukkit.ChatColor;
 import org.bukkit.Chunk;
@@ -51,8 +53,9 @@ public class InteractionHandler implements Listener {
     private final LockService lockService;
     private final EphemeralData ephemeralData;
     private final GateService gateService;
+    private final TimingWheel timingWheel;
 
-    public InteractionHandler(PersistentData persistentData, InteractionAccessChecker interactionAccessChecker, LocaleService localeService, BlockChecker blockChecker, MedievalFactions medievalFactions, LockService lockService, EphemeralData ephemeralData, GateService gateService, PlayerService playerService, MessageService messageService) {
+    public InteractionHandler(PersistentData persistentData, InteractionAccessChecker interactionAccessChecker, LocaleService localeService, BlockChecker blockChecker, MedievalFactions medievalFactions, LockService lockService, EphemeralData ephemeralData, GateService gateService, PlayerService playerService, MessageService messageService, TimingWheel timingWheel) {
         this.persistentData = persistentData;
         this.interactionAccessChecker = interactionAccessChecker;
         this.localeService = localeService;
@@ -63,6 +66,7 @@ public class InteractionHandler implements Listener {
         this.gateService = gateService;
         this.playerService = playerService;
         this.messageService = messageService;
+        this.timingWheel = timingWheel;
     }
 
     @EventHandler()
@@ -135,7 +139,7 @@ public class InteractionHandler implements Listener {
             }
 
             int seconds = 2;
-            medievalFactions.getServer().getScheduler().runTaskLater(medievalFactions, () -> {
+            timingWheel.runLater(seconds * 20, () -> {
                 Block block = player.getWorld().getBlockAt(event.getBlock().getLocation());
 
                 if (!blockChecker.isChest(block)) {
@@ -152,18 +156,18 @@ public class InteractionHandler implements Listener {
 
                     if (persistentData.isBlockLocked(leftChest)) {
                         // lock right chest
-                        LockedBlock right = new LockedBlock(player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getName(), rightChest.getX(), rightChest.getY(), rightChest.getZ(), rightChest.getWorld().getName());
+                        LockedBlock right = new LockedBlock(persistentData.getPlayerRegistry(), player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getId(), rightChest.getX(), rightChest.getY(), rightChest.getZ(), rightChest.getWorld().getName());
                         persistentData.addLockedBlock(right);
                     } else {
                         if (persistentData.isBlockLocked(rightChest)) {
                             // lock left chest
-                            LockedBlock left = new LockedBlock(player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getName(), leftChest.getX(), leftChest.getY(), leftChest.getZ(), leftChest.getWorld().getName());
+                            LockedBlock left = new LockedBlock(persistentData.getPlayerRegistry(), player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getId(), leftChest.getX(), leftChest.getY(), leftChest.getZ(), leftChest.getWorld().getName());
                             persistentData.addLockedBlock(left);
                         }
                     }
 
                 }
-            }, seconds * 20);
+            });
         }
 
         // if hopper
@@ -198,7 +202,7 @@ public class InteractionHandler implements Listener {
         LockedBlock lockedBlock = persistentData.getLockedBlock(clickedBlock);
         if (lockedBlock != null) {
             boolean playerHasAccess = lockedBlock.hasAccess(player.getUniqueId());
-            boolean isPlayerBypassing = ephemeralData.getAdminsBypassingProtections().contains(player.getUniqueId());
+            boolean isPlayerBypassing = ephemeralData.getSession(player.getUniqueId()).isBypassingProtections();
             if (!playerHasAccess && !isPlayerBypassing) {
                 UUIDChecker uuidChecker = new UUIDChecker();
                 String owner = uuidChecker.findPlayerNameBasedOnUUID(lockedBlock.getOwner());
@@ -256,7 +260,7 @@ public class InteractionHandler implements Listener {
     }
 
     private boolean playerIsAttemptingToRevokeAccess(Player player) {
-        return ephemeralData.getPlayersRevokingAccess().containsKey(player.getUniqueId());
+        return ephemeralData.getSession(player.getUniqueId()).isRevokingAccess();
     }
 
     private boolean playerHoldingGoldenHoe(Player player) {
@@ -264,23 +268,23 @@ public class InteractionHandler implements Listener {
     }
 
     private boolean playerCreatingGate(Player player) {
-        return ephemeralData.getCreatingGatePlayers().containsKey(player.getUniqueId());
+        return ephemeralData.getSession(player.getUniqueId()).isCreatingGate();
     }
 
     private boolean playerIsAttemptingToCheckAccess(Player player) {
-        return ephemeralData.getPlayersCheckingAccess().contains(player.getUniqueId());
+        return ephemeralData.getSession(player.getUniqueId()).isCheckingAccess();
     }
 
     private boolean playerIsAttemptingToGrantAccess(Player player) {
-        return ephemeralData.getPlayersGrantingAccess().containsKey(player.getUniqueId());
+        return ephemeralData.getSession(player.getUniqueId()).isGrantingAccess();
     }
 
     private boolean playerIsAttemptingToUnlockABlock(Player player) {
-        return ephemeralData.getUnlockingPlayers().contains(player.getUniqueId());
+        return ephemeralData.getSession(player.getUniqueId()).isUnlocking();
     }
 
     private boolean playerIsAttemptingToLockABlock(Player player) {
-        return ephemeralData.getLockingPlayers().contains(player.getUniqueId());
+        return ephemeralData.getSession(player.getUniqueId()).isLocking();
     }
 
     @EventHandler()
@@ -413,8 +417,7 @@ public class InteractionHandler implements Listener {
     }
 
     private boolean isPlayerUsingAnAccessCommand(Player player) {
-        return ephemeralData.getPlayersGrantingAccess().containsKey(player.getUniqueId()) ||
-                ephemeralData.getPlayersCheckingAccess().contains(player.getUniqueId()) ||
-                ephemeralData.getPlayersRevokingAccess().containsKey(player.getUniqueId());
+        PlayerSession session = ephemeralData.getSession(player.getUniqueId());
+        return session.isGrantingAccess() || session.isCheckingAccess() || session.isRevokingAccess();
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@
  */
 package dansplugins.factionsystem.eventhandlers;
 
+import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
 import dansplugins.factionsystem.events.FactionJoinEvent;
 import dansplugins.factionsystem.objects.domain.ActivityRecord;
@@ -27,14 +28,16 @@ import org.bukkit.event.player.PlayerJoinEvent;
  */
 public class JoinHandler implements Listener {
     private final PersistentData persistentData;
+    private final EphemeralData ephemeralData;
     private final LocaleService localeService;
     private final ConfigService configService;
     private final Logger logger;
     private final Messenger messenger;
     private final TerritoryOwnerNotifier territoryOwnerNotifier;
 
-    public JoinHandler(PersistentData persistentData, LocaleService localeService, ConfigService configService, Logger logger, Messenger messenger, TerritoryOwnerNotifier territoryOwnerNotifier) {
+    public JoinHandler(PersistentData persistentData, EphemeralData ephemeralData, LocaleService localeService, ConfigService configService, Logger logger, Messenger messenger, TerritoryOwnerNotifier territoryOwnerNotifier) {
         this.persistentData = persistentData;
+        this.ephemeralData = ephemeralData;
         this.localeService = localeService;
         this.configService = configService;
         this.logger = logger;
@@ -45,14 +48,19 @@ public class JoinHandler implements Listener {
     @EventHandler()
     public void handle(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        ephemeralData.openSession(player.getUniqueId());
         if (dataExistsForPlayer(player)) {
             ActivityRecord activityRecord = persistentData.getPlayerActivityRecord(player.getUniqueId());
             activityRecord.incrementLogins();
+            persistentData.cancelInactivityDecay(activityRecord);
             handlePowerDecay(activityRecord, player, event);
         } else {
             createRecordsForPlayer(player);
             handleRandomFactionAssignmentIfNecessary(player);
         }
+        persistentData.getPlayerActivityRecord(player.getUniqueId()).setLastKnownName(player.getName());
+        persistentData.getPlayersPowerRecord(player.getUniqueId()).startAccruing();
+        ephemeralData.getOnlineMemberIndex().playerJoined(player, persistentData.getSnapshot());
         setPlayerActionBarTerritoryInfo(event.getPlayer());
         persistentData.getChunkDataAccessor().informPlayerIfTheirLandIsInDanger(player);
         informPlayerIfTheirFactionIsWeakened(player);
@@ -98,13 +106,11 @@ public class JoinHandler implements Listener {
     }
 
     private void createActivityRecordForPlayer(Player player) {
-        ActivityRecord newRecord = new ActivityRecord(player.getUniqueId(), configService, 1);
-        persistentData.addActivityRecord(newRecord);
+        persistentData.createActivityRecord(player.getUniqueId(), 1);
     }
 
     private void createPowerRecordForPlayer(Player player) {
-        PowerRecord newRecord = new PowerRecord(player.getUniqueId(), configService, persistentData, configService.getInt("initialPowerLevel"));
-        persistentData.addPowerRecord(newRecord);
+        persistentData.createPowerRecord(player.getUniqueId(), configService.getInt("initialPowerLevel"));
     }
 
     private void assignPlayerToRandomFaction(Player player) {
@@ -118,6 +124,7 @@ public class JoinHandler implements Listener {
             }
             messenger.sendAllPlayersInFactionMessage(faction, String.format(ChatColor.GREEN + "" + localeService.get("HasJoined"), player.getName(), faction.getName()));
             faction.addMember(player.getUniqueId());
+            persistentData.publishSnapshotIfChanged();
             player.sendMessage(ChatColor.GREEN + "" + localeService.get("AssignedToRandomFaction"));
 
             logger.debug(player.getName() + " has been randomly assigned to " + faction.getName() + "!");
@@ -129,8 +136,8 @@ public class JoinHandler implements Listener {
     private void setPlayerActionBarTerritoryInfo(Player player) {
         if (configService.getBoolean("territoryIndicatorActionbar")) {
             if (chunkIsClaimed(player)) {
-                String factionName = persistentData.getChunkDataAccessor().getClaimedChunk(player.getLocation().getChunk()).getHolder();
-                Faction holder = persistentData.getFaction(factionName);
+                int factionId = persistentData.getChunkDataAccessor().getClaimedChunk(player.getLocation().getChunk()).getHolderId();
+                Faction holder = persistentData.getFaction(factionId);
                 territoryOwnerNotifier.sendPlayerTerritoryAlert(player, holder);
                 return;
             }
@@ -4,15 +4,16 @@
  */
 package dansplugins.factionsystem.eventhandlers;
 
-import dansplugins.factionsystem.MedievalFactions;
+import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
-import dansplugins.factionsystem.integrators.DynmapIntegrator;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.objects.domain.ClaimedChunk;
 import dansplugins.factionsystem.objects.domain.Faction;
-import dansplugins.factionsystem.services.LocaleService;
-import dansplugins.factionsystem.services.PlayerService;
+import dansplugins.factionsystem.utils.ClaimMapRenderer;
 import dansplugins.factionsystem.utils.TerritoryOwnerNotifier;
-import org.bukkit.ChatColor;
+import dansplugins.factionsystem.utils.TimingWheel;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -21,38 +22,40 @@ import org.bukkit.event.player.PlayerMoveEvent;
 
 import java.util.Objects;
 
-import static org.bukkit.Bukkit.getServer;
-
 /**
  * @author Daniel McCoy Stephenson
  */
 public class MoveHandler implements Listener {
+    private static final long AUTO_MAP_INTERVAL_IN_TICKS = 10;
+
     private final PersistentData persistentData;
     private final TerritoryOwnerNotifier territoryOwnerNotifier;
-    private final LocaleService localeService;
-    private final MedievalFactions medievalFactions;
-    private final DynmapIntegrator dynmapIntegrator;
-    private final PlayerService playerService;
+    private final TimingWheel timingWheel;
+    private final EphemeralData ephemeralData;
+    private final ClaimMapRenderer claimMapRenderer;
 
-    public MoveHandler(PersistentData persistentData, TerritoryOwnerNotifier territoryOwnerNotifier, LocaleService localeService, MedievalFactions medievalFactions, DynmapIntegrator dynmapIntegrator, PlayerService playerService) {
+    public MoveHandler(PersistentData persistentData, TerritoryOwnerNotifier territoryOwnerNotifier, TimingWheel timingWheel, EphemeralData ephemeralData, ClaimMapRenderer claimMapRenderer) {
         this.persistentData = persistentData;
         this.territoryOwnerNotifier = territoryOwnerNotifier;
-        this.localeService = localeService;
-        this.medievalFactions = medievalFactions;
-        this.dynmapIntegrator = dynmapIntegrator;
-        this.playerService = playerService;
+        this.timingWheel = timingWheel;
+        this.ephemeralData = ephemeralData;
+        this.claimMapRenderer = claimMapRenderer;
     }
 
     @EventHandler()
     public void handle(PlayerMoveEvent event) {
+        if (event.isCancelled()) {
+            return;
+        }
         if (playerEnteredANewChunk(event)) {
             Player player = event.getPlayer();
 
-            initiateAutoclaimCheck(player);
+            initiateAutoclaimCheck(player, Objects.requireNonNull(event.getTo()).getChunk());
+            updateAutoMap(player, event.getTo());
 
             if (newChunkIsClaimedAndOldChunkWasNot(event)) {
-                String factionName = persistentData.getChunkDataAccessor().getClaimedChunk(Objects.requireNonNull(event.getTo()).getChunk()).getHolder();
-                Faction holder = persistentData.getFaction(factionName);
+                int factionId = persistentData.getChunkDataAccessor().getClaimedChunk(Objects.requireNonNull(event.getTo()).getChunk()).getHolderId();
+                Faction holder = persistentData.getFaction(factionId);
                 territoryOwnerNotifier.sendPlayerTerritoryAlert(player, holder);
                 return;
             }
@@ -63,8 +66,8 @@ public class MoveHandler implements Listener {
             }
 
             if (newChunkIsClaimedAndOldChunkWasAlsoClaimed(event) && chunkHoldersAreNotEqual(event)) {
-                String factionName = persistentData.getChunkDataAccessor().getClaimedChunk(Objects.requireNonNull(event.getTo()).getChunk()).getHolder();
-                Faction holder = persistentData.getFaction(factionName);
+                int factionId = persistentData.getChunkDataAccessor().getClaimedChunk(Objects.requireNonNull(event.getTo()).getChunk()).getHolderId();
+                Faction holder = persistentData.getFaction(factionId);
                 territoryOwnerNotifier.sendPlayerTerritoryAlert(player, holder);
             }
 
@@ -93,29 +96,40 @@ public class MoveHandler implements Listener {
         return event.getFrom().getChunk() != Objects.requireNonNull(event.getTo()).getChunk();
     }
 
-    private void initiateAutoclaimCheck(Player player) {
+    private void initiateAutoclaimCheck(Player player, Chunk enteredChunk) {
         Faction playersFaction = persistentData.getPlayersFaction(player.getUniqueId());
         if (playersFaction != null && playersFaction.isOwner(player.getUniqueId())) {
             if (playersFaction.getAutoClaimStatus()) {
-                if (notAtDemesneLimit(playersFaction)) {
-                    scheduleClaiming(player, playersFaction);
-                } else {
-                    playerService.sendMessage(player, ChatColor.RED + localeService.get("AlertReachedDemesne"), "AlertReachedDemesne", false);
+                // the demesne limit is checked once per batch when the queue is drained
+                PersistentData.ChunkDataAccessor chunkDataAccessor = persistentData.getChunkDataAccessor();
+                if (chunkDataAccessor.queueAutoclaim(player, enteredChunk, playersFaction)) {
+                    timingWheel.runLater(1, chunkDataAccessor::drainAutoclaimQueue);
                 }
             }
         }
     }
 
-    private boolean notAtDemesneLimit(Faction faction) {
-        return persistentData.getChunkDataAccessor().getChunksClaimedByFaction(faction.getName()) < faction.getCumulativePowerLevel();
+    private void updateAutoMap(Player player, Location to) {
+        PlayerSession session = ephemeralData.getSession(player.getUniqueId());
+        if (!session.isAutoMapping()) {
+            return;
+        }
+        // the player is still at the from-location while the event is handled, so the map is centred on where they are going
+        boolean frameAlreadyScheduled = session.getPendingAutoMapCentre() != null;
+        session.setPendingAutoMapCentre(to);
+        if (!frameAlreadyScheduled) {
+            // crossings in between only move the centre, so a player flying across chunks gets one frame per interval
+            timingWheel.runLater(AUTO_MAP_INTERVAL_IN_TICKS, () -> drawAutoMap(player, session));
+        }
     }
 
-    private void scheduleClaiming(Player player, Faction faction) {
-        getServer().getScheduler().runTaskLater(medievalFactions, () -> {
-            // add new chunk to claimed chunks
-            persistentData.getChunkDataAccessor().claimChunkAtLocation(player, player.getLocation(), faction);
-            dynmapIntegrator.updateClaims();
-        }, 1); // delayed by 1 tick (1/20th of a second) because otherwise players will claim the chunk they just left
+    private void drawAutoMap(Player player, PlayerSession session) {
+        Location centre = session.getPendingAutoMapCentre();
+        session.setPendingAutoMapCentre(null);
+        if (centre == null || !player.isOnline() || ephemeralData.getSession(player.getUniqueId()) != session || !session.isAutoMapping()) {
+            return;
+        }
+        claimMapRenderer.render(player, centre).forEach(player::sendMessage);
     }
 
     private boolean newChunkIsClaimedAndOldChunkWasNot(PlayerMoveEvent event) {
@@ -131,7 +145,7 @@ public class MoveHandler implements Listener {
     }
 
     private boolean chunkHoldersAreNotEqual(PlayerMoveEvent event) {
-        return !(persistentData.getChunkDataAccessor().getClaimedChunk(event.getFrom().getChunk()).getHolder().equalsIgnoreCase(persistentData.getChunkDataAccessor().getClaimedChunk(Objects.requireNonNull(event.getTo()).getChunk()).getHolder()));
+        return persistentData.getChunkDataAccessor().getClaimedChunk(event.getFrom().getChunk()).getHolderId() != persistentData.getChunkDataAccessor().getClaimedChunk(Objects.requireNonNull(event.getTo()).getChunk()).getHolderId();
     }
 
     private boolean playerMovedFromUnclaimedLandIntoClaimedLand(ClaimedChunk fromChunk, ClaimedChunk toChunk) {
@@ -139,7 +153,7 @@ public class MoveHandler implements Listener {
     }
 
     private boolean holdersOfChunksAreDifferent(ClaimedChunk fromChunk, ClaimedChunk toChunk) {
-        return !fromChunk.getHolder().equalsIgnoreCase(toChunk.getHolder());
+        return fromChunk.getHolderId() != toChunk.getHolderId();
     }
 
     private boolean playerMovedFromClaimedLandIntoClaimedLand(ClaimedChunk fromChunk, ClaimedChunk toChunk) {
@@ -3,13 +3,12 @@ package dansplugins.factionsystem.eventhandlers;
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
 import dansplugins.factionsystem.objects.domain.ActivityRecord;
+import dansplugins.factionsystem.objects.domain.PowerRecord;
 import dansplugins.factionsystem.services.ActionBarService;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.time.ZonedDateTime;
-
 public class QuitHandler implements Listener {
     private final EphemeralData ephemeralData;
     private final PersistentData persistentData;
@@ -23,17 +22,20 @@ public class QuitHandler implements Listener {
 
     @EventHandler()
     public void handle(PlayerQuitEvent event) {
-        ephemeralData.getLockingPlayers().remove(event.getPlayer().getUniqueId());
-        ephemeralData.getUnlockingPlayers().remove(event.getPlayer().getUniqueId());
-        ephemeralData.getPlayersGrantingAccess().remove(event.getPlayer().getUniqueId());
-        ephemeralData.getPlayersCheckingAccess().remove(event.getPlayer().getUniqueId());
-        ephemeralData.getPlayersRevokingAccess().remove(event.getPlayer().getUniqueId());
+        ephemeralData.closeSession(event.getPlayer().getUniqueId());
+        ephemeralData.getOnlineMemberIndex().playerQuit(event.getPlayer());
+
+        PowerRecord powerRecord = persistentData.getPlayersPowerRecord(event.getPlayer().getUniqueId());
+        if (powerRecord != null) {
+            powerRecord.stopAccruing();
+        }
 
         ActivityRecord record = persistentData.getPlayerActivityRecord(event.getPlayer().getUniqueId());
         if (record != null) {
-            record.setLastLogout(ZonedDateTime.now());
+            record.setLastLogoutMillis(System.currentTimeMillis());
+            persistentData.scheduleInactivityDecay(record);
         }
 
-        actionBarService.clearPlayerActionBar(event.getPlayer());
+        actionBarService.removePlayer(event.getPlayer());
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.events;
+
+import dansplugins.factionsystem.events.abs.FactionEvent;
+import dansplugins.factionsystem.objects.domain.Faction;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class FactionClaimBatchEvent extends FactionEvent implements Cancellable {
+
+    private final World world;
+    private final int[] chunkXs;
+    private final int[] chunkZs;
+    private final Set<Long> vetoed = new HashSet<>();
+    // Variables.
+    private boolean cancelled = false;
+
+    /**
+     * Constructor to initialise a FactionClaimBatchEvent.
+     * <p>
+     * This event is called once for a radius claim, in place of a {@link FactionClaimEvent} per chunk.
+     * Listeners can cancel the whole batch or veto individual chunks.
+     * </p>
+     * <p>
+     * Chunks are given by their coordinates rather than as {@link org.bukkit.Chunk} objects, so that a large radius
+     * does not have to load every chunk in it just to announce the claim.
+     * </p>
+     *
+     * @param faction related to the claim.
+     * @param player  who claimed for the Faction.
+     * @param world   that the chunks are in.
+     * @param chunkXs x coordinates of the chunks to be claimed.
+     * @param chunkZs z coordinates of the chunks to be claimed, in the same order.
+     */
+    public FactionClaimBatchEvent(Faction faction, Player player, World world, int[] chunkXs, int[] chunkZs) {
+        super(faction, player);
+        this.world = world;
+        this.chunkXs = chunkXs;
+        this.chunkZs = chunkZs;
+    }
+
+    // Getters.
+    public World getWorld() {
+        return world;
+    }
+
+    public int getChunkCount() {
+        return chunkXs.length;
+    }
+
+    public int getChunkX(int index) {
+        return chunkXs[index];
+    }
+
+    public int getChunkZ(int index) {
+        return chunkZs[index];
+    }
+
+    /**
+     * Leave a chunk out of the batch, while letting the rest of it go ahead.
+     *
+     * @param chunkX x coordinate of the chunk to leave out.
+     * @param chunkZ z coordinate of the chunk to leave out.
+     */
+    public void veto(int chunkX, int chunkZ) {
+        vetoed.add(key(chunkX, chunkZ));
+    }
+
+    public boolean isVetoed(int chunkX, int chunkZ) {
+        return cancelled || vetoed.contains(key(chunkX, chunkZ));
+    }
+
+    // Bukkit Cancellable methodology.
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean b) {
+        this.cancelled = b;
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+}
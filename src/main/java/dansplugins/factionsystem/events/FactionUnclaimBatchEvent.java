@@ -0,0 +1,29 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.events;
+
+import dansplugins.factionsystem.objects.domain.Faction;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class FactionUnclaimBatchEvent extends FactionClaimBatchEvent {
+
+    /**
+     * Constructor to initialise a FactionUnclaimBatchEvent.
+     *
+     * @param faction related to the claim.
+     * @param player  who unclaimed for the Faction.
+     * @param world   that the chunks are in.
+     * @param chunkXs x coordinates of the chunks to be unclaimed.
+     * @param chunkZs z coordinates of the chunks to be unclaimed, in the same order.
+     */
+    public FactionUnclaimBatchEvent(Faction faction, Player player, World world, int[] chunkXs, int[] chunkZs) {
+        super(faction, player, world, chunkXs, chunkZs);
+    }
+
+}
@@ -4,19 +4,30 @@
  */
 package dansplugins.factionsystem.externalapi;
 
+import dansplugins.factionsystem.data.FactionSnapshot.FactionView;
 import dansplugins.factionsystem.objects.domain.Faction;
 import org.bukkit.entity.Player;
 
 import java.util.UUID;
 
 /**
+ * A faction as seen through the external API. It reads from a published copy of the faction, so it is safe to use
+ * from any thread, but it does not reflect changes made after that copy was taken.
+ *
  * @author Daniel McCoy Stephenson
  */
 public class MF_Faction {
-    private final Faction faction;
+    private final FactionView faction;
 
+    /**
+     * Copy a faction for the external API. Must be called from the main thread.
+     */
     public MF_Faction(Faction f) {
-        faction = f;
+        this(FactionView.copyOf(f));
+    }
+
+    public MF_Faction(FactionView view) {
+        faction = view;
     }
 
     public String getName() {
@@ -40,7 +51,8 @@ public class MF_Faction {
     }
 
     public Object getFlag(String flag) {
-        return faction.getFlags().getFlag(flag);
+        Object value = faction.getFlag(flag);
+        return value != null ? value : false;
     }
 
     public boolean isAlly(String factionName) {
@@ -53,11 +65,12 @@ public class MF_Faction {
 
     /**
      * This should only be used when the external API is not sufficient. It should be noted that the underlying implementation is prone to change.
+     * Unlike the rest of this class, the faction returned is the live one and must only be used from the main thread.
      *
      * @return The underlying implementation of the faction class.
      */
     @Deprecated
     public Faction getUnderlyingImplementation() {
-        return faction;
+        return faction.getFaction();
     }
 }
\ No newline at end of file
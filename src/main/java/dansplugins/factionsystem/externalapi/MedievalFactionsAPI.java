@@ -5,9 +5,10 @@
 package dansplugins.factionsystem.externalapi;
 
 import dansplugins.factionsystem.MedievalFactions;
+import dansplugins.factionsystem.data.ClaimChangeFeed;
 import dansplugins.factionsystem.data.EphemeralData;
+import dansplugins.factionsystem.data.FactionSnapshot.FactionView;
 import dansplugins.factionsystem.data.PersistentData;
-import dansplugins.factionsystem.objects.domain.Faction;
 import dansplugins.factionsystem.objects.domain.PowerRecord;
 import dansplugins.factionsystem.services.ConfigService;
 import org.bukkit.Chunk;
@@ -25,7 +26,7 @@ public class MedievalFactionsAPI {
     private final EphemeralData ephemeralData;
     private final ConfigService configService;
 
-    private final String APIVersion = "v1.0.0"; // every time the external API is altered, this should be incremented
+    private final String APIVersion = "v1.2.0"; // every time the external API is altered, this should be incremented
 
     public MedievalFactionsAPI(MedievalFactions medievalFactions, PersistentData persistentData, EphemeralData ephemeralData, ConfigService configService) {
         this.medievalFactions = medievalFactions;
@@ -43,27 +44,15 @@ public class MedievalFactionsAPI {
     }
 
     public MF_Faction getFaction(String factionName) {
-        Faction faction = persistentData.getFaction(factionName);
-        if (faction == null) {
-            return null;
-        }
-        return new MF_Faction(faction);
+        return wrap(persistentData.getSnapshot().getFaction(factionName));
     }
 
     public MF_Faction getFaction(Player player) {
-        Faction faction = persistentData.getPlayersFaction(player.getUniqueId());
-        if (faction == null) {
-            return null;
-        }
-        return new MF_Faction(faction);
+        return getFaction(player.getUniqueId());
     }
 
     public MF_Faction getFaction(UUID playerUUID) {
-        Faction faction = persistentData.getPlayersFaction(playerUUID);
-        if (faction == null) {
-            return null;
-        }
-        return new MF_Faction(faction);
+        return wrap(persistentData.getSnapshot().getPlayersFaction(playerUUID));
     }
 
     public boolean isPlayerInFactionChat(Player player) {
@@ -78,6 +67,19 @@ public class MedievalFactionsAPI {
         return (persistentData.getChunkDataAccessor().getClaimedChunk(chunk) != null);
     }
 
+    /**
+     * Follow changes to claims, faction names, territory colours and relations. The cursor must be polled on the main
+     * thread, and should be passed to {@link #unsubscribeFromClaimChanges(ClaimChangeFeed.Cursor)} once it is no longer
+     * needed.
+     */
+    public ClaimChangeFeed.Cursor subscribeToClaimChanges() {
+        return persistentData.getClaimChangeFeed().subscribe();
+    }
+
+    public void unsubscribeFromClaimChanges(ClaimChangeFeed.Cursor cursor) {
+        persistentData.getClaimChangeFeed().unsubscribe(cursor);
+    }
+
     public double getPower(Player player) {
         return persistentData.getPlayersPowerRecord(player.getUniqueId()).getPower();
     }
@@ -87,7 +89,14 @@ public class MedievalFactionsAPI {
     }
 
     public void forcePlayerToLeaveFactionChat(UUID uuid) {
-        ephemeralData.getPlayersInFactionChat().remove(uuid);
+        ephemeralData.removeFromFactionChat(uuid);
+    }
+
+    private MF_Faction wrap(FactionView factionView) {
+        if (factionView == null) {
+            return null;
+        }
+        return new MF_Faction(factionView);
     }
 
     public void increasePower(Player player, int amount) {
@@ -1,11 +1,12 @@
 package dansplugins.factionsystem.integrators;
 
 import dansplugins.factionsystem.MedievalFactions;
+import dansplugins.factionsystem.data.ClaimChangeFeed;
 import dansplugins.factionsystem.data.PersistentData;
-import dansplugins.factionsystem.objects.domain.ClaimedChunk;
 import dansplugins.factionsystem.objects.domain.Faction;
 import dansplugins.factionsystem.objects.domain.PowerRecord;
-import dansplugins.factionsystem.objects.helper.ChunkFlags;
+import dansplugins.factionsystem.objects.helper.TerritoryBitmap;
+import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
 import dansplugins.factionsystem.utils.Logger;
 import org.bukkit.plugin.Plugin;
@@ -16,6 +17,10 @@ import org.dynmap.markers.*;
 import preponderous.ponder.minecraft.bukkit.tools.UUIDChecker;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.bukkit.Bukkit.getServer;
 
@@ -28,26 +33,37 @@ public class DynmapIntegrator {
     private final LocaleService localeService;
     private final MedievalFactions medievalFactions;
     private final PersistentData persistentData;
+    private final ConfigService configService;
 
-    // Claims/factions markers
-    private final Map<String, AreaMarker> resAreas = new HashMap<>();
-    private final Map<String, Marker> resMark = new HashMap<>();
+    // Claims/factions markers, by faction id
+    private final Map<Integer, List<AreaMarker>> claimsAreas = new HashMap<>();
 
     // Dynmap integration related members
-    // Realms markers
-    private final Map<String, AreaMarker> realmsAreas = new HashMap<>();
-    private final Map<String, Marker> realmsMark = new HashMap<>();
+    // Realms markers, by the id of the faction at the top of the realm
+    private final Map<Integer, List<AreaMarker>> realmsAreas = new HashMap<>();
     private final Plugin dynmap;
-    private boolean updateClaimsAreaMarkers = false;
+
+    // Outlines are traced by workers and applied to the markers on the main thread, a bounded batch per tick
+    private final ConcurrentLinkedQueue<TracedFaction> tracedFactions = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, Long> outlineGenerations = new HashMap<>();
+    private final Set<Integer> pendingRestyles = new LinkedHashSet<>();
+    private final Map<Integer, Long> realmOutlineGenerations = new HashMap<>();
+    private final Set<Integer> pendingRealmRestyles = new LinkedHashSet<>();
+
+    // Popup text by faction id, rebuilt only when what it shows has changed
+    private final Map<Integer, Popup> popupCache = new HashMap<>();
+    private ClaimChangeFeed.Cursor claimChanges;
+    private ExecutorService outlineWorkers;
     private MarkerSet claims;
     private MarkerSet realms;
     private MarkerAPI markerAPI;
 
-    public DynmapIntegrator(Logger logger, LocaleService localeService, MedievalFactions medievalFactions, PersistentData persistentData) {
+    public DynmapIntegrator(Logger logger, LocaleService localeService, MedievalFactions medievalFactions, PersistentData persistentData, ConfigService configService) {
         this.logger = logger;
         this.localeService = localeService;
         this.medievalFactions = medievalFactions;
         this.persistentData = persistentData;
+        this.configService = configService;
         PluginManager pm = getServer().getPluginManager();
 
         /* Get dynmap */
@@ -76,42 +92,61 @@ public class DynmapIntegrator {
     }
 
     /***
-     * Scheduled task that checks to see if there are changes to the claims that need
-     * to be rendered on dynmap.
+     * Scheduled task that checks the claim change feed to see if there are changes to the
+     * claims that need to be rendered on dynmap. Only the factions the changes touch are
+     * redrawn, and their existing area markers are updated in place.
+     * <p>
+     * Outlines are traced by a pool of worker threads from copies of the factions' land, and
+     * the resulting marker changes are applied on the main thread by a second task, within the
+     * per-tick budget set by maxMillisecondsPerTickForSweeps.
+     * </p>
      * @param interval Number of ticks before the scheduled task executes again.
      */
     public void scheduleClaimsUpdate(long interval) {
+        // only follow the feed once there is a map to draw on, so that an idle cursor does not hold every change back from being trimmed
+        claimChanges = persistentData.getClaimChangeFeed().subscribe();
+        int workers = Math.min(4, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger workerCount = new AtomicInteger();
+        outlineWorkers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "MedievalFactions-Dynmap-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                applyPendingUpdates();
+            }
+        }.runTaskTimer(medievalFactions, 41, 1);
         new BukkitRunnable() {
             @Override
             public void run() {
-                if (isDynmapMissing()) {
+                if (isDynmapMissing() || claimChanges == null) {
                     return;
                 }
-                if (updateClaimsAreaMarkers) {
-                    if (realms != null) {
-                        realms.deleteMarkerSet();
-                        claims.deleteMarkerSet();
+                if (claimChanges.hasChanges()) {
+                    List<ClaimChangeFeed.Change> changes = claimChanges.poll();
+                    if (changes == null || claims == null) {
+                        dynmapRebuildAll();
+                    } else {
+                        dynmapApplyChanges(changes);
                     }
-                    initializeMarkerSets();
-                    dynmapUpdateFactions();
-                    dynmapUpdateRealms();
-                    updateClaimsAreaMarkers = false;
                 }
+                restyleFactionsWhosePowerChanged();
             }
         }.runTaskTimer(medievalFactions, 40, interval);
     }
 
-    /***
-     * Tell the scheduled task that we have made changes and it should update the
-     * area markers.
+    /**
+     * Stop following the claim change feed and stop the outline workers. Outlines still being traced are dropped.
      */
-    public void updateClaims() {
-        if (isDynmapMissing()) {
-            return;
+    public void shutdown() {
+        if (claimChanges != null) {
+            persistentData.getClaimChangeFeed().unsubscribe(claimChanges);
+            claimChanges = null;
         }
-
-        if (hasDynmap()) {
-            updateClaimsAreaMarkers = true;
+        if (outlineWorkers != null) {
+            outlineWorkers.shutdownNow();
         }
     }
 
@@ -144,295 +179,425 @@ public class DynmapIntegrator {
         return markerAPI;
     }
 
-    /**
-     * Find all contiguous blocks, set in target and clear in source
-     */
-    private void floodFillTarget(ChunkFlags src, ChunkFlags dest, int x, int y) {
-        ArrayDeque<int[]> stack = new ArrayDeque<>();
-        stack.push(new int[]{x, y});
-
-        while (!stack.isEmpty()) {
-            int[] nxt = stack.pop();
-            x = nxt[0];
-            y = nxt[1];
-            if (src.getFlag(x, y)) { /* Set in src */
-                src.setFlag(x, y, false);   /* Clear source */
-                dest.setFlag(x, y, true);   /* Set in destination */
-                if (src.getFlag(x + 1, y))
-                    stack.push(new int[]{x + 1, y});
-                if (src.getFlag(x - 1, y))
-                    stack.push(new int[]{x - 1, y});
-                if (src.getFlag(x, y + 1))
-                    stack.push(new int[]{x, y + 1});
-                if (src.getFlag(x, y - 1))
-                    stack.push(new int[]{x, y - 1});
+    /* Redraw every faction and realm, for when the changes since the last update are not known */
+    private void dynmapRebuildAll() {
+        if (realms != null) {
+            realms.deleteMarkerSet();
+            claims.deleteMarkerSet();
+        }
+        claimsAreas.clear();
+        realmsAreas.clear();
+        pendingRestyles.clear();
+        pendingRealmRestyles.clear();
+        popupCache.clear();
+        initializeMarkerSets();
+        List<Integer> factionIds = new ArrayList<>();
+        Set<Integer> realmIds = new LinkedHashSet<>();
+        for (Faction faction : persistentData.getFactions()) {
+            factionIds.add(faction.getId());
+            realmIds.add(getRealmRoot(faction).getId());
+        }
+        requestOutlines(factionIds);
+        requestRealmOutlines(realmIds);
+    }
+
+    /* Redraw the factions and realms touched by a batch of changes */
+    private void dynmapApplyChanges(List<ClaimChangeFeed.Change> changes) {
+        Set<Integer> reshaped = new LinkedHashSet<>();
+        Set<Integer> restyled = new LinkedHashSet<>();
+        Set<Integer> reshapedRealms = new LinkedHashSet<>();
+        for (ClaimChangeFeed.Change change : changes) {
+            switch (change.getType()) {
+                case CLAIM:
+                case UNCLAIM:
+                    reshaped.add(change.getFactionId());
+                    break;
+                case CONQUEST:
+                    reshaped.add(change.getFactionId());
+                    reshaped.add(change.getOtherFactionId());
+                    break;
+                case RENAME:
+                    // other factions' popups name this one as an ally, enemy, liege or vassal
+                    Set<Integer> related = new HashSet<>();
+                    addRelatedFactions(change.getFactionId(), related);
+                    popupCache.keySet().removeAll(related);
+                    restyled.addAll(related);
+                    break;
+                case FLAG:
+                    restyled.add(change.getFactionId());
+                    break;
+                case RELATION:
+                    restyled.add(change.getFactionId());
+                    restyled.add(change.getOtherFactionId());
+                    // either side may have joined or left a realm, or stopped being the root of one
+                    reshapedRealms.add(change.getFactionId());
+                    reshapedRealms.add(change.getOtherFactionId());
+                    break;
+                case DETAILS:
+                    restyled.add(change.getFactionId());
+                    break;
             }
         }
+        restyled.removeAll(reshaped);
+        // the popups of reshaped factions show their old demesne size
+        popupCache.keySet().removeAll(reshaped);
+
+        Set<Integer> restyledRealms = new LinkedHashSet<>();
+        for (int factionId : reshaped) {
+            addRealmRoot(factionId, reshapedRealms);
+        }
+        for (int factionId : new ArrayList<>(reshapedRealms)) {
+            addRealmRoot(factionId, reshapedRealms);
+        }
+        for (int factionId : restyled) {
+            addRealmRoot(factionId, restyledRealms);
+        }
+        restyledRealms.removeAll(reshapedRealms);
+
+        requestOutlines(reshaped);
+        pendingRestyles.addAll(restyled);
+        requestRealmOutlines(reshapedRealms);
+        pendingRealmRestyles.addAll(restyledRealms);
     }
 
-    /* Update Realm information */
-    private void dynmapUpdateRealms() {
-        // Realms Layer
+    /* Hand copies of the factions' land to the workers. Only the latest request for a faction is applied. */
+    private void requestOutlines(Collection<Integer> factionIds) {
+        for (int factionId : factionIds) {
+            long generation = outlineGenerations.merge(factionId, 1L, Long::sum);
+            List<Map<String, TerritoryBitmap>> territories = Collections.singletonList(copyTerritories(factionId));
+            submitOutlines(factionId, generation, false, territories);
+        }
+    }
+
+    /* Hand copies of the land of every faction in each realm to the workers, to be joined and traced as one */
+    private void requestRealmOutlines(Collection<Integer> rootIds) {
+        for (int rootId : rootIds) {
+            long generation = realmOutlineGenerations.merge(rootId, 1L, Long::sum);
+            Faction root = persistentData.getFaction(rootId);
+            if (root == null || getRealmRoot(root) != root) {
+                // no longer heads a realm, so it has nothing of its own to draw on the realms layer
+                tracedFactions.add(new TracedFaction(rootId, generation, true, Collections.emptyList()));
+                continue;
+            }
+            List<Map<String, TerritoryBitmap>> territories = new ArrayList<>();
+            for (Faction member : getRealmMembers(root)) {
+                territories.add(copyTerritories(member.getId()));
+            }
+            submitOutlines(rootId, generation, true, territories);
+        }
+    }
+
+    private Map<String, TerritoryBitmap> copyTerritories(int factionId) {
+        Map<String, TerritoryBitmap> copies = new HashMap<>();
+        persistentData.getTerritories(factionId).forEach((world, territory) -> copies.put(world, territory.copy()));
+        return copies;
+    }
 
-        Map<String, AreaMarker> newMap = new HashMap<>(); /* Build new map */
-        Map<String, Marker> newMark = new HashMap<>(); /* Build new map */
+    private void submitOutlines(int id, long generation, boolean realm, List<Map<String, TerritoryBitmap>> territories) {
+        outlineWorkers.execute(() -> {
+            try {
+                tracedFactions.add(new TracedFaction(id, generation, realm, traceOutlines(union(territories))));
+            } catch (RuntimeException e) {
+                logger.error("Something went wrong tracing the outlines of " + (realm ? "realm " : "faction ") + id, e);
+            }
+        });
+    }
 
-        /* Loop through realms and build area markers coloured in the same colour
-            as each faction's liege's colour. */
-        for (Faction f : persistentData.getFactions()) {
-            String liegeName = f.getTopLiege();
-            Faction liege = persistentData.getFaction(liegeName);
-            String liegeColor;
-            String popupText;
-            // If there's no liege, then f is the liege.
-            if (liege != null) {
-                liegeColor = liege.getFlags().getFlag("dynmapTerritoryColor").toString();
-                popupText = buildNationPopupText(liege);
+    /* Apply traced outlines and restyles to the markers until this tick's budget is used up */
+    private void applyPendingUpdates() {
+        if (tracedFactions.isEmpty() && pendingRestyles.isEmpty() && pendingRealmRestyles.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + Math.max(1, configService.getInt("maxMillisecondsPerTickForSweeps")) * 1_000_000L;
+        boolean progressed = false;
+        while (!progressed || System.nanoTime() < deadline) {
+            TracedFaction traced = tracedFactions.poll();
+            if (traced != null) {
+                Map<Integer, Long> generations = traced.realm ? realmOutlineGenerations : outlineGenerations;
+                if (traced.generation == generations.getOrDefault(traced.id, 0L)) {
+                    if (traced.realm) {
+                        dynmapUpdateRealm(traced.id, traced.outlines);
+                        pendingRealmRestyles.remove(traced.id);
+                    } else {
+                        dynmapUpdateFaction(traced.id, traced.outlines);
+                        pendingRestyles.remove(traced.id);
+                    }
+                }
+            } else if (!pendingRestyles.isEmpty()) {
+                int factionId = pendingRestyles.iterator().next();
+                pendingRestyles.remove(factionId);
+                dynmapUpdateFaction(factionId, null);
+            } else if (!pendingRealmRestyles.isEmpty()) {
+                int rootId = pendingRealmRestyles.iterator().next();
+                pendingRealmRestyles.remove(rootId);
+                dynmapUpdateRealm(rootId, null);
             } else {
-                liegeColor = f.getFlags().getFlag("dynmapTerritoryColor").toString();
-                liegeName = f.getName() + "__parent";
-                popupText = buildNationPopupText(f);
+                return;
             }
-            dynmapUpdateFaction(f, realms, newMap, "realm", liegeName + "__" + getClass().getName(), popupText, liegeColor, newMap);
+            progressed = true;
         }
+    }
 
-        /* Now, review old map - anything left is gone */
-        for (AreaMarker oldm : realmsAreas.values()) {
-            oldm.deleteMarker();
-        }
-        for (Marker oldm : realmsMark.values()) {
-            oldm.deleteMarker();
+    /*
+     * Power changes without the faction changing, e.g. as members accrue power, so the power shown in each popup is
+     * checked here, once per update, rather than every time a popup is read.
+     */
+    private void restyleFactionsWhosePowerChanged() {
+        Set<Integer> restyledRealms = new LinkedHashSet<>();
+        Iterator<Map.Entry<Integer, Popup>> iterator = popupCache.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Popup> entry = iterator.next();
+            Faction faction = persistentData.getFaction(entry.getKey());
+            if (faction == null || faction.getCumulativePowerLevel() != entry.getValue().power) {
+                iterator.remove();
+                pendingRestyles.add(entry.getKey());
+                addRealmRoot(entry.getKey(), restyledRealms);
+            }
         }
-        /* And replace with new map */
-        realmsAreas.putAll(newMap);
-        realmsMark.putAll(newMark);
+        pendingRealmRestyles.addAll(restyledRealms);
     }
 
-    /* Update Faction information */
-    private void dynmapUpdateFactions() {
-        // Claims Layer
+    private void addRelatedFactions(int factionId, Set<Integer> factionIds) {
+        Faction faction = persistentData.getFaction(factionId);
+        if (faction == null) {
+            return;
+        }
+        factionIds.add(factionId);
+        factionIds.addAll(faction.getAllyIds());
+        factionIds.addAll(faction.getEnemyIds());
+        factionIds.addAll(faction.getVassalIds());
+        if (faction.hasLiege()) {
+            factionIds.add(faction.getLiegeId());
+        }
+    }
 
-        Map<String, AreaMarker> newmap = new HashMap<>(); /* Build new map */
-        Map<String, Marker> newmark = new HashMap<>(); /* Build new map */
+    private void addRealmRoot(int factionId, Set<Integer> rootIds) {
+        Faction faction = persistentData.getFaction(factionId);
+        if (faction != null) {
+            rootIds.add(getRealmRoot(faction).getId());
+        }
+    }
 
-        /* Loop through factions and build coloured faction area markers. */
-        for (Faction f : persistentData.getFactions()) {
-            dynmapUpdateFaction(f, claims, newmap, "claims", f.getName(), buildNationPopupText(f), f.getFlags().getFlag("dynmapTerritoryColor").toString(), newmap);
+    /* The faction at the top of the realm, following liege ids and stopping at a liege that no longer exists */
+    private Faction getRealmRoot(Faction faction) {
+        Faction root = faction;
+        Set<Integer> visited = new HashSet<>();
+        while (root.hasLiege() && visited.add(root.getId())) {
+            Faction liege = persistentData.getFaction(root.getLiegeId());
+            if (liege == null) {
+                break;
+            }
+            root = liege;
         }
+        return root;
+    }
 
-        /* Now, review old map - anything left is gone */
-        for (AreaMarker oldm : resAreas.values()) {
-            oldm.deleteMarker();
+    /* The root of a realm and every faction below it */
+    private List<Faction> getRealmMembers(Faction root) {
+        List<Faction> members = new ArrayList<>();
+        Deque<Faction> toVisit = new ArrayDeque<>();
+        toVisit.add(root);
+        Set<Integer> visited = new HashSet<>();
+        while (!toVisit.isEmpty()) {
+            Faction member = toVisit.poll();
+            if (!visited.add(member.getId())) {
+                continue;
+            }
+            members.add(member);
+            for (int vassalId : member.getVassalIds()) {
+                Faction vassal = persistentData.getFaction(vassalId);
+                if (vassal != null) {
+                    toVisit.add(vassal);
+                }
+            }
         }
-        for (Marker oldm : resMark.values()) {
-            oldm.deleteMarker();
+        return members;
+    }
+
+    /*
+     * The popup text for a faction, rebuilt only if the faction has changed since it was last built. Power and demesne
+     * size change without the faction's version changing, so popups showing old values are evicted when the land
+     * changes and by restyleFactionsWhosePowerChanged instead of being checked here.
+     */
+    private String getPopupText(Faction f) {
+        Popup popup = popupCache.get(f.getId());
+        if (popup == null || popup.version != f.getVersion()) {
+            int power = f.getCumulativePowerLevel();
+            int demesneSize = persistentData.getChunkDataAccessor().getChunksClaimedByFaction(f.getName());
+            popup = new Popup(f.getVersion(), power, buildNationPopupText(f, power, demesneSize));
+            popupCache.put(f.getId(), popup);
         }
-        /* And replace with new map */
-        resAreas.putAll(newmap);
-        resMark.putAll(newmark);
+        return popup.text;
     }
 
-    private String buildNationPopupText(Faction f) {
-        UUIDChecker uuidChecker = new UUIDChecker();
-        String message = "<h4>" + f.getName() + "</h4>" +
-                "Owner: " + uuidChecker.findPlayerNameBasedOnUUID(f.getOwner()) + "<br/>" +
-                "Description: " + f.getDescription() + "<br/>" +
-                "<div style='display: inline;' title='" + f.getMemberListSeparatedByCommas() + "'>Population: " + f.getMemberList().size() + "</div><br/>";
+    private String buildNationPopupText(Faction f, int power, int demesneSize) {
+        StringBuilder message = new StringBuilder()
+                .append("<h4>").append(f.getName()).append("</h4>")
+                .append("Owner: ").append(persistentData.getPlayerName(f.getOwner())).append("<br/>")
+                .append("Description: ").append(f.getDescription()).append("<br/>")
+                .append("<div style='display: inline;' title='");
+        String separator = "";
+        for (UUID member : f.getMemberList()) {
+            message.append(separator).append(persistentData.getPlayerName(member));
+            separator = ", ";
+        }
+        message.append("'>Population: ").append(f.getPopulation()).append("</div><br/>");
 
         if (f.hasLiege()) {
-            message += "Liege: " + f.getLiege() + "<br/>";
+            message.append("Liege: ").append(f.getLiege()).append("<br/>");
         }
         if (f.isLiege()) {
-            message += "Vassals: " + f.getVassalsSeparatedByCommas() + "<br/>";
+            message.append("Vassals: ").append(f.getVassalsSeparatedByCommas()).append("<br/>");
         }
-        message += "Allied With: " + f.getAlliesSeparatedByCommas() + "<br/>" +
-                "At War With: " + f.getEnemiesSeparatedByCommas() + "<br/>" +
-                "Power Level: " + f.getCumulativePowerLevel() + "<br/>" +
-                "Demesne Size: " + String.format("%d/%d",
-                persistentData.getChunkDataAccessor().getChunksClaimedByFaction(f.getName()),
-                f.getCumulativePowerLevel());
-        return message;
+        message.append("Allied With: ").append(f.getAlliesSeparatedByCommas()).append("<br/>")
+                .append("At War With: ").append(f.getEnemiesSeparatedByCommas()).append("<br/>")
+                .append("Power Level: ").append(power).append("<br/>")
+                .append("Demesne Size: ").append(String.format("%d/%d", demesneSize, power));
+        return message.toString();
     }
 
-    private void dynmapUpdateFaction(Faction faction, MarkerSet markerSet, Map<String, AreaMarker> areaMarkers, String type, String name, String popupDescription, String colorCode, Map<String, AreaMarker> newmap) {
-        double[] x;
-        double[] z;
-        int poly_index = 0; /* Index of polygon for given town */
+    /**
+     * Bring a faction's markers on the claims layer up to date.
+     *
+     * @param factionId The faction to redraw.
+     * @param outlines  The newly traced outlines of the faction's land, or {@code null} if its land has not changed, in
+     *                  which case only the labels, popups and colours of its existing markers are updated.
+     */
+    private void dynmapUpdateFaction(int factionId, List<Outline> outlines) {
+        Faction faction = persistentData.getFaction(factionId);
+        if (faction == null) {
+            // disbanded, so whatever was drawn for it is gone
+            deleteMarkers(claimsAreas.remove(factionId));
+            outlineGenerations.remove(factionId);
+            popupCache.remove(factionId);
+            return;
+        }
+        if (outlines != null) {
+            placeMarkers(claims, claimsAreas, factionId, "claims", faction.getName(), outlines);
+        }
+        styleMarkers(claimsAreas.get(factionId), "claims", faction.getName(), getPopupText(faction), faction.getFlags().getFlag("dynmapTerritoryColor").toString());
+    }
 
-        /* Handle areas */
-        List<ClaimedChunk> blocks = faction.getClaimedChunks();
-        if (blocks.isEmpty())
+    /**
+     * Bring a realm's markers on the realms layer up to date. The realm is drawn as the joined land of every faction in
+     * it, in the colour and with the popup of the faction at its top.
+     *
+     * @param rootId   The faction at the top of the realm.
+     * @param outlines The newly traced outlines of the realm's land, or {@code null} if its land has not changed.
+     */
+    private void dynmapUpdateRealm(int rootId, List<Outline> outlines) {
+        Faction root = persistentData.getFaction(rootId);
+        if (root == null || getRealmRoot(root) != root) {
+            deleteMarkers(realmsAreas.remove(rootId));
+            realmOutlineGenerations.remove(rootId);
             return;
-        HashMap<String, ChunkFlags> blkmaps = new HashMap<>();
-        LinkedList<ClaimedChunk> nodevals = new LinkedList<>();
-        String currentWorld = null;
-        ChunkFlags curblks = null;
-
-        /* Loop through blocks: set flags on blockmaps for worlds */
-        for (ClaimedChunk b : blocks) {
-            if (!b.getWorldName().equalsIgnoreCase(currentWorld)) { /* Not same world */
-                String wname = b.getWorldName();
-                currentWorld = b.getWorldName();
-                curblks = blkmaps.get(wname);
-                if (curblks == null) {
-                    curblks = new ChunkFlags();
-                    blkmaps.put(wname, curblks);
-                }
-            }
-            curblks.setFlag(b.getChunk().getX(), b.getChunk().getZ(), true);
-            nodevals.addLast(b);
-        }
-        /* Loop through until we don't find more areas */
-        while (nodevals != null) {
-            LinkedList<ClaimedChunk> ournodes = null;
-            LinkedList<ClaimedChunk> newlist = null;
-            ChunkFlags ourblks = null;
-            int minx = Integer.MAX_VALUE;
-            int minz = Integer.MAX_VALUE;
-            for (ClaimedChunk node : nodevals) {
-                int nodex = node.getChunk().getX();
-                int nodez = node.getChunk().getZ();
-                if (ourblks == null) {   /* If not started, switch to world for this block first */
-                    if (!node.getWorldName().equalsIgnoreCase(currentWorld)) {
-                        currentWorld = node.getWorldName();
-                        curblks = blkmaps.get(currentWorld);
-                    }
-                }
-                /* If we need to start shape, and this block is not part of one yet */
-                if ((ourblks == null) && curblks.getFlag(nodex, nodez)) {
-                    ourblks = new ChunkFlags();  /* Create map for shape */
-                    ournodes = new LinkedList<>();
-                    floodFillTarget(curblks, ourblks, nodex, nodez);   /* Copy shape */
-                    ournodes.add(node); /* Add it to our node list */
-                    minx = nodex;
-                    minz = nodez;
-                }
-                /* If shape found, and we're in it, add to our node list */
-                else if ((ourblks != null) && (node.getWorldName().equalsIgnoreCase(currentWorld)) &&
-                        (ourblks.getFlag(nodex, nodez))) {
-                    ournodes.add(node);
-                    if (nodex < minx) {
-                        minx = nodex;
-                        minz = nodez;
-                    }
-                    else if ((nodex == minx) && (nodez < minz)) {
-                        minz = nodez;
-                    }
-                } else {  /* Else, keep it in the list for the next polygon */
-                    if (newlist == null) {
-                        newlist = new LinkedList<>();
-                    }
-                    newlist.add(node);
-                }
-            }
-            nodevals = newlist; /* Replace list (null if no more to process) */
-            if (ourblks != null) {
-                /* Trace outline of blocks - start from minx, minz going to x+ */
-                int cur_x = minx;
-                int cur_z = minz;
-                direction dir = direction.XPLUS;
-                ArrayList<int[]> linelist = new ArrayList<>();
-                linelist.add(new int[]{minx, minz}); // Add start point
-                while ((cur_x != minx) || (cur_z != minz) || (dir != direction.ZMINUS)) {
-                    switch (dir) {
-                        case XPLUS: /* Segment in X+ direction */
-                            if (!ourblks.getFlag(cur_x + 1, cur_z)) { /* Right turn? */
-                                linelist.add(new int[]{cur_x + 1, cur_z}); /* Finish line */
-                                dir = direction.ZPLUS;  /* Change direction */
-                            } else if (!ourblks.getFlag(cur_x + 1, cur_z - 1)) {  /* Straight? */
-                                cur_x++;
-                            } else {  /* Left turn */
-                                linelist.add(new int[]{cur_x + 1, cur_z}); /* Finish line */
-                                dir = direction.ZMINUS;
-                                cur_x++;
-                                cur_z--;
-                            }
-                            break;
-                        case ZPLUS: /* Segment in Z+ direction */
-                            if (!ourblks.getFlag(cur_x, cur_z + 1)) { /* Right turn? */
-                                linelist.add(new int[]{cur_x + 1, cur_z + 1}); /* Finish line */
-                                dir = direction.XMINUS;  /* Change direction */
-                            } else if (!ourblks.getFlag(cur_x + 1, cur_z + 1)) {  /* Straight? */
-                                cur_z++;
-                            } else {  /* Left turn */
-                                linelist.add(new int[]{cur_x + 1, cur_z + 1}); /* Finish line */
-                                dir = direction.XPLUS;
-                                cur_x++;
-                                cur_z++;
-                            }
-                            break;
-                        case XMINUS: /* Segment in X- direction */
-                            if (!ourblks.getFlag(cur_x - 1, cur_z)) { /* Right turn? */
-                                linelist.add(new int[]{cur_x, cur_z + 1}); /* Finish line */
-                                dir = direction.ZMINUS;  /* Change direction */
-                            } else if (!ourblks.getFlag(cur_x - 1, cur_z + 1)) {  /* Straight? */
-                                cur_x--;
-                            } else {  /* Left turn */
-                                linelist.add(new int[]{cur_x, cur_z + 1}); /* Finish line */
-                                dir = direction.ZPLUS;
-                                cur_x--;
-                                cur_z++;
-                            }
-                            break;
-                        case ZMINUS: /* Segment in Z- direction */
-                            if (!ourblks.getFlag(cur_x, cur_z - 1)) { /* Right turn? */
-                                linelist.add(new int[]{cur_x, cur_z}); /* Finish line */
-                                dir = direction.XPLUS;  /* Change direction */
-                            } else if (!ourblks.getFlag(cur_x - 1, cur_z - 1)) {  /* Straight? */
-                                cur_z--;
-                            } else {  /* Left turn */
-                                linelist.add(new int[]{cur_x, cur_z}); /* Finish line */
-                                dir = direction.XMINUS;
-                                cur_x--;
-                                cur_z--;
-                            }
-                            break;
-                    }
+        }
+        if (outlines != null) {
+            placeMarkers(realms, realmsAreas, rootId, "realm", root.getName(), outlines);
+        }
+        styleMarkers(realmsAreas.get(rootId), "realm", root.getName(), getPopupText(root), root.getFlags().getFlag("dynmapTerritoryColor").toString());
+    }
+
+    /* Join the land of several factions, world by world. Runs on a worker, so it must only touch its arguments. */
+    private static Map<String, TerritoryBitmap> union(List<Map<String, TerritoryBitmap>> territories) {
+        if (territories.size() == 1) {
+            return territories.get(0);
+        }
+        Map<String, TerritoryBitmap> joined = new HashMap<>();
+        for (Map<String, TerritoryBitmap> memberTerritories : territories) {
+            memberTerritories.forEach((world, territory) -> {
+                TerritoryBitmap existing = joined.putIfAbsent(world, territory);
+                if (existing != null) {
+                    existing.union(territory);
                 }
-                /* Build information for specific area */
-                String polyid = name + "__" + type + "__" + poly_index;
+            });
+        }
+        return joined;
+    }
+
+    /* One outline per contiguous piece of land in each world. Runs on a worker, so it must only touch its arguments. */
+    private static List<Outline> traceOutlines(Map<String, TerritoryBitmap> territories) {
+        List<Outline> outlines = new ArrayList<>();
+        for (Map.Entry<String, TerritoryBitmap> territory : territories.entrySet()) {
+            for (TerritoryBitmap ourblks : territory.getValue().getComponents()) {
+                int[] corners = ourblks.traceOutline();
                 int csize = 16;
-                int sz = linelist.size();
-                x = new double[sz];
-                z = new double[sz];
+                int sz = corners.length / 2;
+                double[] x = new double[sz];
+                double[] z = new double[sz];
                 for (int i = 0; i < sz; i++) {
-                    int[] line = linelist.get(i);
-                    x[i] = (double) line[0] * (double) csize;
-                    z[i] = (double) line[1] * (double) csize;
+                    x[i] = (double) corners[2 * i] * (double) csize;
+                    z[i] = (double) corners[2 * i + 1] * (double) csize;
                 }
-                /* Find existing one */
-                AreaMarker m = areaMarkers.remove(polyid); /* Existing area? */
+                outlines.add(new Outline(territory.getKey(), x, z));
+            }
+        }
+        return outlines;
+    }
+
+    /* Move a faction's existing markers onto its outlines, creating or deleting markers only when the count or world changes */
+    private void placeMarkers(MarkerSet markerSet, Map<Integer, List<AreaMarker>> areaMarkers, int factionId, String type, String name, List<Outline> outlines) {
+        List<AreaMarker> existing = areaMarkers.getOrDefault(factionId, Collections.emptyList());
+        List<AreaMarker> placed = new ArrayList<>(outlines.size());
+        for (int i = 0; i < outlines.size(); i++) {
+            Outline outline = outlines.get(i);
+            AreaMarker m = i < existing.size() ? existing.get(i) : null;
+            if (m != null && !outline.world.equals(m.getWorld())) {
+                m.deleteMarker();
+                m = null;
+            }
+            if (m == null) {
+                String polyid = factionId + "__" + type + "__" + i;
+                m = markerSet.createAreaMarker(polyid, name, false, outline.world, outline.x, outline.z, false);
                 if (m == null) {
-                    m = markerSet.createAreaMarker(polyid, name, false, currentWorld, x, z, false);
-                    if (m == null) {
-                        System.out.printf((localeService.get("ErrorAddingAreaMarker")) + "%n", polyid);
-                        return;
-                    }
-                } else {
-                    m.setCornerLocations(x, z); /* Replace corner locations */
-                    m.setLabel(name);   /* Update label */
+                    System.out.printf((localeService.get("ErrorAddingAreaMarker")) + "%n", polyid);
+                    continue;
                 }
-                try {
-                    int colrCode = Integer.decode(colorCode);
-                    if (type.equalsIgnoreCase("realm")) {
-                        m.setLineStyle(4, 1.0, colrCode);
-                        m.setFillStyle(0.0, colrCode);
-                    } else {
-                        m.setLineStyle(1, 1.0, colrCode);
-                        m.setFillStyle(0.3, colrCode);
-                    }
-                } catch (Exception e) {
-                    System.out.printf((localeService.get("ErrorSettingAreaMarkerColor")) + "%n", colorCode);
+            } else {
+                m.setCornerLocations(outline.x, outline.z); /* Replace corner locations */
+            }
+            placed.add(m);
+        }
+        for (int i = outlines.size(); i < existing.size(); i++) {
+            existing.get(i).deleteMarker();
+        }
+        if (placed.isEmpty()) {
+            areaMarkers.remove(factionId);
+        } else {
+            areaMarkers.put(factionId, placed);
+        }
+    }
+
+    private void styleMarkers(List<AreaMarker> markers, String type, String name, String popupDescription, String colorCode) {
+        if (markers == null) {
+            return;
+        }
+        for (AreaMarker m : markers) {
+            m.setLabel(name);   /* Update label */
+            try {
+                int colrCode = Integer.decode(colorCode);
+                if (type.equalsIgnoreCase("realm")) {
+                    m.setLineStyle(4, 1.0, colrCode);
+                    m.setFillStyle(0.0, colrCode);
+                } else {
+                    m.setLineStyle(1, 1.0, colrCode);
+                    m.setFillStyle(0.3, colrCode);
                 }
+            } catch (Exception e) {
+                System.out.printf((localeService.get("ErrorSettingAreaMarkerColor")) + "%n", colorCode);
+            }
+            if (!popupDescription.equals(m.getDescription())) {
                 m.setDescription(popupDescription); /* Set popup */
-
-                /* Add to map */
-                newmap.put(polyid, m);
-                poly_index++;
             }
         }
     }
 
+    private void deleteMarkers(List<AreaMarker> markers) {
+        if (markers != null) {
+            markers.forEach(AreaMarker::deleteMarker);
+        }
+    }
+
     /***
      * Dynmap marker set id (prefix used for other ids/layer ids)
      */
@@ -497,5 +662,44 @@ public class DynmapIntegrator {
         }
     }
 
-    enum direction {XPLUS, ZPLUS, XMINUS, ZMINUS}
-}
\ No newline at end of file
+    /* The outlines traced by a worker for a faction, or for a realm by the id of the faction at its top */
+    private static class TracedFaction {
+        private final int id;
+        private final long generation;
+        private final boolean realm;
+        private final List<Outline> outlines;
+
+        private TracedFaction(int id, long generation, boolean realm, List<Outline> outlines) {
+            this.id = id;
+            this.generation = generation;
+            this.realm = realm;
+            this.outlines = outlines;
+        }
+    }
+
+    /* The corners of one piece of a faction's land, in block coordinates */
+    private static class Outline {
+        private final String world;
+        private final double[] x;
+        private final double[] z;
+
+        private Outline(String world, double[] x, double[] z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+    }
+
+    /* A faction's popup text and the state of the faction it was built from */
+    private static class Popup {
+        private final int version;
+        private final int power;
+        private final String text;
+
+        private Popup(int version, int power, String text) {
+            this.version = version;
+            this.power = power;
+            this.text = text;
+        }
+    }
+}
@@ -4,78 +4,82 @@
  */
 package dansplugins.factionsystem.objects.domain;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import dansplugins.factionsystem.data.PlayerRecordStore;
 import dansplugins.factionsystem.objects.inherited.PlayerRecord;
 import dansplugins.factionsystem.services.ConfigService;
-import preponderous.ponder.misc.abs.Savable;
 
-import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * A player's login activity, stored in the {@link PlayerRecordStore}.
+ *
  * @author Daniel McCoy Stephenson
  */
-public class ActivityRecord extends PlayerRecord implements Savable {
+public class ActivityRecord extends PlayerRecord {
     private final ConfigService configService;
 
-    private int logins = 0;
-    private int powerLost = 0;
-    private ZonedDateTime lastLogout = ZonedDateTime.now();
-
-    public ActivityRecord(UUID uuid, ConfigService configService, int logins) {
+    public ActivityRecord(PlayerRecordStore store, int playerId, ConfigService configService) {
+        super(store, playerId);
         this.configService = configService;
-        playerUUID = uuid;
-        this.logins = logins;
-        this.powerLost = 0;
-    }
-
-    public ActivityRecord(Map<String, String> data, ConfigService configService) {
-        this.configService = configService;
-        this.load(data);
     }
 
     public int getPowerLost() {
-        return powerLost;
+        return store.getPowerLost(playerId);
     }
 
     public void setPowerLost(int power) {
-        powerLost = power;
+        store.setPowerLost(playerId, power);
     }
 
     public void incrementPowerLost() {
-        powerLost += configService.getInt("powerDecreaseAmount");
+        store.setPowerLost(playerId, store.getPowerLost(playerId) + configService.getInt("powerDecreaseAmount"));
     }
 
     public ZonedDateTime getLastLogout() {
-        return lastLogout;
+        long lastLogout = store.getLastLogout(playerId);
+        if (lastLogout == 0) {
+            return null;
+        }
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastLogout), ZoneId.systemDefault());
     }
 
     public void setLastLogout(ZonedDateTime date) {
-        lastLogout = date;
+        store.setLastLogout(playerId, date == null ? 0 : date.toInstant().toEpochMilli());
+    }
+
+    public long getLastLogoutMillis() {
+        return store.getLastLogout(playerId);
+    }
+
+    public void setLastLogoutMillis(long epochMillis) {
+        store.setLastLogout(playerId, epochMillis);
+    }
+
+    public String getLastKnownName() {
+        return store.getLastKnownName(playerId);
+    }
+
+    public void setLastKnownName(String name) {
+        store.setLastKnownName(playerId, name);
     }
 
     public void incrementLogins() {
-        logins++;
+        store.setLogins(playerId, store.getLogins(playerId) + 1);
     }
 
     public int getLogins() {
-        return logins;
+        return store.getLogins(playerId);
     }
 
     public int getMinutesSinceLastLogout() {
-        if (lastLogout == null) {
+        long lastLogout = store.getLastLogout(playerId);
+        if (lastLogout == 0) {
             return 0;
         }
-        ZonedDateTime now = ZonedDateTime.now();
-        Duration duration = Duration.between(lastLogout, now);
-        double totalSeconds = duration.getSeconds();
-        return (int) totalSeconds / 60;
+        return (int) ((System.currentTimeMillis() - lastLogout) / 60_000L);
     }
 
     /**
@@ -88,12 +92,11 @@ public class ActivityRecord extends PlayerRecord implements Savable {
      * @author Callum
      */
     public String getActiveSessionLength() {
-        if (lastLogout == null) {
+        long lastLogout = store.getLastLogout(playerId);
+        if (lastLogout == 0) {
             return "00:00:00";
         }
-        final ZonedDateTime now = ZonedDateTime.now();
-        final Duration duration = Duration.between(lastLogout, now);
-        long totalSeconds = duration.getSeconds();
+        long totalSeconds = (System.currentTimeMillis() - lastLogout) / 1000L;
         final long days = TimeUnit.SECONDS.toDays(totalSeconds);
         totalSeconds -= TimeUnit.DAYS.toSeconds(days); // Remove Days from Total.
         final long hours = TimeUnit.SECONDS.toHours(totalSeconds);
@@ -106,11 +109,8 @@ public class ActivityRecord extends PlayerRecord implements Savable {
     }
 
     public String getTimeSinceLastLogout() {
-        if (lastLogout != null) {
-            ZonedDateTime now = ZonedDateTime.now();
-            Duration duration = Duration.between(lastLogout, now);
-            double totalSeconds = duration.getSeconds();
-            int minutes = (int) totalSeconds / 60;
+        if (store.getLastLogout(playerId) != 0) {
+            int minutes = getMinutesSinceLastLogout();
             int hours = minutes / 60;
             int days = hours / 24;
             int hoursSince = hours - (days * 24);
@@ -120,28 +120,6 @@ public class ActivityRecord extends PlayerRecord implements Savable {
         }
     }
 
-    @Override
-    public Map<String, String> save() {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-        Map<String, String> saveMap = new HashMap<>();
-        saveMap.put("playerUUID", gson.toJson(playerUUID.toString()));
-        saveMap.put("logins", gson.toJson(logins));
-        saveMap.put("lastLogout", gson.toJson(lastLogout.toString()));
-        saveMap.put("powerLost", gson.toJson(powerLost));
-
-        return saveMap;
-    }
-
-    @Override
-    public void load(Map<String, String> data) {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        playerUUID = UUID.fromString(gson.fromJson(data.get("playerUUID"), String.class));
-        logins = gson.fromJson(data.get("logins"), Integer.TYPE);
-        lastLogout = ZonedDateTime.parse(gson.fromJson(data.get("lastLogout"), String.class), DateTimeFormatter.ISO_ZONED_DATE_TIME);
-        powerLost = gson.fromJson(data.get("powerLost"), Integer.TYPE);
-    }
-
     /**
      * Method to pad a value with a zero to its left.
      *
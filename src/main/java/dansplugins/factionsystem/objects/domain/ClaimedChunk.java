@@ -67,7 +67,7 @@ public class ClaimedChunk extends Territory implements Savable {
         saveMap.put("X", gson.toJson(chunk.getX()));
         saveMap.put("Z", gson.toJson(chunk.getZ()));
         saveMap.put("world", gson.toJson(world));
-        saveMap.put("holder", gson.toJson(holder));
+        saveMap.put("holderId", gson.toJson(holderId));
 
         return saveMap;
     }
@@ -77,7 +77,9 @@ public class ClaimedChunk extends Territory implements Savable {
         Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
         world = gson.fromJson(data.get("world"), String.class);
-        holder = gson.fromJson(data.get("holder"), String.class);
+        if (data.containsKey("holderId")) {
+            holderId = gson.fromJson(data.get("holderId"), Integer.TYPE);
+        }
 
         World chunkWorld = getServer().createWorld(new WorldCreator(world));
         if (chunkWorld != null) {
@@ -6,7 +6,7 @@ package dansplugins.factionsystem.objects.domain;
 
 import dansplugins.factionsystem.MedievalFactions;
 import dansplugins.factionsystem.data.EphemeralData;
-import org.bukkit.Bukkit;
+import dansplugins.factionsystem.utils.TimingWheel;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
@@ -26,6 +26,7 @@ import java.util.Objects;
 public class Duel {
     private final MedievalFactions medievalFactions;
     private final EphemeralData ephemeralData;
+    private final TimingWheel timingWheel;
 
     private final Player _challenged;
     private final Player _challenger;
@@ -37,12 +38,13 @@ public class Duel {
     private double challengerHealth;
     private Player winner = null;
     private Player loser = null;
-    private int repeatingTaskId = 0;
+    private TimingWheel.Handle countdown = null;
     private double timeDecrementAmount = 0;
 
-    public Duel(MedievalFactions medievalFactions, EphemeralData ephemeralData, Player challenger, Player challenged, int limit) {
+    public Duel(MedievalFactions medievalFactions, EphemeralData ephemeralData, TimingWheel timingWheel, Player challenger, Player challenged, int limit) {
         this.medievalFactions = medievalFactions;
         this.ephemeralData = ephemeralData;
+        this.timingWheel = timingWheel;
         _challenger = challenger;
         challengerHealth = challenger.getHealth();
         _challenged = challenged;
@@ -151,18 +153,15 @@ public class Duel {
         bar.addPlayer(_challenger);
         bar.addPlayer(_challenged);
 
-        repeatingTaskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(medievalFactions, new Runnable() {
-            @Override
-            public void run() {
-                double progress = bar.getProgress() - timeDecrementAmount;
-                if (progress <= 0) {
-                    bar.setProgress(0);
-                    finishDuel(true);
-                } else {
-                    bar.setProgress(progress);
-                }
+        countdown = timingWheel.runRepeating(20, 20, () -> {
+            double progress = bar.getProgress() - timeDecrementAmount;
+            if (progress <= 0) {
+                bar.setProgress(0);
+                finishDuel(true);
+            } else {
+                bar.setProgress(progress);
             }
-        }, 20, 20);
+        });
     }
 
     private ItemStack getHead(Player player) {
@@ -214,7 +213,9 @@ public class Duel {
             return;
         }
         bar.removeAll();
-        medievalFactions.getServer().getScheduler().cancelTask(repeatingTaskId);
+        if (countdown != null) {
+            countdown.cancel();
+        }
         ephemeralData.getDuelingPlayers().remove(this);
     }
 
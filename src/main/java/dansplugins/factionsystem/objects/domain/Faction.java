@@ -8,9 +8,11 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import dansplugins.factionsystem.MedievalFactions;
+import dansplugins.factionsystem.data.FactionRegistry;
 import dansplugins.factionsystem.data.PersistentData;
-import dansplugins.factionsystem.integrators.DynmapIntegrator;
+import dansplugins.factionsystem.data.PlayerRegistry;
 import dansplugins.factionsystem.objects.helper.FactionFlags;
+import dansplugins.factionsystem.objects.helper.LegacyFactionReferences;
 import dansplugins.factionsystem.objects.inherited.Nation;
 import dansplugins.factionsystem.objects.inherited.specification.Feudal;
 import dansplugins.factionsystem.services.ConfigService;
@@ -34,7 +36,6 @@ import static org.bukkit.Bukkit.getServer;
 public class Faction extends Nation implements Feudal, Savable {
     private final ConfigService configService;
     private final LocaleService localeService;
-    private final DynmapIntegrator dynmapIntegrator;
     private final Logger logger;
     private final PersistentData persistentData;
     private final MedievalFactions medievalFactions;
@@ -42,55 +43,153 @@ public class Faction extends Nation implements Feudal, Savable {
 
     private final ArrayList<Gate> gates = new ArrayList<>();
     private final FactionFlags flags;
-    private final ArrayList<String> attemptedVassalizations = new ArrayList<>();
-    private ArrayList<String> vassals = new ArrayList<>();
-    private String liege = "none";
+    private final LinkedHashSet<Integer> attemptedVassalizations = new LinkedHashSet<>();
+    private final LinkedHashSet<Integer> vassals = new LinkedHashSet<>();
+    private int id = FactionRegistry.NO_FACTION;
+    private int liegeId = FactionRegistry.NO_FACTION;
     private String prefix = "none";
     private Location factionHome = null;
     private int bonusPower = 0;
     private boolean autoclaim = false;
 
-    public Faction(String initialName, UUID creator, ConfigService configService, LocaleService localeService, DynmapIntegrator dynmapIntegrator, Logger logger, PersistentData persistentData, MedievalFactions medievalFactions, PlayerService playerService) {
+    public Faction(String initialName, UUID creator, ConfigService configService, LocaleService localeService, Logger logger, PersistentData persistentData, MedievalFactions medievalFactions, PlayerService playerService) {
         this.configService = configService;
         this.localeService = localeService;
-        this.dynmapIntegrator = dynmapIntegrator;
         this.logger = logger;
         this.persistentData = persistentData;
         this.medievalFactions = medievalFactions;
         this.playerService = playerService;
+        this.id = persistentData.getFactionRegistry().nextId();
         setName(initialName);
         setOwner(creator);
         prefix = initialName;
-        flags = new FactionFlags(configService, localeService, dynmapIntegrator, logger, this.playerService);
+        flags = new FactionFlags(configService, localeService, this::flagChanged, logger, this.playerService);
         flags.initializeFlagValues();
     }
 
-    public Faction(ConfigService configService, LocaleService localeService, DynmapIntegrator dynmapIntegrator, Logger logger, PersistentData persistentData, MedievalFactions medievalFactions, PlayerService playerService, String initialName) {
+    public Faction(ConfigService configService, LocaleService localeService, Logger logger, PersistentData persistentData, MedievalFactions medievalFactions, PlayerService playerService, String initialName) {
         this.configService = configService;
         this.localeService = localeService;
-        this.dynmapIntegrator = dynmapIntegrator;
         this.logger = logger;
         this.persistentData = persistentData;
         this.medievalFactions = medievalFactions;
         this.playerService = playerService;
+        this.id = persistentData.getFactionRegistry().nextId();
         setName(initialName);
         prefix = initialName;
-        flags = new FactionFlags(configService, localeService, dynmapIntegrator, logger, this.playerService);
+        flags = new FactionFlags(configService, localeService, this::flagChanged, logger, this.playerService);
         flags.initializeFlagValues();
     }
 
-    public Faction(Map<String, String> data, ConfigService configService, LocaleService localeService, DynmapIntegrator dynmapIntegrator, Logger logger, PersistentData persistentData, MedievalFactions medievalFactions, PlayerService playerService) {
+    public Faction(Map<String, String> data, ConfigService configService, LocaleService localeService, Logger logger, PersistentData persistentData, MedievalFactions medievalFactions, PlayerService playerService) {
         this.configService = configService;
         this.localeService = localeService;
-        this.dynmapIntegrator = dynmapIntegrator;
         this.logger = logger;
         this.persistentData = persistentData;
         this.medievalFactions = medievalFactions;
         this.playerService = playerService;
-        flags = new FactionFlags(configService, localeService, dynmapIntegrator, logger, this.playerService);
+        flags = new FactionFlags(configService, localeService, this::flagChanged, logger, this.playerService);
         this.load(data);
     }
 
+    /**
+     * @return The id other records use to refer to this faction. It never changes, not even when the faction is renamed.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Give an id to a faction that was saved before factions had ids. This can only happen once.
+     *
+     * @param newId A fresh id from the {@link FactionRegistry}.
+     */
+    public void assignId(int newId) {
+        if (id != FactionRegistry.NO_FACTION) {
+            throw new IllegalStateException("Faction " + getName() + " already has id " + id);
+        }
+        id = newId;
+    }
+
+    @Override
+    public void setName(String newName) {
+        String oldName = getName();
+        super.setName(newName);
+        persistentData.getFactionRegistry().rename(this, oldName);
+        persistentData.getClaimChangeFeed().recordRename(id);
+    }
+
+    @Override
+    public void addAlly(int factionId) {
+        boolean wasAlly = isAlly(factionId);
+        super.addAlly(factionId);
+        if (!wasAlly && isAlly(factionId)) {
+            recordRelationChange(factionId);
+        }
+    }
+
+    @Override
+    public void removeAlly(int factionId) {
+        boolean wasAlly = isAlly(factionId);
+        super.removeAlly(factionId);
+        if (wasAlly) {
+            recordRelationChange(factionId);
+        }
+    }
+
+    @Override
+    public void addEnemy(int factionId) {
+        boolean wasEnemy = isEnemy(factionId);
+        super.addEnemy(factionId);
+        if (!wasEnemy && isEnemy(factionId)) {
+            recordRelationChange(factionId);
+        }
+    }
+
+    @Override
+    public void removeEnemy(int factionId) {
+        boolean wasEnemy = isEnemy(factionId);
+        super.removeEnemy(factionId);
+        if (wasEnemy) {
+            recordRelationChange(factionId);
+        }
+    }
+
+    @Override
+    protected void changed() {
+        super.changed();
+        persistentData.markFactionsChanged();
+        persistentData.getClaimChangeFeed().recordDetailsChange(id);
+    }
+
+    private void flagChanged(String flag) {
+        changed();
+        if (flag.equals("dynmapTerritoryColor")) {
+            persistentData.getClaimChangeFeed().recordFlagChange(id);
+        }
+    }
+
+    private void recordRelationChange(int otherFactionId) {
+        if (otherFactionId != FactionRegistry.NO_FACTION) {
+            persistentData.getClaimChangeFeed().recordRelationChange(id, otherFactionId);
+        }
+    }
+
+    @Override
+    protected int resolveFactionId(String factionName) {
+        return persistentData.getFactionRegistry().getId(factionName);
+    }
+
+    @Override
+    protected String resolveFactionName(int factionId) {
+        return persistentData.getFactionRegistry().getName(factionId);
+    }
+
+    @Override
+    protected PlayerRegistry getPlayerRegistry() {
+        return persistentData.getPlayerRegistry();
+    }
+
     public int getTotalGates() {
         return gates.size();
     }
@@ -101,6 +200,7 @@ public class Faction extends Nation implements Feudal, Savable {
 
     public void setPrefix(String newPrefix) {
         prefix = newPrefix;
+        changed();
     }
 
     public Location getFactionHome() {
@@ -135,10 +235,10 @@ public class Faction extends Nation implements Feudal, Savable {
     }
 
     public String getTopLiege() {
-        Faction topLiege = persistentData.getFaction(liege);
-        String liegeName = liege;
+        Faction topLiege = persistentData.getFaction(liegeId);
+        String liegeName = getLiege();
         while (topLiege != null) {
-            topLiege = persistentData.getFaction(topLiege.getLiege());
+            topLiege = persistentData.getFaction(topLiege.getLiegeId());
             if (topLiege != null) {
                 liegeName = topLiege.getName();
             }
@@ -148,9 +248,10 @@ public class Faction extends Nation implements Feudal, Savable {
 
     public int calculateCumulativePowerLevelWithoutVassalContribution() {
         int powerLevel = 0;
-        for (UUID playerUUID : members) {
+        for (int i = 0; i < members.size(); i++) {
+            int playerId = members.get(i);
             try {
-                powerLevel += persistentData.getPlayersPowerRecord(playerUUID).getPower();
+                powerLevel += persistentData.getPlayersPowerRecord(playerId).getPower();
             } catch (Exception e) {
                 System.out.println(localeService.get("ErrorPlayerPowerRecordForUUIDNotFound"));
             }
@@ -161,8 +262,8 @@ public class Faction extends Nation implements Feudal, Savable {
     public int calculateCumulativePowerLevelWithVassalContribution() {
         int vassalContribution = 0;
         double percentage = configService.getDouble("vassalContributionPercentageMultiplier");
-        for (String factionName : vassals) {
-            Faction vassalFaction = persistentData.getFaction(factionName);
+        for (int vassalId : vassals) {
+            Faction vassalFaction = persistentData.getFaction(vassalId);
             if (vassalFaction != null) {
                 vassalContribution += vassalFaction.getCumulativePowerLevel() * percentage;
             }
@@ -184,9 +285,10 @@ public class Faction extends Nation implements Feudal, Savable {
     public int getMaximumCumulativePowerLevel() {     // get max power without vassal contribution
         int maxPower = 0;
 
-        for (UUID playerUUID : members) {
+        for (int i = 0; i < members.size(); i++) {
+            int playerId = members.get(i);
             try {
-                maxPower += persistentData.getPlayersPowerRecord(playerUUID).maxPower();
+                maxPower += persistentData.getPlayersPowerRecord(playerId).maxPower();
             } catch (Exception e) {
                 System.out.println(localeService.get("ErrorPlayerPowerRecordForUUIDNotFound"));
             }
@@ -201,43 +303,22 @@ public class Faction extends Nation implements Feudal, Savable {
     }
 
     public List<ClaimedChunk> getClaimedChunks() {
-        return persistentData.getChunksClaimedByFaction(getName());
+        return persistentData.getChunksClaimedByFaction(id);
     }
 
     public boolean isWeakened() {
         return calculateCumulativePowerLevelWithoutVassalContribution() < (getMaximumCumulativePowerLevel() / 2);
     }
 
-    /**
-     * Method to automatically handle all data changes when a Faction changes their name.
-     *
-     * @param oldName of the Faction (dependent).
-     * @param newName of the Faction (dependent).
-     */
-    public void updateData(String oldName, String newName) {
-        if (isAlly(oldName)) {
-            removeAlly(oldName);
-            addAlly(newName);
-        }
-        if (isEnemy(oldName)) {
-            removeEnemy(oldName);
-            addEnemy(newName);
-        }
-        if (isLiege(oldName)) {
-            setLiege(newName);
-        }
-        if (isVassal(oldName)) {
-            removeVassal(oldName);
-            addVassal(newName);
-        }
-    }
-
     public void addGate(Gate gate) {
         gates.add(gate);
+        changed();
     }
 
     public void removeGate(Gate gate) {
-        gates.remove(gate);
+        if (gates.remove(gate)) {
+            changed();
+        }
     }
 
     public ArrayList<Gate> getGates() {
@@ -266,7 +347,11 @@ public class Faction extends Nation implements Feudal, Savable {
     }
 
     public boolean isVassal(String faction) {
-        return (containsIgnoreCase(vassals, faction));
+        return isVassal(resolveFactionId(faction));
+    }
+
+    public boolean isVassal(int factionId) {
+        return vassals.contains(factionId);
     }
 
     public boolean isLiege() {
@@ -274,103 +359,148 @@ public class Faction extends Nation implements Feudal, Savable {
     }
 
     public String getLiege() {
-        return liege;
+        String liegeName = resolveFactionName(liegeId);
+        return liegeName == null ? "none" : liegeName;
+    }
+
+    public int getLiegeId() {
+        return liegeId;
     }
 
     public void setLiege(String newLiege) {
-        liege = newLiege;
+        setLiegeId(resolveFactionId(newLiege));
+    }
+
+    public void setLiegeId(int newLiegeId) {
+        int oldLiegeId = liegeId;
+        liegeId = newLiegeId;
+        if (oldLiegeId != newLiegeId) {
+            changed();
+            recordRelationChange(oldLiegeId);
+            recordRelationChange(newLiegeId);
+        }
     }
 
     public boolean hasLiege() {
-        return !liege.equalsIgnoreCase("none");
+        return liegeId != FactionRegistry.NO_FACTION;
     }
 
     public boolean isLiege(String faction) {
-        return liege.equalsIgnoreCase(faction);
+        return isLiege(resolveFactionId(faction));
+    }
+
+    public boolean isLiege(int factionId) {
+        return hasLiege() && liegeId == factionId;
     }
 
     public void addVassal(String name) {
-        if (!containsIgnoreCase(vassals, name)) {
-            vassals.add(name);
+        addVassal(resolveFactionId(name));
+    }
+
+    public void addVassal(int factionId) {
+        if (!vassals.contains(factionId)) {
+            addIfFaction(vassals, factionId);
+            changed();
+            recordRelationChange(factionId);
         }
     }
 
     public void removeVassal(String name) {
-        removeIfContainsIgnoreCase(vassals, name);
+        removeVassal(resolveFactionId(name));
+    }
+
+    public void removeVassal(int factionId) {
+        if (vassals.remove(factionId)) {
+            changed();
+            recordRelationChange(factionId);
+        }
     }
 
     public boolean addOfficer(UUID newOfficer) {
-        if (officers.size() < calculateMaxOfficers() && !officers.contains(newOfficer)) {
-            officers.add(newOfficer);
+        int playerId = getPlayerRegistry().intern(newOfficer);
+        if (officers.size() < calculateMaxOfficers() && !officers.contains(playerId)) {
+            settlePower(newOfficer);
+            officers.add(playerId);
+            changed();
             return true;
         } else {
             return false;
         }
     }
 
+    @Override
+    public boolean removeOfficer(UUID officerToRemove) {
+        settlePower(officerToRemove);
+        return super.removeOfficer(officerToRemove);
+    }
+
+    @Override
+    public void addMember(UUID newMember) {
+        settlePower(newMember);
+        super.addMember(newMember);
+        persistentData.membershipChanged(this, newMember, true);
+    }
+
+    @Override
+    public void removeMember(UUID memberToRemove) {
+        settlePower(memberToRemove);
+        super.removeMember(memberToRemove);
+        persistentData.membershipChanged(this, memberToRemove, false);
+    }
+
+    @Override
+    public void setOwner(UUID newOwner) {
+        settlePower(getOwner());
+        settlePower(newOwner);
+        super.setOwner(newOwner);
+    }
+
+    /**
+     * Bring a player's lazily accrued power up to date before their role changes, since their role determines the cap.
+     */
+    private void settlePower(UUID playerUUID) {
+        PowerRecord powerRecord = persistentData.getPlayersPowerRecord(playerUUID);
+        if (powerRecord != null) {
+            powerRecord.settle();
+        }
+    }
+
     public String toString() {
         return "Faction{" +
-                "members=" + members +
-                ", enemyFactions=" + enemyFactions +
-                ", officers=" + officers +
-                ", allyFactions=" + allyFactions +
+                "id=" + id +
+                ", members=" + getMemberList() +
+                ", enemyFactions=" + getEnemyFactions() +
+                ", officers=" + getOfficerList() +
+                ", allyFactions=" + getAllies() +
                 ", laws=" + laws +
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", owner=" + owner +
                 ", cumulativePowerLevel=" + getCumulativePowerLevel() +
-                ", liege=" + liege +
+                ", liege=" + getLiege() +
                 '}';
     }
 
 
     public String getVassalsSeparatedByCommas() {
-        StringBuilder toReturn = new StringBuilder();
-        for (int i = 0; i < vassals.size(); i++) {
-            toReturn.append(vassals.get(i));
-            if (i != vassals.size() - 1) {
-                toReturn.append(", ");
-            }
-        }
-        return toReturn.toString();
+        return String.join(", ", getVassals());
     }
 
     public void addAttemptedVassalization(String factionName) {
-        if (!containsIgnoreCase(attemptedVassalizations, factionName)) {
-            attemptedVassalizations.add(factionName);
-        }
+        addIfFaction(attemptedVassalizations, resolveFactionId(factionName));
     }
 
     public boolean hasBeenOfferedVassalization(String factionName) {
-        return containsIgnoreCase(attemptedVassalizations, factionName);
+        return attemptedVassalizations.contains(resolveFactionId(factionName));
     }
 
     public void removeAttemptedVassalization(String factionName) {
-        removeIfContainsIgnoreCase(attemptedVassalizations, factionName);
-    }
-
-    private boolean containsIgnoreCase(ArrayList<String> list, String str) {
-        for (String string : list) {
-            if (string.equalsIgnoreCase(str)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private void removeIfContainsIgnoreCase(ArrayList<String> list, String str) {
-        String toRemove = "";
-        for (String string : list) {
-            if (string.equalsIgnoreCase(str)) {
-                toRemove = string;
-                break;
-            }
-        }
-        list.remove(toRemove);
+        attemptedVassalizations.remove(resolveFactionId(factionName));
     }
 
     public void clearVassals() {
         vassals.clear();
+        changed();
     }
 
     public int getNumVassals() {
@@ -378,7 +508,11 @@ public class Faction extends Nation implements Feudal, Savable {
     }
 
     public ArrayList<String> getVassals() {
-        return vassals;
+        return resolveFactionNames(vassals);
+    }
+
+    public Set<Integer> getVassalIds() {
+        return Collections.unmodifiableSet(vassals);
     }
 
     @Override
@@ -386,20 +520,27 @@ public class Faction extends Nation implements Feudal, Savable {
         Gson gson = new GsonBuilder().setPrettyPrinting().create();
         Map<String, String> saveMap = new HashMap<>();
 
-        saveMap.put("members", gson.toJson(members));
-        saveMap.put("enemyFactions", gson.toJson(enemyFactions));
-        saveMap.put("officers", gson.toJson(officers));
-        saveMap.put("allyFactions", gson.toJson(allyFactions));
+        saveMap.put("id", gson.toJson(id));
+        saveMap.put("members", gson.toJson(getMemberList()));
+        saveMap.put("enemyFactionIds", gson.toJson(enemyFactions));
+        saveMap.put("officers", gson.toJson(getOfficerList()));
+        saveMap.put("allyFactionIds", gson.toJson(allyFactions));
         saveMap.put("laws", gson.toJson(laws));
         saveMap.put("name", gson.toJson(name));
-        saveMap.put("vassals", gson.toJson(vassals));
+        saveMap.put("vassalIds", gson.toJson(vassals));
         saveMap.put("description", gson.toJson(description));
         saveMap.put("owner", gson.toJson(owner));
         saveMap.put("location", gson.toJson(saveLocation(gson)));
-        saveMap.put("liege", gson.toJson(liege));
+        saveMap.put("liegeId", gson.toJson(liegeId));
         saveMap.put("prefix", gson.toJson(prefix));
         saveMap.put("bonusPower", gson.toJson(bonusPower));
 
+        // relations by name as well, so that the file stays readable by versions from before faction ids
+        saveMap.put("enemyFactions", gson.toJson(getEnemyFactions()));
+        saveMap.put("allyFactions", gson.toJson(getAllies()));
+        saveMap.put("vassals", gson.toJson(getVassals()));
+        saveMap.put("liege", gson.toJson(getLiege()));
+
         ArrayList<String> gateList = new ArrayList<>();
         for (Gate gate : gates) {
             Map<String, String> map = gate.save();
@@ -436,6 +577,8 @@ public class Faction extends Nation implements Feudal, Savable {
         }.getType();
         Type arrayListTypeUUID = new TypeToken<ArrayList<UUID>>() {
         }.getType();
+        Type arrayListTypeInteger = new TypeToken<ArrayList<Integer>>() {
+        }.getType();
         Type stringToIntegerMapType = new TypeToken<HashMap<String, Integer>>() {
         }.getType();
         Type stringToBooleanMapType = new TypeToken<HashMap<String, Boolean>>() {
@@ -445,17 +588,20 @@ public class Faction extends Nation implements Feudal, Savable {
         Type stringToStringMapType = new TypeToken<HashMap<String, String>>() {
         }.getType();
 
-        members = gson.fromJson(data.get("members"), arrayListTypeUUID);
-        enemyFactions = gson.fromJson(data.get("enemyFactions"), arrayListTypeString);
-        officers = gson.fromJson(data.get("officers"), arrayListTypeUUID);
-        allyFactions = gson.fromJson(data.get("allyFactions"), arrayListTypeString);
+        id = gson.fromJson(data.getOrDefault("id", "0"), Integer.TYPE);
+        members = toPlayerIds(gson.fromJson(data.get("members"), arrayListTypeUUID));
+        officers = toPlayerIds(gson.fromJson(data.get("officers"), arrayListTypeUUID));
+        if (data.containsKey("allyFactionIds")) {
+            enemyFactions.addAll(gson.fromJson(data.get("enemyFactionIds"), arrayListTypeInteger));
+            allyFactions.addAll(gson.fromJson(data.get("allyFactionIds"), arrayListTypeInteger));
+            vassals.addAll(gson.fromJson(data.getOrDefault("vassalIds", "[]"), arrayListTypeInteger));
+            liegeId = gson.fromJson(data.getOrDefault("liegeId", "0"), Integer.TYPE);
+        }
         laws = gson.fromJson(data.get("laws"), arrayListTypeString);
         name = gson.fromJson(data.get("name"), String.class);
         description = gson.fromJson(data.get("description"), String.class);
         owner = UUID.fromString(gson.fromJson(data.get("owner"), String.class));
         factionHome = loadLocation(gson.fromJson(data.get("location"), stringToStringMapType), gson);
-        liege = gson.fromJson(data.getOrDefault("liege", "none"), String.class);
-        vassals = gson.fromJson(data.getOrDefault("vassals", "[]"), arrayListTypeString);
         prefix = loadPrefixOrDefault(gson, data, getName());
         bonusPower = gson.fromJson(data.getOrDefault("bonusPower", "0"), Integer.TYPE);
 
@@ -482,6 +628,24 @@ public class Faction extends Nation implements Feudal, Savable {
         }
     }
 
+    /**
+     * Resolve the relations of a faction saved before factions had ids, when they were still stored by name.
+     * This has to wait until every faction has been loaded and given an id, since a name can only be resolved once the
+     * faction it names is known.
+     *
+     * @param data The data the faction was loaded from.
+     */
+    public void migrateNameReferences(Map<String, String> data) {
+        LegacyFactionReferences references = LegacyFactionReferences.read(data);
+        if (references == null) {
+            return;
+        }
+        references.resolveEnemies(this::resolveFactionId).forEach(this::addEnemy);
+        references.resolveAllies(this::resolveFactionId).forEach(this::addAlly);
+        references.resolveVassals(this::resolveFactionId).forEach(this::addVassal);
+        setLiegeId(references.resolveLiege(this::resolveFactionId));
+    }
+
     private String loadPrefixOrDefault(Gson gson, Map<String, String> data, String def) {
         try {
             return gson.fromJson(data.getOrDefault("prefix", def), String.class);
@@ -7,6 +7,9 @@ package dansplugins.factionsystem.objects.domain;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import dansplugins.factionsystem.data.FactionRegistry;
+import dansplugins.factionsystem.data.PlayerRegistry;
+import dansplugins.factionsystem.utils.SortedIntSet;
 import org.bukkit.Bukkit;
 import preponderous.ponder.misc.abs.Lockable;
 import preponderous.ponder.misc.abs.Savable;
@@ -18,28 +21,33 @@ import java.util.UUID;
 
 
 /**
+ * The owner and access list are held as {@link PlayerRegistry} ids; the {@link UUID} accessors translate.
+ *
  * @author Daniel McCoy Stephenson
  */
 public class LockedBlock implements Lockable<UUID>, Savable {
+    private final PlayerRegistry playerRegistry;
     private int x = 0;
     private int y = 0;
     private int z = 0;
-    private UUID owner = UUID.randomUUID();
-    private String factionName = "";
+    private int ownerId = PlayerRegistry.UNKNOWN_PLAYER;
+    private int factionId = FactionRegistry.NO_FACTION;
     private String world = "";
-    private ArrayList<UUID> accessList = new ArrayList<>();
+    private SortedIntSet accessList = new SortedIntSet();
 
-    public LockedBlock(UUID o, String f, int newX, int newY, int newZ, String newW) {
-        owner = o;
-        factionName = f;
+    public LockedBlock(PlayerRegistry playerRegistry, UUID o, int f, int newX, int newY, int newZ, String newW) {
+        this.playerRegistry = playerRegistry;
+        ownerId = playerRegistry.intern(o);
+        factionId = f;
         x = newX;
         y = newY;
         z = newZ;
         world = newW;
-        accessList.add(owner);
+        accessList.add(ownerId);
     }
 
-    public LockedBlock(Map<String, String> lockedBlockData) {
+    public LockedBlock(PlayerRegistry playerRegistry, Map<String, String> lockedBlockData) {
+        this.playerRegistry = playerRegistry;
         this.load(lockedBlockData);
     }
 
@@ -61,39 +69,49 @@ public class LockedBlock implements Lockable<UUID>, Savable {
 
     @Override
     public UUID getOwner() {
-        return owner;
+        return playerRegistry.getUUID(ownerId);
+    }
+
+    /**
+     * Check ownership by player id, without building a {@link UUID} for the owner.
+     */
+    public boolean isOwner(UUID playerUUID) {
+        return playerRegistry.find(playerUUID) == ownerId;
     }
 
     @Override
     public void setOwner(UUID s) {
-        owner = s;
+        ownerId = playerRegistry.intern(s);
     }
 
     public void addToAccessList(UUID playerName) {
-        if (!accessList.contains(playerName)) {
-            accessList.add(playerName);
-        }
+        accessList.add(playerRegistry.intern(playerName));
     }
 
     public void removeFromAccessList(UUID playerName) {
-        accessList.remove(playerName);
+        accessList.remove(playerRegistry.find(playerName));
     }
 
     public boolean hasAccess(UUID playerName) {
-        return accessList.contains(playerName);
+        return accessList.contains(playerRegistry.find(playerName));
     }
 
+    /**
+     * @return A copy of the access list; changes to it do not affect the lock.
+     */
     @Override
     public ArrayList<UUID> getAccessList() {
-        return accessList;
+        ArrayList<UUID> uuids = new ArrayList<>(accessList.size());
+        accessList.forEach(playerId -> uuids.add(playerRegistry.getUUID(playerId)));
+        return uuids;
     }
 
-    public void setFaction(String s) {
-        factionName = s;
+    public int getFactionId() {
+        return factionId;
     }
 
-    public String getFactionName() {
-        return factionName;
+    public void setFactionId(int id) {
+        factionId = id;
     }
 
     @Override
@@ -104,10 +122,10 @@ public class LockedBlock implements Lockable<UUID>, Savable {
         saveMap.put("X", gson.toJson(x));
         saveMap.put("Y", gson.toJson(y));
         saveMap.put("Z", gson.toJson(z));
-        saveMap.put("owner", gson.toJson(owner));
-        saveMap.put("factionName", gson.toJson(factionName));
+        saveMap.put("owner", gson.toJson(getOwner()));
+        saveMap.put("factionId", gson.toJson(factionId));
         saveMap.put("world", gson.toJson(world));
-        saveMap.put("accessList", gson.toJson(accessList));
+        saveMap.put("accessList", gson.toJson(getAccessList()));
 
         return saveMap;
     }
@@ -119,13 +137,21 @@ public class LockedBlock implements Lockable<UUID>, Savable {
         x = gson.fromJson(data.get("X"), Integer.TYPE);
         y = gson.fromJson(data.get("Y"), Integer.TYPE);
         z = gson.fromJson(data.get("Z"), Integer.TYPE);
-        owner = UUID.fromString(gson.fromJson(data.get("owner"), String.class));
-        factionName = gson.fromJson(data.get("factionName"), String.class);
+        ownerId = playerRegistry.intern(UUID.fromString(gson.fromJson(data.get("owner"), String.class)));
+        if (data.containsKey("factionId")) {
+            factionId = gson.fromJson(data.get("factionId"), Integer.TYPE);
+        }
         world = gson.fromJson(data.get("world"), String.class);
         if (world == null) {
             world = Bukkit.getServer().getWorlds().get(0).getName();
         }
-        accessList = gson.fromJson(data.get("accessList"), new TypeToken<ArrayList<UUID>>() {
+        ArrayList<UUID> uuids = gson.fromJson(data.get("accessList"), new TypeToken<ArrayList<UUID>>() {
         }.getType());
+        accessList = new SortedIntSet();
+        if (uuids != null) {
+            for (UUID uuid : uuids) {
+                accessList.add(playerRegistry.intern(uuid));
+            }
+        }
     }
 }
\ No newline at end of file
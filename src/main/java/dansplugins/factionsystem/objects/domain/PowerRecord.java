@@ -4,130 +4,140 @@
  */
 package dansplugins.factionsystem.objects.domain;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerRecordStore;
 import dansplugins.factionsystem.objects.inherited.PlayerRecord;
 import dansplugins.factionsystem.services.ConfigService;
-import preponderous.ponder.misc.abs.Savable;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
 
 /**
+ * A player's power, stored in the {@link PlayerRecordStore}.
+ *
  * @author Daniel McCoy Stephenson
  */
-public class PowerRecord extends PlayerRecord implements Savable {
+public class PowerRecord extends PlayerRecord {
     private final ConfigService configService;
     private final PersistentData persistentData;
 
-    private double powerLevel = 0;
-
-    public PowerRecord(UUID playerUUID, ConfigService configService, PersistentData persistentData, int initial) {
+    public PowerRecord(PlayerRecordStore store, int playerId, ConfigService configService, PersistentData persistentData) {
+        super(store, playerId);
         this.configService = configService;
         this.persistentData = persistentData;
-        this.playerUUID = playerUUID;
-        powerLevel = initial;
-    }
-
-    public PowerRecord(Map<String, String> data, ConfigService configService, PersistentData persistentData) {
-        this.configService = configService;
-        this.persistentData = persistentData;
-        this.load(data);
     }
 
     public int maxPower() {
-        if (isPlayerAFactionOwner(playerUUID)) {
+        Faction faction = persistentData.getPlayersFaction(playerId);
+
+        if (faction != null && faction.isOwner(playerId)) {
             return (int) (configService.getDouble("initialMaxPowerLevel") * configService.getDouble("factionOwnerMultiplier"));
         }
 
-        if (isPlayerAFactionOfficer(playerUUID)) {
+        if (faction != null && faction.isOfficer(playerId)) {
             return (int) (configService.getDouble("initialMaxPowerLevel") * configService.getDouble("factionOfficerMultiplier"));
         }
 
         return configService.getInt("initialMaxPowerLevel");
     }
 
-    private boolean isPlayerAFactionOwner(UUID player) {
-        if (persistentData.isInFaction(player)) {
-            Faction faction = persistentData.getPlayersFaction(player);
-            return faction.getOwner().equals(player);
-        } else {
-            return false;
+    public void increasePower() {
+        settle();
+        int maxPower = maxPower();
+        double powerLevel = store.getPower(playerId);
+        if (powerLevel < maxPower) {
+            store.setPower(playerId, Math.min(powerLevel + configService.getInt("powerIncreaseAmount"), maxPower));
         }
     }
 
-    private boolean isPlayerAFactionOfficer(UUID player) {
-        if (persistentData.isInFaction(player)) {
-            Faction faction = persistentData.getPlayersFaction(player);
-            return faction.isOfficer(player);
-        } else {
-            return false;
-        }
+    /**
+     * Start accruing power lazily, e.g. because the player has come online. The accrual clock only runs while lazy
+     * power accrual is enabled, since otherwise the power increase sweep credits the player instead.
+     */
+    public void startAccruing() {
+        settle();
+        store.setLastSettledAt(playerId, configService.getBoolean("lazyPowerAccrual") ? System.currentTimeMillis() : 0);
     }
 
-    public void increasePower() {
-        if (powerLevel < maxPower()) {
-            powerLevel += configService.getInt("powerIncreaseAmount");
-            if (powerLevel > maxPower()) {
-                powerLevel = maxPower();
-            }
+    /**
+     * Stop accruing power, e.g. because the player has gone offline. Whatever was accrued so far is kept.
+     */
+    public void stopAccruing() {
+        settle();
+        store.setLastSettledAt(playerId, 0);
+    }
+
+    /**
+     * Bring the power level up to date when lazy power accrual is enabled.
+     * <p>
+     * While accruing, a player gains {@code powerIncreaseAmount} for every full {@code minutesBetweenPowerIncreases}
+     * since the last settlement, capped at their max power. This should be called before anything that reads the
+     * power level or changes the player's role, since the role determines the cap.
+     * </p>
+     *
+     * @return The power gained by this settlement.
+     */
+    public double settle() {
+        long lastSettledAt = store.getLastSettledAt(playerId);
+        if (lastSettledAt == 0 || !configService.getBoolean("lazyPowerAccrual")) {
+            return 0;
+        }
+        long interval = configService.getInt("minutesBetweenPowerIncreases") * 60_000L;
+        if (interval <= 0) {
+            return 0;
+        }
+        long intervals = (System.currentTimeMillis() - lastSettledAt) / interval;
+        if (intervals <= 0) {
+            return 0;
         }
+        store.setLastSettledAt(playerId, lastSettledAt + intervals * interval);
+        int maxPower = maxPower();
+        double previousPowerLevel = store.getPower(playerId);
+        if (previousPowerLevel >= maxPower) {
+            return 0;
+        }
+        double powerLevel = Math.min(previousPowerLevel + intervals * configService.getInt("powerIncreaseAmount"), maxPower);
+        store.setPower(playerId, powerLevel);
+        double gained = powerLevel - previousPowerLevel;
+        store.setUnannouncedGain(playerId, store.getUnannouncedGain(playerId) + gained);
+        return gained;
+    }
+
+    /**
+     * @return The power gained through lazy accrual since this method was last called.
+     */
+    public double takeUnannouncedGain() {
+        settle();
+        double gain = store.getUnannouncedGain(playerId);
+        store.setUnannouncedGain(playerId, 0);
+        return gain;
     }
 
     public void decreasePower() {
+        settle();
+        double powerLevel = store.getPower(playerId);
         if (powerLevel > 0) {
-            powerLevel -= configService.getInt("powerDecreaseAmount");
-            if (powerLevel < 0) {
-                powerLevel = 0;
-            }
+            store.setPower(playerId, Math.max(powerLevel - configService.getInt("powerDecreaseAmount"), 0));
         }
     }
 
     public double getPower() {
-        return powerLevel;
+        settle();
+        return store.getPower(playerId);
     }
 
     public void setPower(double newPower) {
-        powerLevel = newPower;
+        settle();
+        store.setPower(playerId, newPower);
     }
 
     public void grantPowerDueToKill() {
+        settle();
         double powerGained = configService.getDouble("powerGainedOnKill");
-        powerLevel = Math.min(powerLevel + powerGained, maxPower());
+        store.setPower(playerId, Math.min(store.getPower(playerId) + powerGained, maxPower()));
     }
 
     public double revokePowerDueToDeath() {
+        settle();
         double powerLost = configService.getDouble("powerLostOnDeath");
-        powerLevel = Math.max(powerLevel - powerLost, 0);
+        store.setPower(playerId, Math.max(store.getPower(playerId) - powerLost, 0));
         return powerLost;
     }
-
-    @Override
-    public Map<String, String> save() {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-        Map<String, String> saveMap = new HashMap<>();
-        saveMap.put("playerUUID", gson.toJson(playerUUID.toString()));
-        saveMap.put("powerLevel", gson.toJson(powerLevel));
-
-        return saveMap;
-    }
-
-    @Override
-    public void load(Map<String, String> data) {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        playerUUID = UUID.fromString(gson.fromJson(data.get("playerUUID"), String.class));
-        attemptToLoadPowerLevel(gson, data);
-
-    }
-
-    private void attemptToLoadPowerLevel(Gson gson, Map<String, String> data) {
-        try {
-            powerLevel = gson.fromJson(data.get("powerLevel"), Double.TYPE);
-        } catch (Exception e) {
-            powerLevel = gson.fromJson(data.get("powerLevel"), Integer.TYPE);
-        }
-    }
-}
\ No newline at end of file
+}
@@ -4,7 +4,6 @@
  */
 package dansplugins.factionsystem.objects.helper;
 
-import dansplugins.factionsystem.integrators.DynmapIntegrator;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
 import dansplugins.factionsystem.services.PlayerService;
@@ -16,6 +15,7 @@ import org.bukkit.entity.Player;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.function.Consumer;
 
 /**
  * @author Daniel McCoy Stephenson
@@ -27,7 +27,7 @@ import java.util.HashMap;
 public class FactionFlags {
     private final ConfigService configService;
     private final LocaleService localeService;
-    private final DynmapIntegrator dynmapIntegrator;
+    private final Consumer<String> flagChanged;
     private final Logger logger;
     private final PlayerService playerService;
 
@@ -37,10 +37,10 @@ public class FactionFlags {
     private HashMap<String, Double> doubleValues = new HashMap<>();
     private HashMap<String, String> stringValues = new HashMap<>();
 
-    public FactionFlags(ConfigService configService, LocaleService localeService, DynmapIntegrator dynmapIntegrator, Logger logger, PlayerService playerService) {
+    public FactionFlags(ConfigService configService, LocaleService localeService, Consumer<String> flagChanged, Logger logger, PlayerService playerService) {
         this.configService = configService;
         this.localeService = localeService;
-        this.dynmapIntegrator = dynmapIntegrator;
+        this.flagChanged = flagChanged;
         this.logger = logger;
         this.playerService = playerService;
         initializeFlagNames();
@@ -179,6 +179,7 @@ public class FactionFlags {
                             )
                     );
                     // TODO Replace this with a new Locale message.
+                    flagChanged.accept(flag); // so dynmap can reflect the color change
                     return;
                 }
 
@@ -186,9 +187,7 @@ public class FactionFlags {
                 player.sendMessage(ChatColor.GREEN + localeService.get("StringSet"));
             }
 
-            if (flag.equals("dynmapTerritoryColor")) {
-                dynmapIntegrator.updateClaims(); // update dynmap to reflect color change
-            }
+            flagChanged.accept(flag);
         } else {
             player.sendMessage(ChatColor.RED + String.format(localeService.get("WasntFound"), flag));
         }
@@ -196,24 +195,25 @@ public class FactionFlags {
 
     public Object getFlag(String flag) {
         if (!isFlag(flag)) {
-            logger.debug(String.format("[DEBUG] Flag '%s' was not found!", flag));
+            logger.debug(() -> String.format("[DEBUG] Flag '%s' was not found!", flag));
             return false;
         }
 
+        Object value = null;
         if (integerValues.containsKey(flag)) {
-            logger.debug(String.format("[DEBUG] Flag '%s' was found! Value: '%s'", flag, integerValues.get(flag)));
-            return integerValues.get(flag);
+            value = integerValues.get(flag);
         } else if (booleanValues.containsKey(flag)) {
-            logger.debug(String.format("[DEBUG] Flag '%s' was found! Value: '%s'", flag, booleanValues.get(flag)));
-            return booleanValues.get(flag);
+            value = booleanValues.get(flag);
         } else if (doubleValues.containsKey(flag)) {
-            logger.debug(String.format("[DEBUG] Flag '%s' was found! Value: '%s'", flag, doubleValues.get(flag)));
-            return doubleValues.get(flag);
+            value = doubleValues.get(flag);
         } else if (stringValues.containsKey(flag)) {
-            logger.debug(String.format("[DEBUG] Flag '%s' was found! Value: '%s'", flag, stringValues.get(flag)));
-            return stringValues.get(flag);
+            value = stringValues.get(flag);
+        }
+        if (value != null) {
+            Object found = value;
+            logger.debug(() -> String.format("[DEBUG] Flag '%s' was found! Value: '%s'", flag, found));
         }
-        return null;
+        return value;
     }
 
     public HashMap<String, Integer> getIntegerValues() {
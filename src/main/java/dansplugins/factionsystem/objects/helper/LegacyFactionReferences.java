@@ -0,0 +1,98 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.objects.helper;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import dansplugins.factionsystem.data.FactionRegistry;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * The relations of a faction that was saved before factions referred to one another by id, when they did so by name.
+ * <p>
+ * A name can only be resolved once every faction has been loaded, so the names are read along with the rest of the
+ * faction and resolved to ids afterwards.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class LegacyFactionReferences {
+    private static final String NO_LIEGE = "none";
+
+    private final List<String> enemyNames;
+    private final List<String> allyNames;
+    private final List<String> vassalNames;
+    private final String liegeName;
+
+    private LegacyFactionReferences(List<String> enemyNames, List<String> allyNames, List<String> vassalNames, String liegeName) {
+        this.enemyNames = enemyNames;
+        this.allyNames = allyNames;
+        this.vassalNames = vassalNames;
+        this.liegeName = liegeName;
+    }
+
+    /**
+     * @param data The saved faction.
+     * @return The names the faction refers to others by, or {@code null} if it was saved with ids and needs no migration.
+     */
+    public static LegacyFactionReferences read(Map<String, String> data) {
+        if (data.containsKey("allyFactionIds")) {
+            return null;
+        }
+        Gson gson = new Gson();
+        Type arrayListTypeString = new TypeToken<ArrayList<String>>() {
+        }.getType();
+        List<String> enemyNames = gson.fromJson(data.getOrDefault("enemyFactions", "[]"), arrayListTypeString);
+        List<String> allyNames = gson.fromJson(data.getOrDefault("allyFactions", "[]"), arrayListTypeString);
+        List<String> vassalNames = gson.fromJson(data.getOrDefault("vassals", "[]"), arrayListTypeString);
+        String liegeName = gson.fromJson(data.getOrDefault("liege", "none"), String.class);
+        return new LegacyFactionReferences(enemyNames, allyNames, vassalNames, liegeName);
+    }
+
+    /**
+     * @param idByName Resolves a faction name to its id, or to {@link FactionRegistry#NO_FACTION} if there is none.
+     * @return The ids of the enemies that still exist.
+     */
+    public List<Integer> resolveEnemies(ToIntFunction<String> idByName) {
+        return resolve(enemyNames, idByName);
+    }
+
+    public List<Integer> resolveAllies(ToIntFunction<String> idByName) {
+        return resolve(allyNames, idByName);
+    }
+
+    public List<Integer> resolveVassals(ToIntFunction<String> idByName) {
+        return resolve(vassalNames, idByName);
+    }
+
+    /**
+     * @return The id of the liege, or {@link FactionRegistry#NO_FACTION} if there is none or it no longer exists.
+     */
+    public int resolveLiege(ToIntFunction<String> idByName) {
+        if (liegeName == null || liegeName.equalsIgnoreCase(NO_LIEGE)) {
+            return FactionRegistry.NO_FACTION;
+        }
+        return idByName.applyAsInt(liegeName);
+    }
+
+    private List<Integer> resolve(List<String> names, ToIntFunction<String> idByName) {
+        List<Integer> ids = new ArrayList<>();
+        if (names == null) {
+            return ids;
+        }
+        for (String name : names) {
+            int id = idByName.applyAsInt(name);
+            if (id != FactionRegistry.NO_FACTION && !ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
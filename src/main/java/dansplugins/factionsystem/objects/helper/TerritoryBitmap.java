@@ -0,0 +1,421 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.objects.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A sparse bitmap of chunk coordinates, such as the land one faction holds in one world.
+ * <p>
+ * The plane is divided into 64x64 tiles, each stored as 64 longs with one bit per chunk, and only tiles with land in
+ * them are allocated. Set operations work a whole row of a tile at a time.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class TerritoryBitmap {
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_MASK = 0x3F;
+
+    private final HashMap<Long, long[]> tiles = new HashMap<>();
+    private long lastKey = Long.MAX_VALUE;
+    private long[] lastRows;
+    private int count = 0;
+
+    public TerritoryBitmap() {
+
+    }
+
+    public boolean getFlag(int x, int z) {
+        long[] rows = getRows(tileKey(x, z));
+        if (rows == null) {
+            return false;
+        } else {
+            return (rows[z & TILE_MASK] & (1L << (x & TILE_MASK))) != 0;
+        }
+    }
+
+    public void setFlag(int x, int z, boolean f) {
+        long k = tileKey(x, z);
+        long[] rows = getRows(k);
+        long bit = 1L << (x & TILE_MASK);
+        if (f) {
+            if (rows == null) {
+                rows = new long[64];
+                tiles.put(k, rows);
+                lastRows = rows;
+            }
+            if ((rows[z & TILE_MASK] & bit) == 0) {
+                rows[z & TILE_MASK] |= bit;
+                count++;
+            }
+        } else {
+            if (rows != null && (rows[z & TILE_MASK] & bit) != 0) {
+                rows[z & TILE_MASK] &= ~bit;
+                count--;
+            }
+        }
+    }
+
+    /**
+     * @return The number of chunks set.
+     */
+    public int cardinality() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void clear() {
+        tiles.clear();
+        resetCache();
+        count = 0;
+    }
+
+    public TerritoryBitmap copy() {
+        TerritoryBitmap copy = new TerritoryBitmap();
+        for (Map.Entry<Long, long[]> entry : tiles.entrySet()) {
+            copy.tiles.put(entry.getKey(), entry.getValue().clone());
+        }
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * Set every chunk that is set in another bitmap.
+     */
+    public void union(TerritoryBitmap other) {
+        for (Map.Entry<Long, long[]> entry : other.tiles.entrySet()) {
+            long[] rows = tiles.computeIfAbsent(entry.getKey(), k -> new long[64]);
+            long[] otherRows = entry.getValue();
+            for (int i = 0; i < 64; i++) {
+                rows[i] |= otherRows[i];
+            }
+        }
+        recount();
+    }
+
+    /**
+     * Clear every chunk that is not also set in another bitmap.
+     */
+    public void intersect(TerritoryBitmap other) {
+        Iterator<Map.Entry<Long, long[]>> iterator = tiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, long[]> entry = iterator.next();
+            long[] otherRows = other.tiles.get(entry.getKey());
+            if (otherRows == null) {
+                iterator.remove();
+                continue;
+            }
+            long[] rows = entry.getValue();
+            for (int i = 0; i < 64; i++) {
+                rows[i] &= otherRows[i];
+            }
+        }
+        recount();
+    }
+
+    /**
+     * Clear every chunk that is set in another bitmap.
+     */
+    public void difference(TerritoryBitmap other) {
+        for (Map.Entry<Long, long[]> entry : other.tiles.entrySet()) {
+            long[] rows = tiles.get(entry.getKey());
+            if (rows == null) {
+                continue;
+            }
+            long[] otherRows = entry.getValue();
+            for (int i = 0; i < 64; i++) {
+                rows[i] &= ~otherRows[i];
+            }
+        }
+        recount();
+    }
+
+    /**
+     * Visit every chunk that is set. The order is unspecified.
+     */
+    public void forEach(CoordinateConsumer action) {
+        for (Map.Entry<Long, long[]> entry : tiles.entrySet()) {
+            int baseX = (int) (entry.getKey() >> 32) << TILE_SHIFT;
+            int baseZ = (int) (long) entry.getKey() << TILE_SHIFT;
+            long[] rows = entry.getValue();
+            for (int i = 0; i < 64; i++) {
+                long bits = rows[i];
+                while (bits != 0) {
+                    action.accept(baseX + Long.numberOfTrailingZeros(bits), baseZ + i);
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The smallest box containing every chunk that is set, as {minX, minZ, maxX, maxZ}, or {@code null} if
+     * nothing is set.
+     */
+    public int[] getBoundingBox() {
+        if (count == 0) {
+            return null;
+        }
+        int[] box = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+        for (Map.Entry<Long, long[]> entry : tiles.entrySet()) {
+            int baseX = (int) (entry.getKey() >> 32) << TILE_SHIFT;
+            int baseZ = (int) (long) entry.getKey() << TILE_SHIFT;
+            long[] rows = entry.getValue();
+            for (int i = 0; i < 64; i++) {
+                if (rows[i] == 0) {
+                    continue;
+                }
+                box[0] = Math.min(box[0], baseX + Long.numberOfTrailingZeros(rows[i]));
+                box[1] = Math.min(box[1], baseZ + i);
+                box[2] = Math.max(box[2], baseX + 63 - Long.numberOfLeadingZeros(rows[i]));
+                box[3] = Math.max(box[3], baseZ + i);
+            }
+        }
+        return box;
+    }
+
+    /**
+     * @return Whether a chunk and its four neighbours to the north, east, south and west are all set.
+     */
+    public boolean isInterior(int x, int z) {
+        return getFlag(x, z) && getFlag(x + 1, z) && getFlag(x - 1, z) && getFlag(x, z + 1) && getFlag(x, z - 1);
+    }
+
+    /**
+     * @return The chunks that are set but are not interior, i.e. the border of the territory.
+     */
+    public TerritoryBitmap getEdges() {
+        TerritoryBitmap edges = new TerritoryBitmap();
+        forEach((x, z) -> {
+            if (!isInterior(x, z)) {
+                edges.setFlag(x, z, true);
+            }
+        });
+        return edges;
+    }
+
+    /**
+     * Split the bitmap into its connected components, where chunks are connected if they share a side.
+     *
+     * @return One bitmap per component. This bitmap is left unchanged.
+     */
+    public List<TerritoryBitmap> getComponents() {
+        List<TerritoryBitmap> components = new ArrayList<>();
+        TerritoryBitmap remaining = copy();
+        forEach((x, z) -> {
+            if (remaining.getFlag(x, z)) {
+                TerritoryBitmap component = new TerritoryBitmap();
+                floodFillTarget(remaining, component, x, z);
+                components.add(component);
+            }
+        });
+        return components;
+    }
+
+    /**
+     * Trace the outline of the territory as the corners of a polygon, in chunk coordinates.
+     * <p>
+     * The trace starts from the lowest chunk and follows the outer boundary of the component it belongs to, so the
+     * bitmap should hold a single component (see {@link #getComponents()}). Holes are not traced.
+     * </p>
+     *
+     * @return The corners of the outline as {x0, z0, x1, z1, ...}, or an empty array if nothing is set.
+     */
+    public int[] traceOutline() {
+        if (count == 0) {
+            return new int[0];
+        }
+        CornerList linelist = new CornerList();
+        int[] start = lowestCell();
+        int minx = start[0];
+        int minz = start[1];
+        /* Trace outline of blocks - start from minx, minz going to x+ */
+        int cur_x = minx;
+        int cur_z = minz;
+        Direction dir = Direction.XPLUS;
+        linelist.add(minx, minz); // Add start point
+        while ((cur_x != minx) || (cur_z != minz) || (dir != Direction.ZMINUS)) {
+            switch (dir) {
+                case XPLUS: /* Segment in X+ direction */
+                    if (!getFlag(cur_x + 1, cur_z)) { /* Right turn? */
+                        linelist.add(cur_x + 1, cur_z); /* Finish line */
+                        dir = Direction.ZPLUS;  /* Change direction */
+                    } else if (!getFlag(cur_x + 1, cur_z - 1)) {  /* Straight? */
+                        cur_x++;
+                    } else {  /* Left turn */
+                        linelist.add(cur_x + 1, cur_z); /* Finish line */
+                        dir = Direction.ZMINUS;
+                        cur_x++;
+                        cur_z--;
+                    }
+                    break;
+                case ZPLUS: /* Segment in Z+ direction */
+                    if (!getFlag(cur_x, cur_z + 1)) { /* Right turn? */
+                        linelist.add(cur_x + 1, cur_z + 1); /* Finish line */
+                        dir = Direction.XMINUS;  /* Change direction */
+                    } else if (!getFlag(cur_x + 1, cur_z + 1)) {  /* Straight? */
+                        cur_z++;
+                    } else {  /* Left turn */
+                        linelist.add(cur_x + 1, cur_z + 1); /* Finish line */
+                        dir = Direction.XPLUS;
+                        cur_x++;
+                        cur_z++;
+                    }
+                    break;
+                case XMINUS: /* Segment in X- direction */
+                    if (!getFlag(cur_x - 1, cur_z)) { /* Right turn? */
+                        linelist.add(cur_x, cur_z + 1); /* Finish line */
+                        dir = Direction.ZMINUS;  /* Change direction */
+                    } else if (!getFlag(cur_x - 1, cur_z + 1)) {  /* Straight? */
+                        cur_x--;
+                    } else {  /* Left turn */
+                        linelist.add(cur_x, cur_z + 1); /* Finish line */
+                        dir = Direction.ZPLUS;
+                        cur_x--;
+                        cur_z++;
+                    }
+                    break;
+                case ZMINUS: /* Segment in Z- direction */
+                    if (!getFlag(cur_x, cur_z - 1)) { /* Right turn? */
+                        linelist.add(cur_x, cur_z); /* Finish line */
+                        dir = Direction.XPLUS;  /* Change direction */
+                    } else if (!getFlag(cur_x - 1, cur_z - 1)) {  /* Straight? */
+                        cur_z--;
+                    } else {  /* Left turn */
+                        linelist.add(cur_x, cur_z); /* Finish line */
+                        dir = Direction.XMINUS;
+                        cur_x--;
+                        cur_z--;
+                    }
+                    break;
+            }
+        }
+        return linelist.toArray();
+    }
+
+    /**
+     * @return The set chunk with the lowest x, and the lowest z among those.
+     */
+    private int[] lowestCell() {
+        int[] lowest = {Integer.MAX_VALUE, Integer.MAX_VALUE};
+        forEach((x, z) -> {
+            if (x < lowest[0] || (x == lowest[0] && z < lowest[1])) {
+                lowest[0] = x;
+                lowest[1] = z;
+            }
+        });
+        return lowest;
+    }
+
+    /**
+     * Find all contiguous blocks, set in target and clear in source
+     */
+    private static void floodFillTarget(TerritoryBitmap src, TerritoryBitmap dest, int x, int z) {
+        // coordinates are packed into longs so that a push allocates nothing
+        long[] stack = new long[64];
+        int size = 0;
+        stack[size++] = pack(x, z);
+
+        while (size > 0) {
+            long nxt = stack[--size];
+            x = (int) (nxt >> 32);
+            z = (int) nxt;
+            if (src.getFlag(x, z)) { /* Set in src */
+                src.setFlag(x, z, false);   /* Clear source */
+                dest.setFlag(x, z, true);   /* Set in destination */
+                if (size + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                if (src.getFlag(x + 1, z))
+                    stack[size++] = pack(x + 1, z);
+                if (src.getFlag(x - 1, z))
+                    stack[size++] = pack(x - 1, z);
+                if (src.getFlag(x, z + 1))
+                    stack[size++] = pack(x, z + 1);
+                if (src.getFlag(x, z - 1))
+                    stack[size++] = pack(x, z - 1);
+            }
+        }
+    }
+
+    private static long pack(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static long tileKey(int x, int z) {
+        return (((long) (x >> TILE_SHIFT)) << 32) | (0xFFFFFFFFL & (long) (z >> TILE_SHIFT));
+    }
+
+    private long[] getRows(long k) {
+        if (k != lastKey) {
+            lastKey = k;
+            lastRows = tiles.get(k);
+        }
+        return lastRows;
+    }
+
+    private void recount() {
+        removeEmptyTiles();
+        count = 0;
+        for (long[] rows : tiles.values()) {
+            for (long row : rows) {
+                count += Long.bitCount(row);
+            }
+        }
+    }
+
+    private void removeEmptyTiles() {
+        tiles.values().removeIf(rows -> {
+            for (long row : rows) {
+                if (row != 0) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        resetCache();
+    }
+
+    private void resetCache() {
+        lastRows = null;
+        lastKey = Long.MAX_VALUE;
+    }
+
+    @FunctionalInterface
+    public interface CoordinateConsumer {
+        void accept(int x, int z);
+    }
+
+    private enum Direction {XPLUS, ZPLUS, XMINUS, ZMINUS}
+
+    /**
+     * Growable list of corners, stored flat as {x0, z0, x1, z1, ...}.
+     */
+    private static class CornerList {
+        private int[] coordinates = new int[32];
+        private int size = 0;
+
+        private void add(int x, int z) {
+            if (size + 2 > coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+            }
+            coordinates[size++] = x;
+            coordinates[size++] = z;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(coordinates, size);
+        }
+    }
+}
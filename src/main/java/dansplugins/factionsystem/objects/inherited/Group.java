@@ -4,6 +4,8 @@
  */
 package dansplugins.factionsystem.objects.inherited;
 
+import dansplugins.factionsystem.data.PlayerRegistry;
+import dansplugins.factionsystem.utils.SortedIntSet;
 import org.bukkit.entity.Player;
 import preponderous.ponder.minecraft.bukkit.tools.UUIDChecker;
 
@@ -13,15 +15,41 @@ import java.util.UUID;
 import static org.bukkit.Bukkit.getServer;
 
 /**
+ * Players are held as the compact ids handed out by {@link PlayerRegistry} rather than as {@link UUID} objects.
+ * The UUID-based methods translate at the boundary; lists returned from them are fresh copies.
+ * <p>
+ * Members and officers are kept in player id order, which is the order the server first saw each player, rather than
+ * the order they joined the group. Lists of members and officers, including the saved ones, come out in that order.
+ * </p>
+ *
  * @author Daniel McCoy Stephenson
  */
-public class Group {
-    private final ArrayList<UUID> invited = new ArrayList<>();
+public abstract class Group {
+    private final SortedIntSet invited = new SortedIntSet();
     protected String name = "defaultName";
     protected String description = "defaultDescription";
     protected UUID owner = UUID.randomUUID();
-    protected ArrayList<UUID> members = new ArrayList<>();
-    protected ArrayList<UUID> officers = new ArrayList<>();
+    protected SortedIntSet members = new SortedIntSet();
+    protected SortedIntSet officers = new SortedIntSet();
+    private int version = 0;
+
+    /**
+     * @return The registry that player ids in this group were interned with.
+     */
+    protected abstract PlayerRegistry getPlayerRegistry();
+
+    /**
+     * @return A counter that goes up whenever anything about the group that is shown to players changes, such as its
+     * name, description, owner, members, officers or relations, so that copies and text built from them can be kept
+     * until they would read differently.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    protected void changed() {
+        version++;
+    }
 
     public String getName() {
         return name;
@@ -29,6 +57,7 @@ public class Group {
 
     public void setName(String newName) {
         name = newName;
+        changed();
     }
 
     public String getDescription() {
@@ -37,38 +66,50 @@ public class Group {
 
     public void setDescription(String newDesc) {
         description = newDesc;
+        changed();
     }
 
     public boolean isOwner(UUID UUID) {
         return owner.equals(UUID);
     }
 
+    public boolean isOwner(int playerId) {
+        return playerId != PlayerRegistry.UNKNOWN_PLAYER && getPlayerRegistry().find(owner) == playerId;
+    }
+
     public UUID getOwner() {
         return owner;
     }
 
     public void setOwner(UUID UUID) {
         owner = UUID;
+        changed();
     }
 
     public void addMember(UUID UUID) {
-        members.add(UUID);
+        members.add(getPlayerRegistry().intern(UUID));
+        changed();
     }
 
     public void removeMember(UUID UUID) {
-        members.remove(UUID);
+        members.remove(getPlayerRegistry().find(UUID));
+        changed();
     }
 
     public boolean isMember(UUID uuid) {
-        return members.contains(uuid);
+        return isMember(getPlayerRegistry().find(uuid));
+    }
+
+    public boolean isMember(int playerId) {
+        return members.contains(playerId);
     }
 
     public ArrayList<UUID> getMemberList() {
-        return members;
+        return toUUIDs(members);
     }
 
     public ArrayList<UUID> getMemberArrayList() {
-        return members;
+        return getMemberList();
     }
 
     public String getMemberListSeparatedByCommas() {
@@ -86,19 +127,27 @@ public class Group {
     }
 
     public boolean addOfficer(UUID newOfficer) {
-        if (!officers.contains(newOfficer)) {
-            officers.add(newOfficer);
+        if (officers.add(getPlayerRegistry().intern(newOfficer))) {
+            changed();
             return true;
         }
         return false;
     }
 
     public boolean removeOfficer(UUID officerToRemove) {
-        return officers.remove(officerToRemove);
+        if (officers.remove(getPlayerRegistry().find(officerToRemove))) {
+            changed();
+            return true;
+        }
+        return false;
     }
 
     public boolean isOfficer(UUID uuid) {
-        return officers.contains(uuid);
+        return isOfficer(getPlayerRegistry().find(uuid));
+    }
+
+    public boolean isOfficer(int playerId) {
+        return officers.contains(playerId);
     }
 
     public int getNumOfficers() {
@@ -106,7 +155,7 @@ public class Group {
     }
 
     public ArrayList<UUID> getOfficerList() {
-        return officers;
+        return toUUIDs(officers);
     }
 
     public int getPopulation() {
@@ -116,16 +165,33 @@ public class Group {
     public void invite(UUID playerName) {
         Player player = getServer().getPlayer(playerName);
         if (player != null) {
-            UUID playerUUID = getServer().getPlayer(playerName).getUniqueId();
-            invited.add(playerUUID);
+            invited.add(getPlayerRegistry().intern(player.getUniqueId()));
         }
     }
 
     public void uninvite(UUID player) {
-        invited.remove(player);
+        invited.remove(getPlayerRegistry().find(player));
     }
 
     public boolean isInvited(UUID uuid) {
-        return invited.contains(uuid);
+        return invited.contains(getPlayerRegistry().find(uuid));
+    }
+
+    protected ArrayList<UUID> toUUIDs(SortedIntSet playerIds) {
+        PlayerRegistry playerRegistry = getPlayerRegistry();
+        ArrayList<UUID> uuids = new ArrayList<>(playerIds.size());
+        playerIds.forEach(playerId -> uuids.add(playerRegistry.getUUID(playerId)));
+        return uuids;
+    }
+
+    protected SortedIntSet toPlayerIds(Iterable<UUID> uuids) {
+        PlayerRegistry playerRegistry = getPlayerRegistry();
+        SortedIntSet playerIds = new SortedIntSet();
+        if (uuids != null) {
+            for (UUID uuid : uuids) {
+                playerIds.add(playerRegistry.intern(uuid));
+            }
+        }
+        return playerIds;
     }
-}
\ No newline at end of file
+}
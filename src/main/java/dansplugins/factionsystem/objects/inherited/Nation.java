@@ -4,122 +4,156 @@
  */
 package dansplugins.factionsystem.objects.inherited;
 
+import dansplugins.factionsystem.data.FactionRegistry;
 import dansplugins.factionsystem.objects.inherited.specification.Diplomatic;
 import dansplugins.factionsystem.objects.inherited.specification.Lawful;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
+ * Relations to other nations are stored by id. The name-based methods resolve names through
+ * {@link #resolveFactionId(String)} and {@link #resolveFactionName(int)}.
+ *
  * @author Daniel McCoy Stephenson
  */
-public class Nation extends Group implements Diplomatic, Lawful {
-    protected ArrayList<String> allyFactions = new ArrayList<>();
-    protected ArrayList<String> attemptedAlliances = new ArrayList<>();
-    protected ArrayList<String> enemyFactions = new ArrayList<>();
-    protected ArrayList<String> attemptedTruces = new ArrayList<>();
+public abstract class Nation extends Group implements Diplomatic, Lawful {
+    protected final LinkedHashSet<Integer> allyFactions = new LinkedHashSet<>();
+    protected final LinkedHashSet<Integer> attemptedAlliances = new LinkedHashSet<>();
+    protected final LinkedHashSet<Integer> enemyFactions = new LinkedHashSet<>();
+    protected final LinkedHashSet<Integer> attemptedTruces = new LinkedHashSet<>();
 
     protected ArrayList<String> laws = new ArrayList<>();
 
+    /**
+     * @param factionName The name of a faction, in any case.
+     * @return The faction's id, or {@link FactionRegistry#NO_FACTION} if there is no such faction.
+     */
+    protected abstract int resolveFactionId(String factionName);
+
+    /**
+     * @param factionId The id of a faction.
+     * @return The faction's current name, or {@code null} if there is no such faction.
+     */
+    protected abstract String resolveFactionName(int factionId);
+
     @Override
     public void addAlly(String factionName) {
-        if (!containsIgnoreCase(allyFactions, factionName)) {
-            allyFactions.add(factionName);
-        }
+        addAlly(resolveFactionId(factionName));
+    }
+
+    public void addAlly(int factionId) {
+        addIfFaction(allyFactions, factionId);
+        changed();
     }
 
     @Override
     public void removeAlly(String factionName) {
-        removeIfContainsIgnoreCase(allyFactions, factionName);
+        removeAlly(resolveFactionId(factionName));
+    }
+
+    public void removeAlly(int factionId) {
+        allyFactions.remove(factionId);
+        changed();
     }
 
     @Override
     public boolean isAlly(String factionName) {
-        return containsIgnoreCase(allyFactions, factionName);
+        return isAlly(resolveFactionId(factionName));
+    }
+
+    public boolean isAlly(int factionId) {
+        return allyFactions.contains(factionId);
     }
 
     @Override
     public ArrayList<String> getAllies() {
-        return allyFactions;
+        return resolveFactionNames(allyFactions);
+    }
+
+    public Set<Integer> getAllyIds() {
+        return Collections.unmodifiableSet(allyFactions);
     }
 
     @Override
     public String getAlliesSeparatedByCommas() {
-        String allies = "";
-        for (int i = 0; i < allyFactions.size(); i++) {
-            allies = allies + allyFactions.get(i);
-            if (i != allyFactions.size() - 1) {
-                allies = allies + ", ";
-            }
-        }
-        return allies;
+        return String.join(", ", getAllies());
     }
 
     @Override
     public void requestAlly(String factionName) {
-        if (!containsIgnoreCase(attemptedAlliances, factionName)) {
-            attemptedAlliances.add(factionName);
-        }
+        addIfFaction(attemptedAlliances, resolveFactionId(factionName));
     }
 
     @Override
     public boolean isRequestedAlly(String factionName) {
-        return containsIgnoreCase(attemptedAlliances, factionName);
+        return attemptedAlliances.contains(resolveFactionId(factionName));
     }
 
     @Override
     public void removeAllianceRequest(String factionName) {
-        attemptedAlliances.remove(factionName);
+        attemptedAlliances.remove(resolveFactionId(factionName));
     }
 
     @Override
     public void addEnemy(String factionName) {
-        if (!containsIgnoreCase(enemyFactions, factionName)) {
-            enemyFactions.add(factionName);
-        }
+        addEnemy(resolveFactionId(factionName));
+    }
+
+    public void addEnemy(int factionId) {
+        addIfFaction(enemyFactions, factionId);
+        changed();
     }
 
     @Override
     public void removeEnemy(String factionName) {
-        removeIfContainsIgnoreCase(enemyFactions, factionName);
+        removeEnemy(resolveFactionId(factionName));
+    }
+
+    public void removeEnemy(int factionId) {
+        enemyFactions.remove(factionId);
+        changed();
     }
 
     @Override
     public boolean isEnemy(String factionName) {
-        return containsIgnoreCase(enemyFactions, factionName);
+        return isEnemy(resolveFactionId(factionName));
+    }
+
+    public boolean isEnemy(int factionId) {
+        return enemyFactions.contains(factionId);
     }
 
     @Override
     public ArrayList<String> getEnemyFactions() {
-        return enemyFactions;
+        return resolveFactionNames(enemyFactions);
+    }
+
+    public Set<Integer> getEnemyIds() {
+        return Collections.unmodifiableSet(enemyFactions);
     }
 
     @Override
     public String getEnemiesSeparatedByCommas() {
-        String enemies = "";
-        for (int i = 0; i < enemyFactions.size(); i++) {
-            enemies = enemies + enemyFactions.get(i);
-            if (i != enemyFactions.size() - 1) {
-                enemies = enemies + ", ";
-            }
-        }
-        return enemies;
+        return String.join(", ", getEnemyFactions());
     }
 
     @Override
     public void requestTruce(String factionName) {
-        if (!containsIgnoreCase(attemptedTruces, factionName)) {
-            attemptedTruces.add(factionName);
-        }
+        addIfFaction(attemptedTruces, resolveFactionId(factionName));
     }
 
     @Override
     public boolean isTruceRequested(String factionName) {
-        return containsIgnoreCase(attemptedTruces, factionName);
+        return attemptedTruces.contains(resolveFactionId(factionName));
     }
 
     @Override
     public void removeRequestedTruce(String factionName) {
-        removeIfContainsIgnoreCase(attemptedTruces, factionName);
+        attemptedTruces.remove(resolveFactionId(factionName));
     }
 
     @Override
@@ -166,23 +200,29 @@ public class Nation extends Group implements Diplomatic, Lawful {
 
     // helper methods ---------------
 
-    private boolean containsIgnoreCase(ArrayList<String> list, String str) {
-        for (String string : list) {
-            if (string.equalsIgnoreCase(str)) {
-                return true;
+    protected void addIfFaction(Collection<Integer> ids, int factionId) {
+        if (factionId != FactionRegistry.NO_FACTION) {
+            ids.add(factionId);
+        }
+    }
+
+    protected ArrayList<String> resolveFactionNames(Collection<Integer> ids) {
+        ArrayList<String> names = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            String name = resolveFactionName(id);
+            if (name != null) {
+                names.add(name);
             }
         }
-        return false;
+        return names;
     }
 
-    private void removeIfContainsIgnoreCase(ArrayList<String> list, String str) {
-        String toRemove = "";
+    private boolean containsIgnoreCase(ArrayList<String> list, String str) {
         for (String string : list) {
             if (string.equalsIgnoreCase(str)) {
-                toRemove = string;
-                break;
+                return true;
             }
         }
-        list.remove(toRemove);
+        return false;
     }
-}
\ No newline at end of file
+}
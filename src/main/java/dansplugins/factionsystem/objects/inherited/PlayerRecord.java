@@ -4,19 +4,46 @@
  */
 package dansplugins.factionsystem.objects.inherited;
 
+import dansplugins.factionsystem.data.PlayerRecordStore;
+
 import java.util.UUID;
 
 /**
+ * A view over one player's row in the {@link PlayerRecordStore}.
+ *
  * @author Daniel McCoy Stephenson
  */
 public class PlayerRecord {
-    protected UUID playerUUID = null;
+    protected final PlayerRecordStore store;
+    protected final int playerId;
+
+    protected PlayerRecord(PlayerRecordStore store, int playerId) {
+        this.store = store;
+        this.playerId = playerId;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
 
     public UUID getPlayerUUID() {
-        return playerUUID;
+        return store.getPlayerRegistry().getUUID(playerId);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        PlayerRecord record = (PlayerRecord) other;
+        return store == record.store && playerId == record.playerId;
     }
 
-    public void setPlayerUUID(UUID UUID) {
-        playerUUID = UUID;
+    @Override
+    public int hashCode() {
+        return playerId;
     }
-}
\ No newline at end of file
+}
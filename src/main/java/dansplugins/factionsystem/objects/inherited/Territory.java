@@ -4,17 +4,22 @@
  */
 package dansplugins.factionsystem.objects.inherited;
 
+import dansplugins.factionsystem.data.FactionRegistry;
+
 /**
  * @author Daniel McCoy Stephenson
  */
 public class Territory {
-    protected String holder;
+    protected int holderId = FactionRegistry.NO_FACTION;
 
-    public String getHolder() {
-        return holder;
+    /**
+     * @return The id of the faction holding this territory.
+     */
+    public int getHolderId() {
+        return holderId;
     }
 
-    public void setHolder(String newHolder) {
-        holder = newHolder;
+    public void setHolderId(int newHolderId) {
+        holderId = newHolderId;
     }
 }
\ No newline at end of file
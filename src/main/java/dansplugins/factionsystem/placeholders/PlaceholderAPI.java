@@ -5,6 +5,7 @@
 package dansplugins.factionsystem.placeholders;
 
 import dansplugins.factionsystem.MedievalFactions;
+import dansplugins.factionsystem.data.FactionSnapshot.FactionView;
 import dansplugins.factionsystem.data.PersistentData;
 import dansplugins.factionsystem.objects.domain.ClaimedChunk;
 import dansplugins.factionsystem.objects.domain.Faction;
@@ -60,8 +61,10 @@ public class PlaceholderAPI extends PlaceholderExpansion {
         id = id.toLowerCase(); // I'm unsure if PlaceholderAPI enforces case, but let's just do it to make sure.
         if (player == null) return null; // We only want to handle Player-Placeholders here.
 
-        final boolean hasFaction = persistentData.isInFaction(player.getUniqueId());
-        final Faction faction = persistentData.getPlayersFaction(player.getUniqueId());
+        // Placeholders may be requested off the main thread, so membership is read from the published snapshot.
+        final FactionView factionView = persistentData.getSnapshot().getPlayersFaction(player.getUniqueId());
+        final boolean hasFaction = factionView != null;
+        final Faction faction = hasFaction ? factionView.getFaction() : null;
 
         // Prerequisites.
         if (id.startsWith("faction_") && !hasFaction && !id.equalsIgnoreCase("faction_at_location")) {
@@ -71,11 +74,11 @@ public class PlaceholderAPI extends PlaceholderExpansion {
         // Faction-Specific.
         if (id.equalsIgnoreCase("faction_name")) {
             // The name of the Faction the Player is in.
-            return faction.getName();
+            return factionView.getName();
         }
         if (id.equalsIgnoreCase("faction_prefix")) {
             // The prefix of the Faction the Player is in.
-            return faction.getPrefix();
+            return factionView.getPrefix();
         }
         if (id.equalsIgnoreCase("faction_total_claimed_chunks")) {
             // The total chunks claimed for the Faction that the Player is in.
@@ -95,41 +98,41 @@ public class PlaceholderAPI extends PlaceholderExpansion {
         }
         if (id.equalsIgnoreCase("faction_ally_count")) {
             // The total amount of Allies the Faction has that the Player is in.
-            return String.valueOf(faction.getAllies().size());
+            return String.valueOf(factionView.getAllies().size());
         }
         if (id.equalsIgnoreCase("faction_enemy_count")) {
             // The total amount of Enemies the Faction has that the Player is in.
-            return String.valueOf(faction.getEnemyFactions().size());
+            return String.valueOf(factionView.getEnemies().size());
         }
         if (id.equalsIgnoreCase("faction_gate_count")) {
             // The total amount of Gates the Faction has that the Player is in.
-            return String.valueOf(faction.getTotalGates());
+            return String.valueOf(factionView.getTotalGates());
         }
         if (id.equalsIgnoreCase("faction_vassal_count")) {
             // The total number of Vassals that the Faction has that the Player is in.
-            return String.valueOf(faction.getNumVassals());
+            return String.valueOf(factionView.getVassals().size());
         }
         if (id.equalsIgnoreCase("faction_liege")) {
             // The Liege for the Faction or N/A that the Player is in.
-            return faction.hasLiege() ? faction.getLiege() : "N/A";
+            return factionView.hasLiege() ? factionView.getLiege() : "N/A";
         }
         if (id.equalsIgnoreCase("faction_leader")) {
             // The Leader of the Faction that the Player is in.
-            return Bukkit.getOfflinePlayer(faction.getOwner()).getName();
+            return Bukkit.getOfflinePlayer(factionView.getOwner()).getName();
         }
         if (id.equalsIgnoreCase("faction_population")) {
             // The total players/members/population for the Faction that the Player is in.
-            return String.valueOf(faction.getPopulation());
+            return String.valueOf(factionView.getMembers().size());
         }
         if (id.equalsIgnoreCase("faction_officers")) {
             // The total officers for the Faction that the Player is in.
-            return String.valueOf(faction.getNumOfficers());
+            return String.valueOf(factionView.getOfficers().size());
         }
         if (id.equalsIgnoreCase("faction_rank")) {
             // The Player-Specific rank for their Faction. (Owner/Officer/Member).
-            if (faction.isOwner(player.getUniqueId())) {
+            if (factionView.isOwner(player.getUniqueId())) {
                 return "Owner";
-            } else if (faction.isOfficer(player.getUniqueId())) {
+            } else if (factionView.isOfficer(player.getUniqueId())) {
                 return "Officer";
             } else {
                 return "Member";
@@ -180,7 +183,7 @@ public class PlaceholderAPI extends PlaceholderExpansion {
             // The Faction at the Player's current location. (Wilderness if nothing).
             ClaimedChunk claim = persistentData.getChunkDataAccessor().getClaimedChunk(player.getLocation().getChunk());
             if (claim == null) return "Wilderness";
-            else return claim.getHolder();
+            else return persistentData.getFactionName(claim.getHolderId());
         }
 
         return null; // This is required by PlaceholderAPI if there is no matching Placeholder.
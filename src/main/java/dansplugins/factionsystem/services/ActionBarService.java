@@ -10,32 +10,114 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
+/**
+ * Keeps action bar messages on screen for as long as they are wanted.
+ * <p>
+ * The client shows an action bar message for roughly three seconds before it fades, so a message only has to be
+ * re-sent once per {@link #REFRESH_INTERVAL_TICKS}. Players are spread over that interval by the tick their message
+ * was last sent on, so the refresh work is staggered across ticks instead of landing on a single one.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
 public class ActionBarService {
-    private final Map<Player, TextComponent> playerActionBarMessages = new HashMap<>();
+    private static final int REFRESH_INTERVAL_TICKS = 40;
+
+    private final Map<UUID, ActionBarState> playerActionBarStates = new HashMap<>();
+    private final List<Set<UUID>> refreshBuckets = new ArrayList<>(REFRESH_INTERVAL_TICKS);
+    private long currentTick = 0;
+
+    public ActionBarService() {
+        for (int i = 0; i < REFRESH_INTERVAL_TICKS; i++) {
+            refreshBuckets.add(new LinkedHashSet<>());
+        }
+    }
 
     public void schedule(Plugin plugin) {
-        Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin,
-                this::sendPlayerActionBarMessages, 5, 20);
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this::tick, 1, 1);
     }
 
+    /**
+     * Show a message in the player's action bar until it is replaced or cleared.
+     *
+     * @param player  The player to show the message to.
+     * @param message The message to show.
+     */
     public void showPersistentActionBarMessage(Player player, TextComponent message) {
-        playerActionBarMessages.put(player, message);
+        ActionBarState state = playerActionBarStates.get(player.getUniqueId());
+        if (state != null && state.hasSameText(message)) {
+            // Already on screen and kept alive by the refresh cycle.
+            return;
+        }
+        removePlayer(player);
+        int bucket = (int) (currentTick % REFRESH_INTERVAL_TICKS);
+        playerActionBarStates.put(player.getUniqueId(), new ActionBarState(message, bucket));
+        refreshBuckets.get(bucket).add(player.getUniqueId());
         this.sendPlayerActionBarMessage(player, message);
     }
 
     public void clearPlayerActionBar(Player player) {
-        playerActionBarMessages.remove(player);
+        removePlayer(player);
         this.sendPlayerActionBarMessage(player, new TextComponent(""));
     }
 
-    private void sendPlayerActionBarMessages() {
-        playerActionBarMessages.forEach(this::sendPlayerActionBarMessage);
+    /**
+     * Forget any action bar state for a player without sending them anything, e.g. because they are leaving.
+     *
+     * @param player The player to forget.
+     */
+    public void removePlayer(Player player) {
+        ActionBarState state = playerActionBarStates.remove(player.getUniqueId());
+        if (state != null) {
+            refreshBuckets.get(state.bucket).remove(player.getUniqueId());
+        }
+    }
+
+    private void tick() {
+        currentTick++;
+        Set<UUID> bucket = refreshBuckets.get((int) (currentTick % REFRESH_INTERVAL_TICKS));
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<UUID> toRemove = new ArrayList<>();
+        for (UUID uuid : bucket) {
+            ActionBarState state = playerActionBarStates.get(uuid);
+            Player player = Bukkit.getPlayer(uuid);
+            if (state == null || player == null) {
+                toRemove.add(uuid);
+                continue;
+            }
+            sendPlayerActionBarMessage(player, state.message);
+        }
+        for (UUID uuid : toRemove) {
+            bucket.remove(uuid);
+            playerActionBarStates.remove(uuid);
+        }
     }
 
     private void sendPlayerActionBarMessage(Player player, TextComponent message) {
         player.spigot().sendMessage(ChatMessageType.ACTION_BAR, message);
     }
+
+    private static class ActionBarState {
+        private final TextComponent message;
+        private final int bucket;
+
+        private ActionBarState(TextComponent message, int bucket) {
+            this.message = message;
+            this.bucket = bucket;
+        }
+
+        private boolean hasSameText(TextComponent other) {
+            return message.getText() != null && message.getText().equals(other.getText());
+        }
+    }
 }
@@ -177,6 +177,12 @@ public class ConfigService {
         if (!getConfig().isSet("secondsBetweenAutosaves")) {
             getConfig().set("secondsBetweenAutosaves", 60 * 60);
         }
+        if (!getConfig().isInt("maxMillisecondsPerTickForSweeps")) {
+            getConfig().set("maxMillisecondsPerTickForSweeps", 5);
+        }
+        if (!getConfig().isBoolean("lazyPowerAccrual")) {
+            getConfig().set("lazyPowerAccrual", false);
+        }
         deleteOldConfigOptionsIfPresent();
 
         getConfig().options().copyDefaults(true);
@@ -221,7 +227,8 @@ public class ConfigService {
                     || option.equalsIgnoreCase("maxClaimRadius")
                     || option.equalsIgnoreCase("teleportDelay")
                     || option.equalsIgnoreCase("secondsBeforeInitialAutosave")
-                    || option.equalsIgnoreCase("secondsBetweenAutosaves")) {
+                    || option.equalsIgnoreCase("secondsBetweenAutosaves")
+                    || option.equalsIgnoreCase("maxMillisecondsPerTickForSweeps")) {
                 getConfig().set(option, Integer.parseInt(value));
                 sender.sendMessage(ChatColor.GREEN + localeService.get("IntegerSet"));
             } else if (option.equalsIgnoreCase("mobsSpawnInFactionTerritory")
@@ -245,7 +252,8 @@ public class ConfigService {
                     || option.equalsIgnoreCase("limitLand")
                     || option.equalsIgnoreCase("factionsCanSetPrefixColors")
                     || option.equalsIgnoreCase("playersLosePowerOnDeath")
-                    || option.equalsIgnoreCase("bonusPowerEnabled")) {
+                    || option.equalsIgnoreCase("bonusPowerEnabled")
+                    || option.equalsIgnoreCase("lazyPowerAccrual")) {
                 getConfig().set(option, Boolean.parseBoolean(value));
                 sender.sendMessage(ChatColor.GREEN + localeService.get("BooleanSet"));
             } else if (option.equalsIgnoreCase("factionOwnerMultiplier")
@@ -323,6 +331,8 @@ public class ConfigService {
         getConfig().set("useNewLanguageFile", true);
         getConfig().set("secondsBeforeInitialAutosave", 60);
         getConfig().set("secondsBetweenAutosaves", 60);
+        getConfig().set("maxMillisecondsPerTickForSweeps", 5);
+        getConfig().set("lazyPowerAccrual", false);
         getConfig().options().copyDefaults(true);
         medievalFactions.saveConfig();
     }
@@ -381,7 +391,9 @@ public class ConfigService {
                 + ", factionless: " + getString("factionless")
                 + ", useNewLanguageFile: " + getBoolean("useNewLanguageFile")
                 + ", secondsBeforeInitialAutosave: " + getInt("secondsBeforeInitialAutosave")
-                + ", secondsBetweenAutosaves: " + getInt("secondsBetweenAutosaves"));
+                + ", secondsBetweenAutosaves: " + getInt("secondsBetweenAutosaves")
+                + ", maxMillisecondsPerTickForSweeps: " + getInt("maxMillisecondsPerTickForSweeps")
+                + ", lazyPowerAccrual: " + getBoolean("lazyPowerAccrual"));
     }
 
     public ArrayList<String> getStringConfigOptions()
@@ -433,7 +445,9 @@ public class ConfigService {
                 "factionless",
                 "useNewLanguageFile",
                 "secondsBeforeInitialAutosave",
-                "secondsBetweenAutosaves");
+                "secondsBetweenAutosaves",
+                "maxMillisecondsPerTickForSweeps",
+                "lazyPowerAccrual");
         return configOptions;
     }
 
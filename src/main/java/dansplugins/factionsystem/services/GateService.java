@@ -6,6 +6,7 @@ package dansplugins.factionsystem.services;
 
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.objects.domain.ClaimedChunk;
 import dansplugins.factionsystem.objects.domain.Faction;
 import dansplugins.factionsystem.objects.domain.Gate;
@@ -43,7 +44,7 @@ public class GateService {
         }
 
         ClaimedChunk claim = persistentData.getChunkDataAccessor().getClaimedChunk(clickedBlock.getChunk());
-        Faction faction = persistentData.getFaction(claim.getHolder());
+        Faction faction = persistentData.getFaction(claim.getHolderId());
         Faction playersFaction = persistentData.getPlayersFaction(player.getUniqueId());
 
         if (!faction.getName().equals(playersFaction.getName())) {
@@ -82,7 +83,7 @@ public class GateService {
     public void handlePotentialGateInteraction(Block block, BlockRedstoneEvent event) {
         if (persistentData.getChunkDataAccessor().isClaimed(block.getChunk())) {
             ClaimedChunk claim = persistentData.getChunkDataAccessor().getClaimedChunk(block.getChunk());
-            Faction faction = persistentData.getFaction(claim.getHolder());
+            Faction faction = persistentData.getFaction(claim.getHolderId());
 
             if (faction.hasGateTrigger(block)) {
                 for (Gate g : faction.getGatesForTrigger(block)) {
@@ -113,13 +114,13 @@ public class GateService {
         } else {
             ClaimedChunk claimedChunk = persistentData.getChunkDataAccessor().getClaimedChunk(clickedBlock.getChunk());
             if (claimedChunk != null) {
-                if (!persistentData.getFaction(claimedChunk.getHolder()).isMember(player.getUniqueId())) {
+                if (!persistentData.getFaction(claimedChunk.getHolderId()).isMember(player.getUniqueId())) {
                     playerService.sendMessage(player, ChatColor.RED + localeService.get("AlertMustBeMemberToCreateGate"), "AlertMustBeMemberToCreateGate", false);
 
                     return;
                 } else {
-                    if (!persistentData.getFaction(claimedChunk.getHolder()).isOwner(player.getUniqueId())
-                            && !persistentData.getFaction(claimedChunk.getHolder()).isOfficer(player.getUniqueId())) {
+                    if (!persistentData.getFaction(claimedChunk.getHolderId()).isOwner(player.getUniqueId())
+                            && !persistentData.getFaction(claimedChunk.getHolderId()).isOfficer(player.getUniqueId())) {
                         playerService.sendMessage(player, ChatColor.RED + localeService.get("AlertMustBeOwnerOrOfficerToCreateGate"), "AlertMustBeOwnerOrOfficerToCreateGate", false);
                         return;
                     }
@@ -127,10 +128,11 @@ public class GateService {
             }
         }
 
+        PlayerSession session = ephemeralData.getSession(player.getUniqueId());
         if (player.hasPermission("mf.gate")) {
             // TODO: Check if a gate already exists here, and if it does, print out some info of that existing gate instead of trying to create a new one.
-            if (ephemeralData.getCreatingGatePlayers().containsKey(event.getPlayer().getUniqueId()) && ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).getCoord1() == null) {
-                Gate.ErrorCodeAddCoord e = ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).addCoord(clickedBlock);
+            if (session.isCreatingGate() && session.getGateBeingCreated().getCoord1() == null) {
+                Gate.ErrorCodeAddCoord e = session.getGateBeingCreated().addCoord(clickedBlock);
                 if (e.equals(Gate.ErrorCodeAddCoord.None)) {
                     playerService.sendMessage(event.getPlayer(), ChatColor.GREEN + localeService.get("Point1PlacementSuccessful")
                             , "Point1PlacementSuccessful", false);
@@ -139,25 +141,25 @@ public class GateService {
                 } else if (e.equals(Gate.ErrorCodeAddCoord.MaterialMismatch)) {
                     playerService.sendMessage(event.getPlayer(), ChatColor.RED + localeService.get("MaterialsMismatch1")
                             , "MaterialsMismatch1", false);
-                    ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                    session.setGateBeingCreated(null);
                 } else if (e.equals(Gate.ErrorCodeAddCoord.WorldMismatch)) {
                     playerService.sendMessage(event.getPlayer(), ChatColor.RED + localeService.get("WorldsMismatch1")
                             , "WorldsMismatch1", false);
-                    ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                    session.setGateBeingCreated(null);
                 } else if (e.equals(Gate.ErrorCodeAddCoord.NoCuboids)) {
                     playerService.sendMessage(player, ChatColor.RED + localeService.get("CuboidDisallowed1")
                             , "CuboidDisallowed1", false);
-                    ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                    session.setGateBeingCreated(null);
                 } else {
                     playerService.sendMessage(player, ChatColor.RED + localeService.get("CancelledGatePlacement1")
                             , "CancelledGatePlacement1", false);
-                    ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                    session.setGateBeingCreated(null);
                 }
-            } else if (ephemeralData.getCreatingGatePlayers().containsKey(event.getPlayer().getUniqueId()) && ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).getCoord1() != null
-                    && ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).getCoord2() == null
-                    && ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).getTrigger() == null) {
-                if (!ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).getCoord1().equals(clickedBlock)) {
-                    Gate.ErrorCodeAddCoord e = ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).addCoord(clickedBlock);
+            } else if (session.isCreatingGate() && session.getGateBeingCreated().getCoord1() != null
+                    && session.getGateBeingCreated().getCoord2() == null
+                    && session.getGateBeingCreated().getTrigger() == null) {
+                if (!session.getGateBeingCreated().getCoord1().equals(clickedBlock)) {
+                    Gate.ErrorCodeAddCoord e = session.getGateBeingCreated().addCoord(clickedBlock);
                     if (e.equals(Gate.ErrorCodeAddCoord.None)) {
                         playerService.sendMessage(event.getPlayer(), ChatColor.GREEN + localeService.get("Point2PlacementSuccessful")
                                 , "Point2PlacementSuccessful", false);
@@ -166,36 +168,36 @@ public class GateService {
                     } else if (e.equals(Gate.ErrorCodeAddCoord.MaterialMismatch)) {
                         playerService.sendMessage(event.getPlayer(), ChatColor.RED + localeService.get("MaterialsMismatch2")
                                 , "MaterialsMismatch2", false);
-                        ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                        session.setGateBeingCreated(null);
                     } else if (e.equals(Gate.ErrorCodeAddCoord.WorldMismatch)) {
                         playerService.sendMessage(event.getPlayer(), ChatColor.RED + localeService.get("WorldsMismatch2")
                                 , "WorldsMismatch2", false);
-                        ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                        session.setGateBeingCreated(null);
                     } else if (e.equals(Gate.ErrorCodeAddCoord.NoCuboids)) {
                         playerService.sendMessage(player, ChatColor.RED + localeService.get("CuboidDisallowed2")
                                 , "CuboidDisallowed2", false);
-                        ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                        session.setGateBeingCreated(null);
                     } else if (e.equals(Gate.ErrorCodeAddCoord.LessThanThreeHigh)) {
                         playerService.sendMessage(player, ChatColor.RED + localeService.get("ThreeBlockRequirement")
                                 , "ThreeBlockRequirement", false);
-                        ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                        session.setGateBeingCreated(null);
                     } else {
                         playerService.sendMessage(player, ChatColor.RED + localeService.get("CancelledGatePlacement2")
                                 , "CancelledGatePlacement2", false);
-                        ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                        session.setGateBeingCreated(null);
                     }
                 }
-            } else if (ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).getCoord2() != null
-                    && ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).getTrigger() == null
-                    && !ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).getCoord2().equals(clickedBlock)) {
+            } else if (session.getGateBeingCreated().getCoord2() != null
+                    && session.getGateBeingCreated().getTrigger() == null
+                    && !session.getGateBeingCreated().getCoord2().equals(clickedBlock)) {
                 if (clickedBlock.getBlockData() instanceof Powerable) {
                     if (persistentData.getChunkDataAccessor().isClaimed(clickedBlock.getChunk())) {
-                        Gate.ErrorCodeAddCoord e = ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()).addCoord(clickedBlock);
+                        Gate.ErrorCodeAddCoord e = session.getGateBeingCreated().addCoord(clickedBlock);
                         if (e.equals(Gate.ErrorCodeAddCoord.None)) {
                             ClaimedChunk claim = persistentData.getChunkDataAccessor().getClaimedChunk(clickedBlock.getChunk());
-                            Faction faction = persistentData.getFaction(claim.getHolder());
-                            faction.addGate(ephemeralData.getCreatingGatePlayers().get(event.getPlayer().getUniqueId()));
-                            ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                            Faction faction = persistentData.getFaction(claim.getHolderId());
+                            faction.addGate(session.getGateBeingCreated());
+                            session.setGateBeingCreated(null);
                             playerService.sendMessage(event.getPlayer(), ChatColor.GREEN + "Creating Gate 4/4: Trigger successfully linked."
                                     , "Point4TriggeredSuccessfully", false);
                             playerService.sendMessage(event.getPlayer(), ChatColor.GREEN + localeService.get("GateCreated")
@@ -203,17 +205,17 @@ public class GateService {
                         } else {
                             playerService.sendMessage(event.getPlayer(), ChatColor.RED + localeService.get("CancelledGatePlacementErrorLinking")
                                     , "CancelledGatePlacementErrorLinking", false);
-                            ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                            session.setGateBeingCreated(null);
                         }
                     } else {
                         playerService.sendMessage(event.getPlayer(), ChatColor.RED + "Error: Can only use triggers in claimed territory."
                                 , "CanOnlyTrigger", false);
-                        ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                        session.setGateBeingCreated(null);
                     }
                 } else {
                     playerService.sendMessage(event.getPlayer(), ChatColor.RED + "Trigger block was not powerable. Cancelled gate placement."
                             , "TriggerBlockNotPowerable", false);
-                    ephemeralData.getCreatingGatePlayers().remove(event.getPlayer().getUniqueId());
+                    session.setGateBeingCreated(null);
                 }
             }
         } else {
@@ -6,6 +6,7 @@ package dansplugins.factionsystem.services;
 
 import dansplugins.factionsystem.data.EphemeralData;
 import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.data.PlayerSession;
 import dansplugins.factionsystem.objects.domain.ClaimedChunk;
 import dansplugins.factionsystem.objects.domain.LockedBlock;
 import org.bukkit.ChatColor;
@@ -47,7 +48,7 @@ public class LockService {
         if (chunk != null) {
 
             // if claimed by other faction
-            if (!chunk.getHolder().equalsIgnoreCase(persistentData.getPlayersFaction(player.getUniqueId()).getName())) {
+            if (chunk.getHolderId() != persistentData.getPlayersFaction(player.getUniqueId()).getId()) {
                 playerService.sendMessage(player, ChatColor.RED + localeService.get("CanOnlyLockInFactionTerritory"), "CanOnlyLockInFactionTerritory", false);
                 event.setCancelled(true);
                 return;
@@ -72,7 +73,7 @@ public class LockService {
                         Block leftChest = ((Chest) doubleChest.getLeftSide()).getBlock();
                         Block rightChest = ((Chest) doubleChest.getRightSide()).getBlock();
 
-                        LockedBlock left = new LockedBlock(player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getName(), leftChest.getX(), leftChest.getY(), leftChest.getZ(), leftChest.getWorld().getName());
+                        LockedBlock left = new LockedBlock(persistentData.getPlayerRegistry(), player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getId(), leftChest.getX(), leftChest.getY(), leftChest.getZ(), leftChest.getWorld().getName());
                         persistentData.addLockedBlock(left);
 
                         lock1x1Block(player, rightChest);
@@ -85,21 +86,21 @@ public class LockService {
                 // door multi-lock (specific to doors because they have two block heights but you could have clicked either block).
                 if (blockChecker.isDoor(clickedBlock)) {
                     // lock initial block
-                    LockedBlock initial = new LockedBlock(player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getName(), clickedBlock.getX(), clickedBlock.getY(), clickedBlock.getZ(), clickedBlock.getWorld().getName());
+                    LockedBlock initial = new LockedBlock(persistentData.getPlayerRegistry(), player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getId(), clickedBlock.getX(), clickedBlock.getY(), clickedBlock.getZ(), clickedBlock.getWorld().getName());
                     persistentData.addLockedBlock(initial);
                     // check block above
                     if (blockChecker.isDoor(clickedBlock.getWorld().getBlockAt(clickedBlock.getX(), clickedBlock.getY() + 1, clickedBlock.getZ()))) {
-                        LockedBlock newLockedBlock2 = new LockedBlock(player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getName(), clickedBlock.getX(), clickedBlock.getY() + 1, clickedBlock.getZ(), clickedBlock.getWorld().getName());
+                        LockedBlock newLockedBlock2 = new LockedBlock(persistentData.getPlayerRegistry(), player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getId(), clickedBlock.getX(), clickedBlock.getY() + 1, clickedBlock.getZ(), clickedBlock.getWorld().getName());
                         persistentData.addLockedBlock(newLockedBlock2);
                     }
                     // check block below
                     if (blockChecker.isDoor(clickedBlock.getWorld().getBlockAt(clickedBlock.getX(), clickedBlock.getY() - 1, clickedBlock.getZ()))) {
-                        LockedBlock newLockedBlock2 = new LockedBlock(player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getName(), clickedBlock.getX(), clickedBlock.getY() - 1, clickedBlock.getZ(), clickedBlock.getWorld().getName());
+                        LockedBlock newLockedBlock2 = new LockedBlock(persistentData.getPlayerRegistry(), player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getId(), clickedBlock.getX(), clickedBlock.getY() - 1, clickedBlock.getZ(), clickedBlock.getWorld().getName());
                         persistentData.addLockedBlock(newLockedBlock2);
                     }
 
                     playerService.sendMessage(player, ChatColor.GREEN + localeService.get("Locked"), "Locked", false);
-                    ephemeralData.getLockingPlayers().remove(player.getUniqueId());
+                    ephemeralData.getSession(player.getUniqueId()).setLocking(false);
                 }
 
                 // Remainder of lockable blocks are only 1x1 so generic code will suffice.
@@ -118,16 +119,17 @@ public class LockService {
     }
 
     private void lock1x1Block(Player player, Block clickedBlock) {
-        LockedBlock block = new LockedBlock(player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getName(), clickedBlock.getX(), clickedBlock.getY(), clickedBlock.getZ(), clickedBlock.getWorld().getName());
+        LockedBlock block = new LockedBlock(persistentData.getPlayerRegistry(), player.getUniqueId(), persistentData.getPlayersFaction(player.getUniqueId()).getId(), clickedBlock.getX(), clickedBlock.getY(), clickedBlock.getZ(), clickedBlock.getWorld().getName());
         persistentData.addLockedBlock(block);
         playerService.sendMessage(player, ChatColor.GREEN + localeService.get("Locked"), "Locked", false);
-        ephemeralData.getLockingPlayers().remove(player.getUniqueId());
+        ephemeralData.getSession(player.getUniqueId()).setLocking(false);
     }
 
     public void handleUnlockingBlock(PlayerInteractEvent event, Player player, Block clickedBlock) {
+        PlayerSession session = ephemeralData.getSession(player.getUniqueId());
         // if locked
         if (persistentData.isBlockLocked(clickedBlock)) {
-            if (persistentData.getLockedBlock(clickedBlock).getOwner().equals(player.getUniqueId()) || ephemeralData.getForcefullyUnlockingPlayers().contains(player.getUniqueId())) {
+            if (persistentData.getLockedBlock(clickedBlock).isOwner(player.getUniqueId()) || session.isForcefullyUnlocking()) {
 
                 if (blockChecker.isChest(clickedBlock)) {
                     InventoryHolder holder = ((Chest) clickedBlock.getState()).getInventory().getHolder();
@@ -146,7 +148,7 @@ public class LockService {
                         persistentData.removeLockedBlock(clickedBlock);
                     }
                     playerService.sendMessage(player, ChatColor.GREEN + localeService.get("AlertUnlocked"), "Unlocked", false);
-                    ephemeralData.getUnlockingPlayers().remove(player.getUniqueId());
+                    session.setUnlocking(false);
                 }
 
                 // door multi-unlock
@@ -163,7 +165,7 @@ public class LockService {
                     }
 
                     playerService.sendMessage(player, ChatColor.GREEN + localeService.get("AlertUnlocked"), "Unlocked", false);
-                    ephemeralData.getUnlockingPlayers().remove(player.getUniqueId());
+                    session.setUnlocking(false);
                 }
 
                 // single block size lock logic.
@@ -171,11 +173,11 @@ public class LockService {
                     persistentData.removeLockedBlock(clickedBlock);
 
                     playerService.sendMessage(player, ChatColor.GREEN + localeService.get("AlertUnlocked"), "Unlocked", false);
-                    ephemeralData.getUnlockingPlayers().remove(player.getUniqueId());
+                    session.setUnlocking(false);
                 }
 
                 // remove player from forcefully unlocking players list if they are in it
-                ephemeralData.getForcefullyUnlockingPlayers().remove(player.getUniqueId());
+                session.setForcefullyUnlocking(false);
 
                 event.setCancelled(true);
             }
@@ -186,10 +188,11 @@ public class LockService {
     }
 
     public void handleGrantingAccess(PlayerInteractEvent event, Block clickedBlock, Player player) {
+        PlayerSession session = ephemeralData.getSession(player.getUniqueId());
         UUIDChecker uuidChecker = new UUIDChecker();
 
         // if not owner
-        if (persistentData.getLockedBlock(clickedBlock).getOwner() != player.getUniqueId()) {
+        if (!persistentData.getLockedBlock(clickedBlock).isOwner(player.getUniqueId())) {
             playerService.sendMessage(player, ChatColor.RED + localeService.get("NotTheOwnerOfThisBlock"), "NotTheOwnerOfThisBlock", false);
             return;
         }
@@ -203,41 +206,41 @@ public class LockService {
                 Block leftChest = ((Chest) doubleChest.getLeftSide()).getBlock();
                 Block rightChest = ((Chest) doubleChest.getRightSide()).getBlock();
 
-                persistentData.getLockedBlock(leftChest).addToAccessList(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()));
-                persistentData.getLockedBlock(rightChest).addToAccessList(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()));
+                persistentData.getLockedBlock(leftChest).addToAccessList(session.getGrantingAccessTo());
+                persistentData.getLockedBlock(rightChest).addToAccessList(session.getGrantingAccessTo());
 
             } else { // if single chest
                 // grant access to single chest
-                persistentData.getLockedBlock(clickedBlock).addToAccessList(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()));
+                persistentData.getLockedBlock(clickedBlock).addToAccessList(session.getGrantingAccessTo());
             }
-            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessGrantedTo"), uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessGrantedTo")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), true);
-            ephemeralData.getPlayersGrantingAccess().remove(player.getUniqueId());
+            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessGrantedTo"), uuidChecker.findPlayerNameBasedOnUUID(session.getGrantingAccessTo())), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessGrantedTo")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(session.getGrantingAccessTo())), true);
+            session.setGrantingAccessTo(null);
 
         }
 
         // if door
         if (blockChecker.isDoor(clickedBlock)) {
             // grant access to initial block
-            persistentData.getLockedBlock(clickedBlock).addToAccessList(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()));
+            persistentData.getLockedBlock(clickedBlock).addToAccessList(session.getGrantingAccessTo());
             // check block above
             if (blockChecker.isDoor(clickedBlock.getWorld().getBlockAt(clickedBlock.getX(), clickedBlock.getY() + 1, clickedBlock.getZ()))) {
-                persistentData.getLockedBlock(clickedBlock).addToAccessList(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()));
+                persistentData.getLockedBlock(clickedBlock).addToAccessList(session.getGrantingAccessTo());
             }
             // check block below
             if (blockChecker.isDoor(clickedBlock.getWorld().getBlockAt(clickedBlock.getX(), clickedBlock.getY() - 1, clickedBlock.getZ()))) {
-                persistentData.getLockedBlock(clickedBlock).addToAccessList(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()));
+                persistentData.getLockedBlock(clickedBlock).addToAccessList(session.getGrantingAccessTo());
             }
 
-            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessGrantedTo"), uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessGrantedTo")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), true);
-            ephemeralData.getPlayersGrantingAccess().remove(player.getUniqueId());
+            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessGrantedTo"), uuidChecker.findPlayerNameBasedOnUUID(session.getGrantingAccessTo())), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessGrantedTo")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(session.getGrantingAccessTo())), true);
+            session.setGrantingAccessTo(null);
         }
 
         // if gate (or single-block sized lock)
         if (blockChecker.isGate(clickedBlock) || blockChecker.isBarrel(clickedBlock) || blockChecker.isTrapdoor(clickedBlock) || blockChecker.isFurnace(clickedBlock)) {
-            persistentData.getLockedBlock(clickedBlock).addToAccessList(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()));
+            persistentData.getLockedBlock(clickedBlock).addToAccessList(session.getGrantingAccessTo());
 
-            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessGrantedTo"), uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessGrantedTo")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), true);
-            ephemeralData.getPlayersGrantingAccess().remove(player.getUniqueId());
+            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessGrantedTo"), uuidChecker.findPlayerNameBasedOnUUID(session.getGrantingAccessTo())), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessGrantedTo")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(session.getGrantingAccessTo())), true);
+            session.setGrantingAccessTo(null);
         }
 
         event.setCancelled(true);
@@ -249,15 +252,16 @@ public class LockService {
         for (UUID playerUUID : lockedBlock.getAccessList()) {
             playerService.sendMessage(player, ChatColor.AQUA + " - " + uuidChecker.findPlayerNameBasedOnUUID(playerUUID), Objects.requireNonNull(messageService.getLanguage().getString("FPHAList")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(playerUUID)), true);
         }
-        ephemeralData.getPlayersCheckingAccess().remove(player.getUniqueId());
+        ephemeralData.getSession(player.getUniqueId()).setCheckingAccess(false);
         event.setCancelled(true);
     }
 
     public void handleRevokingAccess(PlayerInteractEvent event, Block clickedBlock, Player player) {
+        PlayerSession session = ephemeralData.getSession(player.getUniqueId());
         UUIDChecker uuidChecker = new UUIDChecker();
 
         // if not owner
-        if (persistentData.getLockedBlock(clickedBlock).getOwner() != player.getUniqueId()) {
+        if (!persistentData.getLockedBlock(clickedBlock).isOwner(player.getUniqueId())) {
             playerService.sendMessage(player, ChatColor.RED + localeService.get("NotTheOwnerOfThisBlock"), "NotTheOwnerOfThisBlock", false);
             return;
         }
@@ -271,41 +275,41 @@ public class LockService {
                 Block leftChest = ((Chest) doubleChest.getLeftSide()).getBlock();
                 Block rightChest = ((Chest) doubleChest.getRightSide()).getBlock();
 
-                persistentData.getLockedBlock(leftChest).removeFromAccessList(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()));
-                persistentData.getLockedBlock(rightChest).removeFromAccessList(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()));
+                persistentData.getLockedBlock(leftChest).removeFromAccessList(session.getRevokingAccessFrom());
+                persistentData.getLockedBlock(rightChest).removeFromAccessList(session.getRevokingAccessFrom());
 
             } else { // if single chest
                 // revoke access to single chest
-                persistentData.getLockedBlock(clickedBlock).removeFromAccessList(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()));
+                persistentData.getLockedBlock(clickedBlock).removeFromAccessList(session.getRevokingAccessFrom());
             }
-            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessRevokedFor"), uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()))), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessRevokedFor")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), true);
-            ephemeralData.getPlayersRevokingAccess().remove(player.getUniqueId());
+            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessRevokedFor"), uuidChecker.findPlayerNameBasedOnUUID(session.getRevokingAccessFrom())), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessRevokedFor")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(session.getRevokingAccessFrom())), true);
+            session.setRevokingAccessFrom(null);
 
         }
 
         // if door
         if (blockChecker.isDoor(clickedBlock)) {
             // revoke access to initial block
-            persistentData.getLockedBlock(clickedBlock).removeFromAccessList(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()));
+            persistentData.getLockedBlock(clickedBlock).removeFromAccessList(session.getRevokingAccessFrom());
             // check block above
             if (blockChecker.isDoor(clickedBlock.getWorld().getBlockAt(clickedBlock.getX(), clickedBlock.getY() + 1, clickedBlock.getZ()))) {
-                persistentData.getLockedBlock(clickedBlock).removeFromAccessList(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()));
+                persistentData.getLockedBlock(clickedBlock).removeFromAccessList(session.getRevokingAccessFrom());
             }
             // check block below
             if (blockChecker.isDoor(clickedBlock.getWorld().getBlockAt(clickedBlock.getX(), clickedBlock.getY() - 1, clickedBlock.getZ()))) {
-                persistentData.getLockedBlock(clickedBlock).removeFromAccessList(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()));
+                persistentData.getLockedBlock(clickedBlock).removeFromAccessList(session.getRevokingAccessFrom());
             }
 
-            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessRevokedFor"), uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()))), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessRevokedFor")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), true);
-            ephemeralData.getPlayersRevokingAccess().remove(player.getUniqueId());
+            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessRevokedFor"), uuidChecker.findPlayerNameBasedOnUUID(session.getRevokingAccessFrom())), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessRevokedFor")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(session.getRevokingAccessFrom())), true);
+            session.setRevokingAccessFrom(null);
         }
 
         // if gate or other single-block sized lock
         if (blockChecker.isGate(clickedBlock) || blockChecker.isBarrel(clickedBlock) || blockChecker.isTrapdoor(clickedBlock) || blockChecker.isFurnace(clickedBlock)) {
-            persistentData.getLockedBlock(clickedBlock).removeFromAccessList(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()));
+            persistentData.getLockedBlock(clickedBlock).removeFromAccessList(session.getRevokingAccessFrom());
 
-            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessRevokedFor"), uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersRevokingAccess().get(player.getUniqueId()))), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessRevokedFor")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(ephemeralData.getPlayersGrantingAccess().get(player.getUniqueId()))), true);
-            ephemeralData.getPlayersRevokingAccess().remove(player.getUniqueId());
+            playerService.sendMessage(player, ChatColor.GREEN + String.format(localeService.get("AlertAccessRevokedFor"), uuidChecker.findPlayerNameBasedOnUUID(session.getRevokingAccessFrom())), Objects.requireNonNull(messageService.getLanguage().getString("AlertAccessRevokedFor")).replace("#name#", uuidChecker.findPlayerNameBasedOnUUID(session.getRevokingAccessFrom())), true);
+            session.setRevokingAccessFrom(null);
         }
 
         event.setCancelled(true);
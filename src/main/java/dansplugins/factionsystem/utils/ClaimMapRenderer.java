@@ -0,0 +1,140 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.utils;
+
+import dansplugins.factionsystem.commands.abs.ColorTranslator;
+import dansplugins.factionsystem.commands.abs.FontMetrics;
+import dansplugins.factionsystem.data.FactionRegistry;
+import dansplugins.factionsystem.data.PersistentData;
+import dansplugins.factionsystem.objects.domain.Faction;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Draws the text map of the land around a player, as shown by {@code /mf map} and by auto-map.
+ * <p>
+ * Holders are read from the claim grid cache by coordinates, so drawing a map never loads a chunk.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class ClaimMapRenderer implements ColorTranslator {
+    private final char[] map_keys = "\\/#$%=&^ABCDEFGHJKLMNOPQRSTUVWXYZ0123456789abcdeghjmnopqrsuvwxyz?".toCharArray();
+    private final PersistentData persistentData;
+
+    public ClaimMapRenderer(PersistentData persistentData) {
+        this.persistentData = persistentData;
+    }
+
+    /**
+     * Method to draw the map around a player.
+     *
+     * @param player at the centre of the map.
+     * @return the lines of the map, with colours translated, ready to be sent.
+     */
+    public List<String> render(Player player) {
+        return render(player, player.getLocation());
+    }
+
+    /**
+     * Method to draw the map around a location, for a player who is about to be there, e.g. while they move.
+     *
+     * @param player   the map is drawn for.
+     * @param location at the centre of the map.
+     * @return the lines of the map, with colours translated, ready to be sent.
+     */
+    public List<String> render(Player player, Location location) {
+        final String worldName = Objects.requireNonNull(location.getWorld()).getName();
+        final int centerX = location.getBlockX() >> 4;
+        final int centerZ = location.getBlockZ() >> 4;
+        // Needs to be Odd.
+        int map_width = 53;
+        final int topLeftX = centerX - (map_width / 2);
+        // Needs to be Odd.
+        int map_height = 13;
+        final int topLeftZ = centerZ - (map_height / 2);
+        final int bottomRightX = centerX + (map_width / 2);
+        final int bottomRightZ = centerZ + (map_height / 2);
+        final Faction faction = persistentData.getPlayersFaction(player.getUniqueId());
+        final boolean hasFaction = faction != null;
+
+        // legend entries are handed out in the order holders are first seen, so keys are stable within a render
+        final Map<Integer, String> legendColours = new LinkedHashMap<>();
+        final Map<Integer, Character> legendKeys = new HashMap<>();
+        final StringBuilder line = new StringBuilder();
+        final List<String> lines = new ArrayList<>(map_height + 3);
+        lines.add(FontMetrics.obtainCenteredMessage("&fNorth"));
+        for (int z = topLeftZ; z <= bottomRightZ; z++) {
+            line.setLength(0);
+            String lastColour = null;
+            for (int x = topLeftX; x <= bottomRightX; x++) {
+                String colour;
+                char map_key;
+                int holderId = persistentData.getChunkDataAccessor().getHolderIdForMap(x, z, worldName);
+                if (x == centerX && z == centerZ) {
+                    colour = "&5"; // If the current position is the player-position, make it purple.
+                    map_key = '+';
+                } else if (holderId == FactionRegistry.NO_FACTION) {
+                    colour = "&7"; // Gray for no Faction.
+                    map_key = '-';
+                } else {
+                    if (!legendColours.containsKey(holderId)) {
+                        legendColours.put(holderId, getColour(faction, holderId));
+                        if (!hasFaction || holderId != faction.getId()) {
+                            int index = legendKeys.size();
+                            legendKeys.put(holderId, index < map_keys.length ? map_keys[index] : '§');
+                        }
+                    }
+                    colour = legendColours.get(holderId);
+                    map_key = legendKeys.getOrDefault(holderId, '+');
+                }
+                if (!colour.equals(lastColour)) {
+                    line.append(colour);
+                    lastColour = colour;
+                }
+                line.append(map_key);
+            }
+            lines.add(translate(line.toString()));
+        }
+        lines.add(translate(" &5+&7 = You"));
+        final List<String> added = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : legendColours.entrySet()) {
+            String holder = persistentData.getFactionName(entry.getKey());
+            Character map_key = legendKeys.get(entry.getKey());
+            added.add(entry.getValue() + (map_key == null ? '+' : map_key) + "&7 = " + holder);
+        }
+        if (!added.isEmpty()) { // We don't wanna send an empty line, so check if the added lines is empty or not.
+            lines.add(" " + translate(String.join(", ", added)));
+        }
+        return lines;
+    }
+
+    /**
+     * Method to obtain the colour a holder's land is drawn in, relative to the viewing player's faction.
+     *
+     * @param viewersFaction the viewing player's faction, or {@code null}.
+     * @param holderId       the id of the faction holding the land.
+     * @return colour code.
+     */
+    private String getColour(Faction viewersFaction, int holderId) {
+        if (viewersFaction == null) {
+            return "&c"; // Always default to Enemy.
+        } else if (holderId == viewersFaction.getId()) {
+            return "&a"; // If the faction is the player-faction, make it green.
+        } else if (viewersFaction.isEnemy(holderId)) {
+            return "&c"; // If they are an enemy to the player-faction, make it red.
+        } else if (viewersFaction.isAlly(holderId)) {
+            return "&b"; // If they are an ally to the player-faction, make it blue.
+        }
+        return "&f"; // Default to White.
+    }
+}
@@ -52,7 +52,7 @@ public class InteractionAccessChecker {
     }
 
     private boolean isLandClaimedByPlayersFaction(Faction faction, ClaimedChunk claimedChunk) {
-        return faction.getName().equalsIgnoreCase(claimedChunk.getHolder());
+        return faction.getId() == claimedChunk.getHolderId();
     }
 
     private boolean factionsProtectionsNotEnabled() {
@@ -60,7 +60,7 @@ public class InteractionAccessChecker {
     }
 
     private boolean isPlayerBypassing(Player player) {
-        return ephemeralData.getAdminsBypassingProtections().contains(player.getUniqueId());
+        return ephemeralData.getSession(player.getUniqueId()).isBypassingProtections();
     }
 
     public boolean isOutsiderInteractionAllowed(Player player, ClaimedChunk chunk, Faction playersFaction) {
@@ -68,15 +68,15 @@ public class InteractionAccessChecker {
             return true;
         }
 
-        final Faction chunkHolder = persistentData.getFaction(chunk.getHolder());
+        final Faction chunkHolder = persistentData.getFaction(chunk.getHolderId());
 
         boolean inVassalageTree = persistentData.isPlayerInFactionInVassalageTree(player, chunkHolder);
-        boolean isAlly = playersFaction.isAlly(chunk.getHolder());
+        boolean isAlly = playersFaction.isAlly(chunk.getHolderId());
         boolean allyInteractionAllowed = (boolean) chunkHolder.getFlags().getFlag("alliesCanInteractWithLand");
         boolean vassalageTreeInteractionAllowed = (boolean) chunkHolder.getFlags().getFlag("vassalageTreeCanInteractWithLand");
 
-        logger.debug("allyInteractionAllowed: " + allyInteractionAllowed);
-        logger.debug("vassalageTreeInteractionAllowed: " + vassalageTreeInteractionAllowed);
+        logger.debug(() -> "allyInteractionAllowed: " + allyInteractionAllowed);
+        logger.debug(() -> "vassalageTreeInteractionAllowed: " + vassalageTreeInteractionAllowed);
 
         boolean allowed = allyInteractionAllowed && isAlly;
 
@@ -99,7 +99,7 @@ public class InteractionAccessChecker {
         }
 
         boolean laddersArePlaceableInEnemyTerritory = configService.getBoolean("laddersPlaceableInEnemyFactionTerritory");
-        boolean playerIsTryingToPlaceLadderInEnemyTerritory = blockPlaced.getType() == LADDER && playersFaction.isEnemy(claimedChunk.getHolder());
+        boolean playerIsTryingToPlaceLadderInEnemyTerritory = blockPlaced.getType() == LADDER && playersFaction.isEnemy(claimedChunk.getHolderId());
         return laddersArePlaceableInEnemyTerritory && playerIsTryingToPlaceLadderInEnemyTerritory;
     }
 }
\ No newline at end of file
@@ -7,18 +7,49 @@ package dansplugins.factionsystem.utils;
 import dansplugins.factionsystem.MedievalFactions;
 
 import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.logging.Level;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
+ * Writes to the plugin's log files.
+ * <p>
+ * Messages are timestamped on the calling thread and handed to a background appender through a bounded ring buffer,
+ * so logging never blocks the main thread on disk I/O. Each log file is kept open behind a single buffered writer
+ * that is flushed whenever the buffer drains. If the buffer is full the oldest pending message is dropped.
+ * </p>
+ * <p>
+ * The appender is stopped by queueing a marker entry behind the pending messages rather than by interrupting it, as
+ * an interrupt during a write would close the log files before the pending messages reach them.
+ * </p>
+ *
  * @author Daniel McCoy Stephenson
  */
 public class Logger {
+    private static final String LOG_DIRECTORY = "plugins/MedievalFactions/";
+    private static final String DEBUG_FILE = "log.debug.txt";
+    private static final String INFO_FILE = "log.info.txt";
+    private static final String ERROR_FILE = "log.error.txt";
+    private static final int BUFFER_CAPACITY = 4096;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Entry STOP = new Entry(0, null, null);
+
     private final MedievalFactions medievalFactions;
+    private final RingBuffer buffer = new RingBuffer(BUFFER_CAPACITY);
+    private final Map<String, BufferedWriter> writers = new HashMap<>();
+    private Thread appender;
 
     public Logger(MedievalFactions medievalFactions) {
         this.medievalFactions = medievalFactions;
@@ -26,12 +57,26 @@ public class Logger {
 
     /**
      * Log a debug message to the debug log file if the debug flag is enabled.
+     * Use this for constant messages; a message built by concatenation or formatting should go through
+     * {@link #debug(Supplier)} instead, so that it is not built when debugging is disabled.
      *
      * @param message The message to log.
      */
     public void debug(String message) {
         if (medievalFactions.isDebugEnabled()) {
-            logToFile(message, "log.debug.txt");
+            logToFile(message, DEBUG_FILE);
+        }
+    }
+
+    /**
+     * Log a debug message to the debug log file if the debug flag is enabled.
+     * The supplier is only invoked when debugging is enabled, so callers can defer building the message.
+     *
+     * @param message Supplier of the message to log.
+     */
+    public void debug(Supplier<String> message) {
+        if (medievalFactions.isDebugEnabled()) {
+            logToFile(message.get(), DEBUG_FILE);
         }
     }
 
@@ -41,7 +86,7 @@ public class Logger {
      * @param message The message to log.
      */
     public void print(String message) {
-        logToFile(message, "log.info.txt");
+        logToFile(message, INFO_FILE);
     }
 
     /**
@@ -50,28 +95,191 @@ public class Logger {
      * @param message The message to log.
      */
     public void error(String message) {
-        logToFile(message, "log.error.txt");
+        logToFile(message, ERROR_FILE);
     }
 
-    private void logToFile(String message, String fileName) {
-        // add time to message
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        String formattedDateTime = LocalDateTime.now().format(formatter);
-        String dateMessage = "[" + formattedDateTime + "] " + message;
+    /**
+     * Log an error and the stack trace of its cause to the error log file.
+     *
+     * @param message The message to log.
+     * @param cause   The throwable that caused the error.
+     */
+    public void error(String message, Throwable cause) {
+        StringWriter stackTrace = new StringWriter();
+        cause.printStackTrace(new PrintWriter(stackTrace));
+        logToFile(message + System.lineSeparator() + stackTrace, ERROR_FILE);
+    }
 
-        // append to file
-        File file = new File("plugins/MedievalFactions/" + fileName);
+    /**
+     * Stop the background appender, writing out any pending messages and closing the log files.
+     */
+    public void shutdown() {
+        Thread thread;
+        synchronized (this) {
+            thread = appender;
+            appender = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        buffer.offer(STOP);
         try {
-            if (!file.exists()) {
-                file.createNewFile();
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void logToFile(String message, String fileName) {
+        ensureAppenderStarted();
+        buffer.offer(new Entry(System.currentTimeMillis(), message, fileName));
+    }
+
+    private void ensureAppenderStarted() {
+        if (appender != null) {
+            return;
+        }
+        synchronized (this) {
+            if (appender == null) {
+                appender = new Thread(this::runAppender, "MedievalFactions-Logger");
+                appender.setDaemon(true);
+                appender.start();
+            }
+        }
+    }
+
+    private void runAppender() {
+        boolean running = true;
+        while (running) {
+            Entry entry;
+            try {
+                entry = buffer.take();
+            } catch (InterruptedException e) {
+                break;
             }
-            FileWriter fileWriter = new FileWriter(file, true);
-            BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
-            bufferedWriter.write(dateMessage);
-            bufferedWriter.newLine();
-            bufferedWriter.close();
+            while (entry != null) {
+                if (entry == STOP) {
+                    running = false;
+                } else {
+                    write(entry);
+                }
+                entry = buffer.poll();
+            }
+            flushAll();
+        }
+        closeAll();
+    }
+
+    private void write(Entry entry) {
+        String formattedDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.timestamp), ZoneId.systemDefault()).format(FORMATTER);
+        try {
+            BufferedWriter writer = getWriter(entry.fileName);
+            writer.write("[" + formattedDateTime + "] " + entry.message);
+            writer.newLine();
         } catch (IOException e) {
-            error("An error occurred while logging to file.");
+            System.err.println("[MedievalFactions] An error occurred while logging to " + entry.fileName + ": " + e.getMessage());
+            closeWriter(entry.fileName);
+        }
+    }
+
+    private BufferedWriter getWriter(String fileName) throws IOException {
+        BufferedWriter writer = writers.get(fileName);
+        if (writer == null) {
+            Path path = Paths.get(LOG_DIRECTORY + fileName);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            writers.put(fileName, writer);
+        }
+        return writer;
+    }
+
+    private void flushAll() {
+        for (Map.Entry<String, BufferedWriter> writer : writers.entrySet()) {
+            try {
+                writer.getValue().flush();
+            } catch (IOException e) {
+                System.err.println("[MedievalFactions] An error occurred while flushing " + writer.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void closeAll() {
+        Entry entry;
+        while ((entry = buffer.poll()) != null) {
+            if (entry != STOP) {
+                write(entry);
+            }
+        }
+        for (String fileName : writers.keySet().toArray(new String[0])) {
+            closeWriter(fileName);
+        }
+    }
+
+    private void closeWriter(String fileName) {
+        BufferedWriter writer = writers.remove(fileName);
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // nothing sensible left to do with a log file we can't close
+        }
+    }
+
+    private static class Entry {
+        private final long timestamp;
+        private final String message;
+        private final String fileName;
+
+        private Entry(long timestamp, String message, String fileName) {
+            this.timestamp = timestamp;
+            this.message = message;
+            this.fileName = fileName;
+        }
+    }
+
+    /**
+     * Fixed-capacity FIFO that overwrites its oldest element when full rather than blocking the producer.
+     */
+    private static class RingBuffer {
+        private final Entry[] entries;
+        private int head = 0;
+        private int size = 0;
+
+        private RingBuffer(int capacity) {
+            entries = new Entry[capacity];
+        }
+
+        private synchronized void offer(Entry entry) {
+            int tail = (head + size) % entries.length;
+            entries[tail] = entry;
+            if (size == entries.length) {
+                head = (head + 1) % entries.length;
+            } else {
+                size++;
+            }
+            notify();
+        }
+
+        private synchronized Entry poll() {
+            if (size == 0) {
+                return null;
+            }
+            Entry entry = entries[head];
+            entries[head] = null;
+            head = (head + 1) % entries.length;
+            size--;
+            return entry;
+        }
+
+        private synchronized Entry take() throws InterruptedException {
+            while (size == 0) {
+                wait();
+            }
+            return poll();
         }
     }
-}
\ No newline at end of file
+}
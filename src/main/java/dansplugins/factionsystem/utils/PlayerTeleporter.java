@@ -11,12 +11,12 @@ public class PlayerTeleporter {
     }
 
     public void teleportPlayer(Player player, Location location) {
-        logger.debug("Attempting to teleport " + player.getName() + " to " + location.toString());
+        logger.debug(() -> "Attempting to teleport " + player.getName() + " to " + location.toString());
         boolean success = player.teleport(location);
         if (success) {
-            logger.debug("Successfully teleported " + player.getName());
+            logger.debug(() -> "Successfully teleported " + player.getName());
         } else {
-            logger.debug("Failed to teleport " + player.getName());
+            logger.debug(() -> "Failed to teleport " + player.getName());
         }
     }
 }
\ No newline at end of file
@@ -35,8 +35,8 @@ public class RelationChecker {
         int attackersFactionIndex = factionIndices.getLeft();
         int victimsFactionIndex = factionIndices.getRight();
 
-        return !(persistentData.getFactionByIndex(attackersFactionIndex).isEnemy(persistentData.getFactionByIndex(victimsFactionIndex).getName())) &&
-                !(persistentData.getFactionByIndex(victimsFactionIndex).isEnemy(persistentData.getFactionByIndex(attackersFactionIndex).getName()));
+        return !(persistentData.getFactionByIndex(attackersFactionIndex).isEnemy(persistentData.getFactionByIndex(victimsFactionIndex).getId())) &&
+                !(persistentData.getFactionByIndex(victimsFactionIndex).isEnemy(persistentData.getFactionByIndex(attackersFactionIndex).getId()));
     }
 
     private Pair<Integer, Integer> getFactionIndices(Player player1, Player player2) {
@@ -0,0 +1,96 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of ints kept in a sorted primitive array.
+ * <p>
+ * Each element costs four bytes and lookups are a binary search, which suits the small-to-medium sets it is used for,
+ * such as faction memberships and lock access lists. Insertions and removals shift the array, so it is not meant for
+ * sets that churn heavily.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class SortedIntSet {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] elements = EMPTY;
+    private int size = 0;
+
+    /**
+     * @param value The value to add.
+     * @return Whether the value was not already present.
+     */
+    public boolean add(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        int insertionPoint = -index - 1;
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(4, size + (size >> 1)));
+        }
+        System.arraycopy(elements, insertionPoint, elements, insertionPoint + 1, size - insertionPoint);
+        elements[insertionPoint] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * @param value The value to remove.
+     * @return Whether the value was present.
+     */
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(elements, 0, size, value) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        elements = EMPTY;
+        size = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    /**
+     * @param index A position from 0 to {@link #size()} - 1.
+     * @return The value at that position, in ascending order.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return elements[index];
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
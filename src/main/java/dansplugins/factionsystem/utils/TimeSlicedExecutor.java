@@ -0,0 +1,225 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.utils;
+
+import dansplugins.factionsystem.MedievalFactions;
+import dansplugins.factionsystem.services.ConfigService;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs bulk operations cooperatively on the main thread, a slice at a time.
+ * <p>
+ * Each tick the executor works through the queued jobs until the per-tick budget configured by
+ * {@code maxMillisecondsPerTickForSweeps} is used up, then resumes where it left off on the next tick.
+ * At least one item is processed per tick so that jobs always make progress.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class TimeSlicedExecutor {
+    private final MedievalFactions medievalFactions;
+    private final ConfigService configService;
+    private final Logger logger;
+    private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+    private final Map<String, JobMetrics> metrics = new HashMap<>();
+    private long currentTick = 0;
+
+    public TimeSlicedExecutor(MedievalFactions medievalFactions, ConfigService configService, Logger logger) {
+        this.medievalFactions = medievalFactions;
+        this.configService = configService;
+        this.logger = logger;
+    }
+
+    public void schedule() {
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(medievalFactions, this::tick, 1, 1);
+    }
+
+    /**
+     * Queue a job. If a job with the same name is still in progress, the new one is skipped.
+     *
+     * @param job The job to run.
+     * @return Whether the job was queued.
+     */
+    public boolean submit(Job job) {
+        if (isRunning(job.name)) {
+            logger.debug(() -> "Skipping sweep '" + job.name + "' because the previous run has not finished yet.");
+            return false;
+        }
+        job.metrics.submittedAt = System.currentTimeMillis();
+        metrics.put(job.name, job.metrics);
+        jobs.add(job);
+        return true;
+    }
+
+    public boolean isRunning(String name) {
+        for (Job job : jobs) {
+            if (job.name.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The metrics of the current or most recent run of every job that has been submitted, keyed by job name.
+     */
+    public Map<String, JobMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    private void tick() {
+        currentTick++;
+        if (jobs.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + Math.max(1, configService.getInt("maxMillisecondsPerTickForSweeps")) * 1_000_000L;
+        boolean progressed = false;
+        while (!jobs.isEmpty() && (!progressed || System.nanoTime() < deadline)) {
+            Job job = jobs.peek();
+            JobMetrics jobMetrics = job.metrics;
+            if (jobMetrics.lastTickWorked != currentTick) {
+                jobMetrics.lastTickWorked = currentTick;
+                jobMetrics.ticksSpanned++;
+                jobMetrics.currentSliceNanos = 0;
+            }
+            long stepStart = System.nanoTime();
+            boolean more = job.step();
+            long stepNanos = System.nanoTime() - stepStart;
+            jobMetrics.busyNanos += stepNanos;
+            jobMetrics.currentSliceNanos += stepNanos;
+            jobMetrics.longestSliceNanos = Math.max(jobMetrics.longestSliceNanos, jobMetrics.currentSliceNanos);
+            progressed = true;
+            if (!more) {
+                jobs.poll();
+                job.metrics.finishedAt = System.currentTimeMillis();
+                logger.debug(() -> "Sweep '" + job.name + "' finished: " + job.metrics);
+            }
+        }
+    }
+
+    /**
+     * A resumable sequence of phases. Each phase either visits every element of a collection, one per step, or runs a
+     * single action. The collection of a phase is obtained when the phase starts, so it reflects the changes made by
+     * the phases before it.
+     */
+    public static class Job {
+        private final String name;
+        private final List<Phase<?>> phases = new ArrayList<>();
+        private final JobMetrics metrics = new JobMetrics();
+        private int phaseCursor = 0;
+
+        public Job(String name) {
+            this.name = name;
+        }
+
+        public <T> Job forEach(Supplier<? extends Collection<T>> items, Consumer<T> action) {
+            phases.add(new Phase<>(items, action));
+            return this;
+        }
+
+        public Job then(Runnable action) {
+            phases.add(new Phase<>(() -> Collections.singletonList(action), Runnable::run));
+            return this;
+        }
+
+        /**
+         * Process one item.
+         *
+         * @return Whether there is more work left.
+         */
+        private boolean step() {
+            while (phaseCursor < phases.size()) {
+                Phase<?> phase = phases.get(phaseCursor);
+                if (phase.step()) {
+                    metrics.itemsProcessed++;
+                    return true;
+                }
+                phaseCursor++;
+            }
+            return false;
+        }
+    }
+
+    private static class Phase<T> {
+        private final Supplier<? extends Collection<T>> source;
+        private final Consumer<T> action;
+        private List<T> items = null;
+        private int cursor = 0;
+
+        private Phase(Supplier<? extends Collection<T>> source, Consumer<T> action) {
+            this.source = source;
+            this.action = action;
+        }
+
+        private boolean step() {
+            if (items == null) {
+                items = new ArrayList<>(source.get());
+            }
+            if (cursor >= items.size()) {
+                items = null;
+                return false;
+            }
+            action.accept(items.get(cursor++));
+            return true;
+        }
+    }
+
+    /**
+     * Progress and cost of one run of a job.
+     */
+    public static class JobMetrics {
+        private long submittedAt;
+        private long finishedAt;
+        private long itemsProcessed;
+        private int ticksSpanned;
+        private long lastTickWorked = -1;
+        private long busyNanos;
+        private long currentSliceNanos;
+        private long longestSliceNanos;
+
+        public boolean isFinished() {
+            return finishedAt != 0;
+        }
+
+        public long getItemsProcessed() {
+            return itemsProcessed;
+        }
+
+        public int getTicksSpanned() {
+            return ticksSpanned;
+        }
+
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        public long getLongestSliceNanos() {
+            return longestSliceNanos;
+        }
+
+        public long getElapsedMillis() {
+            return (isFinished() ? finishedAt : System.currentTimeMillis()) - submittedAt;
+        }
+
+        @Override
+        public String toString() {
+            return "items=" + itemsProcessed +
+                    ", ticks=" + ticksSpanned +
+                    ", busyMs=" + (busyNanos / 1_000_000.0) +
+                    ", longestSliceMs=" + (longestSliceNanos / 1_000_000.0) +
+                    ", elapsedMs=" + getElapsedMillis();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.utils;
+
+import dansplugins.factionsystem.MedievalFactions;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A hashed timing wheel for short-lived delayed and repeating actions on the main thread.
+ * <p>
+ * Every action scheduled here is driven by a single repeating Bukkit task, instead of each getting a task of its own.
+ * The wheel has a fixed number of slots, one per tick. An action lands in the slot its due tick hashes to, along with
+ * the number of full turns of the wheel still to wait, so scheduling and cancelling are constant time however far
+ * ahead the action is due.
+ * </p>
+ *
+ * @author Daniel McCoy Stephenson
+ */
+public class TimingWheel {
+    private static final int SLOTS = 512;
+    private static final int MASK = SLOTS - 1;
+
+    private final MedievalFactions medievalFactions;
+    private final Logger logger;
+    private final List<List<Handle>> wheel = new ArrayList<>(SLOTS);
+    private long currentTick = 0;
+    private int pending = 0;
+
+    public TimingWheel(MedievalFactions medievalFactions, Logger logger) {
+        this.medievalFactions = medievalFactions;
+        this.logger = logger;
+        for (int i = 0; i < SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    public void schedule() {
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(medievalFactions, this::tick, 1, 1);
+    }
+
+    /**
+     * Run an action once, after a delay.
+     *
+     * @param delayInTicks How many ticks to wait. Anything less than one is treated as one.
+     * @param action       The action to run.
+     * @return A handle that can cancel the action before it runs.
+     */
+    public Handle runLater(long delayInTicks, Runnable action) {
+        Handle handle = new Handle(action, 0);
+        insert(handle, delayInTicks);
+        return handle;
+    }
+
+    /**
+     * Run an action repeatedly until it is cancelled.
+     *
+     * @param delayInTicks  How many ticks to wait before the first run.
+     * @param periodInTicks How many ticks to wait between runs.
+     * @param action        The action to run.
+     * @return A handle that stops the repetition.
+     */
+    public Handle runRepeating(long delayInTicks, long periodInTicks, Runnable action) {
+        Handle handle = new Handle(action, Math.max(1, periodInTicks));
+        insert(handle, delayInTicks);
+        return handle;
+    }
+
+    /**
+     * @return The number of actions waiting to run, including cancelled ones that have not been swept out yet.
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    private void insert(Handle handle, long delayInTicks) {
+        long dueTick = currentTick + Math.max(1, delayInTicks);
+        handle.remainingTurns = (dueTick - currentTick - 1) / SLOTS;
+        wheel.get((int) (dueTick & MASK)).add(handle);
+        pending++;
+    }
+
+    /**
+     * Advance the wheel by one tick and run whatever has come due. Called by the repeating task started by
+     * {@link #schedule()}; package-private so that tests can drive the wheel without a server.
+     */
+    void tick() {
+        currentTick++;
+        List<Handle> slot = wheel.get((int) (currentTick & MASK));
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Handle> due = new ArrayList<>();
+        Iterator<Handle> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            Handle handle = iterator.next();
+            if (handle.cancelled) {
+                iterator.remove();
+                pending--;
+            } else if (handle.remainingTurns > 0) {
+                handle.remainingTurns--;
+            } else {
+                iterator.remove();
+                pending--;
+                due.add(handle);
+            }
+        }
+        // actions run after the slot has been updated, so that they may schedule further actions freely
+        for (Handle handle : due) {
+            if (handle.cancelled) {
+                continue;
+            }
+            try {
+                handle.action.run();
+            } catch (Exception e) {
+                logger.error("A delayed task threw an exception", e);
+            }
+            if (handle.periodInTicks > 0 && !handle.cancelled) {
+                insert(handle, handle.periodInTicks);
+            }
+        }
+    }
+
+    /**
+     * A scheduled action.
+     */
+    public static class Handle {
+        private final Runnable action;
+        private final long periodInTicks;
+        private long remainingTurns;
+        private boolean cancelled = false;
+
+        private Handle(Runnable action, long periodInTicks) {
+            this.action = action;
+            this.periodInTicks = periodInTicks;
+        }
+
+        /**
+         * Stop the action from running again. It is removed from the wheel when its slot next comes round.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
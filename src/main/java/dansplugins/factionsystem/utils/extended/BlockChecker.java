@@ -27,25 +27,25 @@ public class BlockChecker extends preponderous.ponder.minecraft.bukkit.tools.Blo
         Block neighbor4 = block.getWorld().getBlockAt(block.getX(), block.getY(), block.getZ() - 1);
 
         if (isChest(neighbor1)) {
-            if (persistentData.isBlockLocked(neighbor1) && persistentData.getLockedBlock(neighbor1).getOwner() != player.getUniqueId()) {
+            if (persistentData.isBlockLocked(neighbor1) && !persistentData.getLockedBlock(neighbor1).isOwner(player.getUniqueId())) {
                 return true;
             }
         }
 
         if (isChest(neighbor2)) {
-            if (persistentData.isBlockLocked(neighbor2) && persistentData.getLockedBlock(neighbor2).getOwner() != player.getUniqueId()) {
+            if (persistentData.isBlockLocked(neighbor2) && !persistentData.getLockedBlock(neighbor2).isOwner(player.getUniqueId())) {
                 return true;
             }
         }
 
         if (isChest(neighbor3)) {
-            if (persistentData.isBlockLocked(neighbor3) && persistentData.getLockedBlock(neighbor3).getOwner() != player.getUniqueId()) {
+            if (persistentData.isBlockLocked(neighbor3) && !persistentData.getLockedBlock(neighbor3).isOwner(player.getUniqueId())) {
                 return true;
             }
         }
 
         if (isChest(neighbor4)) {
-            return persistentData.isBlockLocked(neighbor4) && persistentData.getLockedBlock(neighbor4).getOwner() != player.getUniqueId();
+            return persistentData.isBlockLocked(neighbor4) && !persistentData.getLockedBlock(neighbor4).isOwner(player.getUniqueId());
         }
 
         return false;
@@ -57,13 +57,13 @@ public class BlockChecker extends preponderous.ponder.minecraft.bukkit.tools.Blo
         Block neighbor2 = block.getWorld().getBlockAt(block.getX(), block.getY() - 1, block.getZ());
 
         if (isChest(neighbor1)) {
-            if (persistentData.isBlockLocked(neighbor1) && persistentData.getLockedBlock(neighbor1).getOwner() != player.getUniqueId()) {
+            if (persistentData.isBlockLocked(neighbor1) && !persistentData.getLockedBlock(neighbor1).isOwner(player.getUniqueId())) {
                 return true;
             }
         }
 
         if (isChest(neighbor2)) {
-            return persistentData.isBlockLocked(neighbor2) && persistentData.getLockedBlock(neighbor2).getOwner() != player.getUniqueId();
+            return persistentData.isBlockLocked(neighbor2) && !persistentData.getLockedBlock(neighbor2).isOwner(player.getUniqueId());
         }
 
         return false;
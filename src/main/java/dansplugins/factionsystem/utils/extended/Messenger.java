@@ -5,6 +5,9 @@
 package dansplugins.factionsystem.utils.extended;
 
 import dansplugins.factionsystem.MedievalFactions;
+import dansplugins.factionsystem.data.EphemeralData;
+import dansplugins.factionsystem.data.FactionSnapshot;
+import dansplugins.factionsystem.data.FactionSnapshot.FactionView;
 import dansplugins.factionsystem.objects.domain.Faction;
 import dansplugins.factionsystem.services.ConfigService;
 import dansplugins.factionsystem.services.LocaleService;
@@ -15,11 +18,8 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import preponderous.ponder.minecraft.bukkit.tools.UUIDChecker;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Objects;
-import java.util.UUID;
-
-import static org.bukkit.Bukkit.getServer;
 
 /**
  * @author Daniel McCoy Stephenson
@@ -30,13 +30,15 @@ public class Messenger extends preponderous.ponder.minecraft.bukkit.tools.Messen
     private final MessageService messageService;
     private final MedievalFactions medievalFactions;
     private final ConfigService configService;
+    private final EphemeralData ephemeralData;
 
-    public Messenger(LocaleService localeService, PlayerService playerService, MessageService messageService, MedievalFactions medievalFactions, ConfigService configService) {
+    public Messenger(LocaleService localeService, PlayerService playerService, MessageService messageService, MedievalFactions medievalFactions, ConfigService configService, EphemeralData ephemeralData) {
         this.localeService = localeService;
         this.playerService = playerService;
         this.messageService = messageService;
         this.medievalFactions = medievalFactions;
         this.configService = configService;
+        this.ephemeralData = ephemeralData;
     }
 
     public void sendFactionInfo(CommandSender sender, Faction faction, int power) {
@@ -46,7 +48,7 @@ public class Messenger extends preponderous.ponder.minecraft.bukkit.tools.Messen
             sender.sendMessage(ChatColor.AQUA + String.format(localeService.get("Name"), faction.getName()) + "\n");
             sender.sendMessage(ChatColor.AQUA + String.format(localeService.get("Owner"), uuidChecker.findPlayerNameBasedOnUUID(faction.getOwner())) + "\n");
             sender.sendMessage(ChatColor.AQUA + String.format(localeService.get("Description"), faction.getDescription()) + "\n");
-            sender.sendMessage(ChatColor.AQUA + String.format(localeService.get("Population"), faction.getMemberList().size()) + "\n");
+            sender.sendMessage(ChatColor.AQUA + String.format(localeService.get("Population"), faction.getPopulation()) + "\n");
             sender.sendMessage(ChatColor.AQUA + String.format(localeService.get("AlliedWith"), faction.getAlliesSeparatedByCommas()) + "\n");
             sender.sendMessage(ChatColor.AQUA + String.format(localeService.get("AtWarWith"), faction.getEnemiesSeparatedByCommas()) + "\n");
             sender.sendMessage(ChatColor.AQUA + String.format(localeService.get("PowerLevel"), faction.getCumulativePowerLevel()) + "/" + faction.getMaximumCumulativePowerLevel() + "\n");
@@ -104,17 +106,37 @@ public class Messenger extends preponderous.ponder.minecraft.bukkit.tools.Messen
         }
     }
 
+    /**
+     * Send a message to every online member of a faction. The message is colorized once for all recipients.
+     *
+     * @param faction The faction to message.
+     * @param message The message to send.
+     */
     public void sendAllPlayersInFactionMessage(Faction faction, String message) {
-        ArrayList<UUID> members = faction.getMemberArrayList();
-        for (UUID member : members) {
-            try {
-                Player target = getServer().getPlayer(member);
-                if (target != null) {
-                    target.sendMessage(playerService.colorize(message));
-                }
-            } catch (Exception ignored) {
+        broadcast(ephemeralData.getOnlineMemberIndex().getOnlineMembers(faction), playerService.colorize(message));
+    }
 
-            }
+    public void sendAllPlayersInFactionMessage(FactionView faction, String message) {
+        sendAllPlayersInFactionMessage(faction.getFaction(), message);
+    }
+
+    /**
+     * Send a message to every online member of every faction in a vassalage tree. The message is colorized once for all recipients.
+     *
+     * @param snapshot The snapshot to resolve the vassalage tree from.
+     * @param faction  Any faction in the vassalage tree.
+     * @param message  The message to send.
+     */
+    public void sendAllPlayersInVassalageTreeMessage(FactionSnapshot snapshot, FactionView faction, String message) {
+        String colorizedMessage = playerService.colorize(message);
+        for (FactionView member : snapshot.getFactionsInVassalageTree(faction)) {
+            broadcast(ephemeralData.getOnlineMemberIndex().getOnlineMembers(member.getFaction()), colorizedMessage);
+        }
+    }
+
+    private void broadcast(Collection<Player> recipients, String colorizedMessage) {
+        for (Player target : recipients) {
+            target.sendMessage(colorizedMessage);
         }
     }
 }
\ No newline at end of file
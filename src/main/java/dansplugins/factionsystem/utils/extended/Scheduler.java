@@ -13,11 +13,12 @@ import dansplugins.factionsystem.services.MessageService;
 import dansplugins.factionsystem.services.PlayerService;
 import dansplugins.factionsystem.utils.Logger;
 import dansplugins.factionsystem.utils.PlayerTeleporter;
+import dansplugins.factionsystem.utils.TimeSlicedExecutor;
+import dansplugins.factionsystem.utils.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Objects;
 import java.util.Random;
@@ -34,8 +35,10 @@ public class Scheduler {
     private final PlayerTeleporter playerTeleporter;
     private final PlayerService playerService;
     private final MessageService messageService;
+    private final TimeSlicedExecutor timeSlicedExecutor;
+    private final TimingWheel timingWheel;
 
-    public Scheduler(Logger logger, LocaleService localeService, MedievalFactions medievalFactions, PersistentData persistentData, ConfigService configService, PlayerTeleporter playerTeleporter, PlayerService playerService, MessageService messageService) {
+    public Scheduler(Logger logger, LocaleService localeService, MedievalFactions medievalFactions, PersistentData persistentData, ConfigService configService, PlayerTeleporter playerTeleporter, PlayerService playerService, MessageService messageService, TimeSlicedExecutor timeSlicedExecutor, TimingWheel timingWheel) {
         this.logger = logger;
         this.localeService = localeService;
         this.medievalFactions = medievalFactions;
@@ -44,6 +47,8 @@ public class Scheduler {
         this.playerTeleporter = playerTeleporter;
         this.playerService = playerService;
         this.messageService = messageService;
+        this.timeSlicedExecutor = timeSlicedExecutor;
+        this.timingWheel = timingWheel;
     }
 
     public void scheduleAutosave() {
@@ -57,11 +62,19 @@ public class Scheduler {
             @Override
             public void run() {
                 logger.debug(localeService.get("HourlySaveAlert"));
-                persistentData.getLocalStorageService().save();
+                persistentData.getLocalStorageService().saveInBackground();
             }
         }, delay * 20L, secondsUntilRepeat * 20L);
     }
 
+    /**
+     * Publish the changes made to factions during each tick, wherever they were made, so that the snapshot read by the
+     * chat handler, placeholders and external API is never more than a tick behind.
+     */
+    public void scheduleSnapshotPublishing() {
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(medievalFactions, persistentData::publishSnapshotIfChanged, 1, 1);
+    }
+
     public void schedulePowerIncrease() {
         logger.debug(localeService.get("SchedulingPowerIncrease"));
         int delay = configService.getInt("minutesBeforeInitialPowerIncrease") * 60; // 30 minutes
@@ -70,7 +83,14 @@ public class Scheduler {
             @Override
             public void run() {
                 logger.debug(String.format((localeService.get("AlertIncreasingThePowerOfEveryPlayer")) + "%n", configService.getInt("powerIncreaseAmount"), configService.getInt("minutesBetweenPowerIncreases")));
-                persistentData.initiatePowerIncreaseForAllPlayers();
+                if (configService.getBoolean("lazyPowerAccrual")) {
+                    // power is accrued on read, so only online players need to be told about their gains
+                    timeSlicedExecutor.submit(new TimeSlicedExecutor.Job("powerIncrease")
+                            .forEach(() -> medievalFactions.getServer().getOnlinePlayers(), persistentData::announceAccruedPower));
+                } else {
+                    timeSlicedExecutor.submit(new TimeSlicedExecutor.Job("powerIncrease")
+                            .forEach(() -> medievalFactions.getServer().getOnlinePlayers(), persistentData::initiatePowerIncreaseForPlayer));
+                }
             }
         }, delay * 20L, secondsUntilRepeat * 20L);
     }
@@ -82,15 +102,16 @@ public class Scheduler {
         Bukkit.getScheduler().scheduleSyncRepeatingTask(medievalFactions, () -> {
             logger.debug(String.format((localeService.get("AlertDecreasingThePowerOfInactivePlayers")) + "%n", configService.getInt("powerDecreaseAmount"), configService.getInt("minutesBeforePowerDecrease"), configService.getInt("minutesBetweenPowerDecreases")));
 
-            persistentData.decreasePowerForInactivePlayers();
+            TimeSlicedExecutor.Job sweep = new TimeSlicedExecutor.Job("powerDecrease")
+                    .forEach(persistentData::pollDueInactivityDecays, persistentData::decreasePowerOfInactivePlayer);
 
             if (configService.getBoolean("zeroPowerFactionsGetDisbanded")) {
-                persistentData.disbandAllZeroPowerFactions();
+                sweep.forEach(persistentData::getFactions, persistentData::disbandFactionIfZeroPower)
+                        .then(persistentData::publishSnapshotIfChanged);
             }
 
-            for (Player player : medievalFactions.getServer().getOnlinePlayers()) {
-                informPlayerIfTheirLandIsInDanger(player);
-            }
+            sweep.forEach(() -> medievalFactions.getServer().getOnlinePlayers(), this::informPlayerIfTheirLandIsInDanger);
+            timeSlicedExecutor.submit(sweep);
         }, delay * 20L, secondsUntilRepeat * 20L);
     }
 
@@ -113,7 +134,7 @@ public class Scheduler {
         playerService.sendMessage(player, ChatColor.AQUA + "Teleporting in " + teleport_delay + " seconds..."
                 , Objects.requireNonNull(messageService.getLanguage().getString("Teleport")).replace("#time#", String.valueOf(teleport_delay)), true);
         DelayedTeleportTask delayedTeleportTask = new DelayedTeleportTask(player, destinationLocation);
-        delayedTeleportTask.runTaskLater(medievalFactions, (long) teleport_delay * getRandomNumberBetween(15, 25));
+        timingWheel.runLater((long) teleport_delay * getRandomNumberBetween(15, 25), delayedTeleportTask);
     }
 
     private int getRandomNumberBetween(int num1, int num2) {
@@ -122,7 +143,7 @@ public class Scheduler {
         return random.nextInt(span) + num1;
     }
 
-    private class DelayedTeleportTask extends BukkitRunnable {
+    private class DelayedTeleportTask implements Runnable {
         private final Player player;
         private final Location initialLocation;
         private final Location destinationLocation;
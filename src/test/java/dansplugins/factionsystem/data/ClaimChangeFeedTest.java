@@ -0,0 +1,168 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.ClaimedChunk;
+import org.bukkit.Chunk;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class ClaimChangeFeedTest {
+    private ClaimChangeFeed feed;
+
+    @Before
+    public void setUp() {
+        feed = new ClaimChangeFeed();
+    }
+
+    private static ClaimedChunk claim(int holderId, String worldName, int x, int z) {
+        Chunk chunk = (Chunk) Proxy.newProxyInstance(Chunk.class.getClassLoader(), new Class<?>[]{Chunk.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getX":
+                    return x;
+                case "getZ":
+                    return z;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        ClaimedChunk claim = new ClaimedChunk(chunk);
+        claim.setHolderId(holderId);
+        claim.setWorld(worldName);
+        return claim;
+    }
+
+    /* A cursor that has caught up, so that later polls return changes instead of asking for a rebuild */
+    private ClaimChangeFeed.Cursor caughtUpCursor() {
+        ClaimChangeFeed.Cursor cursor = feed.subscribe();
+        cursor.poll();
+        return cursor;
+    }
+
+    @Test
+    public void aNewCursorIsToldToRebuild() {
+        ClaimChangeFeed.Cursor cursor = feed.subscribe();
+        assertTrue(cursor.hasChanges());
+        assertNull(cursor.poll());
+        assertFalse(cursor.hasChanges());
+        assertTrue(cursor.poll().isEmpty());
+    }
+
+    @Test
+    public void changesAreReturnedInOrderAndOnlyOnce() {
+        ClaimChangeFeed.Cursor cursor = caughtUpCursor();
+        feed.recordClaim(claim(1, "world", 3, -4));
+        feed.recordConquest(claim(2, "world", 3, -4), 1);
+        feed.recordRename(2);
+        feed.recordRelationChange(2, 5);
+        feed.recordDetailsChange(5);
+
+        List<ClaimChangeFeed.Change> changes = cursor.poll();
+        assertNotNull(changes);
+        assertEquals(5, changes.size());
+        assertEquals(ClaimChangeFeed.Type.CLAIM, changes.get(0).getType());
+        assertEquals(1, changes.get(0).getFactionId());
+        assertEquals("world", changes.get(0).getWorldName());
+        assertEquals(3, changes.get(0).getX());
+        assertEquals(-4, changes.get(0).getZ());
+        assertEquals(ClaimChangeFeed.Type.CONQUEST, changes.get(1).getType());
+        assertEquals(2, changes.get(1).getFactionId());
+        assertEquals(1, changes.get(1).getOtherFactionId());
+        assertEquals(ClaimChangeFeed.Type.RENAME, changes.get(2).getType());
+        assertNull(changes.get(2).getWorldName());
+        assertEquals(ClaimChangeFeed.Type.RELATION, changes.get(3).getType());
+        assertEquals(5, changes.get(3).getOtherFactionId());
+        assertEquals(ClaimChangeFeed.Type.DETAILS, changes.get(4).getType());
+        for (int i = 1; i < changes.size(); i++) {
+            assertTrue(changes.get(i).getSequence() > changes.get(i - 1).getSequence());
+        }
+
+        assertFalse(cursor.hasChanges());
+        assertTrue(cursor.poll().isEmpty());
+    }
+
+    @Test
+    public void changesWithoutAFactionAreIgnored() {
+        ClaimChangeFeed.Cursor cursor = caughtUpCursor();
+        long lastSequence = feed.getLastSequence();
+        feed.recordFlagChange(FactionRegistry.NO_FACTION);
+        feed.recordUnclaim(claim(FactionRegistry.NO_FACTION, "world", 0, 0));
+        assertEquals(lastSequence, feed.getLastSequence());
+        assertFalse(cursor.hasChanges());
+    }
+
+    @Test
+    public void aSlowCursorStillSeesWhatAFastCursorHasTaken() {
+        ClaimChangeFeed.Cursor fast = caughtUpCursor();
+        ClaimChangeFeed.Cursor slow = caughtUpCursor();
+        feed.recordRename(1);
+        assertEquals(1, fast.poll().size());
+        feed.recordRename(2);
+        assertEquals(1, fast.poll().size());
+
+        List<ClaimChangeFeed.Change> changes = slow.poll();
+        assertNotNull(changes);
+        assertEquals(2, changes.size());
+        assertEquals(1, changes.get(0).getFactionId());
+        assertEquals(2, changes.get(1).getFactionId());
+    }
+
+    @Test
+    public void anUnsubscribedCursorIsNoLongerRetainedFor() {
+        ClaimChangeFeed.Cursor active = caughtUpCursor();
+        ClaimChangeFeed.Cursor gone = caughtUpCursor();
+        feed.unsubscribe(gone);
+        feed.recordRename(1);
+        active.poll();
+
+        // the change was trimmed once the only remaining cursor had seen it
+        assertNull(gone.poll());
+    }
+
+    @Test
+    public void aCursorThatFallsTooFarBehindIsToldToRebuild() {
+        ClaimChangeFeed.Cursor cursor = caughtUpCursor();
+        for (int i = 0; i < 10000; i++) {
+            feed.recordFlagChange(1);
+        }
+        assertTrue(cursor.hasChanges());
+        assertNull(cursor.poll());
+        feed.recordFlagChange(2);
+        assertEquals(1, cursor.poll().size());
+    }
+
+    @Test
+    public void resetMakesEveryCursorRebuild() {
+        ClaimChangeFeed.Cursor first = caughtUpCursor();
+        ClaimChangeFeed.Cursor second = caughtUpCursor();
+        feed.recordRename(1);
+        feed.reset();
+
+        assertTrue(first.hasChanges());
+        assertNull(first.poll());
+        assertNull(second.poll());
+        feed.recordRename(2);
+        assertEquals(1, first.poll().size());
+    }
+
+    @Test
+    public void resetWithNothingRecordedStillMakesCursorsRebuild() {
+        ClaimChangeFeed.Cursor cursor = caughtUpCursor();
+        feed.reset();
+        assertNull(cursor.poll());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.ActivityRecord;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class InactivityDecayQueueTest {
+    private static final long MINUTE = 60_000L;
+    private static final long START = 1_600_000_000_000L;
+
+    private PlayerRecordStore store;
+    private InactivityDecayQueue queue;
+
+    @Before
+    public void setUp() {
+        store = new PlayerRecordStore(new PlayerRegistry(), null, null);
+        queue = new InactivityDecayQueue();
+    }
+
+    @Test
+    public void nothingIsDueBeforeTheFirstDecay() {
+        queue.schedule(loggedOutAt(0), 30);
+
+        assertTrue(queue.pollDue(START + 29 * MINUTE, 60).isEmpty());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void recordIsDueOncePerInterval() {
+        ActivityRecord record = loggedOutAt(0);
+        queue.schedule(record, 30);
+
+        assertEquals(Collections.singletonList(record), queue.pollDue(START + 30 * MINUTE, 60));
+        assertTrue(queue.pollDue(START + 89 * MINUTE, 60).isEmpty());
+        assertEquals(Collections.singletonList(record), queue.pollDue(START + 90 * MINUTE, 60));
+    }
+
+    @Test
+    public void recordFarBehindIsReturnedOnceAndRescheduledFromNow() {
+        ActivityRecord record = loggedOutAt(0);
+        queue.schedule(record, 30);
+
+        // e.g. the server was down for a day; the catch-up happens once rather than once per missed interval
+        assertEquals(Collections.singletonList(record), queue.pollDue(START + 24 * 60 * MINUTE, 60));
+        assertTrue(queue.pollDue(START + 24 * 60 * MINUTE + 59 * MINUTE, 60).isEmpty());
+        assertEquals(Collections.singletonList(record), queue.pollDue(START + 25 * 60 * MINUTE, 60));
+    }
+
+    @Test
+    public void recordsAreReturnedInDueOrder() {
+        ActivityRecord later = loggedOutAt(10 * MINUTE);
+        ActivityRecord earlier = loggedOutAt(0);
+        queue.schedule(later, 30);
+        queue.schedule(earlier, 30);
+
+        assertEquals(Arrays.asList(earlier, later), queue.pollDue(START + 40 * MINUTE, 60));
+    }
+
+    @Test
+    public void cancelledRecordIsNotReturned() {
+        ActivityRecord record = loggedOutAt(0);
+        queue.schedule(record, 30);
+
+        queue.cancel(record);
+
+        assertEquals(0, queue.size());
+        assertTrue(queue.pollDue(START + 120 * MINUTE, 60).isEmpty());
+    }
+
+    @Test
+    public void reschedulingDropsTheEarlierEntry() {
+        ActivityRecord record = loggedOutAt(0);
+        queue.schedule(record, 30);
+
+        // the player logs in and out again
+        queue.cancel(record);
+        record.setLastLogoutMillis(START + 60 * MINUTE);
+        queue.schedule(record, 30);
+
+        assertEquals(1, queue.size());
+        assertTrue(queue.pollDue(START + 89 * MINUTE, 60).isEmpty());
+        assertEquals(Collections.singletonList(record), queue.pollDue(START + 90 * MINUTE, 60));
+    }
+
+    @Test
+    public void playerWhoNeverLoggedOutIsNotScheduled() {
+        ActivityRecord record = store.createActivityRecord(UUID.randomUUID(), 1);
+        record.setLastLogoutMillis(0);
+
+        queue.schedule(record, 30);
+
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * @param offsetMillis Time of the logout, relative to {@link #START}.
+     */
+    private ActivityRecord loggedOutAt(long offsetMillis) {
+        ActivityRecord record = store.createActivityRecord(UUID.randomUUID(), 1);
+        record.setLastLogoutMillis(START + offsetMillis);
+        return record;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.objects.domain.ActivityRecord;
+import dansplugins.factionsystem.objects.domain.PowerRecord;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class PlayerRecordStoreTest {
+    private static final double DELTA = 0.0001;
+
+    private PlayerRegistry playerRegistry;
+    private PlayerRecordStore store;
+
+    @Before
+    public void setUp() {
+        playerRegistry = new PlayerRegistry();
+        store = new PlayerRecordStore(playerRegistry, null, null);
+    }
+
+    @Test
+    public void createPowerRecordInitialisesANewRow() {
+        UUID player = UUID.randomUUID();
+        PowerRecord record = store.createPowerRecord(player, 5);
+
+        assertEquals(playerRegistry.find(player), record.getPlayerId());
+        assertTrue(store.hasPowerRecord(record.getPlayerId()));
+        assertFalse(store.hasActivityRecord(record.getPlayerId()));
+        assertEquals(5, store.getPower(record.getPlayerId()), DELTA);
+        assertEquals(1, store.getNumPowerRecords());
+    }
+
+    @Test
+    public void createPowerRecordKeepsAnExistingRow() {
+        UUID player = UUID.randomUUID();
+        int playerId = store.createPowerRecord(player, 5).getPlayerId();
+        store.setPower(playerId, 17);
+        store.setLastSettledAt(playerId, 1234);
+
+        // e.g. the player logs in with a power record but no activity record
+        store.createPowerRecord(player, 5);
+        store.createActivityRecord(player, 1);
+
+        assertEquals(17, store.getPower(playerId), DELTA);
+        assertEquals(1234, store.getLastSettledAt(playerId));
+        assertEquals(1, store.getNumPowerRecords());
+        assertEquals(1, store.getNumActivityRecords());
+    }
+
+    @Test
+    public void createActivityRecordKeepsAnExistingRow() {
+        UUID player = UUID.randomUUID();
+        ActivityRecord record = store.createActivityRecord(player, 1);
+        int playerId = record.getPlayerId();
+        store.setLogins(playerId, 9);
+        store.setPowerLost(playerId, 3);
+        store.setLastLogout(playerId, 42);
+
+        store.createActivityRecord(player, 1);
+
+        assertEquals(9, store.getLogins(playerId));
+        assertEquals(3, store.getPowerLost(playerId));
+        assertEquals(42, store.getLastLogout(playerId));
+        assertEquals(1, store.getNumActivityRecords());
+    }
+
+    @Test
+    public void resetPowerOnlyTouchesPowerRecords() {
+        int accruing = store.createPowerRecord(UUID.randomUUID(), 10).getPlayerId();
+        int idle = store.createPowerRecord(UUID.randomUUID(), 20).getPlayerId();
+        int activityOnly = store.createActivityRecord(UUID.randomUUID(), 1).getPlayerId();
+        store.setLastSettledAt(accruing, 1);
+        store.setUnannouncedGain(accruing, 4);
+
+        store.resetPower(7);
+
+        assertEquals(7, store.getPower(accruing), DELTA);
+        assertEquals(7, store.getPower(idle), DELTA);
+        assertEquals(0, store.getPower(activityOnly), DELTA);
+        assertFalse(store.hasPowerRecord(activityOnly));
+        assertEquals(0, store.getUnannouncedGain(accruing), DELTA);
+        // the accrual clock restarts for players who are accruing, and stays stopped for the rest
+        assertTrue(store.getLastSettledAt(accruing) > 1);
+        assertEquals(0, store.getLastSettledAt(idle));
+    }
+
+    @Test
+    public void recordsAreListedInPlayerIdOrder() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        playerRegistry.intern(first);
+        playerRegistry.intern(second);
+        store.createPowerRecord(second, 1);
+        store.createPowerRecord(first, 1);
+
+        List<PowerRecord> records = store.getPowerRecords();
+        assertEquals(2, records.size());
+        assertEquals(playerRegistry.find(first), records.get(0).getPlayerId());
+        assertEquals(playerRegistry.find(second), records.get(1).getPlayerId());
+    }
+
+    @Test
+    public void rowsGrowPastInitialCapacity() {
+        int lastId = -1;
+        for (int i = 0; i < 1000; i++) {
+            lastId = store.createPowerRecord(UUID.randomUUID(), i).getPlayerId();
+        }
+        assertEquals(1000, store.getNumPowerRecords());
+        assertEquals(999, store.getPower(lastId), DELTA);
+    }
+
+    @Test
+    public void clearingPowerRecordsLeavesActivityRecords() {
+        UUID player = UUID.randomUUID();
+        int playerId = store.createPowerRecord(player, 5).getPlayerId();
+        store.createActivityRecord(player, 1);
+
+        store.clearPowerRecords();
+
+        assertNull(store.getPowerRecord(player));
+        assertTrue(store.hasActivityRecord(playerId));
+        assertEquals(0, store.getNumPowerRecords());
+        assertEquals(1, store.getNumActivityRecords());
+    }
+
+    @Test
+    public void unknownPlayersHaveNoRecords() {
+        assertNull(store.getPowerRecord(UUID.randomUUID()));
+        assertNull(store.getActivityRecord(UUID.randomUUID()));
+        assertFalse(store.hasPowerRecord(PlayerRegistry.UNKNOWN_PLAYER));
+        assertNull(store.getLastKnownName(PlayerRegistry.UNKNOWN_PLAYER));
+    }
+}
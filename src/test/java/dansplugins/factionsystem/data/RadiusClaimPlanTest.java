@@ -0,0 +1,113 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.data;
+
+import dansplugins.factionsystem.events.FactionClaimBatchEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class RadiusClaimPlanTest {
+
+    @Test
+    public void wholeSquareIsPlannedWithinBudget() {
+        RadiusClaimPlan plan = RadiusClaimPlan.plan(10, -4, 1, Integer.MAX_VALUE, (x, z) -> true);
+
+        assertEquals(9, plan.getChunkCount());
+        assertFalse(plan.hasReachedDemesne());
+        assertEquals(Arrays.asList("9,-5", "9,-4", "9,-3", "10,-5", "10,-4", "10,-3", "11,-5", "11,-4", "11,-3"), accepted(plan, event(plan)));
+    }
+
+    @Test
+    public void planStopsWhenTheBudgetRunsOut() {
+        RadiusClaimPlan plan = RadiusClaimPlan.plan(0, 0, 1, 4, (x, z) -> true);
+
+        assertEquals(4, plan.getChunkCount());
+        assertTrue(plan.hasReachedDemesne());
+    }
+
+    @Test
+    public void budgetThatCoversEveryTakeableChunkIsNotReported() {
+        RadiusClaimPlan plan = RadiusClaimPlan.plan(0, 0, 1, 9, (x, z) -> true);
+
+        assertEquals(9, plan.getChunkCount());
+        assertFalse(plan.hasReachedDemesne());
+    }
+
+    @Test
+    public void chunksThatCannotBeTakenDoNotUseTheBudget() {
+        // e.g. the claimant already holds the middle column
+        RadiusClaimPlan plan = RadiusClaimPlan.plan(0, 0, 1, 6, (x, z) -> x != 0);
+
+        assertEquals(6, plan.getChunkCount());
+        assertFalse(plan.hasReachedDemesne());
+        assertEquals(Arrays.asList("-1,-1", "-1,0", "-1,1", "1,-1", "1,0", "1,1"), accepted(plan, event(plan)));
+    }
+
+    @Test
+    public void noBudgetPlansNothing() {
+        RadiusClaimPlan plan = RadiusClaimPlan.plan(0, 0, 2, 0, (x, z) -> true);
+
+        assertEquals(0, plan.getChunkCount());
+        assertTrue(plan.hasReachedDemesne());
+    }
+
+    @Test
+    public void eventCarriesThePlannedChunks() {
+        RadiusClaimPlan plan = RadiusClaimPlan.plan(3, 7, 1, 2, (x, z) -> true);
+        FactionClaimBatchEvent event = event(plan);
+
+        assertEquals(2, event.getChunkCount());
+        assertEquals(2, event.getChunkX(0));
+        assertEquals(6, event.getChunkZ(0));
+        assertEquals(2, event.getChunkX(1));
+        assertEquals(7, event.getChunkZ(1));
+    }
+
+    @Test
+    public void vetoedChunksAreLeftOut() {
+        RadiusClaimPlan plan = RadiusClaimPlan.plan(0, 0, 1, Integer.MAX_VALUE, (x, z) -> true);
+        FactionClaimBatchEvent event = event(plan);
+        event.veto(0, 0);
+        event.veto(1, -1);
+        // a chunk outside the batch changes nothing
+        event.veto(5, 5);
+
+        List<String> accepted = accepted(plan, event);
+
+        assertEquals(7, accepted.size());
+        assertFalse(accepted.contains("0,0"));
+        assertFalse(accepted.contains("1,-1"));
+    }
+
+    @Test
+    public void cancelledBatchAcceptsNothing() {
+        RadiusClaimPlan plan = RadiusClaimPlan.plan(0, 0, 1, Integer.MAX_VALUE, (x, z) -> true);
+        FactionClaimBatchEvent event = event(plan);
+        event.setCancelled(true);
+
+        assertTrue(accepted(plan, event).isEmpty());
+    }
+
+    private FactionClaimBatchEvent event(RadiusClaimPlan plan) {
+        return plan.toEvent(null, null, null);
+    }
+
+    private List<String> accepted(RadiusClaimPlan plan, FactionClaimBatchEvent event) {
+        List<String> accepted = new ArrayList<>();
+        int count = plan.forEachAccepted(event, (x, z) -> accepted.add(x + "," + z));
+        assertEquals(accepted.size(), count);
+        return accepted;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.objects.domain;
+
+import dansplugins.factionsystem.data.PlayerRegistry;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class LockedBlockTest {
+    private final PlayerRegistry playerRegistry = new PlayerRegistry();
+
+    @Test
+    public void ownerIsRecognisedByAnEqualUUID() {
+        UUID owner = UUID.randomUUID();
+        LockedBlock block = new LockedBlock(playerRegistry, owner, 1, 0, 64, 0, "world");
+
+        // getOwner builds a new UUID from the player id, so identity checks against it never match
+        assertNotSame(owner, block.getOwner());
+        assertEquals(owner, block.getOwner());
+        assertTrue(block.isOwner(new UUID(owner.getMostSignificantBits(), owner.getLeastSignificantBits())));
+    }
+
+    @Test
+    public void otherPlayersAreNotTheOwner() {
+        UUID owner = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        playerRegistry.intern(other);
+        LockedBlock block = new LockedBlock(playerRegistry, owner, 1, 0, 64, 0, "world");
+
+        assertFalse(block.isOwner(other));
+        assertFalse(block.isOwner(UUID.randomUUID()));
+        assertFalse(block.isOwner(null));
+    }
+
+    @Test
+    public void ownerHasAccessAndAccessCanBeGrantedAndRevoked() {
+        UUID owner = UUID.randomUUID();
+        UUID friend = UUID.randomUUID();
+        LockedBlock block = new LockedBlock(playerRegistry, owner, 1, 0, 64, 0, "world");
+
+        assertTrue(block.hasAccess(owner));
+        assertFalse(block.hasAccess(friend));
+        block.addToAccessList(friend);
+        assertTrue(block.hasAccess(friend));
+        block.removeFromAccessList(friend);
+        assertFalse(block.hasAccess(friend));
+    }
+}
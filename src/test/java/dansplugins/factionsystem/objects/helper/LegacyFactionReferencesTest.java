@@ -0,0 +1,87 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.objects.helper;
+
+import dansplugins.factionsystem.data.FactionRegistry;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class LegacyFactionReferencesTest {
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final ToIntFunction<String> idByName = name -> idsByName.getOrDefault(name.toLowerCase(), FactionRegistry.NO_FACTION);
+
+    @Test
+    public void dataSavedWithIdsNeedsNoMigration() {
+        Map<String, String> data = new HashMap<>();
+        data.put("allyFactionIds", "[2]");
+        data.put("allyFactions", "[\"Gondor\"]");
+
+        assertNull(LegacyFactionReferences.read(data));
+    }
+
+    @Test
+    public void namesAreResolvedToIds() {
+        idsByName.put("gondor", 2);
+        idsByName.put("mordor", 3);
+        idsByName.put("rohan", 4);
+        idsByName.put("arnor", 5);
+        Map<String, String> data = new HashMap<>();
+        data.put("enemyFactions", "[\"Mordor\"]");
+        data.put("allyFactions", "[\"Gondor\", \"Rohan\"]");
+        data.put("vassals", "[\"Rohan\"]");
+        data.put("liege", "\"Arnor\"");
+
+        LegacyFactionReferences references = LegacyFactionReferences.read(data);
+
+        assertNotNull(references);
+        assertEquals(Collections.singletonList(3), references.resolveEnemies(idByName));
+        assertEquals(Arrays.asList(2, 4), references.resolveAllies(idByName));
+        assertEquals(Collections.singletonList(4), references.resolveVassals(idByName));
+        assertEquals(5, references.resolveLiege(idByName));
+    }
+
+    @Test
+    public void factionsThatNoLongerExistAreDropped() {
+        idsByName.put("gondor", 2);
+        Map<String, String> data = new HashMap<>();
+        data.put("allyFactions", "[\"Gondor\", \"Numenor\", \"gondor\"]");
+        data.put("liege", "\"Numenor\"");
+
+        LegacyFactionReferences references = LegacyFactionReferences.read(data);
+
+        assertNotNull(references);
+        assertEquals(Collections.singletonList(2), references.resolveAllies(idByName));
+        assertEquals(FactionRegistry.NO_FACTION, references.resolveLiege(idByName));
+    }
+
+    @Test
+    public void missingRelationsDefaultToNone() {
+        // e.g. a faction saved before vassals and lieges were added
+        idsByName.put("none", 7);
+        Map<String, String> data = new HashMap<>();
+        data.put("enemyFactions", "[]");
+        data.put("allyFactions", "[]");
+
+        LegacyFactionReferences references = LegacyFactionReferences.read(data);
+
+        assertNotNull(references);
+        assertTrue(references.resolveEnemies(idByName).isEmpty());
+        assertTrue(references.resolveVassals(idByName).isEmpty());
+        assertEquals(FactionRegistry.NO_FACTION, references.resolveLiege(idByName));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.objects.helper;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class TerritoryBitmapTest {
+
+    private static TerritoryBitmap bitmapOf(int... coordinates) {
+        TerritoryBitmap bitmap = new TerritoryBitmap();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            bitmap.setFlag(coordinates[i], coordinates[i + 1], true);
+        }
+        return bitmap;
+    }
+
+    private static TerritoryBitmap rectangle(int minX, int minZ, int maxX, int maxZ) {
+        TerritoryBitmap bitmap = new TerritoryBitmap();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                bitmap.setFlag(x, z, true);
+            }
+        }
+        return bitmap;
+    }
+
+    @Test
+    public void flagsAreKeptAcrossTilesAndNegativeCoordinates() {
+        TerritoryBitmap bitmap = bitmapOf(0, 0, 63, 63, 64, 64, -1, -1, -65, 130);
+        assertEquals(5, bitmap.cardinality());
+        assertTrue(bitmap.getFlag(-1, -1));
+        assertTrue(bitmap.getFlag(-65, 130));
+        assertTrue(bitmap.getFlag(64, 64));
+        assertFalse(bitmap.getFlag(1, 0));
+        assertFalse(bitmap.getFlag(-64, 130));
+
+        bitmap.setFlag(-1, -1, false);
+        bitmap.setFlag(-1, -1, false);
+        bitmap.setFlag(0, 0, true);
+        assertEquals(4, bitmap.cardinality());
+        assertFalse(bitmap.getFlag(-1, -1));
+    }
+
+    @Test
+    public void unionSetsEveryChunkOfBoth() {
+        TerritoryBitmap bitmap = bitmapOf(0, 0, 1, 0);
+        bitmap.union(bitmapOf(1, 0, 100, -100));
+        assertEquals(3, bitmap.cardinality());
+        assertTrue(bitmap.getFlag(0, 0));
+        assertTrue(bitmap.getFlag(1, 0));
+        assertTrue(bitmap.getFlag(100, -100));
+    }
+
+    @Test
+    public void differenceClearsChunksOfTheOther() {
+        TerritoryBitmap bitmap = rectangle(0, 0, 2, 2);
+        // look up a chunk first, so a cached tile is in play when the difference empties it
+        assertTrue(bitmap.getFlag(1, 1));
+        bitmap.difference(rectangle(0, 0, 2, 1));
+        bitmap.difference(bitmapOf(500, 500));
+        assertEquals(3, bitmap.cardinality());
+        assertFalse(bitmap.getFlag(1, 1));
+        assertTrue(bitmap.getFlag(1, 2));
+
+        bitmap.difference(rectangle(0, 2, 2, 2));
+        assertTrue(bitmap.isEmpty());
+        assertNull(bitmap.getBoundingBox());
+        bitmap.setFlag(1, 1, true);
+        assertTrue(bitmap.getFlag(1, 1));
+    }
+
+    @Test
+    public void intersectKeepsOnlySharedChunks() {
+        TerritoryBitmap bitmap = rectangle(0, 0, 2, 2);
+        bitmap.intersect(bitmapOf(2, 2, 3, 3, 0, 0));
+        assertEquals(2, bitmap.cardinality());
+        assertTrue(bitmap.getFlag(0, 0));
+        assertTrue(bitmap.getFlag(2, 2));
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        TerritoryBitmap original = bitmapOf(0, 0);
+        TerritoryBitmap copy = original.copy();
+        copy.setFlag(1, 1, true);
+        original.setFlag(0, 0, false);
+        assertTrue(copy.getFlag(0, 0));
+        assertFalse(original.getFlag(1, 1));
+        assertEquals(2, copy.cardinality());
+        assertEquals(0, original.cardinality());
+    }
+
+    @Test
+    public void boundingBoxCoversEveryChunk() {
+        assertArrayEquals(new int[]{-70, -3, 65, 200}, bitmapOf(-70, 0, 65, -3, 3, 200).getBoundingBox());
+    }
+
+    @Test
+    public void edgesAreTheChunksThatAreNotInterior() {
+        TerritoryBitmap square = rectangle(0, 0, 2, 2);
+        assertTrue(square.isInterior(1, 1));
+        assertFalse(square.isInterior(0, 1));
+        TerritoryBitmap edges = square.getEdges();
+        assertEquals(8, edges.cardinality());
+        assertFalse(edges.getFlag(1, 1));
+    }
+
+    @Test
+    public void componentsAreConnectedBySidesOnly() {
+        // two chunks touching at a corner, and a separate bar crossing a tile boundary
+        TerritoryBitmap bitmap = bitmapOf(0, 0, 1, 1);
+        bitmap.union(rectangle(62, 10, 66, 10));
+
+        List<TerritoryBitmap> components = bitmap.getComponents();
+        assertEquals(3, components.size());
+        int total = 0;
+        for (TerritoryBitmap component : components) {
+            total += component.cardinality();
+        }
+        assertEquals(7, total);
+        assertEquals(7, bitmap.cardinality());
+    }
+
+    @Test
+    public void outlineOfASingleChunkIsItsFourCorners() {
+        assertArrayEquals(new int[]{0, 0, 1, 0, 1, 1, 0, 1}, bitmapOf(0, 0).traceOutline());
+        assertArrayEquals(new int[]{-1, -1, 0, -1, 0, 0, -1, 0}, bitmapOf(-1, -1).traceOutline());
+    }
+
+    @Test
+    public void outlineOfARectangleSkipsStraightRuns() {
+        assertArrayEquals(new int[]{62, 0, 66, 0, 66, 1, 62, 1}, rectangle(62, 0, 65, 0).traceOutline());
+    }
+
+    @Test
+    public void outlineFollowsInsideCorners() {
+        assertArrayEquals(new int[]{0, 0, 2, 0, 2, 1, 1, 1, 1, 2, 0, 2}, bitmapOf(0, 0, 1, 0, 0, 1).traceOutline());
+    }
+
+    @Test
+    public void outlineOfNothingIsEmpty() {
+        assertEquals(0, new TerritoryBitmap().traceOutline().length);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.objects.inherited;
+
+import dansplugins.factionsystem.data.PlayerRegistry;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class GroupTest {
+    private final PlayerRegistry playerRegistry = new PlayerRegistry();
+
+    private Group newGroup() {
+        return new Group() {
+            @Override
+            protected PlayerRegistry getPlayerRegistry() {
+                return playerRegistry;
+            }
+        };
+    }
+
+    @Test
+    public void ownerIsRecognisedByPlayerId() {
+        UUID owner = UUID.randomUUID();
+        Group group = newGroup();
+        group.setOwner(owner);
+        group.addMember(owner);
+
+        assertTrue(group.isOwner(playerRegistry.find(owner)));
+        assertFalse(group.isOwner(playerRegistry.intern(UUID.randomUUID())));
+        assertFalse(group.isOwner(PlayerRegistry.UNKNOWN_PLAYER));
+    }
+
+    @Test
+    public void membersAreListedInPlayerIdOrder() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        playerRegistry.intern(first);
+        playerRegistry.intern(second);
+        playerRegistry.intern(third);
+        Group group = newGroup();
+        group.addMember(third);
+        group.addMember(first);
+        group.addMember(second);
+
+        assertEquals(Arrays.asList(first, second, third), group.getMemberList());
+    }
+
+    @Test
+    public void changesBumpTheVersion() {
+        Group group = newGroup();
+        int version = group.getVersion();
+        group.addMember(UUID.randomUUID());
+        assertTrue(group.getVersion() > version);
+        version = group.getVersion();
+        group.setOwner(UUID.randomUUID());
+        assertTrue(group.getVersion() > version);
+    }
+}
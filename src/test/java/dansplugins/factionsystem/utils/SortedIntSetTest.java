@@ -0,0 +1,97 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class SortedIntSetTest {
+
+    @Test
+    public void addKeepsValuesSortedAndUnique() {
+        SortedIntSet set = new SortedIntSet();
+        assertTrue(set.add(5));
+        assertTrue(set.add(1));
+        assertTrue(set.add(3));
+        assertFalse(set.add(3));
+        assertEquals(3, set.size());
+        assertArrayEquals(new int[]{1, 3, 5}, set.toArray());
+    }
+
+    @Test
+    public void addGrowsPastInitialCapacity() {
+        SortedIntSet set = new SortedIntSet();
+        for (int value = 99; value >= 0; value--) {
+            set.add(value);
+        }
+        assertEquals(100, set.size());
+        for (int index = 0; index < set.size(); index++) {
+            assertEquals(index, set.get(index));
+        }
+    }
+
+    @Test
+    public void removeOnlyRemovesPresentValues() {
+        SortedIntSet set = new SortedIntSet();
+        set.add(1);
+        set.add(2);
+        set.add(3);
+        assertTrue(set.remove(2));
+        assertFalse(set.remove(2));
+        assertFalse(set.remove(7));
+        assertFalse(set.contains(2));
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(3));
+        assertArrayEquals(new int[]{1, 3}, set.toArray());
+    }
+
+    @Test
+    public void clearEmptiesTheSet() {
+        SortedIntSet set = new SortedIntSet();
+        set.add(4);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(4));
+        assertTrue(set.add(4));
+    }
+
+    @Test
+    public void forEachVisitsValuesInAscendingOrder() {
+        SortedIntSet set = new SortedIntSet();
+        set.add(8);
+        set.add(-2);
+        set.add(0);
+        List<Integer> visited = new ArrayList<>();
+        set.forEach(visited::add);
+        assertEquals(Arrays.asList(-2, 0, 8), visited);
+    }
+
+    @Test
+    public void toArrayIsACopy() {
+        SortedIntSet set = new SortedIntSet();
+        set.add(1);
+        set.toArray()[0] = 42;
+        assertTrue(set.contains(1));
+        assertFalse(set.contains(42));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getRejectsIndexPastTheEnd() {
+        SortedIntSet set = new SortedIntSet();
+        set.add(1);
+        set.get(1);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+  Copyright (c) 2022 Daniel McCoy Stephenson
+  GPL3 License
+ */
+package dansplugins.factionsystem.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Daniel McCoy Stephenson
+ */
+public class TimingWheelTest {
+    private final List<Throwable> errors = new ArrayList<>();
+    private TimingWheel timingWheel;
+
+    @Before
+    public void setUp() {
+        Logger logger = new Logger(null) {
+            @Override
+            public void error(String message, Throwable cause) {
+                errors.add(cause);
+            }
+        };
+        timingWheel = new TimingWheel(null, logger);
+    }
+
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            timingWheel.tick();
+        }
+    }
+
+    @Test
+    public void runLaterRunsOnTheDueTick() {
+        int[] runs = {0};
+        timingWheel.runLater(3, () -> runs[0]++);
+        advance(2);
+        assertEquals(0, runs[0]);
+        advance(1);
+        assertEquals(1, runs[0]);
+        advance(600);
+        assertEquals(1, runs[0]);
+        assertEquals(0, timingWheel.getPending());
+    }
+
+    @Test
+    public void delaysBelowOneRunOnTheNextTick() {
+        int[] runs = {0};
+        timingWheel.runLater(0, () -> runs[0]++);
+        timingWheel.runLater(-5, () -> runs[0]++);
+        advance(1);
+        assertEquals(2, runs[0]);
+    }
+
+    @Test
+    public void delaysLongerThanOneTurnWaitForTheirTurn() {
+        int[] ranAt = {-1};
+        int[] ticks = {0};
+        timingWheel.runLater(1300, () -> ranAt[0] = ticks[0]);
+        for (ticks[0] = 1; ticks[0] <= 2000; ticks[0]++) {
+            timingWheel.tick();
+        }
+        assertEquals(1300, ranAt[0]);
+    }
+
+    @Test
+    public void delaysOfExactlyOneTurnAreNotRunEarly() {
+        int[] ranAt = {-1};
+        int[] ticks = {0};
+        timingWheel.runLater(512, () -> ranAt[0] = ticks[0]);
+        timingWheel.runLater(513, () -> {
+        });
+        for (ticks[0] = 1; ticks[0] <= 1100; ticks[0]++) {
+            timingWheel.tick();
+        }
+        assertEquals(512, ranAt[0]);
+    }
+
+    @Test
+    public void cancelledActionsDoNotRun() {
+        int[] runs = {0};
+        TimingWheel.Handle handle = timingWheel.runLater(5, () -> runs[0]++);
+        handle.cancel();
+        assertTrue(handle.isCancelled());
+        advance(10);
+        assertEquals(0, runs[0]);
+        assertEquals(0, timingWheel.getPending());
+    }
+
+    @Test
+    public void repeatingActionsRunEveryPeriodUntilCancelled() {
+        List<Integer> ranAt = new ArrayList<>();
+        int[] ticks = {0};
+        TimingWheel.Handle[] handle = new TimingWheel.Handle[1];
+        handle[0] = timingWheel.runRepeating(2, 3, () -> {
+            ranAt.add(ticks[0]);
+            if (ranAt.size() == 3) {
+                handle[0].cancel();
+            }
+        });
+        for (ticks[0] = 1; ticks[0] <= 30; ticks[0]++) {
+            timingWheel.tick();
+        }
+        assertEquals(3, ranAt.size());
+        assertEquals(2, (int) ranAt.get(0));
+        assertEquals(5, (int) ranAt.get(1));
+        assertEquals(8, (int) ranAt.get(2));
+    }
+
+    @Test
+    public void actionsCanScheduleFurtherActions() {
+        int[] runs = {0};
+        timingWheel.runLater(1, () -> timingWheel.runLater(1, () -> runs[0]++));
+        advance(1);
+        assertEquals(0, runs[0]);
+        advance(1);
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    public void aFailingActionIsLoggedAndDoesNotStopTheOthers() {
+        int[] runs = {0};
+        IllegalStateException failure = new IllegalStateException();
+        timingWheel.runLater(1, () -> {
+            throw failure;
+        });
+        timingWheel.runLater(1, () -> runs[0]++);
+        advance(1);
+        assertEquals(1, runs[0]);
+        assertEquals(1, errors.size());
+        assertSame(failure, errors.get(0));
+    }
+}